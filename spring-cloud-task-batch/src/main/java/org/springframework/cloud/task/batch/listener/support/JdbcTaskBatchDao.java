@@ -39,7 +39,7 @@ public class JdbcTaskBatchDao implements TaskBatchDao {
 
 	private static final String INSERT_STATEMENT = "INSERT INTO %PREFIX%TASK_BATCH VALUES(?, ?)";
 
-	private String tablePrefix = TaskProperties.DEFAULT_TABLE_PREFIX;
+	private final String insertStatement;
 
 	private JdbcOperations jdbcTemplate;
 
@@ -49,9 +49,11 @@ public class JdbcTaskBatchDao implements TaskBatchDao {
 	 * @param tablePrefix the table prefix to use for this dao.
 	 */
 	public JdbcTaskBatchDao(DataSource dataSource, String tablePrefix) {
-		this(dataSource);
+		Assert.notNull(dataSource, "A dataSource is required");
 		Assert.hasText(tablePrefix, "tablePrefix must not be null nor empty.");
-		this.tablePrefix = tablePrefix;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.insertStatement = StringUtils.replace(INSERT_STATEMENT, "%PREFIX%",
+				tablePrefix);
 	}
 
 	/**
@@ -60,21 +62,15 @@ public class JdbcTaskBatchDao implements TaskBatchDao {
 	 * @param dataSource {@link DataSource} where the task batch table resides.
 	 */
 	public JdbcTaskBatchDao(DataSource dataSource) {
-		Assert.notNull(dataSource, "A dataSource is required");
-
-		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this(dataSource, TaskProperties.DEFAULT_TABLE_PREFIX);
 	}
 
 	@Override
 	public void saveRelationship(TaskExecution taskExecution, JobExecution jobExecution) {
 		Assert.notNull(taskExecution, "A taskExecution is required");
 		Assert.notNull(jobExecution, "A jobExecution is required");
-		this.jdbcTemplate.update(getQuery(INSERT_STATEMENT),
-				taskExecution.getExecutionId(), jobExecution.getId());
-	}
-
-	private String getQuery(String base) {
-		return StringUtils.replace(base, "%PREFIX%", this.tablePrefix);
+		this.jdbcTemplate.update(this.insertStatement, taskExecution.getExecutionId(),
+				jobExecution.getId());
 	}
 
 }
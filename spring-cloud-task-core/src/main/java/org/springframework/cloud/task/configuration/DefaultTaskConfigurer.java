@@ -27,6 +27,7 @@ import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
+import org.springframework.cloud.task.repository.support.ReadReplicaTaskExplorer;
 import org.springframework.cloud.task.repository.support.SimpleTaskExplorer;
 import org.springframework.cloud.task.repository.support.SimpleTaskRepository;
 import org.springframework.cloud.task.repository.support.TaskExecutionDaoFactoryBean;
@@ -34,6 +35,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.Assert;
 
 /**
  * Default implementation of the TaskConfigurer interface. If no {@link TaskConfigurer}
@@ -44,6 +46,9 @@ import org.springframework.transaction.PlatformTransactionManager;
  * data source is present then a data will be stored in the database
  * {@link JdbcTaskExecutionDao} else it will be stored in a map
  * {@link MapTaskExecutionDao}.
+ * <li>{@link SimpleTaskExplorer} is the default {@link TaskExplorer} returned. If a
+ * separate explorer data source is provided, the explorer reads from it through a
+ * {@link ReadReplicaTaskExplorer}.
  * </ul>
  *
  * @author Glenn Renfro
@@ -98,6 +103,51 @@ public class DefaultTaskConfigurer implements TaskConfigurer {
 	 */
 	public DefaultTaskConfigurer(DataSource dataSource, String tablePrefix,
 			ApplicationContext context) {
+		this(dataSource, dataSource, tablePrefix, context);
+	}
+
+	/**
+	 * Initializes the DefaultTaskConfigurer with a separate {@link DataSource} for the
+	 * {@link TaskExplorer}, typically a read-only replica of the task repository. This
+	 * constructor is the way to opt in to reading from a replica; the
+	 * {@link TaskConfigurer} contract itself only exposes the task data source.
+	 * @param dataSource references the {@link DataSource} to be used as the Task
+	 * repository. If none is provided, a Map will be used (not recommended for production
+	 * use).
+	 * @param explorerDataSource references the {@link DataSource} the task explorer reads
+	 * from. If it is null or the same as the dataSource, the task explorer reads from the
+	 * dataSource.
+	 * @param tablePrefix the prefix to apply to the task table names used by task
+	 * infrastructure.
+	 * @param context the context to be used.
+	 * @since 3.0.0
+	 */
+	public DefaultTaskConfigurer(DataSource dataSource, DataSource explorerDataSource,
+			String tablePrefix, ApplicationContext context) {
+		this(dataSource, explorerDataSource, tablePrefix, context, null);
+	}
+
+	/**
+	 * Initializes the DefaultTaskConfigurer with the table prefix and the task repository
+	 * settings of the {@link TaskProperties}.
+	 * @param dataSource references the {@link DataSource} to be used as the Task
+	 * repository. If none is provided, a Map will be used (not recommended for production
+	 * use).
+	 * @param taskProperties the properties configuring the task repository.
+	 * @param context the context to be used.
+	 * @since 3.0.0
+	 */
+	public DefaultTaskConfigurer(DataSource dataSource, TaskProperties taskProperties,
+			ApplicationContext context) {
+		this(dataSource, dataSource, taskProperties.getTablePrefix(), context,
+				taskProperties);
+	}
+
+	private DefaultTaskConfigurer(DataSource dataSource, DataSource explorerDataSource,
+			String tablePrefix, ApplicationContext context,
+			TaskProperties taskProperties) {
+		Assert.isTrue(explorerDataSource == null || dataSource != null,
+				"dataSource must not be null when an explorerDataSource is provided");
 		this.dataSource = dataSource;
 		this.context = context;
 
@@ -110,9 +160,41 @@ public class DefaultTaskConfigurer implements TaskConfigurer {
 		else {
 			taskExecutionDaoFactoryBean = new TaskExecutionDaoFactoryBean();
 		}
+		if (taskProperties != null) {
+			configure(taskExecutionDaoFactoryBean, taskProperties);
+		}
 
 		this.taskRepository = new SimpleTaskRepository(taskExecutionDaoFactoryBean);
 		this.taskExplorer = new SimpleTaskExplorer(taskExecutionDaoFactoryBean);
+		if (explorerDataSource != null && explorerDataSource != this.dataSource) {
+			TaskExecutionDaoFactoryBean explorerFactoryBean = new TaskExecutionDaoFactoryBean(
+					explorerDataSource, tablePrefix);
+			if (taskProperties != null) {
+				configure(explorerFactoryBean, taskProperties);
+			}
+			this.taskExplorer = new ReadReplicaTaskExplorer(
+					new SimpleTaskExplorer(explorerFactoryBean), this.taskExplorer);
+		}
+	}
+
+	/**
+	 * Applies the task repository settings of the {@link TaskProperties} to the factory
+	 * bean of the {@link org.springframework.cloud.task.repository.dao.TaskExecutionDao}.
+	 */
+	private static void configure(TaskExecutionDaoFactoryBean taskExecutionDaoFactoryBean,
+			TaskProperties taskProperties) {
+		taskExecutionDaoFactoryBean
+				.setLazyArgumentLoading(taskProperties.isLazyArgumentLoadingEnabled());
+		taskExecutionDaoFactoryBean.setIdBlockSize(taskProperties.getIdBlockSize());
+		taskExecutionDaoFactoryBean
+				.setEstimatedCountEnabled(taskProperties.isEstimatedCountEnabled());
+		taskExecutionDaoFactoryBean
+				.setStreamFetchSize(taskProperties.getStreamFetchSize());
+		taskExecutionDaoFactoryBean.setSummaryEnabled(taskProperties.isSummaryEnabled());
+		taskExecutionDaoFactoryBean
+				.setJournalDirectory(taskProperties.getJournalDirectory());
+		taskExecutionDaoFactoryBean
+				.setJournalSegmentSize(taskProperties.getJournalSegmentSize());
 	}
 
 	@Override
@@ -16,12 +16,15 @@
 
 package org.springframework.cloud.task.configuration;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 
 import javax.sql.DataSource;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -32,8 +35,13 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.TaskNameResolver;
 import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
+import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
+import org.springframework.cloud.task.repository.support.CachingTaskExplorer;
 import org.springframework.cloud.task.repository.support.SimpleTaskNameResolver;
+import org.springframework.cloud.task.repository.support.SimpleTaskRepository;
 import org.springframework.cloud.task.repository.support.TaskRepositoryInitializer;
+import org.springframework.cloud.task.repository.support.WriteBehindTaskRepository;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -79,6 +87,8 @@ public class SimpleTaskAutoConfiguration {
 
 	private TaskExplorer taskExplorer;
 
+	private TaskExecutionDao taskExecutionDao;
+
 	@Bean
 	public TaskRepository taskRepository() {
 		return this.taskRepository;
@@ -127,11 +137,58 @@ public class SimpleTaskAutoConfiguration {
 				taskConfigurer.getClass().getName()));
 
 		this.taskRepository = taskConfigurer.getTaskRepository();
+		if (this.taskRepository instanceof SimpleTaskRepository) {
+			this.taskExecutionDao = ((SimpleTaskRepository) this.taskRepository)
+					.getTaskExecutionDao();
+		}
+		boundMapRepository();
+		if (this.taskProperties.isWriteBehindEnabled()) {
+			this.taskRepository = new WriteBehindTaskRepository(this.taskRepository,
+					this.taskProperties.getWriteBehindQueueCapacity());
+		}
 		this.platformTransactionManager = taskConfigurer.getTransactionManager();
 		this.taskExplorer = taskConfigurer.getTaskExplorer();
+		if (this.taskProperties.isExplorerCacheEnabled()) {
+			this.taskExplorer = new CachingTaskExplorer(this.taskExplorer,
+					this.taskProperties.getExplorerCacheMaxSize(),
+					this.taskProperties.getExplorerCacheTimeToLive());
+		}
 		this.initialized = true;
 	}
 
+	/**
+	 * Closes the {@link TaskExecutionDao} of the task repository if it holds resources,
+	 * such as the journal of a {@code JournalTaskExecutionDao}. Runs after the task
+	 * repository bean is destroyed, so that pending writes are flushed first.
+	 */
+	@PreDestroy
+	protected void closeTaskExecutionDao() {
+		if (this.taskExecutionDao instanceof Closeable) {
+			try {
+				((Closeable) this.taskExecutionDao).close();
+			}
+			catch (IOException e) {
+				logger.warn("Unable to close the task execution dao", e);
+			}
+		}
+	}
+
+	/**
+	 * Applies the configured bounds to the Map based task repository, if one is used.
+	 */
+	private void boundMapRepository() {
+		if (this.taskProperties.getMapRepositoryMaxEntries() == 0
+				&& this.taskProperties.getMapRepositoryMaxAge() == null) {
+			return;
+		}
+		if (this.taskExecutionDao instanceof MapTaskExecutionDao) {
+			MapTaskExecutionDao mapTaskExecutionDao = (MapTaskExecutionDao) this.taskExecutionDao;
+			mapTaskExecutionDao
+					.setMaxEntries(this.taskProperties.getMapRepositoryMaxEntries());
+			mapTaskExecutionDao.setMaxAge(this.taskProperties.getMapRepositoryMaxAge());
+		}
+	}
+
 	private TaskConfigurer getDefaultConfigurer() {
 		verifyEnvironment();
 
@@ -142,12 +199,12 @@ public class SimpleTaskAutoConfiguration {
 			if (!CollectionUtils.isEmpty(this.dataSources)
 					&& this.dataSources.size() == 1) {
 				taskConfigurer = new DefaultTaskConfigurer(
-						this.dataSources.iterator().next(),
-						this.taskProperties.getTablePrefix(), this.context);
+						this.dataSources.iterator().next(), this.taskProperties,
+						this.context);
 			}
 			else {
-				taskConfigurer = new DefaultTaskConfigurer(
-						this.taskProperties.getTablePrefix());
+				taskConfigurer = new DefaultTaskConfigurer(null, this.taskProperties,
+						this.context);
 			}
 			this.context.getBeanFactory().registerSingleton("taskConfigurer",
 					taskConfigurer);
@@ -16,10 +16,15 @@
 
 package org.springframework.cloud.task.configuration;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
+import org.springframework.cloud.task.repository.dao.JournalTaskExecutionDao;
 
 /**
  * Properties available to configure the task.
@@ -38,6 +43,17 @@ public class TaskProperties {
 
 	private static final int DEFAULT_CHECK_INTERVAL = 500;
 
+	private static final int DEFAULT_WRITE_BEHIND_QUEUE_CAPACITY = 100;
+
+	private static final int DEFAULT_PURGE_CHUNK_SIZE = 500;
+
+	private static final Duration DEFAULT_PURGE_INTERVAL = Duration.ofHours(1);
+
+	private static final int DEFAULT_EXPLORER_CACHE_MAX_SIZE = 1000;
+
+	private static final Duration DEFAULT_EXPLORER_CACHE_TIME_TO_LIVE = Duration
+			.ofMinutes(10);
+
 	private static final Log logger = LogFactory.getLog(TaskProperties.class);
 
 	/**
@@ -96,6 +112,135 @@ public class TaskProperties {
 	 */
 	private Boolean initializeEnabled;
 
+	/**
+	 * When set to true the task repository acknowledges task execution start and external
+	 * execution id updates immediately and persists them from a background writer.
+	 * Pending writes are flushed before the task execution is completed. Defaults to
+	 * false.
+	 */
+	private boolean writeBehindEnabled = false;
+
+	/**
+	 * The maximum number of task repository writes waiting to be persisted when
+	 * write-behind-enabled is set to true. Default is 100.
+	 */
+	private int writeBehindQueueCapacity = DEFAULT_WRITE_BEHIND_QUEUE_CAPACITY;
+
+	/**
+	 * When set to true task executions are periodically removed from the task repository
+	 * according to purge-retention and purge-max-executions-per-task-name. Defaults to
+	 * false.
+	 */
+	private boolean purgeEnabled = false;
+
+	/**
+	 * Task executions that ended longer ago than this are removed by the purge. Defaults
+	 * to null, keeping task executions regardless of their age.
+	 */
+	private Duration purgeRetention;
+
+	/**
+	 * The number of latest task executions kept for each task name by the purge, older
+	 * ended task executions are removed. Defaults to null, keeping all of them.
+	 */
+	private Integer purgeMaxExecutionsPerTaskName;
+
+	/**
+	 * The maximum number of task executions removed per transaction by the purge.
+	 * Default is 500.
+	 */
+	private int purgeChunkSize = DEFAULT_PURGE_CHUNK_SIZE;
+
+	/**
+	 * The time between the end of a purge and the start of the next one. Default is 1
+	 * hour.
+	 */
+	private Duration purgeInterval = DEFAULT_PURGE_INTERVAL;
+
+	/**
+	 * When set to true the task executions past purge-retention are moved to the archive
+	 * tables instead of being removed. Can not be combined with
+	 * purge-max-executions-per-task-name. Defaults to false.
+	 */
+	private boolean purgeArchiveEnabled = false;
+
+	/**
+	 * When set to true the task explorer caches the task executions that have ended, the
+	 * task names and the links between task and job executions. Defaults to false.
+	 */
+	private boolean explorerCacheEnabled = false;
+
+	/**
+	 * The maximum number of entries of each task explorer cache when
+	 * explorer-cache-enabled is set to true. Default is 1000.
+	 */
+	private int explorerCacheMaxSize = DEFAULT_EXPLORER_CACHE_MAX_SIZE;
+
+	/**
+	 * The time an entry stays in the task explorer cache when explorer-cache-enabled is
+	 * set to true. Default is 10 minutes.
+	 */
+	private Duration explorerCacheTimeToLive = DEFAULT_EXPLORER_CACHE_TIME_TO_LIVE;
+
+	/**
+	 * The maximum number of task executions kept by the Map based task repository used
+	 * when no DataSource is available. Beyond it the completed task executions are
+	 * evicted, oldest end time first. Defaults to 0, no maximum.
+	 */
+	private int mapRepositoryMaxEntries = 0;
+
+	/**
+	 * How long the Map based task repository used when no DataSource is available keeps
+	 * a task execution after it has completed. Defaults to no maximum.
+	 */
+	private Duration mapRepositoryMaxAge;
+
+	/**
+	 * When set to true the task executions returned by the list and page queries of the
+	 * JDBC based task repository load their arguments on first access, for all the task
+	 * executions of the result at once. Defaults to false.
+	 */
+	private boolean lazyArgumentLoadingEnabled = false;
+
+	/**
+	 * The number of task execution ids the JDBC based task repository reserves with a
+	 * single database round trip. On databases that use the TASK_SEQ sequence, the
+	 * sequence must be incremented by at least this value. Defaults to 1.
+	 */
+	private int idBlockSize = 1;
+
+	/**
+	 * When set to true the total count of an unfiltered page of task executions is read
+	 * from the statistics of the database instead of counting the rows of the task
+	 * execution table. Defaults to false.
+	 */
+	private boolean estimatedCountEnabled = false;
+
+	/**
+	 * The number of rows fetched per round trip when the JDBC based task repository
+	 * streams task executions. Defaults to 500.
+	 */
+	private int streamFetchSize = JdbcTaskExecutionDao.DEFAULT_STREAM_FETCH_SIZE;
+
+	/**
+	 * When set to true the JDBC based task repository maintains the
+	 * TASK_EXECUTION_SUMMARY table and reads the task execution counts and task names
+	 * from it. Defaults to false.
+	 */
+	private boolean summaryEnabled = false;
+
+	/**
+	 * The directory the task executions are journaled to when no DataSource is present,
+	 * so that the Map based task repository survives a restart. Not set by default, in
+	 * which case the task executions are only kept in memory.
+	 */
+	private Path journalDirectory;
+
+	/**
+	 * The size in bytes of the segment files of the journal. Defaults to 16MB.
+	 */
+	private int journalSegmentSize = JournalTaskExecutionDao.DEFAULT_SEGMENT_SIZE;
+
 	public String getExternalExecutionId() {
 		return this.externalExecutionId;
 	}
@@ -168,4 +313,164 @@ public class TaskProperties {
 		this.initializeEnabled = initializeEnabled;
 	}
 
+	public boolean isWriteBehindEnabled() {
+		return this.writeBehindEnabled;
+	}
+
+	public void setWriteBehindEnabled(boolean writeBehindEnabled) {
+		this.writeBehindEnabled = writeBehindEnabled;
+	}
+
+	public int getWriteBehindQueueCapacity() {
+		return this.writeBehindQueueCapacity;
+	}
+
+	public void setWriteBehindQueueCapacity(int writeBehindQueueCapacity) {
+		this.writeBehindQueueCapacity = writeBehindQueueCapacity;
+	}
+
+	public boolean isPurgeEnabled() {
+		return this.purgeEnabled;
+	}
+
+	public void setPurgeEnabled(boolean purgeEnabled) {
+		this.purgeEnabled = purgeEnabled;
+	}
+
+	public Duration getPurgeRetention() {
+		return this.purgeRetention;
+	}
+
+	public void setPurgeRetention(Duration purgeRetention) {
+		this.purgeRetention = purgeRetention;
+	}
+
+	public Integer getPurgeMaxExecutionsPerTaskName() {
+		return this.purgeMaxExecutionsPerTaskName;
+	}
+
+	public void setPurgeMaxExecutionsPerTaskName(Integer purgeMaxExecutionsPerTaskName) {
+		this.purgeMaxExecutionsPerTaskName = purgeMaxExecutionsPerTaskName;
+	}
+
+	public int getPurgeChunkSize() {
+		return this.purgeChunkSize;
+	}
+
+	public void setPurgeChunkSize(int purgeChunkSize) {
+		this.purgeChunkSize = purgeChunkSize;
+	}
+
+	public Duration getPurgeInterval() {
+		return this.purgeInterval;
+	}
+
+	public void setPurgeInterval(Duration purgeInterval) {
+		this.purgeInterval = purgeInterval;
+	}
+
+	public boolean isPurgeArchiveEnabled() {
+		return this.purgeArchiveEnabled;
+	}
+
+	public void setPurgeArchiveEnabled(boolean purgeArchiveEnabled) {
+		this.purgeArchiveEnabled = purgeArchiveEnabled;
+	}
+
+	public boolean isExplorerCacheEnabled() {
+		return this.explorerCacheEnabled;
+	}
+
+	public void setExplorerCacheEnabled(boolean explorerCacheEnabled) {
+		this.explorerCacheEnabled = explorerCacheEnabled;
+	}
+
+	public int getExplorerCacheMaxSize() {
+		return this.explorerCacheMaxSize;
+	}
+
+	public void setExplorerCacheMaxSize(int explorerCacheMaxSize) {
+		this.explorerCacheMaxSize = explorerCacheMaxSize;
+	}
+
+	public Duration getExplorerCacheTimeToLive() {
+		return this.explorerCacheTimeToLive;
+	}
+
+	public void setExplorerCacheTimeToLive(Duration explorerCacheTimeToLive) {
+		this.explorerCacheTimeToLive = explorerCacheTimeToLive;
+	}
+
+	public int getMapRepositoryMaxEntries() {
+		return this.mapRepositoryMaxEntries;
+	}
+
+	public void setMapRepositoryMaxEntries(int mapRepositoryMaxEntries) {
+		this.mapRepositoryMaxEntries = mapRepositoryMaxEntries;
+	}
+
+	public Duration getMapRepositoryMaxAge() {
+		return this.mapRepositoryMaxAge;
+	}
+
+	public void setMapRepositoryMaxAge(Duration mapRepositoryMaxAge) {
+		this.mapRepositoryMaxAge = mapRepositoryMaxAge;
+	}
+
+	public boolean isLazyArgumentLoadingEnabled() {
+		return this.lazyArgumentLoadingEnabled;
+	}
+
+	public void setLazyArgumentLoadingEnabled(boolean lazyArgumentLoadingEnabled) {
+		this.lazyArgumentLoadingEnabled = lazyArgumentLoadingEnabled;
+	}
+
+	public int getIdBlockSize() {
+		return this.idBlockSize;
+	}
+
+	public void setIdBlockSize(int idBlockSize) {
+		this.idBlockSize = idBlockSize;
+	}
+
+	public boolean isEstimatedCountEnabled() {
+		return this.estimatedCountEnabled;
+	}
+
+	public void setEstimatedCountEnabled(boolean estimatedCountEnabled) {
+		this.estimatedCountEnabled = estimatedCountEnabled;
+	}
+
+	public int getStreamFetchSize() {
+		return this.streamFetchSize;
+	}
+
+	public void setStreamFetchSize(int streamFetchSize) {
+		this.streamFetchSize = streamFetchSize;
+	}
+
+	public boolean isSummaryEnabled() {
+		return this.summaryEnabled;
+	}
+
+	public void setSummaryEnabled(boolean summaryEnabled) {
+		this.summaryEnabled = summaryEnabled;
+	}
+
+	public Path getJournalDirectory() {
+		return this.journalDirectory;
+	}
+
+	public void setJournalDirectory(Path journalDirectory) {
+		this.journalDirectory = journalDirectory;
+	}
+
+	public int getJournalSegmentSize() {
+		return this.journalSegmentSize;
+	}
+
+	public void setJournalSegmentSize(int journalSegmentSize) {
+		this.journalSegmentSize = journalSegmentSize;
+	}
+
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.configuration;
+
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.repository.support.TaskRepositoryPurger;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.Assert;
+
+/**
+ * Autoconfiguration of the {@link TaskRepositoryPurger} that periodically removes or
+ * archives task executions from the task repository.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties({ TaskProperties.class })
+@AutoConfigureAfter(SimpleTaskAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "spring.cloud.task", name = "purge-enabled",
+		havingValue = "true")
+public class TaskRepositoryPurgeAutoConfiguration {
+
+	@Bean
+	@ConditionalOnBean(TaskRepository.class)
+	@ConditionalOnMissingBean
+	public TaskRepositoryPurger taskRepositoryPurger(TaskRepository taskRepository,
+			TaskProperties taskProperties) {
+		Assert.state(
+				taskProperties.getPurgeRetention() != null
+						|| taskProperties.getPurgeMaxExecutionsPerTaskName() != null,
+				"spring.cloud.task.purge-retention or "
+						+ "spring.cloud.task.purge-max-executions-per-task-name must be "
+						+ "set when spring.cloud.task.purge-enabled is true");
+		Assert.state(
+				!taskProperties.isPurgeArchiveEnabled()
+						|| taskProperties.getPurgeMaxExecutionsPerTaskName() == null,
+				"spring.cloud.task.purge-max-executions-per-task-name can not be set "
+						+ "when spring.cloud.task.purge-archive-enabled is true");
+		TaskRepositoryPurger purger = new TaskRepositoryPurger(taskRepository);
+		purger.setRetention(taskProperties.getPurgeRetention());
+		purger.setMaxExecutionsPerTaskName(
+				taskProperties.getPurgeMaxExecutionsPerTaskName());
+		purger.setChunkSize(taskProperties.getPurgeChunkSize());
+		purger.setInterval(taskProperties.getPurgeInterval());
+		purger.setArchive(taskProperties.isPurgeArchiveEnabled());
+		return purger;
+	}
+
+}
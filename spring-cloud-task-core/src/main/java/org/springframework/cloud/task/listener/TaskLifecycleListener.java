@@ -198,10 +198,7 @@ public class TaskLifecycleListener implements ApplicationListener<ApplicationEve
 			}
 
 			setExitMessage(invokeOnTaskEnd(this.taskExecution));
-			this.taskRepository.completeTaskExecution(this.taskExecution.getExecutionId(),
-					this.taskExecution.getExitCode(), this.taskExecution.getEndTime(),
-					this.taskExecution.getExitMessage(),
-					this.taskExecution.getErrorMessage());
+			this.taskRepository.completeTaskExecution(this.taskExecution);
 
 			this.finished = true;
 
@@ -271,7 +268,8 @@ public class TaskLifecycleListener implements ApplicationListener<ApplicationEve
 					args = Arrays.asList(this.applicationArguments.getSourceArgs());
 				}
 				if (this.taskProperties.getExecutionid() != null) {
-					TaskExecution taskExecution = this.taskExplorer
+					// the execution was just created by the launcher, a replica may lag
+					TaskExecution taskExecution = this.taskExplorer.readYourWrites()
 							.getTaskExecution(this.taskProperties.getExecutionid());
 					Assert.notNull(taskExecution,
 							String.format("Invalid TaskExecution, ID %s not found",
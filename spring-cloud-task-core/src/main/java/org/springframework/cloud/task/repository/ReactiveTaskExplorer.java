@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Non-blocking counterpart of {@link TaskExplorer} that allows users to query the task
+ * executions that are available.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public interface ReactiveTaskExplorer {
+
+	/**
+	 * Retrieve a {@link TaskExecution} by its id.
+	 * @param executionId the task execution id
+	 * @return the {@link TaskExecution} with this id, or an empty {@link Mono} if not
+	 * found
+	 */
+	Mono<TaskExecution> getTaskExecution(long executionId);
+
+	/**
+	 * Retrieve a collection of taskExecutions that have the task name provided.
+	 * @param taskName the name of the task
+	 * @param pageable the constraints for the search
+	 * @return the set of running executions for tasks with the specified name
+	 */
+	Mono<Page<TaskExecution>> findRunningTaskExecutions(String taskName,
+			Pageable pageable);
+
+	/**
+	 * Retrieve a list of available task names.
+	 * @return the set of task names that have been executed
+	 */
+	Flux<String> getTaskNames();
+
+	/**
+	 * Get number of executions for a taskName.
+	 * @param taskName the name of the task to be searched
+	 * @return the number of tasks that have the taskname specified
+	 */
+	Mono<Long> getTaskExecutionCountByTaskName(String taskName);
+
+	/**
+	 * Retrieves current number of task executions.
+	 * @return current number of task executions.
+	 */
+	Mono<Long> getTaskExecutionCount();
+
+	/**
+	 * Retrieves current number of running task executions.
+	 * @return current number of running task executions.
+	 */
+	Mono<Long> getRunningTaskExecutionCount();
+
+	/**
+	 * Get a collection/page of executions.
+	 * @param taskName the name of the task to be searched
+	 * @param pageable the constraints for the search
+	 * @return page of task executions
+	 */
+	Mono<Page<TaskExecution>> findTaskExecutionsByName(String taskName,
+			Pageable pageable);
+
+	/**
+	 * Retrieves all the task executions within the pageable constraints.
+	 * @param pageable the constraints for the search
+	 * @return page containing the results from the search
+	 */
+	Mono<Page<TaskExecution>> findAll(Pageable pageable);
+
+	/**
+	 * Returns the id of the TaskExecution that the requested Spring Batch job execution
+	 * was executed within the context of. Returns an empty {@link Mono} if none were
+	 * found.
+	 * @param jobExecutionId the id of the JobExecution
+	 * @return the id of the {@link TaskExecution}
+	 */
+	Mono<Long> getTaskExecutionIdByJobExecutionId(long jobExecutionId);
+
+	/**
+	 * Returns the job execution ids associated with a task execution id.
+	 * @param taskExecutionId id of the {@link TaskExecution}
+	 * @return the ids of the job executions associated with the task execution, in
+	 * ascending order
+	 */
+	Flux<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId);
+
+	/**
+	 * Returns the latest task execution for each of the given task names, ordered by
+	 * start time and then by task execution id, both descending.
+	 * @param taskNames At least 1 task name must be provided
+	 * @return the latest task execution of each task name
+	 */
+	Flux<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames);
+
+	/**
+	 * Returns the latest task execution for a given task name.
+	 * @param taskName Must not be null or empty
+	 * @return The latest Task Execution, or an empty {@link Mono} if none was found
+	 */
+	Mono<TaskExecution> getLatestTaskExecutionForTaskName(String taskName);
+
+}
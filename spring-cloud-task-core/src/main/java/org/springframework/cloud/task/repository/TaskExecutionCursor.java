@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Objects;
+
+import org.springframework.util.Assert;
+
+/**
+ * Position in the list of task executions ordered by start time and task execution id,
+ * both descending. Used for keyset pagination: the next page contains the task
+ * executions that sort after the execution the cursor was created from.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public final class TaskExecutionCursor {
+
+	private final Date startTime;
+
+	private final long executionId;
+
+	private TaskExecutionCursor(Date startTime, long executionId) {
+		Assert.notNull(startTime, "startTime must not be null");
+		this.startTime = copy(startTime);
+		this.executionId = executionId;
+	}
+
+	/**
+	 * Creates a cursor positioned at the given start time and task execution id.
+	 * @param startTime the start time of the last task execution that was read.
+	 * @param executionId the id of the last task execution that was read.
+	 * @return the cursor.
+	 */
+	public static TaskExecutionCursor of(Date startTime, long executionId) {
+		return new TaskExecutionCursor(startTime, executionId);
+	}
+
+	/**
+	 * Creates a cursor positioned at the given task execution, typically the last one of
+	 * the previous page.
+	 * @param taskExecution the last task execution that was read.
+	 * @return the cursor.
+	 */
+	public static TaskExecutionCursor after(TaskExecution taskExecution) {
+		Assert.notNull(taskExecution, "taskExecution must not be null");
+		return new TaskExecutionCursor(taskExecution.getStartTime(),
+				taskExecution.getExecutionId());
+	}
+
+	public Date getStartTime() {
+		return copy(this.startTime);
+	}
+
+	public long getExecutionId() {
+		return this.executionId;
+	}
+
+	/**
+	 * Returns whether the task execution belongs to the pages following this cursor,
+	 * that is whether it sorts after the cursor by start time and task execution id,
+	 * both descending. Task executions that have not been started never follow a cursor.
+	 * @param taskExecution the task execution to compare with the cursor.
+	 * @return true if the task execution follows the cursor.
+	 */
+	public boolean isFollowedBy(TaskExecution taskExecution) {
+		Date startTime = taskExecution.getStartTime();
+		if (startTime == null) {
+			return false;
+		}
+		int comparison = startTime.compareTo(this.startTime);
+		return comparison < 0
+				|| (comparison == 0 && taskExecution.getExecutionId() < this.executionId);
+	}
+
+	/**
+	 * Copies the date, keeping the sub-millisecond precision of a {@link Timestamp} so
+	 * the cursor compares exactly with the stored start time.
+	 */
+	private static Date copy(Date date) {
+		if (date instanceof Timestamp) {
+			Timestamp timestamp = new Timestamp(date.getTime());
+			timestamp.setNanos(((Timestamp) date).getNanos());
+			return timestamp;
+		}
+		return new Date(date.getTime());
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		TaskExecutionCursor that = (TaskExecutionCursor) o;
+		return this.executionId == that.executionId
+				&& this.startTime.equals(that.startTime);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.startTime, this.executionId);
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionCursor{" + "startTime=" + this.startTime + ", executionId="
+				+ this.executionId + '}';
+	}
+
+}
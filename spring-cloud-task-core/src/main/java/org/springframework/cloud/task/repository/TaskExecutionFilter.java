@@ -0,0 +1,246 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import java.util.Date;
+
+/**
+ * Criteria restricting the task executions returned by a query. Criteria that are not
+ * set (null) do not restrict the result, an empty filter matches all task executions.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class TaskExecutionFilter {
+
+	private String taskName;
+
+	private Boolean running;
+
+	private Integer exitCode;
+
+	private Boolean failed;
+
+	private Date startTimeFrom;
+
+	private Date startTimeTo;
+
+	private Date endTimeFrom;
+
+	private Date endTimeTo;
+
+	private String externalExecutionId;
+
+	private Long parentExecutionId;
+
+	private Boolean errorMessagePresent;
+
+	private boolean includeArchived;
+
+	/**
+	 * @return the task name the task executions must have, or null
+	 */
+	public String getTaskName() {
+		return this.taskName;
+	}
+
+	/**
+	 * @param taskName the task name the task executions must have
+	 */
+	public void setTaskName(String taskName) {
+		this.taskName = taskName;
+	}
+
+	/**
+	 * @return true to match running task executions only, false to match completed task
+	 * executions only, or null
+	 */
+	public Boolean getRunning() {
+		return this.running;
+	}
+
+	/**
+	 * A task execution is running if it does not have an end time.
+	 * @param running true to match running task executions only, false to match
+	 * completed task executions only
+	 */
+	public void setRunning(Boolean running) {
+		this.running = running;
+	}
+
+	/**
+	 * @return the exit code the task executions must have, or null
+	 */
+	public Integer getExitCode() {
+		return this.exitCode;
+	}
+
+	/**
+	 * @param exitCode the exit code the task executions must have
+	 */
+	public void setExitCode(Integer exitCode) {
+		this.exitCode = exitCode;
+	}
+
+	/**
+	 * @return true to match failed task executions only, false to match successful task
+	 * executions only, or null
+	 */
+	public Boolean getFailed() {
+		return this.failed;
+	}
+
+	/**
+	 * A task execution has failed if it completed with an exit code other than 0.
+	 * Running task executions are neither failed nor successful.
+	 * @param failed true to match failed task executions only, false to match successful
+	 * task executions only
+	 */
+	public void setFailed(Boolean failed) {
+		this.failed = failed;
+	}
+
+	/**
+	 * @return the earliest start time (inclusive) of the task executions, or null
+	 */
+	public Date getStartTimeFrom() {
+		return this.startTimeFrom;
+	}
+
+	/**
+	 * @param startTimeFrom the earliest start time (inclusive) of the task executions
+	 */
+	public void setStartTimeFrom(Date startTimeFrom) {
+		this.startTimeFrom = startTimeFrom;
+	}
+
+	/**
+	 * @return the latest start time (exclusive) of the task executions, or null
+	 */
+	public Date getStartTimeTo() {
+		return this.startTimeTo;
+	}
+
+	/**
+	 * @param startTimeTo the latest start time (exclusive) of the task executions
+	 */
+	public void setStartTimeTo(Date startTimeTo) {
+		this.startTimeTo = startTimeTo;
+	}
+
+	/**
+	 * @return the earliest end time (inclusive) of the task executions, or null
+	 */
+	public Date getEndTimeFrom() {
+		return this.endTimeFrom;
+	}
+
+	/**
+	 * @param endTimeFrom the earliest end time (inclusive) of the task executions
+	 */
+	public void setEndTimeFrom(Date endTimeFrom) {
+		this.endTimeFrom = endTimeFrom;
+	}
+
+	/**
+	 * @return the latest end time (exclusive) of the task executions, or null
+	 */
+	public Date getEndTimeTo() {
+		return this.endTimeTo;
+	}
+
+	/**
+	 * @param endTimeTo the latest end time (exclusive) of the task executions
+	 */
+	public void setEndTimeTo(Date endTimeTo) {
+		this.endTimeTo = endTimeTo;
+	}
+
+	/**
+	 * @return the external execution id the task executions must have, or null
+	 */
+	public String getExternalExecutionId() {
+		return this.externalExecutionId;
+	}
+
+	/**
+	 * @param externalExecutionId the external execution id the task executions must have
+	 */
+	public void setExternalExecutionId(String externalExecutionId) {
+		this.externalExecutionId = externalExecutionId;
+	}
+
+	/**
+	 * @return the id of the parent task execution the task executions must have, or null
+	 */
+	public Long getParentExecutionId() {
+		return this.parentExecutionId;
+	}
+
+	/**
+	 * @param parentExecutionId the id of the parent task execution the task executions
+	 * must have
+	 */
+	public void setParentExecutionId(Long parentExecutionId) {
+		this.parentExecutionId = parentExecutionId;
+	}
+
+	/**
+	 * @return true to match task executions with an error message only, false to match
+	 * task executions without an error message only, or null
+	 */
+	public Boolean getErrorMessagePresent() {
+		return this.errorMessagePresent;
+	}
+
+	/**
+	 * @param errorMessagePresent true to match task executions with an error message
+	 * only, false to match task executions without an error message only
+	 */
+	public void setErrorMessagePresent(Boolean errorMessagePresent) {
+		this.errorMessagePresent = errorMessagePresent;
+	}
+
+	/**
+	 * @return true if the archived task executions are searched as well
+	 */
+	public boolean isIncludeArchived() {
+		return this.includeArchived;
+	}
+
+	/**
+	 * Archived task executions are only returned if requested, the other criteria apply
+	 * to them as to the task executions in the task repository. Defaults to false.
+	 * @param includeArchived true to search the archived task executions as well
+	 */
+	public void setIncludeArchived(boolean includeArchived) {
+		this.includeArchived = includeArchived;
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionFilter{" + "taskName='" + this.taskName + '\''
+				+ ", running=" + this.running + ", exitCode=" + this.exitCode + ", failed="
+				+ this.failed + ", startTimeFrom=" + this.startTimeFrom + ", startTimeTo="
+				+ this.startTimeTo + ", endTimeFrom=" + this.endTimeFrom + ", endTimeTo="
+				+ this.endTimeTo + ", externalExecutionId='" + this.externalExecutionId
+				+ '\'' + ", parentExecutionId=" + this.parentExecutionId
+				+ ", errorMessagePresent=" + this.errorMessagePresent + ", includeArchived="
+				+ this.includeArchived + '}';
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+/**
+ * Number of rows removed from each of the task repository tables by a purge of task
+ * executions.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public final class TaskExecutionPurgeResult {
+
+	/**
+	 * Result of a purge that did not remove anything.
+	 */
+	public static final TaskExecutionPurgeResult NONE = new TaskExecutionPurgeResult(0,
+			0, 0);
+
+	private final long taskExecutions;
+
+	private final long taskExecutionParams;
+
+	private final long taskBatchAssociations;
+
+	/**
+	 * Creates a result from the number of removed rows.
+	 * @param taskExecutions the number of removed task executions.
+	 * @param taskExecutionParams the number of removed task execution arguments.
+	 * @param taskBatchAssociations the number of removed associations between task
+	 * executions and job executions.
+	 */
+	public TaskExecutionPurgeResult(long taskExecutions, long taskExecutionParams,
+			long taskBatchAssociations) {
+		this.taskExecutions = taskExecutions;
+		this.taskExecutionParams = taskExecutionParams;
+		this.taskBatchAssociations = taskBatchAssociations;
+	}
+
+	public long getTaskExecutions() {
+		return this.taskExecutions;
+	}
+
+	public long getTaskExecutionParams() {
+		return this.taskExecutionParams;
+	}
+
+	public long getTaskBatchAssociations() {
+		return this.taskBatchAssociations;
+	}
+
+	/**
+	 * Adds the rows removed by another purge to the rows removed by this one.
+	 * @param other the result of the other purge.
+	 * @return a new result holding the sum of both.
+	 */
+	public TaskExecutionPurgeResult add(TaskExecutionPurgeResult other) {
+		return new TaskExecutionPurgeResult(this.taskExecutions + other.taskExecutions,
+				this.taskExecutionParams + other.taskExecutionParams,
+				this.taskBatchAssociations + other.taskBatchAssociations);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		TaskExecutionPurgeResult that = (TaskExecutionPurgeResult) o;
+		return this.taskExecutions == that.taskExecutions
+				&& this.taskExecutionParams == that.taskExecutionParams
+				&& this.taskBatchAssociations == that.taskBatchAssociations;
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(this.taskExecutions) * 31 * 31
+				+ Long.hashCode(this.taskExecutionParams) * 31
+				+ Long.hashCode(this.taskBatchAssociations);
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionPurgeResult{" + "taskExecutions=" + this.taskExecutions
+				+ ", taskExecutionParams=" + this.taskExecutionParams
+				+ ", taskBatchAssociations=" + this.taskBatchAssociations + '}';
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+/**
+ * The task executions updated after a {@link TaskExecutionWatermark}, ordered by the
+ * time they were last updated and task execution id, along with the watermark following
+ * each of them.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public final class TaskExecutionUpdates {
+
+	private final TaskExecutionWatermark watermark;
+
+	private final List<TaskExecution> taskExecutions;
+
+	private final List<Date> lastUpdated;
+
+	/**
+	 * Initializes the TaskExecutionUpdates.
+	 * @param watermark the watermark the task executions were read after.
+	 * @param taskExecutions the task executions updated after the watermark.
+	 * @param lastUpdated the time each of the task executions was last updated.
+	 */
+	public TaskExecutionUpdates(TaskExecutionWatermark watermark,
+			List<TaskExecution> taskExecutions, List<Date> lastUpdated) {
+		Assert.notNull(watermark, "watermark must not be null");
+		Assert.notNull(taskExecutions, "taskExecutions must not be null");
+		Assert.notNull(lastUpdated, "lastUpdated must not be null");
+		Assert.isTrue(taskExecutions.size() == lastUpdated.size(),
+				"a last updated time is required for each task execution");
+		this.watermark = watermark;
+		this.taskExecutions = Collections.unmodifiableList(new ArrayList<>(taskExecutions));
+		this.lastUpdated = new ArrayList<>(lastUpdated);
+	}
+
+	/**
+	 * Returns the task executions updated after the watermark.
+	 * @return the task executions, oldest update first.
+	 */
+	public List<TaskExecution> getTaskExecutions() {
+		return this.taskExecutions;
+	}
+
+	/**
+	 * Returns the watermark to read the next task executions after, positioned after the
+	 * last of the task executions or, if there are none, at the watermark they were read
+	 * after.
+	 * @return the watermark following the task executions.
+	 */
+	public TaskExecutionWatermark getWatermark() {
+		return this.taskExecutions.isEmpty() ? this.watermark
+				: getWatermark(this.taskExecutions.size() - 1);
+	}
+
+	/**
+	 * Returns the watermark positioned after the task execution at the given index, for
+	 * callers that stop before processing all the task executions.
+	 * @param index the index of the last task execution processed.
+	 * @return the watermark following that task execution.
+	 */
+	public TaskExecutionWatermark getWatermark(int index) {
+		return TaskExecutionWatermark.of(this.lastUpdated.get(index),
+				this.taskExecutions.get(index).getExecutionId());
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionUpdates{" + "watermark=" + this.watermark
+				+ ", taskExecutions=" + this.taskExecutions + '}';
+	}
+
+}
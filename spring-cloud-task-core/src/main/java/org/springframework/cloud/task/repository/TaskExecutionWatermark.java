@@ -0,0 +1,111 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Objects;
+
+import org.springframework.util.Assert;
+
+/**
+ * Position in the list of task executions ordered by the time they were last updated and
+ * task execution id, both ascending. Used to poll the task executions updated since the
+ * previous poll: the task executions returned are the ones that sort after the
+ * watermark.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public final class TaskExecutionWatermark {
+
+	private final Date lastUpdated;
+
+	private final long executionId;
+
+	private TaskExecutionWatermark(Date lastUpdated, long executionId) {
+		Assert.notNull(lastUpdated, "lastUpdated must not be null");
+		this.lastUpdated = copy(lastUpdated);
+		this.executionId = executionId;
+	}
+
+	/**
+	 * Creates a watermark positioned at the given update time and task execution id.
+	 * @param lastUpdated the time the last task execution that was read was updated.
+	 * @param executionId the id of the last task execution that was read.
+	 * @return the watermark.
+	 */
+	public static TaskExecutionWatermark of(Date lastUpdated, long executionId) {
+		return new TaskExecutionWatermark(lastUpdated, executionId);
+	}
+
+	/**
+	 * Creates a watermark positioned before every task execution updated at or after the
+	 * given time.
+	 * @param since the earliest update time of the task executions to read.
+	 * @return the watermark.
+	 */
+	public static TaskExecutionWatermark since(Date since) {
+		return new TaskExecutionWatermark(since, Long.MIN_VALUE);
+	}
+
+	public Date getLastUpdated() {
+		return copy(this.lastUpdated);
+	}
+
+	public long getExecutionId() {
+		return this.executionId;
+	}
+
+	/**
+	 * Copies the date, keeping the sub-millisecond precision of a {@link Timestamp} so
+	 * the watermark compares exactly with the stored update time.
+	 */
+	private static Date copy(Date date) {
+		if (date instanceof Timestamp) {
+			Timestamp timestamp = new Timestamp(date.getTime());
+			timestamp.setNanos(((Timestamp) date).getNanos());
+			return timestamp;
+		}
+		return new Date(date.getTime());
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		TaskExecutionWatermark that = (TaskExecutionWatermark) o;
+		return this.executionId == that.executionId
+				&& this.lastUpdated.equals(that.lastUpdated);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.lastUpdated, this.executionId);
+	}
+
+	@Override
+	public String toString() {
+		return "TaskExecutionWatermark{" + "lastUpdated=" + this.lastUpdated
+				+ ", executionId=" + this.executionId + '}';
+	}
+
+}
@@ -16,10 +16,14 @@
 
 package org.springframework.cloud.task.repository;
 
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 /**
@@ -87,6 +91,88 @@ public interface TaskExplorer {
 	 */
 	Page<TaskExecution> findAll(Pageable pageable);
 
+	/**
+	 * Retrieves the task executions that follow the cursor sorted by start date
+	 * descending, taskExecution id descending. Pass
+	 * {@link TaskExecutionCursor#after(TaskExecution)} of the last task execution
+	 * returned to read the next page. Task executions that have not been started are
+	 * not returned. The default implementation walks the pages of
+	 * {@link #findAll(Pageable)} from the first one, which returns the task executions in
+	 * that order; implementations should override it to seek to the cursor directly.
+	 * @param cursor the position to continue from, or null to read the first page
+	 * @param size the maximum number of task executions to return
+	 * @return the task executions following the cursor
+	 * @since 3.0.0
+	 */
+	default List<TaskExecution> findAll(TaskExecutionCursor cursor, int size) {
+		List<TaskExecution> result = new ArrayList<>(size);
+		Pageable pageable = PageRequest.of(0, size);
+		while (true) {
+			Page<TaskExecution> page = findAll(pageable);
+			for (TaskExecution taskExecution : page) {
+				if (taskExecution.getStartTime() != null
+						&& (cursor == null || cursor.isFollowedBy(taskExecution))) {
+					result.add(taskExecution);
+					if (result.size() == size) {
+						return result;
+					}
+				}
+			}
+			if (!page.hasNext()) {
+				return result;
+			}
+			pageable = pageable.next();
+		}
+	}
+
+	/**
+	 * Retrieves a page of the task executions matching all the criteria of the filter,
+	 * ordered by start time unless the pageable specifies a sort.
+	 * @param filter the criteria the task executions must match
+	 * @param pageable enumerates the data to be returned
+	 * @return a page of the matching task executions
+	 * @since 3.0.0
+	 */
+	Page<TaskExecution> findTaskExecutions(TaskExecutionFilter filter, Pageable pageable);
+
+	/**
+	 * Streams all the task executions matching the filter, ordered by task execution id,
+	 * without loading them into memory at once. The stream holds database resources and
+	 * must be closed, e.g. by using it in a try-with-resources statement.
+	 * @param filter the criteria the task executions must match
+	 * @return the stream of task executions
+	 * @since 3.0.0
+	 */
+	Stream<TaskExecution> streamTaskExecutions(TaskExecutionFilter filter);
+
+	/**
+	 * Retrieves the task executions that were created, started, completed or otherwise
+	 * updated at or after the given time, ordered by the time they were last updated and
+	 * task execution id. Use {@link #findTaskExecutionsUpdatedAfter} to continue reading
+	 * when more than {@code limit} task executions were updated.
+	 * @param since the earliest update time of the task executions to return
+	 * @param limit the maximum number of task executions to return
+	 * @return the task executions updated since the given time
+	 * @since 3.0.0
+	 */
+	default List<TaskExecution> findTaskExecutionsUpdatedSince(Date since, int limit) {
+		return findTaskExecutionsUpdatedAfter(TaskExecutionWatermark.since(since), limit)
+				.getTaskExecutions();
+	}
+
+	/**
+	 * Retrieves the task executions updated after the watermark, ordered by the time
+	 * they were last updated and task execution id. Pass the
+	 * {@link TaskExecutionUpdates#getWatermark() watermark} of the result to the next
+	 * call to read only the task executions updated since.
+	 * @param watermark the position to continue from
+	 * @param limit the maximum number of task executions to return
+	 * @return the task executions updated after the watermark
+	 * @since 3.0.0
+	 */
+	TaskExecutionUpdates findTaskExecutionsUpdatedAfter(TaskExecutionWatermark watermark,
+			int limit);
+
 	/**
 	 * Returns the id of the TaskExecution that the requested Spring Batch job execution
 	 * was executed within the context of. Returns null if none were found.
@@ -133,4 +219,16 @@ public interface TaskExplorer {
 	 */
 	TaskExecution getLatestTaskExecutionForTaskName(String taskName);
 
+	/**
+	 * Returns an explorer whose reads observe every write completed by the
+	 * {@link TaskRepository}, for the calls that have to see their own writes. Explorers
+	 * reading from a replica of the task repository return an explorer reading from the
+	 * primary database, all others return themselves.
+	 * @return the explorer to use for reads that have to see prior writes
+	 * @since 3.0.0
+	 */
+	default TaskExplorer readYourWrites() {
+		return this;
+	}
+
 }
@@ -56,6 +56,23 @@ public interface TaskRepository {
 	TaskExecution completeTaskExecution(long executionId, Integer exitCode, Date endTime,
 			String exitMessage, String errorMessage);
 
+	/**
+	 * Notifies the repository that a taskExecution has completed using the exit code,
+	 * end time, exit message and error message of the provided {@link TaskExecution}.
+	 * Unlike the other {@code completeTaskExecution} methods, implementations are not
+	 * required to read the execution back from the repository; the returned
+	 * {@link TaskExecution} may be built from the provided in-memory state.
+	 * @param taskExecution the task execution that has completed.
+	 * @return the completed {@link TaskExecution}
+	 * @since 3.0.0
+	 */
+	@Transactional("springCloudTaskTransactionManager")
+	default TaskExecution completeTaskExecution(TaskExecution taskExecution) {
+		return completeTaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getEndTime(),
+				taskExecution.getExitMessage(), taskExecution.getErrorMessage());
+	}
+
 	/**
 	 * Notifies the repository that a taskExecution needs to be created.
 	 * @param taskExecution a TaskExecution instance containing the startTime, arguments
@@ -125,4 +142,44 @@ public interface TaskRepository {
 	TaskExecution startTaskExecution(long executionid, String taskName, Date startTime,
 			List<String> arguments, String externalExecutionId, Long parentExecutionId);
 
+	/**
+	 * Removes the task executions that ended before the given time, together with their
+	 * arguments and their associations with job executions. Task executions that have not
+	 * ended are kept. The task executions are removed in chunks, each in its own
+	 * transaction, so a purge that fails part way keeps the chunks already removed.
+	 * @param endTime the exclusive upper bound of the end time of the removed task
+	 * executions.
+	 * @param chunkSize the maximum number of task executions removed per transaction.
+	 * @return the number of rows removed from each table.
+	 * @since 3.0.0
+	 */
+	TaskExecutionPurgeResult purgeTaskExecutionsEndedBefore(Date endTime, int chunkSize);
+
+	/**
+	 * Removes the ended task executions of each task name that are older than its
+	 * {@code retained} latest task executions, together with their arguments and their
+	 * associations with job executions. The task executions are removed in chunks, each
+	 * in its own transaction.
+	 * @param retained the number of latest task executions kept for each task name.
+	 * @param chunkSize the maximum number of task executions removed per transaction.
+	 * @return the number of rows removed from each table.
+	 * @since 3.0.0
+	 */
+	TaskExecutionPurgeResult purgeTaskExecutionsBeyondLatest(int retained, int chunkSize);
+
+	/**
+	 * Moves the task executions that ended before the given time, together with their
+	 * arguments and their associations with job executions, to the archive. Task
+	 * executions that have not ended are kept. The task executions are moved in chunks,
+	 * each in its own transaction.
+	 * @param endTime the exclusive upper bound of the end time of the archived task
+	 * executions.
+	 * @param chunkSize the maximum number of task executions moved per transaction.
+	 * @return the number of rows moved from each table.
+	 * @see TaskExecutionFilter#setIncludeArchived(boolean)
+	 * @since 3.0.0
+	 */
+	TaskExecutionPurgeResult archiveTaskExecutionsEndedBefore(Date endTime,
+			int chunkSize);
+
 }
@@ -16,40 +16,71 @@
 
 package org.springframework.cloud.task.repository.dao;
 
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.sql.DataSource;
 
 import org.springframework.batch.item.database.Order;
 import org.springframework.cloud.task.configuration.TaskProperties;
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCursor;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.cloud.task.repository.TaskExecutionUpdates;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
 import org.springframework.cloud.task.repository.database.PagingQueryProvider;
+import org.springframework.cloud.task.repository.database.support.AbstractSqlPagingQueryProvider;
 import org.springframework.cloud.task.repository.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.cloud.task.repository.database.support.SqlPagingQueryUtils;
+import org.springframework.cloud.task.repository.support.DatabaseType;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -86,6 +117,11 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	 */
 	public static final String TASK_NAME_WHERE_CLAUSE = "where TASK_NAME = :taskName ";
 
+	/**
+	 * WHERE clause for started task.
+	 */
+	public static final String STARTED_TASK_WHERE_CLAUSE = "where START_TIME IS NOT NULL ";
+
 	private static final String SAVE_TASK_EXECUTION = "INSERT into %PREFIX%EXECUTION"
 			+ "(TASK_EXECUTION_ID, EXIT_CODE, START_TIME, TASK_NAME, LAST_UPDATED, EXTERNAL_EXECUTION_ID, PARENT_EXECUTION_ID)"
 			+ "values (:taskExecutionId, :exitCode, :startTime, "
@@ -97,24 +133,23 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	private static final String START_TASK_EXECUTION_PREFIX = "UPDATE %PREFIX%EXECUTION set "
 			+ "START_TIME = :startTime, TASK_NAME = :taskName, LAST_UPDATED = :lastUpdated";
 
-	private static final String START_TASK_EXECUTION_EXTERNAL_ID_SUFFIX = ", "
-			+ "EXTERNAL_EXECUTION_ID = :externalExecutionId, PARENT_EXECUTION_ID = :parentExecutionId "
+	private static final String START_TASK_EXECUTION = START_TASK_EXECUTION_PREFIX
+			+ ", PARENT_EXECUTION_ID = :parentExecutionId "
 			+ "where TASK_EXECUTION_ID = :taskExecutionId";
 
-	private static final String START_TASK_EXECUTION_SUFFIX = ", PARENT_EXECUTION_ID = :parentExecutionId "
+	private static final String START_TASK_EXECUTION_WITH_EXTERNAL_ID = START_TASK_EXECUTION_PREFIX
+			+ ", EXTERNAL_EXECUTION_ID = :externalExecutionId, PARENT_EXECUTION_ID = :parentExecutionId "
 			+ "where TASK_EXECUTION_ID = :taskExecutionId";
 
-	private static final String CHECK_TASK_EXECUTION_EXISTS = "SELECT COUNT(*) FROM "
-			+ "%PREFIX%EXECUTION WHERE TASK_EXECUTION_ID = :taskExecutionId";
-
 	private static final String UPDATE_TASK_EXECUTION = "UPDATE %PREFIX%EXECUTION set "
 			+ "END_TIME = :endTime, EXIT_CODE = :exitCode, EXIT_MESSAGE = :exitMessage, ERROR_MESSAGE = :errorMessage, "
 			+ "LAST_UPDATED = :lastUpdated where TASK_EXECUTION_ID = :taskExecutionId";
 
 	private static final String UPDATE_TASK_EXECUTION_EXTERNAL_EXECUTION_ID = "UPDATE %PREFIX%EXECUTION set "
-			+ "EXTERNAL_EXECUTION_ID = :externalExecutionId where TASK_EXECUTION_ID = :taskExecutionId";
+			+ "EXTERNAL_EXECUTION_ID = :externalExecutionId, LAST_UPDATED = :lastUpdated "
+			+ "where TASK_EXECUTION_ID = :taskExecutionId";
 
-	private static final String GET_EXECUTION_BY_ID = "SELECT TASK_EXECUTION_ID, "
+	static final String GET_EXECUTION_BY_ID = "SELECT TASK_EXECUTION_ID, "
 			+ "START_TIME, END_TIME, TASK_NAME, EXIT_CODE, "
 			+ "EXIT_MESSAGE, ERROR_MESSAGE, LAST_UPDATED, EXTERNAL_EXECUTION_ID, "
 			+ "PARENT_EXECUTION_ID "
@@ -123,19 +158,47 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	private static final String FIND_ARGUMENT_FROM_ID = "SELECT TASK_EXECUTION_ID, "
 			+ "TASK_PARAM from %PREFIX%EXECUTION_PARAMS where TASK_EXECUTION_ID = :taskExecutionId";
 
-	private static final String TASK_EXECUTION_COUNT = "SELECT COUNT(*) FROM "
+	static final String FIND_ARGUMENTS_FROM_IDS = "SELECT TASK_EXECUTION_ID, "
+			+ "TASK_PARAM from %PREFIX%EXECUTION_PARAMS where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	static final String ARCHIVE_INCLUDED_FIND_ARGUMENTS_FROM_IDS = FIND_ARGUMENTS_FROM_IDS
+			+ " UNION ALL SELECT TASK_EXECUTION_ID, TASK_PARAM from %PREFIX%EXECUTION_PARAMS_ARCHIVE "
+			+ "where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String PARAMS_FROM_CLAUSE = "%PREFIX%EXECUTION_PARAMS";
+
+	/**
+	 * Derived table of the arguments in the task repository and in the archive, joined to
+	 * the streamed task executions when archived task executions are included.
+	 */
+	private static final String ARCHIVE_INCLUDED_PARAMS_FROM_CLAUSE = "(SELECT TASK_EXECUTION_ID, "
+			+ "TASK_PARAM from %PREFIX%EXECUTION_PARAMS UNION ALL SELECT TASK_EXECUTION_ID, "
+			+ "TASK_PARAM from %PREFIX%EXECUTION_PARAMS_ARCHIVE)";
+
+	static final String TASK_EXECUTION_COUNT = "SELECT COUNT(*) FROM "
 			+ "%PREFIX%EXECUTION ";
 
-	private static final String TASK_EXECUTION_COUNT_BY_NAME = "SELECT COUNT(*) FROM "
+	/**
+	 * Derived table of the task executions in the task repository and in the archive,
+	 * used as FROM clause by the queries that include archived task executions.
+	 */
+	static final String ARCHIVE_INCLUDED_FROM_CLAUSE = "(SELECT " + SELECT_CLAUSE
+			+ "FROM %PREFIX%EXECUTION UNION ALL SELECT " + SELECT_CLAUSE
+			+ "FROM %PREFIX%EXECUTION_ARCHIVE) TASK_EXECUTIONS";
+
+	static final String ARCHIVE_INCLUDED_TASK_EXECUTION_COUNT = "SELECT COUNT(*) FROM "
+			+ ARCHIVE_INCLUDED_FROM_CLAUSE + " ";
+
+	static final String TASK_EXECUTION_COUNT_BY_NAME = "SELECT COUNT(*) FROM "
 			+ "%PREFIX%EXECUTION where TASK_NAME = :taskName";
 
-	private static final String RUNNING_TASK_EXECUTION_COUNT_BY_NAME = "SELECT COUNT(*) FROM "
+	static final String RUNNING_TASK_EXECUTION_COUNT_BY_NAME = "SELECT COUNT(*) FROM "
 			+ "%PREFIX%EXECUTION where TASK_NAME = :taskName AND END_TIME IS NULL ";
 
-	private static final String RUNNING_TASK_EXECUTION_COUNT = "SELECT COUNT(*) FROM "
+	static final String RUNNING_TASK_EXECUTION_COUNT = "SELECT COUNT(*) FROM "
 			+ "%PREFIX%EXECUTION where END_TIME IS NULL ";
 
-	private static final String LAST_TASK_EXECUTIONS_BY_TASK_NAMES = "select TE2.* from ("
+	static final String LAST_TASK_EXECUTIONS_BY_TASK_NAMES = "select TE2.* from ("
 			+ "select MAX(TE.TASK_EXECUTION_ID) as TASK_EXECUTION_ID, TE.TASK_NAME, TE.START_TIME from ("
 			+ "select TASK_NAME, MAX(START_TIME) as START_TIME"
 			+ "      FROM %PREFIX%EXECUTION where TASK_NAME in (:taskNames)"
@@ -145,15 +208,194 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 			+ "inner join %PREFIX%EXECUTION TE2 ON TE1.TASK_EXECUTION_ID = TE2.TASK_EXECUTION_ID "
 			+ "order by TE2.START_TIME DESC, TE2.TASK_EXECUTION_ID DESC";
 
-	private static final String FIND_TASK_NAMES = "SELECT distinct TASK_NAME from %PREFIX%EXECUTION order by TASK_NAME";
+	/**
+	 * Reads the latest task execution of each task name in a single pass, numbering the
+	 * executions of each task by start time and id. Used instead of
+	 * {@link #LAST_TASK_EXECUTIONS_BY_TASK_NAMES} on databases supporting window
+	 * functions.
+	 */
+	static final String LAST_TASK_EXECUTIONS_BY_TASK_NAMES_ROW_NUMBER = "SELECT "
+			+ SELECT_CLAUSE + " FROM (SELECT " + SELECT_CLAUSE + ", ROW_NUMBER() OVER ("
+			+ "PARTITION BY TASK_NAME ORDER BY START_TIME DESC, TASK_EXECUTION_ID DESC) "
+			+ "AS TASK_ROW_NUM FROM %PREFIX%EXECUTION WHERE TASK_NAME IN (:taskNames) "
+			+ "AND START_TIME IS NOT NULL) LATEST_TASK_EXECUTION WHERE TASK_ROW_NUM = 1 "
+			+ "ORDER BY START_TIME DESC, TASK_EXECUTION_ID DESC";
+
+	static final String FIND_TASK_NAMES = "SELECT distinct TASK_NAME from %PREFIX%EXECUTION order by TASK_NAME";
+
+	static final String SUMMARY_TASK_EXECUTION_COUNT = "SELECT COALESCE(SUM(EXECUTION_COUNT), 0) "
+			+ "FROM %PREFIX%EXECUTION_SUMMARY";
+
+	static final String SUMMARY_TASK_EXECUTION_COUNT_BY_NAME = "SELECT EXECUTION_COUNT "
+			+ "FROM %PREFIX%EXECUTION_SUMMARY where TASK_NAME = :taskName";
+
+	static final String SUMMARY_RUNNING_TASK_EXECUTION_COUNT = "SELECT COALESCE(SUM(RUNNING_COUNT), 0) "
+			+ "FROM %PREFIX%EXECUTION_SUMMARY";
+
+	static final String SUMMARY_RUNNING_TASK_EXECUTION_COUNT_BY_NAME = "SELECT RUNNING_COUNT "
+			+ "FROM %PREFIX%EXECUTION_SUMMARY where TASK_NAME = :taskName";
+
+	static final String SUMMARY_FIND_TASK_NAMES = "SELECT TASK_NAME from %PREFIX%EXECUTION_SUMMARY "
+			+ "where EXECUTION_COUNT > 0 order by TASK_NAME";
+
+	private static final String UPDATE_TASK_EXECUTION_SUMMARY = "UPDATE %PREFIX%EXECUTION_SUMMARY set "
+			+ "EXECUTION_COUNT = EXECUTION_COUNT + :executionDelta, "
+			+ "RUNNING_COUNT = RUNNING_COUNT + :runningDelta, "
+			+ "LAST_EXECUTION_ID = CASE WHEN LAST_EXECUTION_ID < :lastExecutionId "
+			+ "THEN :lastExecutionId ELSE LAST_EXECUTION_ID END where TASK_NAME = :taskName";
 
-	private static final String FIND_TASK_EXECUTION_BY_JOB_EXECUTION_ID = "SELECT TASK_EXECUTION_ID FROM "
+	private static final String INSERT_TASK_EXECUTION_SUMMARY = "INSERT into %PREFIX%EXECUTION_SUMMARY"
+			+ "(TASK_NAME, EXECUTION_COUNT, RUNNING_COUNT, LAST_EXECUTION_ID) "
+			+ "values (:taskName, :executionDelta, :runningDelta, :lastExecutionId)";
+
+	/**
+	 * Variant of {@link #INSERT_TASK_EXECUTION_SUMMARY} for PostgreSQL, where a failed
+	 * statement aborts the whole transaction.
+	 */
+	private static final String INSERT_TASK_EXECUTION_SUMMARY_ON_CONFLICT = INSERT_TASK_EXECUTION_SUMMARY
+			+ " ON CONFLICT (TASK_NAME) DO NOTHING";
+
+	private static final String DELETE_TASK_EXECUTION_SUMMARY = "DELETE FROM %PREFIX%EXECUTION_SUMMARY";
+
+	private static final String REBUILD_TASK_EXECUTION_SUMMARY = "INSERT into %PREFIX%EXECUTION_SUMMARY"
+			+ "(TASK_NAME, EXECUTION_COUNT, RUNNING_COUNT, LAST_EXECUTION_ID) "
+			+ "SELECT TASK_NAME, COUNT(*), "
+			+ "SUM(CASE WHEN END_TIME IS NULL THEN 1 ELSE 0 END), MAX(TASK_EXECUTION_ID) "
+			+ "FROM %PREFIX%EXECUTION where TASK_NAME IS NOT NULL GROUP BY TASK_NAME";
+
+	private static final String FIND_TASK_EXECUTION_STATE = "SELECT TASK_NAME, END_TIME "
+			+ "FROM %PREFIX%EXECUTION where TASK_EXECUTION_ID = :taskExecutionId";
+
+	static final String FIND_TASK_EXECUTION_BY_JOB_EXECUTION_ID = "SELECT TASK_EXECUTION_ID FROM "
 			+ "%PREFIX%TASK_BATCH WHERE JOB_EXECUTION_ID = :jobExecutionId";
 
-	private static final String FIND_JOB_EXECUTION_BY_TASK_EXECUTION_ID = "SELECT JOB_EXECUTION_ID "
+	static final String FIND_JOB_EXECUTION_BY_TASK_EXECUTION_ID = "SELECT JOB_EXECUTION_ID "
 			+ "FROM %PREFIX%TASK_BATCH WHERE TASK_EXECUTION_ID = :taskExecutionId";
+
+	private static final String ENDED_BEFORE_WHERE_CLAUSE = "where END_TIME < :endTime ";
+
+	private static final String STARTED_TASK_NAME_WHERE_CLAUSE = "where TASK_NAME = :taskName "
+			+ "AND START_TIME IS NOT NULL ";
+
+	private static final String ENDED_BEFORE_POSITION_WHERE_CLAUSE = "where TASK_NAME = :taskName "
+			+ "AND END_TIME IS NOT NULL AND (START_TIME < :startTime "
+			+ "OR (START_TIME = :startTime AND TASK_EXECUTION_ID < :taskExecutionId)) ";
+
+	private static final String FIND_TASK_EXECUTION_COUNTS_FROM_IDS = "SELECT TASK_NAME, "
+			+ "COUNT(*) AS EXECUTION_COUNT, "
+			+ "SUM(CASE WHEN END_TIME IS NULL THEN 1 ELSE 0 END) AS RUNNING_COUNT "
+			+ "FROM %PREFIX%EXECUTION where TASK_EXECUTION_ID in (:taskExecutionIds) "
+			+ "AND TASK_NAME IS NOT NULL GROUP BY TASK_NAME";
+
+	private static final String DELETE_TASK_EXECUTION_PARAMS = "DELETE FROM %PREFIX%EXECUTION_PARAMS "
+			+ "where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String DELETE_TASK_BATCH = "DELETE FROM %PREFIX%TASK_BATCH "
+			+ "where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String DELETE_TASK_EXECUTIONS = "DELETE FROM %PREFIX%EXECUTION "
+			+ "where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String ARCHIVE_TASK_EXECUTIONS = "INSERT into %PREFIX%EXECUTION_ARCHIVE("
+			+ SELECT_CLAUSE + ") SELECT " + SELECT_CLAUSE + "FROM %PREFIX%EXECUTION "
+			+ "where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String ARCHIVE_TASK_EXECUTION_PARAMS = "INSERT into %PREFIX%EXECUTION_PARAMS_ARCHIVE"
+			+ "(TASK_EXECUTION_ID, TASK_PARAM) SELECT TASK_EXECUTION_ID, TASK_PARAM "
+			+ "FROM %PREFIX%EXECUTION_PARAMS where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	private static final String ARCHIVE_TASK_BATCH = "INSERT into %PREFIX%TASK_BATCH_ARCHIVE"
+			+ "(TASK_EXECUTION_ID, JOB_EXECUTION_ID) SELECT TASK_EXECUTION_ID, JOB_EXECUTION_ID "
+			+ "FROM %PREFIX%TASK_BATCH where TASK_EXECUTION_ID in (:taskExecutionIds)";
+
+	/**
+	 * Maximum number of ids bound into a single IN clause when loading arguments (stays
+	 * well below the 1000 element limit imposed by Oracle).
+	 */
+	static final int MAX_ARGUMENT_LOOKUP_IDS = 500;
+
+	/**
+	 * Maximum number of paging query providers, one per combination of where clause and
+	 * sort keys, kept by each DAO.
+	 */
+	static final int PAGING_QUERY_PROVIDER_CACHE_SIZE = 64;
+
+	/**
+	 * Default number of rows fetched per round trip by
+	 * {@link #streamTaskExecutions(TaskExecutionFilter)}.
+	 */
+	public static final int DEFAULT_STREAM_FETCH_SIZE = 500;
+
+	/**
+	 * Queries reading the row count estimate of the task execution table, which is bound
+	 * to the :tableName parameter, from the statistics of the query planner.
+	 */
+	private static final Map<DatabaseType, String> ESTIMATED_TASK_EXECUTION_COUNT = new EnumMap<>(
+			DatabaseType.class);
+
+	/**
+	 * Variants of {@link #LAST_TASK_EXECUTIONS_BY_TASK_NAMES} for the databases that
+	 * support {@code ROW_NUMBER() OVER (PARTITION BY ...)}. HSQLDB does not.
+	 */
+	private static final Map<DatabaseType, String> LAST_TASK_EXECUTIONS_BY_TASK_NAMES_QUERIES = new EnumMap<>(
+			DatabaseType.class);
+
 	private static final Set<String> validSortColumns = new HashSet<>(10);
 
+	private static final Set<String> validFilterColumns = new HashSet<>(8);
+
+	/**
+	 * The statements and FROM clauses resolved once per DAO with its table prefix,
+	 * including the database specific variants. Statements built per call, such as the
+	 * page queries, are assembled from resolved parts.
+	 */
+	private static final List<String> STATEMENTS = Arrays.asList(FROM_CLAUSE,
+			ARCHIVE_INCLUDED_FROM_CLAUSE, PARAMS_FROM_CLAUSE,
+			ARCHIVE_INCLUDED_PARAMS_FROM_CLAUSE,
+			SAVE_TASK_EXECUTION, CREATE_TASK_ARGUMENT, START_TASK_EXECUTION,
+			START_TASK_EXECUTION_WITH_EXTERNAL_ID, UPDATE_TASK_EXECUTION,
+			UPDATE_TASK_EXECUTION_EXTERNAL_EXECUTION_ID, GET_EXECUTION_BY_ID,
+			FIND_ARGUMENT_FROM_ID, FIND_ARGUMENTS_FROM_IDS,
+			ARCHIVE_INCLUDED_FIND_ARGUMENTS_FROM_IDS, TASK_EXECUTION_COUNT,
+			ARCHIVE_INCLUDED_TASK_EXECUTION_COUNT, TASK_EXECUTION_COUNT_BY_NAME,
+			RUNNING_TASK_EXECUTION_COUNT_BY_NAME, RUNNING_TASK_EXECUTION_COUNT,
+			LAST_TASK_EXECUTIONS_BY_TASK_NAMES,
+			LAST_TASK_EXECUTIONS_BY_TASK_NAMES_ROW_NUMBER, FIND_TASK_NAMES,
+			SUMMARY_TASK_EXECUTION_COUNT, SUMMARY_TASK_EXECUTION_COUNT_BY_NAME,
+			SUMMARY_RUNNING_TASK_EXECUTION_COUNT,
+			SUMMARY_RUNNING_TASK_EXECUTION_COUNT_BY_NAME, SUMMARY_FIND_TASK_NAMES,
+			UPDATE_TASK_EXECUTION_SUMMARY, INSERT_TASK_EXECUTION_SUMMARY,
+			INSERT_TASK_EXECUTION_SUMMARY_ON_CONFLICT, DELETE_TASK_EXECUTION_SUMMARY,
+			REBUILD_TASK_EXECUTION_SUMMARY, FIND_TASK_EXECUTION_STATE,
+			FIND_TASK_EXECUTION_BY_JOB_EXECUTION_ID,
+			FIND_JOB_EXECUTION_BY_TASK_EXECUTION_ID, FIND_TASK_EXECUTION_COUNTS_FROM_IDS,
+			DELETE_TASK_EXECUTION_PARAMS, DELETE_TASK_BATCH, DELETE_TASK_EXECUTIONS,
+			ARCHIVE_TASK_EXECUTIONS, ARCHIVE_TASK_EXECUTION_PARAMS, ARCHIVE_TASK_BATCH);
+
+	static {
+		ESTIMATED_TASK_EXECUTION_COUNT.put(DatabaseType.POSTGRES,
+				"SELECT CAST(reltuples AS BIGINT) FROM pg_class "
+						+ "WHERE oid = to_regclass(:tableName)");
+		ESTIMATED_TASK_EXECUTION_COUNT.put(DatabaseType.MYSQL,
+				"SELECT TABLE_ROWS FROM information_schema.TABLES "
+						+ "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = :tableName");
+		ESTIMATED_TASK_EXECUTION_COUNT.put(DatabaseType.SQLSERVER,
+				"SELECT SUM(rows) FROM sys.partitions "
+						+ "WHERE object_id = OBJECT_ID(:tableName) AND index_id IN (0, 1)");
+		ESTIMATED_TASK_EXECUTION_COUNT.put(DatabaseType.ORACLE,
+				"SELECT NUM_ROWS FROM USER_TABLES WHERE TABLE_NAME = :tableName");
+		ESTIMATED_TASK_EXECUTION_COUNT.put(DatabaseType.DB2,
+				"SELECT CARD FROM SYSCAT.TABLES "
+						+ "WHERE TABSCHEMA = CURRENT SCHEMA AND TABNAME = :tableName");
+
+		for (DatabaseType type : new DatabaseType[] { DatabaseType.H2,
+				DatabaseType.POSTGRES, DatabaseType.MYSQL, DatabaseType.SQLSERVER,
+				DatabaseType.ORACLE, DatabaseType.DB2 }) {
+			LAST_TASK_EXECUTIONS_BY_TASK_NAMES_QUERIES.put(type,
+					LAST_TASK_EXECUTIONS_BY_TASK_NAMES_ROW_NUMBER);
+		}
+	}
+
 	static {
 		validSortColumns.add("TASK_EXECUTION_ID");
 		validSortColumns.add("START_TIME");
@@ -165,13 +407,33 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		validSortColumns.add("LAST_UPDATED");
 		validSortColumns.add("EXTERNAL_EXECUTION_ID");
 		validSortColumns.add("PARENT_EXECUTION_ID");
+
+		validFilterColumns.add("TASK_NAME");
+		validFilterColumns.add("START_TIME");
+		validFilterColumns.add("END_TIME");
+		validFilterColumns.add("EXIT_CODE");
+		validFilterColumns.add("ERROR_MESSAGE");
+		validFilterColumns.add("EXTERNAL_EXECUTION_ID");
+		validFilterColumns.add("PARENT_EXECUTION_ID");
 	}
 
 	private final NamedParameterJdbcTemplate jdbcTemplate;
-	private String tablePrefix = TaskProperties.DEFAULT_TABLE_PREFIX;
+	private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Map<String, String> statements;
 	private DataSource dataSource;
 	private LinkedHashMap<String, Order> orderMap;
+
+	private LinkedHashMap<String, Order> lastUpdatedOrderMap;
 	private DataFieldMaxValueIncrementer taskIncrementer;
+	private boolean lazyArgumentLoading;
+	private volatile DatabaseType databaseType;
+	private volatile Boolean windowFunctionsSupported;
+	private volatile boolean windowFunctionsProbeInconclusive;
+	private boolean estimatedCountEnabled;
+	private boolean summaryEnabled;
+	private final Map<String, PagingQueryProvider> pagingQueryProviders = new PagingQueryProviderCache(
+			PAGING_QUERY_PROVIDER_CACHE_SIZE);
 
 	/**
 	 * Initializes the JdbcTaskExecutionDao.
@@ -179,9 +441,23 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	 * @param tablePrefix the table prefix to use for this dao.
 	 */
 	public JdbcTaskExecutionDao(DataSource dataSource, String tablePrefix) {
-		this(dataSource);
+		Assert.notNull(dataSource, "The dataSource must not be null.");
 		Assert.hasText(tablePrefix, "tablePrefix must not be null nor empty");
-		this.tablePrefix = tablePrefix;
+		this.statements = resolveStatements(tablePrefix);
+		this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		JdbcTemplate streamingJdbcTemplate = new JdbcTemplate(dataSource);
+		streamingJdbcTemplate.setFetchSize(DEFAULT_STREAM_FETCH_SIZE);
+		this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(
+				streamingJdbcTemplate);
+		this.transactionTemplate = new TransactionTemplate(
+				new DataSourceTransactionManager(dataSource));
+		this.dataSource = dataSource;
+		this.orderMap = new LinkedHashMap<>();
+		this.orderMap.put("START_TIME", Order.DESCENDING);
+		this.orderMap.put("TASK_EXECUTION_ID", Order.DESCENDING);
+		this.lastUpdatedOrderMap = new LinkedHashMap<>();
+		this.lastUpdatedOrderMap.put("LAST_UPDATED", Order.ASCENDING);
+		this.lastUpdatedOrderMap.put("TASK_EXECUTION_ID", Order.ASCENDING);
 	}
 
 	/**
@@ -190,12 +466,7 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	 * @param dataSource used by the dao to execute queries and update the tables.
 	 */
 	public JdbcTaskExecutionDao(DataSource dataSource) {
-		Assert.notNull(dataSource, "The dataSource must not be null.");
-		this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
-		this.dataSource = dataSource;
-		this.orderMap = new LinkedHashMap<>();
-		this.orderMap.put("START_TIME", Order.DESCENDING);
-		this.orderMap.put("TASK_EXECUTION_ID", Order.DESCENDING);
+		this(dataSource, TaskProperties.DEFAULT_TABLE_PREFIX);
 	}
 
 	@Override
@@ -208,23 +479,29 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	@Override
 	public TaskExecution createTaskExecution(String taskName, Date startTime,
 			List<String> arguments, String externalExecutionId, Long parentExecutionId) {
-		long nextExecutionId = getNextExecutionId();
-
-		TaskExecution taskExecution = new TaskExecution(nextExecutionId, null, taskName,
-				startTime, null, null, arguments, null, externalExecutionId);
-
-		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
-				.addValue("taskExecutionId", nextExecutionId, Types.BIGINT)
-				.addValue("exitCode", null, Types.INTEGER)
-				.addValue("startTime", startTime, Types.TIMESTAMP)
-				.addValue("taskName", taskName, Types.VARCHAR)
-				.addValue("lastUpdated", new Date(), Types.TIMESTAMP)
-				.addValue("externalExecutionId", externalExecutionId, Types.VARCHAR)
-				.addValue("parentExecutionId", parentExecutionId, Types.BIGINT);
-
-		this.jdbcTemplate.update(getQuery(SAVE_TASK_EXECUTION), queryParameters);
-		insertTaskArguments(nextExecutionId, arguments);
-		return taskExecution;
+		// The id lookup, the execution insert and the batched argument inserts share one
+		// connection and one transaction (joining the caller's transaction if present).
+		return this.transactionTemplate.execute(status -> {
+			long nextExecutionId = getNextExecutionId();
+
+			TaskExecution taskExecution = new TaskExecution(nextExecutionId, null,
+					taskName, startTime, null, null, arguments, null,
+					externalExecutionId);
+
+			final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
+					.addValue("taskExecutionId", nextExecutionId, Types.BIGINT)
+					.addValue("exitCode", null, Types.INTEGER)
+					.addValue("startTime", startTime, Types.TIMESTAMP)
+					.addValue("taskName", taskName, Types.VARCHAR)
+					.addValue("lastUpdated", new Date(), Types.TIMESTAMP)
+					.addValue("externalExecutionId", externalExecutionId, Types.VARCHAR)
+					.addValue("parentExecutionId", parentExecutionId, Types.BIGINT);
+
+			this.jdbcTemplate.update(getQuery(SAVE_TASK_EXECUTION), queryParameters);
+			insertTaskArguments(nextExecutionId, arguments);
+			updateTaskExecutionSummary(taskName, 1, 1, nextExecutionId);
+			return taskExecution;
+		});
 	}
 
 	@Override
@@ -250,36 +527,35 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 				.addValue("parentExecutionId", parentExecutionId, Types.BIGINT)
 				.addValue("taskExecutionId", executionId, Types.BIGINT);
 
-		String updateString = START_TASK_EXECUTION_PREFIX;
-
+		final String startTaskExecutionQuery;
 		if (externalExecutionId == null) {
-			updateString += START_TASK_EXECUTION_SUFFIX;
+			startTaskExecutionQuery = getQuery(START_TASK_EXECUTION);
 		}
 		else {
-			updateString += START_TASK_EXECUTION_EXTERNAL_ID_SUFFIX;
+			startTaskExecutionQuery = getQuery(START_TASK_EXECUTION_WITH_EXTERNAL_ID);
 			queryParameters.addValue("externalExecutionId", externalExecutionId,
 					Types.VARCHAR);
 		}
 
-		this.jdbcTemplate.update(getQuery(updateString), queryParameters);
-		insertTaskArguments(executionId, arguments);
+		this.transactionTemplate.executeWithoutResult(status -> {
+			Map<String, Object> previousState = findTaskExecutionState(executionId);
+			this.jdbcTemplate.update(startTaskExecutionQuery, queryParameters);
+			insertTaskArguments(executionId, arguments);
+			if (previousState != null) {
+				String previousTaskName = (String) previousState.get("TASK_NAME");
+				if (!ObjectUtils.nullSafeEquals(previousTaskName, taskName)) {
+					int running = previousState.get("END_TIME") == null ? 1 : 0;
+					updateTaskExecutionSummary(previousTaskName, -1, -running, 0);
+					updateTaskExecutionSummary(taskName, 1, running, executionId);
+				}
+			}
+		});
 		return taskExecution;
 	}
 
 	@Override
 	public void completeTaskExecution(long taskExecutionId, Integer exitCode,
 			Date endTime, String exitMessage, String errorMessage) {
-		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
-				.addValue("taskExecutionId", taskExecutionId, Types.BIGINT);
-
-		// Check if given TaskExecution's Id already exists, if none is found
-		// it is invalid and an exception should be thrown.
-		if (this.jdbcTemplate.queryForObject(getQuery(CHECK_TASK_EXECUTION_EXISTS),
-				queryParameters, Integer.class) != 1) {
-			throw new IllegalStateException(
-					"Invalid TaskExecution, ID " + taskExecutionId + " not found.");
-		}
-
 		final MapSqlParameterSource parameters = new MapSqlParameterSource()
 				.addValue("endTime", endTime, Types.TIMESTAMP)
 				.addValue("exitCode", exitCode, Types.INTEGER)
@@ -288,7 +564,21 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 				.addValue("lastUpdated", new Date(), Types.TIMESTAMP)
 				.addValue("taskExecutionId", taskExecutionId, Types.BIGINT);
 
-		this.jdbcTemplate.update(getQuery(UPDATE_TASK_EXECUTION), parameters);
+		if (!this.summaryEnabled) {
+			updateTaskExecution(taskExecutionId, parameters);
+			return;
+		}
+		// the summary row is updated in the transaction of the task execution update
+		this.transactionTemplate.executeWithoutResult(status -> {
+			Map<String, Object> previousState = findTaskExecutionState(taskExecutionId);
+			updateTaskExecution(taskExecutionId, parameters);
+			if (previousState != null) {
+				int runningDelta = (endTime == null ? 1 : 0)
+						- (previousState.get("END_TIME") == null ? 1 : 0);
+				updateTaskExecutionSummary((String) previousState.get("TASK_NAME"), 0,
+						runningDelta, 0);
+			}
+		});
 	}
 
 	@Override
@@ -305,7 +595,7 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		try {
 			TaskExecution taskExecution = this.jdbcTemplate.queryForObject(
 					getQuery(GET_EXECUTION_BY_ID), queryParameters,
-					new TaskExecutionRowMapper());
+					new TaskExecutionRowMapper(null));
 			taskExecution.setArguments(getTaskArguments(executionId));
 			return taskExecution;
 		}
@@ -322,7 +612,9 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 
 		try {
 			return this.jdbcTemplate.queryForObject(
-					getQuery(TASK_EXECUTION_COUNT_BY_NAME), queryParameters, Long.class);
+					getQuery(this.summaryEnabled ? SUMMARY_TASK_EXECUTION_COUNT_BY_NAME
+							: TASK_EXECUTION_COUNT_BY_NAME),
+					queryParameters, Long.class);
 		}
 		catch (EmptyResultDataAccessException e) {
 			return 0;
@@ -336,8 +628,10 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 
 		try {
 			return this.jdbcTemplate.queryForObject(
-					getQuery(RUNNING_TASK_EXECUTION_COUNT_BY_NAME), queryParameters,
-					Long.class);
+					getQuery(this.summaryEnabled
+							? SUMMARY_RUNNING_TASK_EXECUTION_COUNT_BY_NAME
+							: RUNNING_TASK_EXECUTION_COUNT_BY_NAME),
+					queryParameters, Long.class);
 		}
 		catch (EmptyResultDataAccessException e) {
 			return 0;
@@ -350,7 +644,9 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		try {
 			final MapSqlParameterSource queryParameters = new MapSqlParameterSource();
 			return this.jdbcTemplate.queryForObject(
-					getQuery(RUNNING_TASK_EXECUTION_COUNT), queryParameters, Long.class);
+					getQuery(this.summaryEnabled ? SUMMARY_RUNNING_TASK_EXECUTION_COUNT
+							: RUNNING_TASK_EXECUTION_COUNT),
+					queryParameters, Long.class);
 		}
 		catch (EmptyResultDataAccessException e) {
 			return 0;
@@ -373,11 +669,21 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 				"Task names must not contain any empty elements but %s of %s were empty or null.",
 				taskNames.length - taskNamesAsList.size(), taskNames.length));
 
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource("taskNames",
+				taskNamesAsList);
+		String query = isWindowFunctionSupported()
+				? getLastTaskExecutionsByTaskNamesQuery(getDatabaseType())
+				: LAST_TASK_EXECUTIONS_BY_TASK_NAMES;
 		try {
-			final Map<String, List<String>> paramMap = Collections
-					.singletonMap("taskNames", taskNamesAsList);
-			return this.jdbcTemplate.query(getQuery(LAST_TASK_EXECUTIONS_BY_TASK_NAMES),
-					paramMap, new TaskExecutionRowMapper());
+			return queryForTaskExecutions(getQuery(query), queryParameters);
+		}
+		catch (BadSqlGrammarException e) {
+			if (query.equals(LAST_TASK_EXECUTIONS_BY_TASK_NAMES)) {
+				throw e;
+			}
+			disableWindowFunctions(e);
+			return queryForTaskExecutions(getQuery(LAST_TASK_EXECUTIONS_BY_TASK_NAMES),
+					queryParameters);
 		}
 		catch (EmptyResultDataAccessException e) {
 			return Collections.emptyList();
@@ -406,7 +712,9 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	public long getTaskExecutionCount() {
 
 		try {
-			return this.jdbcTemplate.queryForObject(getQuery(TASK_EXECUTION_COUNT),
+			return this.jdbcTemplate.queryForObject(
+					getQuery(this.summaryEnabled ? SUMMARY_TASK_EXECUTION_COUNT
+							: TASK_EXECUTION_COUNT),
 					new MapSqlParameterSource(), Long.class);
 		}
 		catch (EmptyResultDataAccessException e) {
@@ -420,7 +728,7 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		return queryForPageableResults(pageable, SELECT_CLAUSE, FROM_CLAUSE,
 				RUNNING_TASK_WHERE_CLAUSE,
 				new MapSqlParameterSource("taskName", taskName),
-				getRunningTaskExecutionCountByTaskName(taskName));
+				() -> getRunningTaskExecutionCountByTaskName(taskName));
 	}
 
 	@Override
@@ -428,19 +736,192 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 			Pageable pageable) {
 		return queryForPageableResults(pageable, SELECT_CLAUSE, FROM_CLAUSE,
 				TASK_NAME_WHERE_CLAUSE, new MapSqlParameterSource("taskName", taskName),
-				getTaskExecutionCountByTaskName(taskName));
+				() -> getTaskExecutionCountByTaskName(taskName));
 	}
 
 	@Override
 	public List<String> getTaskNames() {
-		return this.jdbcTemplate.queryForList(getQuery(FIND_TASK_NAMES),
+		return this.jdbcTemplate.queryForList(
+				getQuery(this.summaryEnabled ? SUMMARY_FIND_TASK_NAMES : FIND_TASK_NAMES),
 				new MapSqlParameterSource(), String.class);
 	}
 
 	@Override
 	public Page<TaskExecution> findAll(Pageable pageable) {
+		if (this.estimatedCountEnabled) {
+			Long estimatedCount = getEstimatedTaskExecutionCount();
+			if (estimatedCount != null) {
+				PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(
+						SELECT_CLAUSE, FROM_CLAUSE, null,
+						getSortKeys(pageable.getSort(), this.orderMap));
+				List<TaskExecution> resultList = queryForTaskExecutions(
+						pagingQueryProvider.getPageQuery(pageable),
+						new MapSqlParameterSource());
+				return new PageImpl<>(resultList, pageable, estimatedCount);
+			}
+		}
 		return queryForPageableResults(pageable, SELECT_CLAUSE, FROM_CLAUSE, null,
-				new MapSqlParameterSource(), getTaskExecutionCount());
+				new MapSqlParameterSource(), this::getTaskExecutionCount);
+	}
+
+	@Override
+	public List<TaskExecution> findAll(TaskExecutionCursor cursor, int size) {
+		Assert.isTrue(size > 0, "size must be greater than zero");
+		PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(SELECT_CLAUSE,
+				FROM_CLAUSE, STARTED_TASK_WHERE_CLAUSE, this.orderMap);
+		if (cursor == null) {
+			return queryForTaskExecutions(
+					pagingQueryProvider.generateFirstPageQuery(size),
+					new MapSqlParameterSource());
+		}
+		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
+				.addValue("_START_TIME", cursor.getStartTime(), Types.TIMESTAMP)
+				.addValue("_TASK_EXECUTION_ID", cursor.getExecutionId(), Types.BIGINT);
+		return queryForTaskExecutions(
+				pagingQueryProvider.generateRemainingPageQuery(size),
+				queryParameters);
+	}
+
+	@Override
+	public TaskExecutionUpdates findTaskExecutionsUpdatedAfter(
+			TaskExecutionWatermark watermark, int limit) {
+		Assert.notNull(watermark, "watermark must not be null");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(SELECT_CLAUSE,
+				FROM_CLAUSE, null, this.lastUpdatedOrderMap);
+		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
+				.addValue("_LAST_UPDATED", watermark.getLastUpdated(), Types.TIMESTAMP)
+				.addValue("_TASK_EXECUTION_ID", watermark.getExecutionId(), Types.BIGINT);
+		List<Date> lastUpdated = new ArrayList<>(limit);
+		List<TaskExecution> taskExecutions = queryForTaskExecutions(
+				pagingQueryProvider.generateRemainingPageQuery(limit),
+				queryParameters, (rs) -> lastUpdated.add(rs.getTimestamp("LAST_UPDATED")),
+				false);
+		return new TaskExecutionUpdates(watermark, taskExecutions, lastUpdated);
+	}
+
+	/**
+	 * Sets the type of the database the DAO is connected to. If not set, the type is read
+	 * from the {@link DataSource} metadata on the first paged query and kept for the
+	 * life of the DAO.
+	 * @param databaseType the database type.
+	 */
+	public void setDatabaseType(DatabaseType databaseType) {
+		Assert.notNull(databaseType, "databaseType must not be null");
+		this.databaseType = databaseType;
+	}
+
+	/**
+	 * When enabled, the total count of the unfiltered {@link #findAll(Pageable)} page is
+	 * read from the statistics the database keeps for its query planner instead of
+	 * counting the rows of the task execution table. The estimate may be stale, but is
+	 * cheap to read on very large tables. Databases without such statistics (H2, HSQLDB)
+	 * and tables that have not been analyzed yet fall back to the exact count. Defaults
+	 * to {@code false}.
+	 * @param estimatedCountEnabled true to use an estimated total count for findAll.
+	 */
+	public void setEstimatedCountEnabled(boolean estimatedCountEnabled) {
+		this.estimatedCountEnabled = estimatedCountEnabled;
+	}
+
+	/**
+	 * When enabled, the number of task executions, running task executions and the task
+	 * names are read from the {@code TASK_EXECUTION_SUMMARY} table, which keeps one row
+	 * per task name and is updated in the transaction that creates, starts or completes
+	 * a task execution. Task executions created without a task name are counted once
+	 * they are started. Call {@link #rebuildTaskExecutionSummary()} before enabling the
+	 * summary on existing task executions. Defaults to {@code false}.
+	 * @param summaryEnabled true to maintain and read the task execution summary.
+	 */
+	public void setSummaryEnabled(boolean summaryEnabled) {
+		this.summaryEnabled = summaryEnabled;
+	}
+
+	/**
+	 * Recomputes the {@code TASK_EXECUTION_SUMMARY} table from the task executions in a
+	 * single transaction. Task executions created or completed by a DAO without the
+	 * summary enabled are only reflected after a rebuild.
+	 */
+	public void rebuildTaskExecutionSummary() {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			this.jdbcTemplate.update(getQuery(DELETE_TASK_EXECUTION_SUMMARY),
+					new MapSqlParameterSource());
+			this.jdbcTemplate.update(getQuery(REBUILD_TASK_EXECUTION_SUMMARY),
+					new MapSqlParameterSource());
+		});
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionFilter filter,
+			Pageable pageable) {
+		Assert.notNull(filter, "filter must not be null");
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource();
+		String conditions = buildFilterConditions(filter, queryParameters);
+		if (!filter.isIncludeArchived()) {
+			if (conditions == null) {
+				return findAll(pageable);
+			}
+			return queryForPageableResults(pageable, SELECT_CLAUSE, FROM_CLAUSE,
+					"where " + conditions, queryParameters,
+					() -> this.jdbcTemplate.queryForObject(
+							getQuery(TASK_EXECUTION_COUNT) + "WHERE " + conditions,
+							queryParameters, Long.class));
+		}
+		String countQuery = getQuery(ARCHIVE_INCLUDED_TASK_EXECUTION_COUNT)
+				+ (conditions != null ? "WHERE " + conditions : "");
+		return queryForPageableResults(pageable, SELECT_CLAUSE,
+				ARCHIVE_INCLUDED_FROM_CLAUSE,
+				conditions != null ? "where " + conditions : null, queryParameters,
+				() -> this.jdbcTemplate.queryForObject(countQuery, queryParameters,
+						Long.class),
+				true);
+	}
+
+	@Override
+	public Stream<TaskExecution> streamTaskExecutions(TaskExecutionFilter filter) {
+		Assert.notNull(filter, "filter must not be null");
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource();
+		String conditions = buildFilterConditions(filter, queryParameters);
+		// the arguments are joined rather than read with a second query, which would need
+		// another connection (or is rejected by MySQL) while the cursor is open
+		String query = "SELECT E.*, P.TASK_EXECUTION_ID AS PARAM_EXECUTION_ID, "
+				+ "P.TASK_PARAM FROM (SELECT " + SELECT_CLAUSE + "FROM "
+				+ getQuery(filter.isIncludeArchived() ? ARCHIVE_INCLUDED_FROM_CLAUSE
+						: FROM_CLAUSE)
+				+ (conditions != null ? " WHERE " + conditions : "") + ") E "
+				+ "LEFT OUTER JOIN "
+				+ getQuery(filter.isIncludeArchived() ? ARCHIVE_INCLUDED_PARAMS_FROM_CLAUSE
+						: PARAMS_FROM_CLAUSE)
+				+ " P ON P.TASK_EXECUTION_ID = E.TASK_EXECUTION_ID "
+				+ "ORDER BY E.TASK_EXECUTION_ID";
+		TaskExecutionRowMapper rowMapper = new TaskExecutionRowMapper(null);
+		Stream<TaskExecution> rows = this.streamingJdbcTemplate.queryForStream(query,
+				queryParameters, (rs, rowNum) -> {
+					TaskExecution taskExecution = rowMapper.mapRow(rs, rowNum);
+					String argument = rs.getString("TASK_PARAM");
+					rs.getLong("PARAM_EXECUTION_ID");
+					if (!rs.wasNull()) {
+						taskExecution.setArguments(Collections.singletonList(argument));
+					}
+					return taskExecution;
+				});
+		return StreamSupport
+				.stream(new ArgumentGroupingSpliterator(rows.iterator()), false)
+				.onClose(rows::close);
+	}
+
+	/**
+	 * Sets the number of rows fetched per round trip by
+	 * {@link #streamTaskExecutions(TaskExecutionFilter)}. Defaults to
+	 * {@value #DEFAULT_STREAM_FETCH_SIZE}. The fetch size counts the rows of the task
+	 * executions joined with their arguments. Note that some drivers only use a cursor
+	 * within a transaction (PostgreSQL) or need additional connection properties
+	 * (MySQL's {@code useCursorFetch}).
+	 * @param streamFetchSize the fetch size.
+	 */
+	public void setStreamFetchSize(int streamFetchSize) {
+		Assert.isTrue(streamFetchSize > 0, "streamFetchSize must be greater than zero");
+		this.streamingJdbcTemplate.getJdbcTemplate().setFetchSize(streamFetchSize);
 	}
 
 	public void setTaskIncrementer(DataFieldMaxValueIncrementer taskIncrementer) {
@@ -451,6 +932,19 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		return this.taskIncrementer.nextLongValue();
 	}
 
+	/**
+	 * When enabled, the task executions returned by the list and page queries do not
+	 * have their arguments populated up front. Instead the arguments of all executions
+	 * of a result are loaded together the first time {@link TaskExecution#getArguments()}
+	 * is called on any one of them. Single execution lookups always load the arguments
+	 * eagerly. Defaults to {@code false}.
+	 * @param lazyArgumentLoading true to defer loading the task arguments until they
+	 * are first accessed.
+	 */
+	public void setLazyArgumentLoading(boolean lazyArgumentLoading) {
+		this.lazyArgumentLoading = lazyArgumentLoading;
+	}
+
 	@Override
 	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
 		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
@@ -499,6 +993,7 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 			String externalExecutionId) {
 		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
 				.addValue("externalExecutionId", externalExecutionId, Types.VARCHAR)
+				.addValue("lastUpdated", new Date(), Types.TIMESTAMP)
 				.addValue("taskExecutionId", taskExecutionId, Types.BIGINT);
 
 		if (this.jdbcTemplate.update(
@@ -509,16 +1004,340 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 		}
 	}
 
+	@Override
+	public List<Long> findTaskExecutionIdsEndedBefore(Date endTime, int limit) {
+		Assert.notNull(endTime, "endTime must not be null");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(
+				"TASK_EXECUTION_ID", FROM_CLAUSE, ENDED_BEFORE_WHERE_CLAUSE,
+				getTaskExecutionIdSortKeys());
+		return this.jdbcTemplate.queryForList(
+				pagingQueryProvider.generateFirstPageQuery(limit),
+				new MapSqlParameterSource().addValue("endTime", endTime, Types.TIMESTAMP),
+				Long.class);
+	}
+
+	@Override
+	public List<Long> findTaskExecutionIdsBeyondLatest(String taskName, int retained,
+			int limit) {
+		Assert.hasText(taskName, "taskName must not be null nor empty");
+		Assert.isTrue(retained > 0, "retained must be greater than zero");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		// the oldest of the retained task executions bounds the ones to remove
+		PagingQueryProvider positionQueryProvider = getPagingQueryProvider(
+				"TASK_EXECUTION_ID, START_TIME", FROM_CLAUSE,
+				STARTED_TASK_NAME_WHERE_CLAUSE, this.orderMap);
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource()
+				.addValue("taskName", taskName, Types.VARCHAR);
+		List<TaskExecutionCursor> position = this.jdbcTemplate.query(
+				positionQueryProvider.getPageQuery(PageRequest.of(retained - 1, 1)),
+				queryParameters, (rs, rowNum) -> TaskExecutionCursor
+						.of(rs.getTimestamp("START_TIME"), rs.getLong("TASK_EXECUTION_ID")));
+		if (position.isEmpty()) {
+			return Collections.emptyList();
+		}
+		queryParameters
+				.addValue("startTime", position.get(0).getStartTime(), Types.TIMESTAMP)
+				.addValue("taskExecutionId", position.get(0).getExecutionId(),
+						Types.BIGINT);
+		PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(
+				"TASK_EXECUTION_ID", FROM_CLAUSE, ENDED_BEFORE_POSITION_WHERE_CLAUSE,
+				getTaskExecutionIdSortKeys());
+		return this.jdbcTemplate.queryForList(
+				pagingQueryProvider.generateFirstPageQuery(limit),
+				queryParameters, Long.class);
+	}
+
+	@Override
+	public TaskExecutionPurgeResult deleteTaskExecutions(
+			Collection<Long> taskExecutionIds) {
+		return removeTaskExecutions(taskExecutionIds, false);
+	}
+
+	@Override
+	public TaskExecutionPurgeResult archiveTaskExecutions(
+			Collection<Long> taskExecutionIds) {
+		return removeTaskExecutions(taskExecutionIds, true);
+	}
+
+	/**
+	 * Deletes the task executions with their arguments and job execution associations in
+	 * a single transaction, copying them to the archive tables first if requested.
+	 */
+	private TaskExecutionPurgeResult removeTaskExecutions(
+			Collection<Long> taskExecutionIds, boolean archive) {
+		Assert.notNull(taskExecutionIds, "taskExecutionIds must not be null");
+		if (taskExecutionIds.isEmpty()) {
+			return TaskExecutionPurgeResult.NONE;
+		}
+		List<Long> ids = new ArrayList<>(taskExecutionIds);
+		return this.transactionTemplate.execute(status -> {
+			TaskExecutionPurgeResult result = TaskExecutionPurgeResult.NONE;
+			for (int from = 0; from < ids.size(); from += MAX_ARGUMENT_LOOKUP_IDS) {
+				MapSqlParameterSource queryParameters = new MapSqlParameterSource(
+						"taskExecutionIds", ids.subList(from,
+								Math.min(from + MAX_ARGUMENT_LOOKUP_IDS, ids.size())));
+				if (this.summaryEnabled) {
+					for (Map<String, Object> counts : this.jdbcTemplate.queryForList(
+							getQuery(FIND_TASK_EXECUTION_COUNTS_FROM_IDS),
+							queryParameters)) {
+						updateTaskExecutionSummary((String) counts.get("TASK_NAME"),
+								-((Number) counts.get("EXECUTION_COUNT")).longValue(),
+								-((Number) counts.get("RUNNING_COUNT")).longValue(), 0);
+					}
+				}
+				if (archive) {
+					// parents first in the archive, children first in the task repository
+					this.jdbcTemplate.update(getQuery(ARCHIVE_TASK_EXECUTIONS),
+							queryParameters);
+					this.jdbcTemplate.update(getQuery(ARCHIVE_TASK_EXECUTION_PARAMS),
+							queryParameters);
+					this.jdbcTemplate.update(getQuery(ARCHIVE_TASK_BATCH), queryParameters);
+				}
+				// children first, the task execution is referenced by both tables
+				int params = this.jdbcTemplate
+						.update(getQuery(DELETE_TASK_EXECUTION_PARAMS), queryParameters);
+				int batchAssociations = this.jdbcTemplate
+						.update(getQuery(DELETE_TASK_BATCH), queryParameters);
+				int executions = this.jdbcTemplate
+						.update(getQuery(DELETE_TASK_EXECUTIONS), queryParameters);
+				result = result.add(new TaskExecutionPurgeResult(executions, params,
+						batchAssociations));
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Reads a page of task executions. Where the database supports window functions the
+	 * total count is read with the page in a single statement, otherwise (or if the page
+	 * is empty) the count query is executed.
+	 */
 	private Page<TaskExecution> queryForPageableResults(Pageable pageable,
 			String selectClause, String fromClause, String whereClause,
-			MapSqlParameterSource queryParameters, long totalCount) {
-		SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
-		factoryBean.setSelectClause(selectClause);
-		factoryBean.setFromClause(fromClause);
-		if (StringUtils.hasText(whereClause)) {
-			factoryBean.setWhereClause(whereClause);
-		}
-		final Sort sort = pageable.getSort();
+			MapSqlParameterSource queryParameters, LongSupplier totalCount) {
+		return queryForPageableResults(pageable, selectClause, fromClause, whereClause,
+				queryParameters, totalCount, false);
+	}
+
+	private Page<TaskExecution> queryForPageableResults(Pageable pageable,
+			String selectClause, String fromClause, String whereClause,
+			MapSqlParameterSource queryParameters, LongSupplier totalCount,
+			boolean archiveIncluded) {
+		PagingQueryProvider pagingQueryProvider = getPagingQueryProvider(selectClause,
+				fromClause, whereClause, getSortKeys(pageable.getSort(), this.orderMap));
+		if (isTotalCountInPageQuery(pagingQueryProvider)) {
+			AtomicLong pageTotalCount = new AtomicLong(-1);
+			List<TaskExecution> resultList;
+			try {
+				resultList = queryForTaskExecutions(
+						pagingQueryProvider.getPageQueryWithTotalCount(pageable),
+						queryParameters,
+						(rs) -> pageTotalCount.set(
+								rs.getLong(AbstractSqlPagingQueryProvider.TOTAL_COUNT_COLUMN)),
+						archiveIncluded);
+			}
+			catch (BadSqlGrammarException e) {
+				disableWindowFunctions(e);
+				return queryForPageableResults(pageable, selectClause, fromClause,
+						whereClause, queryParameters, totalCount, archiveIncluded);
+			}
+			if (pageTotalCount.get() >= 0) {
+				return new PageImpl<>(resultList, pageable, pageTotalCount.get());
+			}
+			return new PageImpl<>(resultList, pageable,
+					pageable.getOffset() == 0 ? 0 : totalCount.getAsLong());
+		}
+		List<TaskExecution> resultList = queryForTaskExecutions(
+				pagingQueryProvider.getPageQuery(pageable), queryParameters, null,
+				archiveIncluded);
+		return new PageImpl<>(resultList, pageable, totalCount.getAsLong());
+	}
+
+	private boolean isTotalCountInPageQuery(PagingQueryProvider pagingQueryProvider) {
+		return pagingQueryProvider.isTotalCountSupported() && isWindowFunctionSupported();
+	}
+
+	/**
+	 * Determines once whether the database supports window functions. MySQL only
+	 * supports them from version 8 (MariaDB from 10.2). The version reported by a MySQL
+	 * compatible server does not prove the support though (MariaDB reports 10 from
+	 * 10.0), so for these the probe is inconclusive and the queries fall back if the
+	 * server rejects the window functions.
+	 */
+	private boolean isWindowFunctionSupported() {
+		Boolean windowFunctionsSupported = this.windowFunctionsSupported;
+		if (windowFunctionsSupported == null) {
+			windowFunctionsSupported = true;
+			if (getDatabaseType() == DatabaseType.MYSQL) {
+				try {
+					int majorVersion = JdbcUtils.extractDatabaseMetaData(this.dataSource,
+							DatabaseMetaData::getDatabaseMajorVersion);
+					windowFunctionsSupported = majorVersion >= 8;
+				}
+				catch (MetaDataAccessException e) {
+					windowFunctionsSupported = false;
+				}
+				this.windowFunctionsProbeInconclusive = windowFunctionsSupported;
+			}
+			this.windowFunctionsSupported = windowFunctionsSupported;
+		}
+		return windowFunctionsSupported;
+	}
+
+	/**
+	 * Stops using window functions after the server rejected a query using them, if
+	 * {@link #isWindowFunctionSupported()} could not tell for sure that the server
+	 * supports them. Otherwise the exception is a genuine error and is rethrown. Retrying
+	 * is safe for MySQL, which does not abort the transaction on a rejected statement.
+	 * @param e the exception thrown by the query using window functions.
+	 */
+	private void disableWindowFunctions(BadSqlGrammarException e) {
+		if (!this.windowFunctionsProbeInconclusive) {
+			throw e;
+		}
+		this.windowFunctionsSupported = false;
+	}
+
+	/**
+	 * Returns the query reading the latest task execution of each task name for the
+	 * database type, falling back to {@link #LAST_TASK_EXECUTIONS_BY_TASK_NAMES} for
+	 * databases without window functions.
+	 * @param databaseType the type of the database.
+	 * @return the query.
+	 */
+	static String getLastTaskExecutionsByTaskNamesQuery(DatabaseType databaseType) {
+		return LAST_TASK_EXECUTIONS_BY_TASK_NAMES_QUERIES.getOrDefault(databaseType,
+				LAST_TASK_EXECUTIONS_BY_TASK_NAMES);
+	}
+
+	/**
+	 * Reads the number of task executions from the statistics of the query planner.
+	 * @return the estimated number of task executions, or null if the database does not
+	 * provide an estimate.
+	 */
+	private Long getEstimatedTaskExecutionCount() {
+		String query = ESTIMATED_TASK_EXECUTION_COUNT.get(getDatabaseType());
+		if (query == null) {
+			return null;
+		}
+		try {
+			Long estimatedCount = this.jdbcTemplate.queryForObject(query,
+					new MapSqlParameterSource("tableName", getQuery(FROM_CLAUSE)),
+					Long.class);
+			return (estimatedCount != null && estimatedCount >= 0) ? estimatedCount
+					: null;
+		}
+		catch (DataAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the initialized paging query provider for the clauses and sort keys,
+	 * creating it on first use. Providers are cached per DAO in a bounded LRU cache as
+	 * the clauses only vary with the requested sort.
+	 */
+	private PagingQueryProvider getPagingQueryProvider(String selectClause,
+			String fromClause, String whereClause, Map<String, Order> sortKeys) {
+		String key = selectClause + "|" + fromClause + "|" + whereClause + "|"
+				+ SqlPagingQueryUtils.buildSortClause(sortKeys);
+		DatabaseType databaseType = getDatabaseType();
+		synchronized (this.pagingQueryProviders) {
+			PagingQueryProvider pagingQueryProvider = this.pagingQueryProviders.get(key);
+			if (pagingQueryProvider == null) {
+				AbstractSqlPagingQueryProvider provider = SqlPagingQueryProviderFactoryBean
+						.createPagingQueryProvider(databaseType);
+				provider.setSelectClause(selectClause);
+				provider.setFromClause(getQuery(fromClause));
+				provider.setWhereClause(whereClause);
+				provider.setSortKeys(sortKeys);
+				try {
+					provider.init(this.dataSource);
+				}
+				catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+				this.pagingQueryProviders.put(key, provider);
+				pagingQueryProvider = provider;
+			}
+			return pagingQueryProvider;
+		}
+	}
+
+	private static Map<String, Order> getTaskExecutionIdSortKeys() {
+		Map<String, Order> sortKeys = new LinkedHashMap<>();
+		sortKeys.put("TASK_EXECUTION_ID", Order.ASCENDING);
+		return sortKeys;
+	}
+
+	private DatabaseType getDatabaseType() {
+		DatabaseType databaseType = this.databaseType;
+		if (databaseType == null) {
+			try {
+				databaseType = DatabaseType.fromMetaData(this.dataSource);
+			}
+			catch (SQLException | MetaDataAccessException e) {
+				throw new IllegalStateException(
+						"Could not inspect meta data for database type.", e);
+			}
+			this.databaseType = databaseType;
+		}
+		return databaseType;
+	}
+
+	/**
+	 * Runs a query returning multiple task executions and either populates their
+	 * arguments right away or, if lazy argument loading is enabled, registers them with
+	 * a loader shared by the whole result.
+	 * @param query the query to execute.
+	 * @param queryParameters the parameters for the query.
+	 * @return the task executions.
+	 */
+	private List<TaskExecution> queryForTaskExecutions(String query,
+			SqlParameterSource queryParameters) {
+		return queryForTaskExecutions(query, queryParameters, null, false);
+	}
+
+	/**
+	 * Runs a query returning multiple task executions, see
+	 * {@link #queryForTaskExecutions(String, SqlParameterSource)}.
+	 * @param query the query to execute.
+	 * @param queryParameters the parameters for the query.
+	 * @param rowCallbackHandler if not null, invoked with each row before it is mapped,
+	 * to read the columns that are not part of the task execution.
+	 * @param archiveIncluded whether the query reads archived task executions, whose
+	 * arguments are read from the archive.
+	 * @return the task executions.
+	 */
+	private List<TaskExecution> queryForTaskExecutions(String query,
+			SqlParameterSource queryParameters, RowCallbackHandler rowCallbackHandler,
+			boolean archiveIncluded) {
+		RowMapper<TaskExecution> rowMapper = new TaskExecutionRowMapper(
+				this.lazyArgumentLoading ? new TaskArgumentsLoader(archiveIncluded)
+						: null);
+		if (rowCallbackHandler != null) {
+			RowMapper<TaskExecution> taskExecutionRowMapper = rowMapper;
+			rowMapper = (rs, rowNum) -> {
+				rowCallbackHandler.processRow(rs);
+				return taskExecutionRowMapper.mapRow(rs, rowNum);
+			};
+		}
+		List<TaskExecution> resultList = this.jdbcTemplate.query(query, queryParameters,
+				rowMapper);
+		return this.lazyArgumentLoading ? resultList
+				: populateArguments(resultList, archiveIncluded);
+	}
+
+	/**
+	 * Converts the requested {@link Sort} into the sort keys used by the paging query
+	 * providers, validating that only task execution columns are used.
+	 * @param sort the requested sort, may be null or unsorted.
+	 * @param defaultSortKeys the sort keys to use if no sort is requested.
+	 * @return the sort keys.
+	 */
+	static Map<String, Order> getSortKeys(Sort sort,
+			Map<String, Order> defaultSortKeys) {
 		final LinkedHashMap<String, Order> sortOrderMap = new LinkedHashMap<>();
 
 		if (sort != null) {
@@ -534,54 +1353,196 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 			}
 		}
 
-		if (!CollectionUtils.isEmpty(sortOrderMap)) {
-			factoryBean.setSortKeys(sortOrderMap);
+		return !CollectionUtils.isEmpty(sortOrderMap) ? sortOrderMap : defaultSortKeys;
+	}
+
+	/**
+	 * Builds the conditions for the criteria of the filter and adds their values to the
+	 * query parameters. Only columns of {@code validFilterColumns} are referenced and all
+	 * values are bound as parameters.
+	 * @param filter the filter to convert.
+	 * @param queryParameters the parameters of the query.
+	 * @return the conditions joined with AND, or null if the filter has no criteria.
+	 */
+	private String buildFilterConditions(TaskExecutionFilter filter,
+			MapSqlParameterSource queryParameters) {
+		List<String> conditions = new ArrayList<>();
+		if (filter.getTaskName() != null) {
+			conditions.add(filterCondition("TASK_NAME", "=", "taskName"));
+			queryParameters.addValue("taskName", filter.getTaskName(), Types.VARCHAR);
 		}
-		else {
-			factoryBean.setSortKeys(this.orderMap);
+		if (filter.getRunning() != null) {
+			conditions.add(filterCondition("END_TIME",
+					filter.getRunning() ? "IS NULL" : "IS NOT NULL", null));
+		}
+		if (filter.getExitCode() != null) {
+			conditions.add(filterCondition("EXIT_CODE", "=", "exitCode"));
+			queryParameters.addValue("exitCode", filter.getExitCode(), Types.INTEGER);
+		}
+		if (filter.getFailed() != null) {
+			// NULL exit codes (running executions) match neither condition
+			conditions.add(filterCondition("EXIT_CODE", filter.getFailed() ? "<>" : "=",
+					"successExitCode"));
+			queryParameters.addValue("successExitCode", 0, Types.INTEGER);
+		}
+		if (filter.getStartTimeFrom() != null) {
+			conditions.add(filterCondition("START_TIME", ">=", "startTimeFrom"));
+			queryParameters.addValue("startTimeFrom", filter.getStartTimeFrom(),
+					Types.TIMESTAMP);
+		}
+		if (filter.getStartTimeTo() != null) {
+			conditions.add(filterCondition("START_TIME", "<", "startTimeTo"));
+			queryParameters.addValue("startTimeTo", filter.getStartTimeTo(),
+					Types.TIMESTAMP);
+		}
+		if (filter.getEndTimeFrom() != null) {
+			conditions.add(filterCondition("END_TIME", ">=", "endTimeFrom"));
+			queryParameters.addValue("endTimeFrom", filter.getEndTimeFrom(),
+					Types.TIMESTAMP);
 		}
+		if (filter.getEndTimeTo() != null) {
+			conditions.add(filterCondition("END_TIME", "<", "endTimeTo"));
+			queryParameters.addValue("endTimeTo", filter.getEndTimeTo(), Types.TIMESTAMP);
+		}
+		if (filter.getExternalExecutionId() != null) {
+			conditions.add(filterCondition("EXTERNAL_EXECUTION_ID", "=",
+					"externalExecutionId"));
+			queryParameters.addValue("externalExecutionId",
+					filter.getExternalExecutionId(), Types.VARCHAR);
+		}
+		if (filter.getParentExecutionId() != null) {
+			conditions.add(filterCondition("PARENT_EXECUTION_ID", "=",
+					"parentExecutionId"));
+			queryParameters.addValue("parentExecutionId", filter.getParentExecutionId(),
+					Types.BIGINT);
+		}
+		if (filter.getErrorMessagePresent() != null) {
+			conditions.add(buildErrorMessageCondition(filter.getErrorMessagePresent()));
+			queryParameters.addValue("emptyErrorMessage", "", Types.VARCHAR);
+		}
+		return conditions.isEmpty() ? null
+				: StringUtils.collectionToDelimitedString(conditions, " AND ");
+	}
 
-		factoryBean.setDataSource(this.dataSource);
-		PagingQueryProvider pagingQueryProvider;
+	/**
+	 * Oracle stores empty strings as NULL and evaluates comparisons with '' as unknown,
+	 * so only the other databases need to treat an empty error message as absent.
+	 */
+	private String buildErrorMessageCondition(boolean errorMessagePresent) {
+		if (getDatabaseType() == DatabaseType.ORACLE) {
+			return filterCondition("ERROR_MESSAGE",
+					errorMessagePresent ? "IS NOT NULL" : "IS NULL", null);
+		}
+		return errorMessagePresent
+				? "(" + filterCondition("ERROR_MESSAGE", "IS NOT NULL", null) + " AND "
+						+ filterCondition("ERROR_MESSAGE", "<>", "emptyErrorMessage") + ")"
+				: "(" + filterCondition("ERROR_MESSAGE", "IS NULL", null) + " OR "
+						+ filterCondition("ERROR_MESSAGE", "=", "emptyErrorMessage") + ")";
+	}
+
+	private static String filterCondition(String column, String operator,
+			String parameterName) {
+		Assert.state(validFilterColumns.contains(column),
+				() -> "Invalid filter column: " + column);
+		return column + " " + operator
+				+ (parameterName != null ? " :" + parameterName : "");
+	}
+
+	private void updateTaskExecution(long taskExecutionId,
+			MapSqlParameterSource parameters) {
+		// If no row was updated the given TaskExecution's Id does not exist, so it is
+		// invalid and an exception should be thrown.
+		if (this.jdbcTemplate.update(getQuery(UPDATE_TASK_EXECUTION), parameters) != 1) {
+			throw new IllegalStateException(
+					"Invalid TaskExecution, ID " + taskExecutionId + " not found.");
+		}
+	}
+
+	/**
+	 * Reads the task name and end time of a task execution before it is updated.
+	 * @return the state of the task execution, or null if the summary is disabled or
+	 * the task execution does not exist.
+	 */
+	private Map<String, Object> findTaskExecutionState(long taskExecutionId) {
+		if (!this.summaryEnabled) {
+			return null;
+		}
+		try {
+			return this.jdbcTemplate.queryForMap(getQuery(FIND_TASK_EXECUTION_STATE),
+					new MapSqlParameterSource("taskExecutionId", taskExecutionId));
+		}
+		catch (EmptyResultDataAccessException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Adds the deltas to the summary row of the task name, creating the row if needed.
+	 */
+	private void updateTaskExecutionSummary(String taskName, long executionDelta,
+			long runningDelta, long lastExecutionId) {
+		if (!this.summaryEnabled || taskName == null
+				|| (executionDelta == 0 && runningDelta == 0)) {
+			return;
+		}
+		MapSqlParameterSource queryParameters = new MapSqlParameterSource()
+				.addValue("taskName", taskName, Types.VARCHAR)
+				.addValue("executionDelta", executionDelta, Types.BIGINT)
+				.addValue("runningDelta", runningDelta, Types.BIGINT)
+				.addValue("lastExecutionId", lastExecutionId, Types.BIGINT);
+		String updateQuery = getQuery(UPDATE_TASK_EXECUTION_SUMMARY);
+		if (this.jdbcTemplate.update(updateQuery, queryParameters) > 0) {
+			return;
+		}
+		String insertQuery = (getDatabaseType() == DatabaseType.POSTGRES)
+				? INSERT_TASK_EXECUTION_SUMMARY_ON_CONFLICT : INSERT_TASK_EXECUTION_SUMMARY;
+		int inserted;
 		try {
-			pagingQueryProvider = factoryBean.getObject();
-			pagingQueryProvider.init(this.dataSource);
+			inserted = this.jdbcTemplate.update(getQuery(insertQuery), queryParameters);
+		}
+		catch (DuplicateKeyException e) {
+			inserted = 0;
 		}
-		catch (Exception e) {
-			throw new IllegalStateException(e);
+		if (inserted == 0) {
+			// the row was inserted concurrently
+			this.jdbcTemplate.update(updateQuery, queryParameters);
 		}
-		String query = pagingQueryProvider.getPageQuery(pageable);
-		List<TaskExecution> resultList = this.jdbcTemplate.query(getQuery(query),
-				queryParameters, new TaskExecutionRowMapper());
-		return new PageImpl<>(resultList, pageable, totalCount);
 	}
 
 	private String getQuery(String base) {
-		return StringUtils.replace(base, "%PREFIX%", this.tablePrefix);
+		String query = this.statements.get(base);
+		Assert.state(query != null, () -> "Statement not resolved: " + base);
+		return query;
+	}
+
+	private static Map<String, String> resolveStatements(String tablePrefix) {
+		Map<String, String> statements = new HashMap<>(STATEMENTS.size() * 2);
+		for (String statement : STATEMENTS) {
+			statements.put(statement,
+					StringUtils.replace(statement, "%PREFIX%", tablePrefix));
+		}
+		return Collections.unmodifiableMap(statements);
 	}
 
 	/**
-	 * Convenience method that inserts all arguments from the provided task arguments.
+	 * Convenience method that inserts all arguments from the provided task arguments
+	 * into the TASK_EXECUTION_PARAMS table using a single JDBC batch.
 	 * @param executionId The executionId to which the arguments are associated.
 	 * @param taskArguments The arguments to be stored.
 	 */
 	private void insertTaskArguments(long executionId, List<String> taskArguments) {
-		for (String args : taskArguments) {
-			insertArgument(executionId, args);
+		if (CollectionUtils.isEmpty(taskArguments)) {
+			return;
 		}
-	}
-
-	/**
-	 * Convenience method that inserts an individual records into the TASK_EXECUTION_PARAMS
-	 * table.
-	 * @param taskExecutionId id of a task execution
-	 * @param taskParam task parameters
-	 */
-	private void insertArgument(long taskExecutionId, String taskParam) {
-		final MapSqlParameterSource queryParameters = new MapSqlParameterSource()
-				.addValue("taskExecutionId", taskExecutionId, Types.BIGINT)
-				.addValue("taskParam", taskParam, Types.VARCHAR);
-		this.jdbcTemplate.update(getQuery(CREATE_TASK_ARGUMENT), queryParameters);
+		SqlParameterSource[] batchParameters = new SqlParameterSource[taskArguments
+				.size()];
+		int index = 0;
+		for (String taskParam : taskArguments) {
+			batchParameters[index++] = new MapSqlParameterSource()
+					.addValue("taskExecutionId", executionId, Types.BIGINT)
+					.addValue("taskParam", taskParam, Types.VARCHAR);
+		}
+		this.jdbcTemplate.batchUpdate(getQuery(CREATE_TASK_ARGUMENT), batchParameters);
 	}
 
 	private List<String> getTaskArguments(long taskExecutionId) {
@@ -598,12 +1559,65 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 	}
 
 	/**
-	 * Re-usable mapper for {@link TaskExecution} instances.
+	 * Loads the arguments for all of the provided task executions with one query per
+	 * {@value #MAX_ARGUMENT_LOOKUP_IDS} executions and assigns them to their execution.
+	 * @param taskExecutions the task executions that need their arguments populated.
+	 * @param archiveIncluded whether the arguments of archived task executions are read
+	 * as well.
+	 * @return the same list of task executions.
+	 */
+	private List<TaskExecution> populateArguments(List<TaskExecution> taskExecutions,
+			boolean archiveIncluded) {
+		if (taskExecutions.isEmpty()) {
+			return taskExecutions;
+		}
+		List<Long> taskExecutionIds = new ArrayList<>(taskExecutions.size());
+		for (TaskExecution taskExecution : taskExecutions) {
+			taskExecutionIds.add(taskExecution.getExecutionId());
+		}
+		Map<Long, List<String>> arguments = getTaskArguments(taskExecutionIds,
+				archiveIncluded);
+		for (TaskExecution taskExecution : taskExecutions) {
+			taskExecution.setArguments(arguments.getOrDefault(
+					taskExecution.getExecutionId(), Collections.emptyList()));
+		}
+		return taskExecutions;
+	}
+
+	private Map<Long, List<String>> getTaskArguments(Collection<Long> taskExecutionIds,
+			boolean archiveIncluded) {
+		final Map<Long, List<String>> arguments = new HashMap<>();
+		RowCallbackHandler handler = new RowCallbackHandler() {
+			@Override
+			public void processRow(ResultSet rs) throws SQLException {
+				arguments.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>())
+						.add(rs.getString(2));
+			}
+		};
+		String query = getQuery(archiveIncluded ? ARCHIVE_INCLUDED_FIND_ARGUMENTS_FROM_IDS
+				: FIND_ARGUMENTS_FROM_IDS);
+		List<Long> ids = new ArrayList<>(taskExecutionIds);
+		for (int from = 0; from < ids.size(); from += MAX_ARGUMENT_LOOKUP_IDS) {
+			List<Long> chunk = ids.subList(from,
+					Math.min(from + MAX_ARGUMENT_LOOKUP_IDS, ids.size()));
+			this.jdbcTemplate.query(query,
+					new MapSqlParameterSource("taskExecutionIds", chunk), handler);
+		}
+		return arguments;
+	}
+
+	/**
+	 * Re-usable mapper for {@link TaskExecution} instances. Arguments are not loaded by
+	 * the mapper; they are either populated for the whole result set afterwards or, when
+	 * an {@link TaskArgumentsLoader} is provided, loaded on first access.
 	 *
 	 */
 	private final class TaskExecutionRowMapper implements RowMapper<TaskExecution> {
 
-		private TaskExecutionRowMapper() {
+		private final TaskArgumentsLoader argumentsLoader;
+
+		private TaskExecutionRowMapper(TaskArgumentsLoader argumentsLoader) {
+			this.argumentsLoader = argumentsLoader;
 		}
 
 		@Override
@@ -613,10 +1627,20 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 			if (rs.wasNull()) {
 				parentExecutionId = null;
 			}
+			if (this.argumentsLoader != null) {
+				LazyArgumentsTaskExecution taskExecution = new LazyArgumentsTaskExecution(
+						id, getNullableExitCode(rs), rs.getString("TASK_NAME"),
+						rs.getTimestamp("START_TIME"), rs.getTimestamp("END_TIME"),
+						rs.getString("EXIT_MESSAGE"), rs.getString("ERROR_MESSAGE"),
+						rs.getString("EXTERNAL_EXECUTION_ID"), parentExecutionId,
+						this.argumentsLoader);
+				this.argumentsLoader.register(taskExecution);
+				return taskExecution;
+			}
 			return new TaskExecution(id, getNullableExitCode(rs),
 					rs.getString("TASK_NAME"), rs.getTimestamp("START_TIME"),
 					rs.getTimestamp("END_TIME"), rs.getString("EXIT_MESSAGE"),
-					getTaskArguments(id), rs.getString("ERROR_MESSAGE"),
+					Collections.emptyList(), rs.getString("ERROR_MESSAGE"),
 					rs.getString("EXTERNAL_EXECUTION_ID"), parentExecutionId);
 		}
 
@@ -627,4 +1651,147 @@ public class JdbcTaskExecutionDao implements TaskExecutionDao {
 
 	}
 
+	/**
+	 * Loads the arguments of all the {@link LazyArgumentsTaskExecution}s returned by a
+	 * single query. The first access to the arguments of any of the executions loads the
+	 * arguments of every execution in the result that has not been loaded yet.
+	 */
+	private final class TaskArgumentsLoader {
+
+		private final List<LazyArgumentsTaskExecution> pending = new ArrayList<>();
+
+		private final boolean archiveIncluded;
+
+		private TaskArgumentsLoader(boolean archiveIncluded) {
+			this.archiveIncluded = archiveIncluded;
+		}
+
+		private synchronized void register(LazyArgumentsTaskExecution taskExecution) {
+			this.pending.add(taskExecution);
+		}
+
+		private synchronized void load() {
+			List<Long> taskExecutionIds = new ArrayList<>(this.pending.size());
+			for (LazyArgumentsTaskExecution taskExecution : this.pending) {
+				if (!taskExecution.isArgumentsLoaded()) {
+					taskExecutionIds.add(taskExecution.getExecutionId());
+				}
+			}
+			Map<Long, List<String>> arguments = taskExecutionIds.isEmpty()
+					? Collections.emptyMap()
+					: getTaskArguments(taskExecutionIds, this.archiveIncluded);
+			for (LazyArgumentsTaskExecution taskExecution : this.pending) {
+				if (!taskExecution.isArgumentsLoaded()) {
+					taskExecution.setArguments(arguments.getOrDefault(
+							taskExecution.getExecutionId(), Collections.emptyList()));
+				}
+			}
+			this.pending.clear();
+		}
+
+	}
+
+	/**
+	 * Merges the consecutive rows of a stream that belong to the same task execution,
+	 * one row per argument, into a single task execution carrying all the arguments.
+	 */
+	private static final class ArgumentGroupingSpliterator
+			extends Spliterators.AbstractSpliterator<TaskExecution> {
+
+		private final Iterator<TaskExecution> rows;
+
+		private TaskExecution next;
+
+		private ArgumentGroupingSpliterator(Iterator<TaskExecution> rows) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.rows = rows;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super TaskExecution> action) {
+			TaskExecution taskExecution = this.next;
+			this.next = null;
+			if (taskExecution == null) {
+				if (!this.rows.hasNext()) {
+					return false;
+				}
+				taskExecution = this.rows.next();
+			}
+			while (this.rows.hasNext()) {
+				TaskExecution row = this.rows.next();
+				if (row.getExecutionId() != taskExecution.getExecutionId()) {
+					this.next = row;
+					break;
+				}
+				taskExecution.getArguments().addAll(row.getArguments());
+			}
+			action.accept(taskExecution);
+			return true;
+		}
+
+	}
+
+	/**
+	 * Access ordered map that evicts the least recently used paging query provider once
+	 * the maximum size is exceeded. Callers synchronize on the map.
+	 */
+	private static final class PagingQueryProviderCache
+			extends LinkedHashMap<String, PagingQueryProvider> {
+
+		private final int maxSize;
+
+		PagingQueryProviderCache(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(
+				Map.Entry<String, PagingQueryProvider> eldest) {
+			return size() > this.maxSize;
+		}
+
+	}
+
+	/**
+	 * {@link TaskExecution} whose arguments are retrieved through a
+	 * {@link TaskArgumentsLoader} the first time they are requested. Explicitly setting
+	 * the arguments marks them as loaded.
+	 */
+	private static final class LazyArgumentsTaskExecution extends TaskExecution {
+
+		private final TaskArgumentsLoader argumentsLoader;
+
+		private volatile boolean argumentsLoaded;
+
+		private LazyArgumentsTaskExecution(long executionId, Integer exitCode,
+				String taskName, Date startTime, Date endTime, String exitMessage,
+				String errorMessage, String externalExecutionId, Long parentExecutionId,
+				TaskArgumentsLoader argumentsLoader) {
+			super(executionId, exitCode, taskName, startTime, endTime, exitMessage,
+					Collections.emptyList(), errorMessage, externalExecutionId,
+					parentExecutionId);
+			this.argumentsLoader = argumentsLoader;
+		}
+
+		@Override
+		public List<String> getArguments() {
+			if (!this.argumentsLoaded) {
+				this.argumentsLoader.load();
+			}
+			return super.getArguments();
+		}
+
+		@Override
+		public void setArguments(List<String> arguments) {
+			super.setArguments(arguments);
+			this.argumentsLoaded = true;
+		}
+
+		private boolean isArgumentsLoaded() {
+			return this.argumentsLoaded;
+		}
+
+	}
+
 }
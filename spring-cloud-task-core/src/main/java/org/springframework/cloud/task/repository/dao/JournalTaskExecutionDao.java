@@ -0,0 +1,479 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.dao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.util.Assert;
+
+/**
+ * {@link MapTaskExecutionDao} that records every change to a journal on local disk, so
+ * the task executions survive a restart without a database. The task executions are
+ * served from memory, with the indexes of the {@link MapTaskExecutionDao}, and each
+ * change is appended to the journal as the resulting state of the task execution, or as
+ * the ids of the task executions deleted or archived.
+ *
+ * <p>
+ * The journal is a sequence of segment files, written through a memory mapped buffer so
+ * that an append is a memory copy. A new segment is started when a record does not fit in
+ * the current one. The records are not forced to disk when they are written, so they
+ * survive the process but not the operating system stopping abruptly; the segments are
+ * forced when rotated and when the journal is closed. Each record carries a checksum, a
+ * torn or corrupt record ending the replay of its segment.
+ *
+ * <p>
+ * On startup the segments are replayed in order and compacted: the task executions are
+ * written to a new segment in their final state and the replayed segments are deleted.
+ * The batch job associations are not journaled.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class JournalTaskExecutionDao extends MapTaskExecutionDao implements Closeable {
+
+	/**
+	 * Default size in bytes of a journal segment.
+	 */
+	public static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+	private static final Log logger = LogFactory.getLog(JournalTaskExecutionDao.class);
+
+	private static final String SEGMENT_PREFIX = "journal-";
+
+	private static final String SEGMENT_SUFFIX = ".log";
+
+	/**
+	 * Size of the record header: the payload length and checksum.
+	 */
+	private static final int HEADER_SIZE = 8;
+
+	private static final byte PUT = 1;
+
+	private static final byte DELETE = 2;
+
+	private static final byte ARCHIVE = 3;
+
+	private static final byte SEQUENCE = 4;
+
+	private final Path directory;
+
+	private final int segmentSize;
+
+	private long segmentSequence;
+
+	private FileChannel channel;
+
+	private MappedByteBuffer segment;
+
+	private boolean closed;
+
+	/**
+	 * Opens the journal in the directory, using segments of
+	 * {@link #DEFAULT_SEGMENT_SIZE} bytes.
+	 * @param directory the directory holding the journal segments, created if missing.
+	 */
+	public JournalTaskExecutionDao(Path directory) {
+		this(directory, DEFAULT_SEGMENT_SIZE);
+	}
+
+	/**
+	 * Opens the journal in the directory, replaying and compacting the existing segments.
+	 * @param directory the directory holding the journal segments, created if missing.
+	 * @param segmentSize the size in bytes of a journal segment. A record larger than the
+	 * segment size is written to a segment of its own.
+	 */
+	public JournalTaskExecutionDao(Path directory, int segmentSize) {
+		Assert.notNull(directory, "directory must not be null");
+		Assert.isTrue(segmentSize > HEADER_SIZE,
+				"segmentSize must be greater than " + HEADER_SIZE);
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		try {
+			Files.createDirectories(directory);
+			List<Path> segments = listSegments();
+			for (Path segment : segments) {
+				replay(segment);
+			}
+			compact(segments);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(
+					"Unable to open the task execution journal in " + directory, e);
+		}
+	}
+
+	@Override
+	public synchronized TaskExecution createTaskExecution(String taskName,
+			Date startTime, List<String> arguments, String externalExecutionId,
+			Long parentExecutionId) {
+		assertOpen();
+		TaskExecution taskExecution = super.createTaskExecution(taskName, startTime,
+				arguments, externalExecutionId, parentExecutionId);
+		appendTaskExecution(taskExecution.getExecutionId());
+		return taskExecution;
+	}
+
+	@Override
+	public synchronized TaskExecution startTaskExecution(long executionId,
+			String taskName, Date startTime, List<String> arguments,
+			String externalExecutionid, Long parentExecutionId) {
+		assertOpen();
+		TaskExecution taskExecution = super.startTaskExecution(executionId, taskName,
+				startTime, arguments, externalExecutionid, parentExecutionId);
+		appendTaskExecution(executionId);
+		return taskExecution;
+	}
+
+	@Override
+	public synchronized void completeTaskExecution(long executionId, Integer exitCode,
+			Date endTime, String exitMessage, String errorMessage) {
+		assertOpen();
+		super.completeTaskExecution(executionId, exitCode, endTime, exitMessage,
+				errorMessage);
+		appendTaskExecution(executionId);
+	}
+
+	@Override
+	public synchronized void updateExternalExecutionId(long taskExecutionId,
+			String externalExecutionId) {
+		assertOpen();
+		super.updateExternalExecutionId(taskExecutionId, externalExecutionId);
+		appendTaskExecution(taskExecutionId);
+	}
+
+	@Override
+	public synchronized TaskExecutionPurgeResult deleteTaskExecutions(
+			Collection<Long> taskExecutionIds) {
+		assertOpen();
+		TaskExecutionPurgeResult result = super.deleteTaskExecutions(taskExecutionIds);
+		append(DELETE, out -> writeIds(out, taskExecutionIds));
+		return result;
+	}
+
+	@Override
+	public synchronized TaskExecutionPurgeResult archiveTaskExecutions(
+			Collection<Long> taskExecutionIds) {
+		assertOpen();
+		TaskExecutionPurgeResult result = super.archiveTaskExecutions(taskExecutionIds);
+		append(ARCHIVE, out -> writeIds(out, taskExecutionIds));
+		return result;
+	}
+
+	/**
+	 * Forces the journal to disk and closes it. The task executions can still be read
+	 * once the journal is closed but not changed.
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		try {
+			closeSegment();
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Unable to close the task execution journal",
+					e);
+		}
+	}
+
+	private List<Path> listSegments() throws IOException {
+		try (Stream<Path> files = Files.list(this.directory)) {
+			return files.filter(file -> {
+				String name = file.getFileName().toString();
+				return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+			}).sorted().collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Reads the segment into a heap buffer rather than mapping it, a mapped segment not
+	 * being deletable on some platforms until the mapping is garbage collected.
+	 */
+	private void replay(Path path) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+		while (buffer.remaining() >= HEADER_SIZE) {
+			int length = buffer.getInt();
+			int checksum = buffer.getInt();
+			if (length == 0) {
+				// the unwritten remainder of the segment
+				break;
+			}
+			if (length < 0 || length > buffer.remaining()) {
+				logger.warn("Ignoring the truncated end of journal segment " + path);
+				break;
+			}
+			byte[] payload = new byte[length];
+			buffer.get(payload);
+			if (checksum(payload) != checksum) {
+				logger.warn("Ignoring the corrupt end of journal segment " + path);
+				break;
+			}
+			apply(new DataInputStream(new ByteArrayInputStream(payload)));
+		}
+		this.segmentSequence = Math.max(this.segmentSequence, sequenceOf(path));
+	}
+
+	private void apply(DataInputStream in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case PUT:
+			TaskExecution taskExecution = readTaskExecution(in);
+			restoreTaskExecution(taskExecution, new Date(in.readLong()));
+			break;
+		case DELETE:
+			super.deleteTaskExecutions(readIds(in));
+			break;
+		case ARCHIVE:
+			super.archiveTaskExecutions(readIds(in));
+			break;
+		case SEQUENCE:
+			advanceNextExecutionId(in.readLong());
+			break;
+		default:
+			throw new IllegalStateException(
+					"Unknown task execution journal record type " + type);
+		}
+	}
+
+	/**
+	 * Writes the current state to a new segment, then deletes the replayed segments.
+	 */
+	private void compact(List<Path> replayedSegments) throws IOException {
+		append(SEQUENCE, out -> out.writeLong(peekNextExecutionId()));
+		for (TaskExecution taskExecution : new TreeMap<>(getTaskExecutions()).values()) {
+			appendTaskExecution(taskExecution.getExecutionId());
+		}
+		Map<Long, TaskExecution> archived = new TreeMap<>(getArchivedTaskExecutions());
+		for (TaskExecution taskExecution : archived.values()) {
+			append(PUT, out -> writeTaskExecution(out, taskExecution, new Date(0)));
+		}
+		if (!archived.isEmpty()) {
+			append(ARCHIVE, out -> writeIds(out, archived.keySet()));
+		}
+		this.segment.force();
+		for (Path replayedSegment : replayedSegments) {
+			Files.delete(replayedSegment);
+		}
+	}
+
+	private void appendTaskExecution(long executionId) {
+		TaskExecution taskExecution = getTaskExecution(executionId);
+		if (taskExecution == null) {
+			// evicted while being completed, the deletion is already journaled
+			return;
+		}
+		Date lastUpdated = getLastUpdated(executionId);
+		append(PUT, out -> writeTaskExecution(out, taskExecution, lastUpdated));
+	}
+
+	private void assertOpen() {
+		Assert.state(!this.closed, "The task execution journal has been closed");
+	}
+
+	private void append(byte type, RecordWriter recordWriter) {
+		assertOpen();
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(type);
+			recordWriter.write(out);
+			out.flush();
+			byte[] payload = bytes.toByteArray();
+			if (this.segment == null
+					|| this.segment.remaining() < HEADER_SIZE + payload.length) {
+				rotate(HEADER_SIZE + payload.length);
+			}
+			this.segment.putInt(payload.length);
+			this.segment.putInt(checksum(payload));
+			this.segment.put(payload);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(
+					"Unable to write to the task execution journal", e);
+		}
+	}
+
+	private void rotate(int recordSize) throws IOException {
+		closeSegment();
+		this.segmentSequence++;
+		Path path = this.directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX,
+				this.segmentSequence, SEGMENT_SUFFIX));
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		this.segment = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+				Math.max(this.segmentSize, recordSize));
+	}
+
+	private void closeSegment() throws IOException {
+		if (this.segment != null) {
+			this.segment.force();
+			this.segment = null;
+		}
+		if (this.channel != null) {
+			this.channel.close();
+			this.channel = null;
+		}
+	}
+
+	private static long sequenceOf(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+				name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	private static void writeTaskExecution(DataOutputStream out,
+			TaskExecution taskExecution, Date lastUpdated) throws IOException {
+		out.writeLong(taskExecution.getExecutionId());
+		writeString(out, taskExecution.getTaskName());
+		writeDate(out, taskExecution.getStartTime());
+		writeDate(out, taskExecution.getEndTime());
+		out.writeBoolean(taskExecution.getExitCode() != null);
+		if (taskExecution.getExitCode() != null) {
+			out.writeInt(taskExecution.getExitCode());
+		}
+		writeString(out, taskExecution.getExitMessage());
+		writeString(out, taskExecution.getErrorMessage());
+		writeString(out, taskExecution.getExternalExecutionId());
+		out.writeBoolean(taskExecution.getParentExecutionId() != null);
+		if (taskExecution.getParentExecutionId() != null) {
+			out.writeLong(taskExecution.getParentExecutionId());
+		}
+		List<String> arguments = (taskExecution.getArguments() != null)
+				? taskExecution.getArguments() : Collections.emptyList();
+		out.writeInt(arguments.size());
+		for (String argument : arguments) {
+			writeString(out, argument);
+		}
+		out.writeLong(lastUpdated.getTime());
+	}
+
+	private static TaskExecution readTaskExecution(DataInputStream in)
+			throws IOException {
+		long executionId = in.readLong();
+		String taskName = readString(in);
+		Date startTime = readDate(in);
+		Date endTime = readDate(in);
+		Integer exitCode = in.readBoolean() ? in.readInt() : null;
+		String exitMessage = readString(in);
+		String errorMessage = readString(in);
+		String externalExecutionId = readString(in);
+		Long parentExecutionId = in.readBoolean() ? in.readLong() : null;
+		int argumentCount = in.readInt();
+		List<String> arguments = new ArrayList<>(argumentCount);
+		for (int i = 0; i < argumentCount; i++) {
+			arguments.add(readString(in));
+		}
+		return new TaskExecution(executionId, exitCode, taskName, startTime, endTime,
+				exitMessage, arguments, errorMessage, externalExecutionId,
+				parentExecutionId);
+	}
+
+	private static void writeIds(DataOutputStream out, Collection<Long> ids)
+			throws IOException {
+		out.writeInt(ids.size());
+		for (Long id : ids) {
+			out.writeLong(id);
+		}
+	}
+
+	private static List<Long> readIds(DataInputStream in) throws IOException {
+		int count = in.readInt();
+		List<Long> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add(in.readLong());
+		}
+		return ids;
+	}
+
+	private static void writeString(DataOutputStream out, String value)
+			throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeDate(DataOutputStream out, Date date) throws IOException {
+		out.writeBoolean(date != null);
+		if (date != null) {
+			out.writeLong(date.getTime());
+		}
+	}
+
+	private static Date readDate(DataInputStream in) throws IOException {
+		return in.readBoolean() ? new Date(in.readLong()) : null;
+	}
+
+	/**
+	 * Writes the payload of a journal record.
+	 */
+	@FunctionalInterface
+	private interface RecordWriter {
+
+		void write(DataOutputStream out) throws IOException;
+
+	}
+
+}
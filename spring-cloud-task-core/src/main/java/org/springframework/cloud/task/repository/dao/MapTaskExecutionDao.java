@@ -17,20 +17,39 @@
 package org.springframework.cloud.task.repository.dao;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCursor;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.cloud.task.repository.TaskExecutionUpdates;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -40,18 +59,85 @@ import org.springframework.util.StringUtils;
 /**
  * Stores Task Execution Information to a in-memory map.
  *
+ * <p>
+ * The task executions are also kept in secondary indexes ordered by start time and
+ * execution id: all of them, the ones of each task name, the running ones and the ones of
+ * each task name that are running, along with the children of each parent task
+ * execution. The indexes are updated when a task execution is created, started,
+ * completed or removed, so the counts do not scan the task executions and the pages are
+ * read from an ordered index instead of sorting every task execution.
+ *
+ * <p>
+ * The stored task executions are snapshots that are never modified: starting,
+ * completing or updating a task execution stores a changed copy in its place with a
+ * compare-and-set, retried if another writer replaced it first. Readers therefore get a
+ * consistent task execution without locking or copying, and must not modify it. The
+ * task executions returned by the methods that create, start or update a task execution
+ * are private copies that the caller is free to modify, changes to them only being stored
+ * by calling this DAO again.
+ *
+ * <p>
+ * By default every task execution is kept until it is deleted. Setting a maximum number
+ * of entries or a maximum age bounds the map: each time a task execution is created or
+ * completed, the completed task executions beyond the maximum number of entries or that
+ * ended before the maximum age are deleted, oldest end time first, along with their batch
+ * job associations. Running task executions are never evicted, so the map may hold more
+ * than the maximum number of entries while they run, and a task execution can be evicted
+ * as soon as it completes. Evictions are counted by the {@value #EVICTIONS_METER}
+ * counter, tagged with the bound that caused them, and the number of task executions
+ * held is reported by the {@value #SIZE_METER} gauge.
+ *
  * @author Glenn Renfro
  * @author Gunnar Hillert
  * @author David Turanski
  */
 public class MapTaskExecutionDao implements TaskExecutionDao {
 
+	/**
+	 * Counter of the task executions evicted from a bounded map, tagged with the
+	 * {@code reason} they were evicted for: {@code max-entries} or {@code max-age}.
+	 */
+	public static final String EVICTIONS_METER = "spring.cloud.task.repository.map.evictions";
+
+	/**
+	 * Gauge reporting the number of task executions held by a bounded map.
+	 */
+	public static final String SIZE_METER = "spring.cloud.task.repository.map.size";
+
 	private final AtomicLong currentId = new AtomicLong(0L);
 
 	private ConcurrentMap<Long, TaskExecution> taskExecutions;
 
 	private ConcurrentMap<Long, Set<Long>> batchJobAssociations;
 
+	private final ConcurrentMap<Long, TaskExecution> archivedTaskExecutions = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Long, Set<Long>> archivedBatchJobAssociations = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Long, Date> lastUpdated = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Long, IndexEntry> indexEntries = new ConcurrentHashMap<>();
+
+	private final ConcurrentNavigableMap<ExecutionKey, TaskExecution> executionsByStartTime = new ConcurrentSkipListMap<>();
+
+	private final ConcurrentNavigableMap<ExecutionKey, TaskExecution> runningExecutions = new ConcurrentSkipListMap<>();
+
+	private final AtomicLong runningExecutionCount = new AtomicLong(0L);
+
+	private final ConcurrentNavigableMap<String, TaskNameIndex> executionsByTaskName = new ConcurrentSkipListMap<>();
+
+	private final ConcurrentMap<Long, Set<Long>> childExecutionIds = new ConcurrentHashMap<>();
+
+	private final ConcurrentNavigableMap<ExecutionKey, TaskExecution> completedExecutionsByEndTime = new ConcurrentSkipListMap<>();
+
+	private volatile int maxEntries;
+
+	private volatile Duration maxAge;
+
+	private Counter maxEntriesEvictions;
+
+	private Counter maxAgeEvictions;
+
 	public MapTaskExecutionDao() {
 		this.taskExecutions = new ConcurrentHashMap<>();
 		this.batchJobAssociations = new ConcurrentHashMap<>();
@@ -72,7 +158,10 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 				startTime, null, null, arguments, null, externalExecutionId,
 				parentExecutionId);
 		this.taskExecutions.put(taskExecutionId, taskExecution);
-		return taskExecution;
+		this.lastUpdated.put(taskExecutionId, new Date());
+		reindex(taskExecutionId);
+		evict();
+		return copyOf(taskExecution);
 	}
 
 	@Override
@@ -86,30 +175,28 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 	public TaskExecution startTaskExecution(long executionId, String taskName,
 			Date startTime, List<String> arguments, String externalExecutionid,
 			Long parentExecutionId) {
-		TaskExecution taskExecution = this.taskExecutions.get(executionId);
-		taskExecution.setTaskName(taskName);
-		taskExecution.setStartTime(startTime);
-		taskExecution.setArguments(arguments);
-		taskExecution.setParentExecutionId(parentExecutionId);
-		if (externalExecutionid != null) {
-			taskExecution.setExternalExecutionId(externalExecutionid);
-		}
-		return taskExecution;
+		TaskExecution taskExecution = update(executionId, snapshot -> {
+			snapshot.setTaskName(taskName);
+			snapshot.setStartTime(startTime);
+			snapshot.setArguments(arguments);
+			snapshot.setParentExecutionId(parentExecutionId);
+			if (externalExecutionid != null) {
+				snapshot.setExternalExecutionId(externalExecutionid);
+			}
+		});
+		return copyOf(taskExecution);
 	}
 
 	@Override
 	public void completeTaskExecution(long executionId, Integer exitCode, Date endTime,
 			String exitMessage, String errorMessage) {
-		if (!this.taskExecutions.containsKey(executionId)) {
-			throw new IllegalStateException(
-					"Invalid TaskExecution, ID " + executionId + " not found.");
-		}
-
-		TaskExecution taskExecution = this.taskExecutions.get(executionId);
-		taskExecution.setEndTime(endTime);
-		taskExecution.setExitCode(exitCode);
-		taskExecution.setExitMessage(exitMessage);
-		taskExecution.setErrorMessage(errorMessage);
+		update(executionId, snapshot -> {
+			snapshot.setEndTime(endTime);
+			snapshot.setExitCode(exitCode);
+			snapshot.setExitMessage(exitMessage);
+			snapshot.setErrorMessage(errorMessage);
+		});
+		evict();
 	}
 
 	@Override
@@ -125,36 +212,19 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 
 	@Override
 	public long getTaskExecutionCountByTaskName(String taskName) {
-		int count = 0;
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getTaskName().equals(taskName)) {
-				count++;
-			}
-		}
-		return count;
+		TaskNameIndex taskNameIndex = getTaskNameIndex(taskName);
+		return (taskNameIndex != null) ? taskNameIndex.count.get() : 0;
 	}
 
 	@Override
 	public long getRunningTaskExecutionCountByTaskName(String taskName) {
-		int count = 0;
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getTaskName().equals(taskName)
-					&& entry.getValue().getEndTime() == null) {
-				count++;
-			}
-		}
-		return count;
+		TaskNameIndex taskNameIndex = getTaskNameIndex(taskName);
+		return (taskNameIndex != null) ? taskNameIndex.runningCount.get() : 0;
 	}
 
 	@Override
 	public long getRunningTaskExecutionCount() {
-		long count = 0;
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getEndTime() == null) {
-				count++;
-			}
-		}
-		return count;
+		return this.runningExecutionCount.get();
 	}
 
 	@Override
@@ -165,45 +235,34 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 	@Override
 	public Page<TaskExecution> findRunningTaskExecutions(String taskName,
 			Pageable pageable) {
-		Set<TaskExecution> result = getTaskExecutionTreeSet();
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getTaskName().equals(taskName)
-					&& entry.getValue().getEndTime() == null) {
-				result.add(entry.getValue());
-			}
+		TaskNameIndex taskNameIndex = getTaskNameIndex(taskName);
+		if (taskNameIndex == null) {
+			return getPage(Collections.emptyList(), pageable, 0);
 		}
-		return getPageFromList(new ArrayList<>(result), pageable,
-				getRunningTaskExecutionCountByTaskName(taskName));
+		return getPage(taskNameIndex.running.values(), pageable,
+				taskNameIndex.runningCount.get());
 	}
 
 	@Override
 	public Page<TaskExecution> findTaskExecutionsByName(String taskName,
 			Pageable pageable) {
-		Set<TaskExecution> filteredSet = getTaskExecutionTreeSet();
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			if (entry.getValue().getTaskName().equals(taskName)) {
-				filteredSet.add(entry.getValue());
-			}
+		TaskNameIndex taskNameIndex = getTaskNameIndex(taskName);
+		if (taskNameIndex == null) {
+			return getPage(Collections.emptyList(), pageable, 0);
 		}
-		return getPageFromList(new ArrayList<>(filteredSet), pageable,
-				getTaskExecutionCountByTaskName(taskName));
+		return getPage(taskNameIndex.executions.values(), pageable,
+				taskNameIndex.count.get());
 	}
 
 	@Override
 	public List<String> getTaskNames() {
-		Set<String> result = new TreeSet<>();
-		for (Map.Entry<Long, TaskExecution> entry : this.taskExecutions.entrySet()) {
-			result.add(entry.getValue().getTaskName());
-		}
-		return new ArrayList<>(result);
+		return new ArrayList<>(this.executionsByTaskName.keySet());
 	}
 
 	@Override
 	public Page<TaskExecution> findAll(Pageable pageable) {
-		TreeSet<TaskExecution> sortedSet = getTaskExecutionTreeSet();
-		sortedSet.addAll(this.taskExecutions.values());
-		List<TaskExecution> result = new ArrayList<>(sortedSet.descendingSet());
-		return getPageFromList(result, pageable, getTaskExecutionCount());
+		return getPage(this.executionsByStartTime.descendingMap().values(), pageable,
+				getTaskExecutionCount());
 	}
 
 	public Map<Long, TaskExecution> getTaskExecutions() {
@@ -214,6 +273,39 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 		return this.currentId.getAndIncrement();
 	}
 
+	/**
+	 * Returns the id the next task execution will be created with, without reserving it.
+	 */
+	long peekNextExecutionId() {
+		return this.currentId.get();
+	}
+
+	/**
+	 * Makes sure that the next task executions are created with an id at least as high
+	 * as the given one.
+	 */
+	void advanceNextExecutionId(long nextExecutionId) {
+		this.currentId.accumulateAndGet(nextExecutionId, Math::max);
+	}
+
+	/**
+	 * Returns the time the task execution was last updated, or null if it is not found.
+	 */
+	Date getLastUpdated(long executionId) {
+		return this.lastUpdated.get(executionId);
+	}
+
+	/**
+	 * Stores a task execution in the state it was saved with, replacing the task
+	 * execution with the same id, if any.
+	 */
+	void restoreTaskExecution(TaskExecution taskExecution, Date lastUpdated) {
+		this.taskExecutions.put(taskExecution.getExecutionId(), taskExecution);
+		this.lastUpdated.put(taskExecution.getExecutionId(), lastUpdated);
+		reindex(taskExecution.getExecutionId());
+		advanceNextExecutionId(taskExecution.getExecutionId() + 1);
+	}
+
 	@Override
 	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
 		Long taskId = null;
@@ -247,28 +339,455 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 	@Override
 	public void updateExternalExecutionId(long taskExecutionId,
 			String externalExecutionId) {
-		TaskExecution taskExecution = this.taskExecutions.get(taskExecutionId);
-		Assert.notNull(taskExecution,
+		Assert.notNull(this.taskExecutions.get(taskExecutionId),
 				"Invalid TaskExecution, ID " + taskExecutionId + " not found.");
-		taskExecution.setExternalExecutionId(externalExecutionId);
+		update(taskExecutionId,
+				snapshot -> snapshot.setExternalExecutionId(externalExecutionId));
 	}
 
 	public ConcurrentMap<Long, Set<Long>> getBatchJobAssociations() {
 		return this.batchJobAssociations;
 	}
 
-	private TreeSet<TaskExecution> getTaskExecutionTreeSet() {
-		return new TreeSet<>(new Comparator<TaskExecution>() {
-			@Override
-			public int compare(TaskExecution e1, TaskExecution e2) {
-				int result = e1.getStartTime().compareTo(e2.getStartTime());
-				if (result == 0) {
-					result = Long.valueOf(e1.getExecutionId())
-							.compareTo(e2.getExecutionId());
+	public Map<Long, TaskExecution> getArchivedTaskExecutions() {
+		return Collections.unmodifiableMap(this.archivedTaskExecutions);
+	}
+
+	public Map<Long, Set<Long>> getArchivedBatchJobAssociations() {
+		return Collections.unmodifiableMap(this.archivedBatchJobAssociations);
+	}
+
+	/**
+	 * Sets the maximum number of task executions kept, completed task executions being
+	 * evicted beyond it. Defaults to 0, no maximum.
+	 * @param maxEntries the maximum number of task executions, or 0 for no maximum.
+	 * @since 3.0.0
+	 */
+	public void setMaxEntries(int maxEntries) {
+		Assert.isTrue(maxEntries >= 0, "maxEntries must not be negative");
+		registerMeters();
+		this.maxEntries = maxEntries;
+		evict();
+	}
+
+	/**
+	 * Sets how long a completed task execution is kept after its end time. Defaults to
+	 * null, no maximum.
+	 * @param maxAge the maximum age of the completed task executions, or null for no
+	 * maximum.
+	 * @since 3.0.0
+	 */
+	public void setMaxAge(Duration maxAge) {
+		Assert.isTrue(maxAge == null || (!maxAge.isNegative() && !maxAge.isZero()),
+				"maxAge must be greater than zero");
+		registerMeters();
+		this.maxAge = maxAge;
+		evict();
+	}
+
+	@Override
+	public List<TaskExecution> findAll(TaskExecutionCursor cursor, int size) {
+		Assert.isTrue(size > 0, "size must be greater than zero");
+		NavigableMap<ExecutionKey, TaskExecution> remaining = this.executionsByStartTime;
+		if (cursor != null) {
+			remaining = remaining.headMap(
+					new ExecutionKey(cursor.getStartTime(), cursor.getExecutionId()),
+					false);
+		}
+		List<TaskExecution> result = new ArrayList<>(size);
+		for (Map.Entry<ExecutionKey, TaskExecution> entry : remaining.descendingMap()
+				.entrySet()) {
+			// task executions without a start time sort first, none are left to page
+			if (result.size() == size || entry.getKey().time == null) {
+				break;
+			}
+			result.add(entry.getValue());
+		}
+		return result;
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionFilter filter,
+			Pageable pageable) {
+		Assert.notNull(filter, "filter must not be null");
+		List<TaskExecution> result = new ArrayList<>();
+		for (TaskExecution taskExecution : getSearchedTaskExecutions(filter)
+				.descendingMap().values()) {
+			if (matches(taskExecution, filter)) {
+				result.add(taskExecution);
+			}
+		}
+		return getPageFromList(result, pageable, result.size());
+	}
+
+	@Override
+	public Stream<TaskExecution> streamTaskExecutions(TaskExecutionFilter filter) {
+		Assert.notNull(filter, "filter must not be null");
+		return getSearchedTaskExecutions(filter).values().stream()
+				.filter(taskExecution -> matches(taskExecution, filter))
+				.sorted(Comparator.comparingLong(TaskExecution::getExecutionId));
+	}
+
+	/**
+	 * Returns the task executions searched by the filter, ordered by start time and id.
+	 * The search is narrowed to the smallest index matching the filter, the archived
+	 * task executions not being indexed.
+	 */
+	private NavigableMap<ExecutionKey, TaskExecution> getSearchedTaskExecutions(
+			TaskExecutionFilter filter) {
+		if (filter.isIncludeArchived()) {
+			TreeMap<ExecutionKey, TaskExecution> searched = new TreeMap<>();
+			for (TaskExecution taskExecution : this.taskExecutions.values()) {
+				searched.put(ExecutionKey.of(taskExecution), taskExecution);
+			}
+			for (TaskExecution taskExecution : this.archivedTaskExecutions.values()) {
+				searched.put(ExecutionKey.of(taskExecution), taskExecution);
+			}
+			return searched;
+		}
+		if (filter.getParentExecutionId() != null) {
+			TreeMap<ExecutionKey, TaskExecution> searched = new TreeMap<>();
+			Set<Long> childIds = this.childExecutionIds
+					.getOrDefault(filter.getParentExecutionId(), Collections.emptySet());
+			for (Long childId : childIds) {
+				IndexEntry indexEntry = this.indexEntries.get(childId);
+				TaskExecution taskExecution = this.taskExecutions.get(childId);
+				if (indexEntry != null && taskExecution != null) {
+					searched.put(indexEntry.key, taskExecution);
 				}
-				return result;
 			}
-		});
+			return searched;
+		}
+		boolean running = Boolean.TRUE.equals(filter.getRunning());
+		if (filter.getTaskName() != null) {
+			TaskNameIndex taskNameIndex = getTaskNameIndex(filter.getTaskName());
+			if (taskNameIndex == null) {
+				return Collections.emptyNavigableMap();
+			}
+			return running ? taskNameIndex.running : taskNameIndex.executions;
+		}
+		return running ? this.runningExecutions : this.executionsByStartTime;
+	}
+
+	@Override
+	public TaskExecutionUpdates findTaskExecutionsUpdatedAfter(
+			TaskExecutionWatermark watermark, int limit) {
+		Assert.notNull(watermark, "watermark must not be null");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		long watermarkTime = watermark.getLastUpdated().getTime();
+		List<Map.Entry<Long, Date>> updated = this.lastUpdated.entrySet().stream()
+				.filter(entry -> entry.getValue().getTime() > watermarkTime
+						|| (entry.getValue().getTime() == watermarkTime
+								&& entry.getKey() > watermark.getExecutionId()))
+				.sorted(Comparator
+						.comparingLong((Map.Entry<Long, Date> entry) -> entry.getValue()
+								.getTime())
+						.thenComparingLong(Map.Entry::getKey))
+				.limit(limit).collect(Collectors.toList());
+		List<TaskExecution> taskExecutions = new ArrayList<>(updated.size());
+		List<Date> lastUpdated = new ArrayList<>(updated.size());
+		for (Map.Entry<Long, Date> entry : updated) {
+			TaskExecution taskExecution = this.taskExecutions.get(entry.getKey());
+			if (taskExecution != null) {
+				taskExecutions.add(taskExecution);
+				lastUpdated.add(entry.getValue());
+			}
+		}
+		return new TaskExecutionUpdates(watermark, taskExecutions, lastUpdated);
+	}
+
+	@Override
+	public List<Long> findTaskExecutionIdsEndedBefore(Date endTime, int limit) {
+		Assert.notNull(endTime, "endTime must not be null");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		return this.taskExecutions.values().stream()
+				.filter(taskExecution -> taskExecution.getEndTime() != null
+						&& taskExecution.getEndTime().getTime() < endTime.getTime())
+				.map(TaskExecution::getExecutionId).sorted().limit(limit)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public List<Long> findTaskExecutionIdsBeyondLatest(String taskName, int retained,
+			int limit) {
+		Assert.hasText(taskName, "taskName must not be null nor empty");
+		Assert.isTrue(retained > 0, "retained must be greater than zero");
+		Assert.isTrue(limit > 0, "limit must be greater than zero");
+		TaskNameIndex taskNameIndex = getTaskNameIndex(taskName);
+		if (taskNameIndex == null) {
+			return Collections.emptyList();
+		}
+		return taskNameIndex.executions.descendingMap().entrySet().stream()
+				.filter(entry -> entry.getKey().time != null).skip(retained)
+				.map(Map.Entry::getValue)
+				.filter(taskExecution -> taskExecution.getEndTime() != null)
+				.map(TaskExecution::getExecutionId).sorted().limit(limit)
+				.collect(Collectors.toList());
+	}
+
+	@Override
+	public TaskExecutionPurgeResult deleteTaskExecutions(
+			Collection<Long> taskExecutionIds) {
+		return removeTaskExecutions(taskExecutionIds, false);
+	}
+
+	@Override
+	public TaskExecutionPurgeResult archiveTaskExecutions(
+			Collection<Long> taskExecutionIds) {
+		return removeTaskExecutions(taskExecutionIds, true);
+	}
+
+	private TaskExecutionPurgeResult removeTaskExecutions(
+			Collection<Long> taskExecutionIds, boolean archive) {
+		Assert.notNull(taskExecutionIds, "taskExecutionIds must not be null");
+		long executions = 0;
+		long params = 0;
+		long batchAssociations = 0;
+		for (Long taskExecutionId : taskExecutionIds) {
+			Set<Long> jobExecutionIds = this.batchJobAssociations.remove(taskExecutionId);
+			if (jobExecutionIds != null) {
+				batchAssociations += jobExecutionIds.size();
+				if (archive) {
+					this.archivedBatchJobAssociations.put(taskExecutionId, jobExecutionIds);
+				}
+			}
+			TaskExecution taskExecution = this.taskExecutions.remove(taskExecutionId);
+			this.lastUpdated.remove(taskExecutionId);
+			unindex(taskExecutionId);
+			if (taskExecution != null) {
+				if (archive) {
+					this.archivedTaskExecutions.put(taskExecutionId, taskExecution);
+				}
+				executions++;
+				if (taskExecution.getArguments() != null) {
+					params += taskExecution.getArguments().size();
+				}
+			}
+		}
+		return new TaskExecutionPurgeResult(executions, params, batchAssociations);
+	}
+
+	private boolean matches(TaskExecution taskExecution, TaskExecutionFilter filter) {
+		if (filter.getTaskName() != null
+				&& !filter.getTaskName().equals(taskExecution.getTaskName())) {
+			return false;
+		}
+		if (filter.getRunning() != null
+				&& filter.getRunning() != (taskExecution.getEndTime() == null)) {
+			return false;
+		}
+		if (filter.getExitCode() != null
+				&& !filter.getExitCode().equals(taskExecution.getExitCode())) {
+			return false;
+		}
+		if (filter.getFailed() != null && (taskExecution.getExitCode() == null
+				|| filter.getFailed() == (taskExecution.getExitCode() == 0))) {
+			return false;
+		}
+		if (!isInRange(taskExecution.getStartTime(), filter.getStartTimeFrom(),
+				filter.getStartTimeTo())) {
+			return false;
+		}
+		if (!isInRange(taskExecution.getEndTime(), filter.getEndTimeFrom(),
+				filter.getEndTimeTo())) {
+			return false;
+		}
+		if (filter.getExternalExecutionId() != null && !filter.getExternalExecutionId()
+				.equals(taskExecution.getExternalExecutionId())) {
+			return false;
+		}
+		if (filter.getParentExecutionId() != null && !filter.getParentExecutionId()
+				.equals(taskExecution.getParentExecutionId())) {
+			return false;
+		}
+		if (filter.getErrorMessagePresent() != null
+				&& filter.getErrorMessagePresent() != StringUtils
+						.hasLength(taskExecution.getErrorMessage())) {
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks that the date is within the optional range, the lower bound being inclusive
+	 * and the upper bound exclusive. A missing date is never within a range.
+	 */
+	private static boolean isInRange(Date date, Date from, Date to) {
+		if (from == null && to == null) {
+			return true;
+		}
+		if (date == null) {
+			return false;
+		}
+		return (from == null || date.getTime() >= from.getTime())
+				&& (to == null || date.getTime() < to.getTime());
+	}
+
+	private TaskNameIndex getTaskNameIndex(String taskName) {
+		return (taskName != null) ? this.executionsByTaskName.get(taskName) : null;
+	}
+
+	/**
+	 * Replaces the index entries of the task execution with ones reflecting its current
+	 * state.
+	 */
+	private synchronized void reindex(long executionId) {
+		unindex(executionId);
+		// writers may reindex out of order, the current snapshot is the one indexed
+		TaskExecution taskExecution = this.taskExecutions.get(executionId);
+		if (taskExecution == null) {
+			return;
+		}
+		IndexEntry indexEntry = new IndexEntry(taskExecution);
+		this.indexEntries.put(taskExecution.getExecutionId(), indexEntry);
+		this.executionsByStartTime.put(indexEntry.key, taskExecution);
+		if (indexEntry.running) {
+			this.runningExecutions.put(indexEntry.key, taskExecution);
+			this.runningExecutionCount.incrementAndGet();
+		}
+		else {
+			this.completedExecutionsByEndTime.put(indexEntry.endKey, taskExecution);
+		}
+		if (indexEntry.taskName != null) {
+			this.executionsByTaskName
+					.computeIfAbsent(indexEntry.taskName, taskName -> new TaskNameIndex())
+					.add(indexEntry, taskExecution);
+		}
+		if (indexEntry.parentExecutionId != null) {
+			this.childExecutionIds
+					.computeIfAbsent(indexEntry.parentExecutionId,
+							parentExecutionId -> ConcurrentHashMap.newKeySet())
+					.add(taskExecution.getExecutionId());
+		}
+	}
+
+	/**
+	 * Replaces the snapshot of the task execution with a changed copy, retrying with the
+	 * snapshot that won if another writer replaced it first.
+	 * @return the stored snapshot, not to be modified.
+	 */
+	private TaskExecution update(long executionId, Consumer<TaskExecution> change) {
+		while (true) {
+			TaskExecution current = this.taskExecutions.get(executionId);
+			if (current == null) {
+				throw new IllegalStateException(
+						"Invalid TaskExecution, ID " + executionId + " not found.");
+			}
+			TaskExecution snapshot = copyOf(current);
+			change.accept(snapshot);
+			if (this.taskExecutions.replace(executionId, current, snapshot)) {
+				this.lastUpdated.put(executionId, new Date());
+				reindex(executionId);
+				return snapshot;
+			}
+		}
+	}
+
+	private static TaskExecution copyOf(TaskExecution taskExecution) {
+		return new TaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getTaskName(),
+				taskExecution.getStartTime(), taskExecution.getEndTime(),
+				taskExecution.getExitMessage(), taskExecution.getArguments(),
+				taskExecution.getErrorMessage(), taskExecution.getExternalExecutionId(),
+				taskExecution.getParentExecutionId());
+	}
+
+	/**
+	 * Removes the index entries of the task execution, as they were when it was last
+	 * indexed.
+	 */
+	private synchronized void unindex(long executionId) {
+		IndexEntry indexEntry = this.indexEntries.remove(executionId);
+		if (indexEntry == null) {
+			return;
+		}
+		this.executionsByStartTime.remove(indexEntry.key);
+		if (indexEntry.running) {
+			this.runningExecutions.remove(indexEntry.key);
+			this.runningExecutionCount.decrementAndGet();
+		}
+		else {
+			this.completedExecutionsByEndTime.remove(indexEntry.endKey);
+		}
+		if (indexEntry.taskName != null) {
+			TaskNameIndex taskNameIndex = this.executionsByTaskName
+					.get(indexEntry.taskName);
+			taskNameIndex.remove(indexEntry);
+			if (taskNameIndex.count.get() == 0) {
+				this.executionsByTaskName.remove(indexEntry.taskName);
+			}
+		}
+		if (indexEntry.parentExecutionId != null) {
+			Set<Long> childIds = this.childExecutionIds
+					.get(indexEntry.parentExecutionId);
+			childIds.remove(executionId);
+			if (childIds.isEmpty()) {
+				this.childExecutionIds.remove(indexEntry.parentExecutionId);
+			}
+		}
+	}
+
+	/**
+	 * Deletes the completed task executions beyond the maximum number of entries or older
+	 * than the maximum age, oldest end time first.
+	 */
+	private synchronized void evict() {
+		int maxEntries = this.maxEntries;
+		Duration maxAge = this.maxAge;
+		if (maxEntries == 0 && maxAge == null) {
+			return;
+		}
+		long endedBefore = (maxAge != null)
+				? System.currentTimeMillis() - maxAge.toMillis() : Long.MIN_VALUE;
+		int excessEntries = (maxEntries > 0)
+				? Math.max(this.taskExecutions.size() - maxEntries, 0) : 0;
+		List<Long> evictedIds = new ArrayList<>();
+		long expired = 0;
+		for (ExecutionKey endKey : this.completedExecutionsByEndTime.keySet()) {
+			if (endKey.time < endedBefore) {
+				expired++;
+			}
+			else if (evictedIds.size() >= excessEntries) {
+				break;
+			}
+			evictedIds.add(endKey.executionId);
+		}
+		if (!evictedIds.isEmpty()) {
+			deleteTaskExecutions(evictedIds);
+			this.maxAgeEvictions.increment(expired);
+			this.maxEntriesEvictions.increment(evictedIds.size() - expired);
+		}
+	}
+
+	private synchronized void registerMeters() {
+		if (this.maxEntriesEvictions != null) {
+			return;
+		}
+		this.maxEntriesEvictions = Counter.builder(EVICTIONS_METER)
+				.tag("reason", "max-entries")
+				.description("Task executions evicted from the in-memory task repository")
+				.register(Metrics.globalRegistry);
+		this.maxAgeEvictions = Counter.builder(EVICTIONS_METER).tag("reason", "max-age")
+				.description("Task executions evicted from the in-memory task repository")
+				.register(Metrics.globalRegistry);
+		// gauges are registered once per name, report the last bounded map configured
+		Gauge previous = Metrics.globalRegistry.find(SIZE_METER).gauge();
+		if (previous != null) {
+			Metrics.globalRegistry.remove(previous);
+		}
+		Gauge.builder(SIZE_METER, this.taskExecutions, Map::size)
+				.description("Task executions held by the in-memory task repository")
+				.register(Metrics.globalRegistry);
+	}
+
+	/**
+	 * Returns the page of task executions, skipping to the page offset in their order.
+	 */
+	private Page<TaskExecution> getPage(Collection<TaskExecution> executions,
+			Pageable pageable, long total) {
+		List<TaskExecution> content = executions.stream().skip(pageable.getOffset())
+				.limit(pageable.getPageSize()).collect(Collectors.toList());
+		return new PageImpl<>(content, pageable, total);
 	}
 
 	private Page getPageFromList(List<TaskExecution> executionList, Pageable pageable,
@@ -300,24 +819,12 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 
 		final Map<String, TaskExecution> tempTaskExecutions = new HashMap<>();
 
-		for (Map.Entry<Long, TaskExecution> taskExecutionMapEntry : this.taskExecutions
-				.entrySet()) {
-			if (!taskNamesAsList
-					.contains(taskExecutionMapEntry.getValue().getTaskName())) {
-				continue;
-			}
-
-			final TaskExecution tempTaskExecution = tempTaskExecutions
-					.get(taskExecutionMapEntry.getValue().getTaskName());
-			if (tempTaskExecution == null
-					|| tempTaskExecution.getStartTime()
-							.before(taskExecutionMapEntry.getValue().getStartTime())
-					|| (tempTaskExecution.getStartTime()
-							.equals(taskExecutionMapEntry.getValue().getStartTime())
-							&& tempTaskExecution.getExecutionId() < taskExecutionMapEntry
-									.getValue().getExecutionId())) {
-				tempTaskExecutions.put(taskExecutionMapEntry.getValue().getTaskName(),
-						taskExecutionMapEntry.getValue());
+		for (String taskName : taskNamesAsList) {
+			TaskNameIndex taskNameIndex = getTaskNameIndex(taskName);
+			Map.Entry<ExecutionKey, TaskExecution> latest = (taskNameIndex != null)
+					? taskNameIndex.executions.lastEntry() : null;
+			if (latest != null) {
+				tempTaskExecutions.put(taskName, latest.getValue());
 			}
 		}
 		final List<TaskExecution> latestTaskExecutions = new ArrayList<>(
@@ -363,4 +870,115 @@ public class MapTaskExecutionDao implements TaskExecutionDao {
 
 	}
 
+	/**
+	 * Orders the task executions by a time, the start time or the end time depending on
+	 * the index, the ones without that time first, and then by execution id.
+	 */
+	private static final class ExecutionKey implements Comparable<ExecutionKey> {
+
+		private final Long time;
+
+		private final long executionId;
+
+		ExecutionKey(Date time, long executionId) {
+			this.time = (time != null) ? time.getTime() : null;
+			this.executionId = executionId;
+		}
+
+		static ExecutionKey of(TaskExecution taskExecution) {
+			return new ExecutionKey(taskExecution.getStartTime(),
+					taskExecution.getExecutionId());
+		}
+
+		@Override
+		public int compareTo(ExecutionKey other) {
+			if (!Objects.equals(this.time, other.time)) {
+				if (this.time == null || other.time == null) {
+					return (this.time == null) ? -1 : 1;
+				}
+				return Long.compare(this.time, other.time);
+			}
+			return Long.compare(this.executionId, other.executionId);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || getClass() != o.getClass()) {
+				return false;
+			}
+			ExecutionKey that = (ExecutionKey) o;
+			return this.executionId == that.executionId
+					&& Objects.equals(this.time, that.time);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.time, this.executionId);
+		}
+
+	}
+
+	/**
+	 * The state a task execution was indexed with, used to remove it from the indexes
+	 * once the task execution has changed.
+	 */
+	private static final class IndexEntry {
+
+		private final ExecutionKey key;
+
+		private final ExecutionKey endKey;
+
+		private final String taskName;
+
+		private final Long parentExecutionId;
+
+		private final boolean running;
+
+		IndexEntry(TaskExecution taskExecution) {
+			this.key = ExecutionKey.of(taskExecution);
+			this.endKey = new ExecutionKey(taskExecution.getEndTime(),
+					taskExecution.getExecutionId());
+			this.taskName = taskExecution.getTaskName();
+			this.parentExecutionId = taskExecution.getParentExecutionId();
+			this.running = taskExecution.getEndTime() == null;
+		}
+
+	}
+
+	/**
+	 * The task executions of a task name, all of them and the running ones.
+	 */
+	private static final class TaskNameIndex {
+
+		private final ConcurrentNavigableMap<ExecutionKey, TaskExecution> executions = new ConcurrentSkipListMap<>();
+
+		private final ConcurrentNavigableMap<ExecutionKey, TaskExecution> running = new ConcurrentSkipListMap<>();
+
+		private final AtomicLong count = new AtomicLong(0L);
+
+		private final AtomicLong runningCount = new AtomicLong(0L);
+
+		void add(IndexEntry indexEntry, TaskExecution taskExecution) {
+			this.executions.put(indexEntry.key, taskExecution);
+			this.count.incrementAndGet();
+			if (indexEntry.running) {
+				this.running.put(indexEntry.key, taskExecution);
+				this.runningCount.incrementAndGet();
+			}
+		}
+
+		void remove(IndexEntry indexEntry) {
+			this.executions.remove(indexEntry.key);
+			this.count.decrementAndGet();
+			if (indexEntry.running) {
+				this.running.remove(indexEntry.key);
+				this.runningCount.decrementAndGet();
+			}
+		}
+
+	}
+
 }
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.dao;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import org.springframework.batch.item.database.Order;
+import org.springframework.cloud.task.configuration.TaskProperties;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.database.support.AbstractSqlPagingQueryProvider;
+import org.springframework.cloud.task.repository.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.cloud.task.repository.support.DatabaseType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads Task Execution Information from a database using R2DBC. Uses the same queries
+ * and paging dialects as the {@link JdbcTaskExecutionDao}.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class R2dbcTaskExecutionDao implements ReactiveTaskExecutionDao {
+
+	private final DatabaseClient databaseClient;
+
+	private final DatabaseType databaseType;
+
+	private final String tablePrefix;
+
+	private final LinkedHashMap<String, Order> orderMap;
+
+	/**
+	 * Initializes the R2dbcTaskExecutionDao and defaults the table prefix to
+	 * {@link TaskProperties#DEFAULT_TABLE_PREFIX}. The database type is determined from
+	 * the metadata of the connection factory.
+	 * @param connectionFactory used by the dao to execute queries.
+	 */
+	public R2dbcTaskExecutionDao(ConnectionFactory connectionFactory) {
+		this(connectionFactory, TaskProperties.DEFAULT_TABLE_PREFIX);
+	}
+
+	/**
+	 * Initializes the R2dbcTaskExecutionDao. The database type is determined from the
+	 * metadata of the connection factory.
+	 * @param connectionFactory used by the dao to execute queries.
+	 * @param tablePrefix the table prefix to use for this dao.
+	 */
+	public R2dbcTaskExecutionDao(ConnectionFactory connectionFactory,
+			String tablePrefix) {
+		this(connectionFactory, tablePrefix, getDatabaseType(connectionFactory));
+	}
+
+	/**
+	 * Initializes the R2dbcTaskExecutionDao.
+	 * @param connectionFactory used by the dao to execute queries.
+	 * @param tablePrefix the table prefix to use for this dao.
+	 * @param databaseType the type of the database the connection factory connects to.
+	 */
+	public R2dbcTaskExecutionDao(ConnectionFactory connectionFactory, String tablePrefix,
+			DatabaseType databaseType) {
+		Assert.notNull(connectionFactory, "The connectionFactory must not be null.");
+		Assert.hasText(tablePrefix, "tablePrefix must not be null nor empty");
+		Assert.notNull(databaseType, "The databaseType must not be null.");
+		this.databaseClient = DatabaseClient.create(connectionFactory);
+		this.tablePrefix = tablePrefix;
+		this.databaseType = databaseType;
+		this.orderMap = new LinkedHashMap<>();
+		this.orderMap.put("START_TIME", Order.DESCENDING);
+		this.orderMap.put("TASK_EXECUTION_ID", Order.DESCENDING);
+	}
+
+	@Override
+	public Mono<TaskExecution> getTaskExecution(long executionId) {
+		return this.databaseClient
+				.sql(getQuery(JdbcTaskExecutionDao.GET_EXECUTION_BY_ID))
+				.bind("taskExecutionId", executionId)
+				.map((row, rowMetadata) -> mapTaskExecution(row)).one()
+				.flatMap(taskExecution -> populateArguments(
+						Collections.singletonList(taskExecution)))
+				.map(taskExecutions -> taskExecutions.get(0));
+	}
+
+	@Override
+	public Mono<Page<TaskExecution>> findRunningTaskExecutions(String taskName,
+			Pageable pageable) {
+		return queryForPageableResults(pageable,
+				JdbcTaskExecutionDao.RUNNING_TASK_WHERE_CLAUSE,
+				Collections.singletonMap("taskName", taskName),
+				getRunningTaskExecutionCountByTaskName(taskName));
+	}
+
+	@Override
+	public Flux<String> getTaskNames() {
+		return this.databaseClient.sql(getQuery(JdbcTaskExecutionDao.FIND_TASK_NAMES))
+				.map((row, rowMetadata) -> row.get("TASK_NAME", String.class)).all();
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionCountByTaskName(String taskName) {
+		return queryForCount(JdbcTaskExecutionDao.TASK_EXECUTION_COUNT_BY_NAME,
+				Collections.singletonMap("taskName", taskName));
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionCount() {
+		return queryForCount(JdbcTaskExecutionDao.TASK_EXECUTION_COUNT,
+				Collections.emptyMap());
+	}
+
+	@Override
+	public Mono<Long> getRunningTaskExecutionCountByTaskName(String taskName) {
+		return queryForCount(JdbcTaskExecutionDao.RUNNING_TASK_EXECUTION_COUNT_BY_NAME,
+				Collections.singletonMap("taskName", taskName));
+	}
+
+	@Override
+	public Mono<Long> getRunningTaskExecutionCount() {
+		return queryForCount(JdbcTaskExecutionDao.RUNNING_TASK_EXECUTION_COUNT,
+				Collections.emptyMap());
+	}
+
+	@Override
+	public Mono<Page<TaskExecution>> findTaskExecutionsByName(String taskName,
+			Pageable pageable) {
+		return queryForPageableResults(pageable,
+				JdbcTaskExecutionDao.TASK_NAME_WHERE_CLAUSE,
+				Collections.singletonMap("taskName", taskName),
+				getTaskExecutionCountByTaskName(taskName));
+	}
+
+	@Override
+	public Mono<Page<TaskExecution>> findAll(Pageable pageable) {
+		return queryForPageableResults(pageable, null, Collections.emptyMap(),
+				getTaskExecutionCount());
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
+		return this.databaseClient
+				.sql(getQuery(
+						JdbcTaskExecutionDao.FIND_TASK_EXECUTION_BY_JOB_EXECUTION_ID))
+				.bind("jobExecutionId", jobExecutionId)
+				.map((row, rowMetadata) -> row.get("TASK_EXECUTION_ID", Long.class))
+				.one();
+	}
+
+	@Override
+	public Flux<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId) {
+		return this.databaseClient
+				.sql(getQuery(
+						JdbcTaskExecutionDao.FIND_JOB_EXECUTION_BY_TASK_EXECUTION_ID))
+				.bind("taskExecutionId", taskExecutionId)
+				.map((row, rowMetadata) -> row.get("JOB_EXECUTION_ID", Long.class)).all()
+				.sort();
+	}
+
+	@Override
+	public Flux<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames) {
+		Assert.notEmpty(taskNames, "At least 1 task name must be provided.");
+
+		final List<String> taskNamesAsList = new ArrayList<>();
+
+		for (String taskName : taskNames) {
+			if (StringUtils.hasText(taskName)) {
+				taskNamesAsList.add(taskName);
+			}
+		}
+
+		Assert.isTrue(taskNamesAsList.size() == taskNames.length, String.format(
+				"Task names must not contain any empty elements but %s of %s were empty or null.",
+				taskNames.length - taskNamesAsList.size(), taskNames.length));
+
+		// the server version of MySQL, which only has window functions from version 8,
+		// is not known here
+		String query = this.databaseType != DatabaseType.MYSQL
+				? JdbcTaskExecutionDao.getLastTaskExecutionsByTaskNamesQuery(this.databaseType)
+				: JdbcTaskExecutionDao.LAST_TASK_EXECUTIONS_BY_TASK_NAMES;
+		return this.databaseClient.sql(getQuery(query))
+				.bind("taskNames", taskNamesAsList)
+				.map((row, rowMetadata) -> mapTaskExecution(row)).all().collectList()
+				.flatMap(this::populateArguments).flatMapIterable(list -> list);
+	}
+
+	@Override
+	public Mono<TaskExecution> getLatestTaskExecutionForTaskName(String taskName) {
+		Assert.hasText(taskName, "The task name must not be empty.");
+		return getLatestTaskExecutionsByTaskNames(taskName).collectList()
+				.flatMap(taskExecutions -> {
+					if (taskExecutions.isEmpty()) {
+						return Mono.empty();
+					}
+					else if (taskExecutions.size() == 1) {
+						return Mono.just(taskExecutions.get(0));
+					}
+					else {
+						return Mono.error(new IllegalStateException(
+								"Only expected a single TaskExecution but received "
+										+ taskExecutions.size()));
+					}
+				});
+	}
+
+	private Mono<Page<TaskExecution>> queryForPageableResults(Pageable pageable,
+			String whereClause, Map<String, String> queryParameters,
+			Mono<Long> totalCount) {
+		AbstractSqlPagingQueryProvider pagingQueryProvider = SqlPagingQueryProviderFactoryBean
+				.createPagingQueryProvider(this.databaseType);
+		pagingQueryProvider.setSelectClause(JdbcTaskExecutionDao.SELECT_CLAUSE);
+		pagingQueryProvider.setFromClause(JdbcTaskExecutionDao.FROM_CLAUSE);
+		pagingQueryProvider.setWhereClause(whereClause);
+		pagingQueryProvider.setSortKeys(
+				JdbcTaskExecutionDao.getSortKeys(pageable.getSort(), this.orderMap));
+
+		Mono<List<TaskExecution>> content = bind(
+				this.databaseClient
+						.sql(getQuery(pagingQueryProvider.getPageQuery(pageable))),
+				queryParameters).map((row, rowMetadata) -> mapTaskExecution(row)).all().collectList()
+				.flatMap(this::populateArguments);
+		return Mono.zip(content, totalCount).map(
+				result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+	}
+
+	private Mono<Long> queryForCount(String query,
+			Map<String, String> queryParameters) {
+		return bind(this.databaseClient.sql(getQuery(query)), queryParameters)
+				.map((row, rowMetadata) -> row.get(0, Long.class)).one()
+				.defaultIfEmpty(0L);
+	}
+
+	private GenericExecuteSpec bind(GenericExecuteSpec spec,
+			Map<String, ?> queryParameters) {
+		for (Map.Entry<String, ?> queryParameter : queryParameters.entrySet()) {
+			spec = (queryParameter.getValue() != null)
+					? spec.bind(queryParameter.getKey(), queryParameter.getValue())
+					: spec.bindNull(queryParameter.getKey(), String.class);
+		}
+		return spec;
+	}
+
+	/**
+	 * Loads the arguments for all of the provided task executions with one query per
+	 * {@value JdbcTaskExecutionDao#MAX_ARGUMENT_LOOKUP_IDS} executions and assigns them
+	 * to their execution.
+	 * @param taskExecutions the task executions that need their arguments populated.
+	 * @return the same list of task executions.
+	 */
+	private Mono<List<TaskExecution>> populateArguments(
+			List<TaskExecution> taskExecutions) {
+		if (taskExecutions.isEmpty()) {
+			return Mono.just(taskExecutions);
+		}
+		List<Long> taskExecutionIds = new ArrayList<>(taskExecutions.size());
+		for (TaskExecution taskExecution : taskExecutions) {
+			taskExecutionIds.add(taskExecution.getExecutionId());
+		}
+		return Flux.fromIterable(taskExecutionIds)
+				.buffer(JdbcTaskExecutionDao.MAX_ARGUMENT_LOOKUP_IDS)
+				.concatMap(this::findTaskArguments)
+				.collect(() -> new HashMap<Long, List<String>>(),
+						(arguments, argument) -> arguments
+								.computeIfAbsent(argument.getT1(),
+										id -> new ArrayList<>())
+								.add(argument.getT2()))
+				.map(arguments -> {
+					for (TaskExecution taskExecution : taskExecutions) {
+						taskExecution.setArguments(arguments.getOrDefault(
+								taskExecution.getExecutionId(), Collections.emptyList()));
+					}
+					return taskExecutions;
+				});
+	}
+
+	private Flux<Tuple2<Long, String>> findTaskArguments(List<Long> taskExecutionIds) {
+		return this.databaseClient
+				.sql(getQuery(JdbcTaskExecutionDao.FIND_ARGUMENTS_FROM_IDS))
+				.bind("taskExecutionIds", taskExecutionIds)
+				.map((row, rowMetadata) -> Tuples.of(
+						row.get("TASK_EXECUTION_ID", Long.class),
+						row.get("TASK_PARAM", String.class)))
+				.all();
+	}
+
+	private TaskExecution mapTaskExecution(Row row) {
+		return new TaskExecution(row.get("TASK_EXECUTION_ID", Long.class),
+				row.get("EXIT_CODE", Integer.class), row.get("TASK_NAME", String.class),
+				toDate(row.get("START_TIME", LocalDateTime.class)),
+				toDate(row.get("END_TIME", LocalDateTime.class)),
+				row.get("EXIT_MESSAGE", String.class), Collections.emptyList(),
+				row.get("ERROR_MESSAGE", String.class),
+				row.get("EXTERNAL_EXECUTION_ID", String.class),
+				row.get("PARENT_EXECUTION_ID", Long.class));
+	}
+
+	private Date toDate(LocalDateTime localDateTime) {
+		return (localDateTime != null) ? Timestamp.valueOf(localDateTime) : null;
+	}
+
+	private String getQuery(String base) {
+		return StringUtils.replace(base, "%PREFIX%", this.tablePrefix);
+	}
+
+	/**
+	 * Maps the name reported by the R2DBC driver to a {@link DatabaseType}.
+	 * @param connectionFactory the connection factory to inspect.
+	 * @return the database type.
+	 */
+	private static DatabaseType getDatabaseType(ConnectionFactory connectionFactory) {
+		Assert.notNull(connectionFactory, "The connectionFactory must not be null.");
+		String productName = connectionFactory.getMetadata().getName();
+		if (productName.startsWith("Oracle")) {
+			productName = "Oracle";
+		}
+		return DatabaseType.fromProductName(productName);
+	}
+
+}
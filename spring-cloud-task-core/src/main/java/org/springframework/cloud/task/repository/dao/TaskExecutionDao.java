@@ -16,12 +16,21 @@
 
 package org.springframework.cloud.task.repository.dao;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCursor;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.cloud.task.repository.TaskExecutionUpdates;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 /**
@@ -174,6 +183,72 @@ public interface TaskExecutionDao {
 
 	Page<TaskExecution> findAll(Pageable pageable);
 
+	/**
+	 * Retrieves the task executions that follow the cursor, ordered by start time and
+	 * then by task execution id, both descending. Unlike {@link #findAll(Pageable)} the
+	 * cost of reading a page does not grow with its position. Task executions that have
+	 * not been started yet are not returned. The default implementation walks the pages
+	 * of {@link #findAll(Pageable)} from the first one, which returns the task
+	 * executions in that order; implementations should override it to seek to the
+	 * cursor directly.
+	 * @param cursor the position of the last task execution of the previous page, or
+	 * null to read the first page
+	 * @param size the maximum number of task executions to return
+	 * @return the task executions following the cursor
+	 * @since 3.0.0
+	 */
+	default List<TaskExecution> findAll(TaskExecutionCursor cursor, int size) {
+		List<TaskExecution> result = new ArrayList<>(size);
+		Pageable pageable = PageRequest.of(0, size);
+		while (true) {
+			Page<TaskExecution> page = findAll(pageable);
+			for (TaskExecution taskExecution : page) {
+				if (taskExecution.getStartTime() != null
+						&& (cursor == null || cursor.isFollowedBy(taskExecution))) {
+					result.add(taskExecution);
+					if (result.size() == size) {
+						return result;
+					}
+				}
+			}
+			if (!page.hasNext()) {
+				return result;
+			}
+			pageable = pageable.next();
+		}
+	}
+
+	/**
+	 * Retrieves a page of the task executions matching all the criteria of the filter,
+	 * ordered by start time unless the pageable specifies a sort.
+	 * @param filter the criteria the task executions must match
+	 * @param pageable enumerates the data to be returned
+	 * @return a page of the matching task executions
+	 * @since 3.0.0
+	 */
+	Page<TaskExecution> findTaskExecutions(TaskExecutionFilter filter, Pageable pageable);
+
+	/**
+	 * Streams the task executions matching the filter, ordered by task execution id. The
+	 * stream must be closed to release the underlying resources, e.g. by using it in a
+	 * try-with-resources statement.
+	 * @param filter the criteria the task executions must match
+	 * @return the stream of task executions
+	 * @since 3.0.0
+	 */
+	Stream<TaskExecution> streamTaskExecutions(TaskExecutionFilter filter);
+
+	/**
+	 * Retrieves the task executions updated after the watermark, ordered by the time
+	 * they were last updated and then by task execution id, both ascending.
+	 * @param watermark the position of the last task execution read
+	 * @param limit the maximum number of task executions to return
+	 * @return the task executions updated after the watermark
+	 * @since 3.0.0
+	 */
+	TaskExecutionUpdates findTaskExecutionsUpdatedAfter(TaskExecutionWatermark watermark,
+			int limit);
+
 	/**
 	 * Retrieves the next available execution id for a task execution.
 	 * @return long containing the executionId.
@@ -232,4 +307,48 @@ public interface TaskExecutionDao {
 	 */
 	TaskExecution getLatestTaskExecutionForTaskName(String taskName);
 
+	/**
+	 * Returns the ids of the task executions that ended before the given time, lowest id
+	 * first. Task executions that have not ended are never returned.
+	 * @param endTime the exclusive upper bound of the end time.
+	 * @param limit the maximum number of ids to return.
+	 * @return the ids, may be empty but never null.
+	 * @since 3.0.0
+	 */
+	List<Long> findTaskExecutionIdsEndedBefore(Date endTime, int limit);
+
+	/**
+	 * Returns the ids of the ended task executions of a task name that are older than
+	 * its {@code retained} latest task executions, lowest id first. Latest is defined as
+	 * in {@link #getLatestTaskExecutionsByTaskNames(String...)}; task executions that
+	 * have not ended are never returned but do count towards the retained ones.
+	 * @param taskName the name of the task.
+	 * @param retained the number of latest task executions to keep.
+	 * @param limit the maximum number of ids to return.
+	 * @return the ids, may be empty but never null.
+	 * @since 3.0.0
+	 */
+	List<Long> findTaskExecutionIdsBeyondLatest(String taskName, int retained, int limit);
+
+	/**
+	 * Deletes the task executions with the given ids together with their arguments and
+	 * their associations with job executions, in a single transaction.
+	 * @param taskExecutionIds the ids of the task executions to delete.
+	 * @return the number of rows deleted from each table.
+	 * @since 3.0.0
+	 */
+	TaskExecutionPurgeResult deleteTaskExecutions(Collection<Long> taskExecutionIds);
+
+	/**
+	 * Moves the task executions with the given ids together with their arguments and
+	 * their associations with job executions to the archive, in a single transaction.
+	 * Archived task executions are only returned by the queries of a
+	 * {@link TaskExecutionFilter} that includes them.
+	 * @param taskExecutionIds the ids of the task executions to archive.
+	 * @return the number of rows moved from each table.
+	 * @see TaskExecutionFilter#setIncludeArchived(boolean)
+	 * @since 3.0.0
+	 */
+	TaskExecutionPurgeResult archiveTaskExecutions(Collection<Long> taskExecutionIds);
+
 }
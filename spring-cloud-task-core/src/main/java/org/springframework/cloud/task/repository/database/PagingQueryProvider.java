@@ -64,4 +64,42 @@ public interface PagingQueryProvider {
 	 */
 	String getPageQuery(Pageable pageable);
 
+	/**
+	 * Indicate whether the database supports returning the total number of rows along
+	 * with a page, see {@link #getPageQueryWithTotalCount(Pageable)}.
+	 * @return true if the total count can be read from the page query
+	 * @since 3.0.0
+	 */
+	boolean isTotalCountSupported();
+
+	/**
+	 * Generate the jump to item query that additionally returns the total number of rows
+	 * matching the where clause in a {@code TOTAL_COUNT} column of every row, using a
+	 * {@code COUNT(*) OVER()} window function. Only called if
+	 * {@link #isTotalCountSupported()} is true.
+	 * @param pageable the coordinates to pull the next page from the datasource
+	 * @return the generated query
+	 * @since 3.0.0
+	 */
+	String getPageQueryWithTotalCount(Pageable pageable);
+
+	/**
+	 * Generate the query that will provide the first page of a keyset (seek) paginated
+	 * result, limited to the page size.
+	 * @param pageSize number of rows to read
+	 * @return the generated query
+	 * @since 3.0.0
+	 */
+	String generateFirstPageQuery(int pageSize);
+
+	/**
+	 * Generate the query that will provide the page following the row identified by the
+	 * sort key values. The sort key values are bound to named parameters built from the
+	 * sort key names prefixed with an underscore, e.g. {@code :_START_TIME}.
+	 * @param pageSize number of rows to read
+	 * @return the generated query
+	 * @since 3.0.0
+	 */
+	String generateRemainingPageQuery(int pageSize);
+
 }
@@ -27,6 +27,7 @@ import org.springframework.batch.item.database.JdbcParameterUtils;
 import org.springframework.batch.item.database.Order;
 import org.springframework.cloud.task.repository.database.PagingQueryProvider;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -45,6 +46,12 @@ import org.springframework.util.StringUtils;
  */
 public abstract class AbstractSqlPagingQueryProvider implements PagingQueryProvider {
 
+	/**
+	 * Name of the column holding the total number of rows in the queries generated by
+	 * {@link #getPageQueryWithTotalCount(Pageable)}.
+	 */
+	public static final String TOTAL_COUNT_COLUMN = "TOTAL_COUNT";
+
 	private String selectClause;
 
 	private String fromClause;
@@ -64,6 +71,14 @@ public abstract class AbstractSqlPagingQueryProvider implements PagingQueryProvi
 		return this.selectClause;
 	}
 
+	/**
+	 * @return SQL SELECT clause part of SQL query string with the window function that
+	 * counts all rows matching the where clause appended
+	 */
+	protected String getTotalCountSelectClause() {
+		return this.selectClause + ", COUNT(*) OVER() AS " + TOTAL_COUNT_COLUMN;
+	}
+
 	/**
 	 * @param selectClause SELECT clause part of SQL query string
 	 */
@@ -131,6 +146,22 @@ public abstract class AbstractSqlPagingQueryProvider implements PagingQueryProvi
 		return this.usingNamedParameters;
 	}
 
+	/**
+	 * Returns false, dialects supporting window functions override this method along
+	 * with {@link #getPageQueryWithTotalCount(Pageable)}.
+	 */
+	@Override
+	public boolean isTotalCountSupported() {
+		return false;
+	}
+
+	@Override
+	public String getPageQueryWithTotalCount(Pageable pageable) {
+		throw new UnsupportedOperationException(
+				"The total count can not be retrieved with the page query for "
+						+ getClass().getSimpleName());
+	}
+
 	@Override
 	public void init(DataSource dataSource) throws Exception {
 		Assert.notNull(dataSource, "DataSource must not be null");
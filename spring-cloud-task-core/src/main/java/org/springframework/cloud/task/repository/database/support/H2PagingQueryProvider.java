@@ -29,11 +29,42 @@ public class H2PagingQueryProvider extends AbstractSqlPagingQueryProvider {
 
 	@Override
 	public String getPageQuery(Pageable pageable) {
-		String limitClause = new StringBuilder().append("OFFSET ")
-				.append(pageable.getOffset()).append(" ROWS FETCH NEXT ")
-				.append(pageable.getPageSize()).append(" ROWS ONLY")
-				.toString();
-		return SqlPagingQueryUtils.generateLimitJumpToQuery(this, limitClause);
+		return SqlPagingQueryUtils.generateLimitJumpToQuery(this,
+				buildJumpToClause(pageable));
+	}
+
+	@Override
+	public boolean isTotalCountSupported() {
+		return true;
+	}
+
+	@Override
+	public String getPageQueryWithTotalCount(Pageable pageable) {
+		return SqlPagingQueryUtils.generateLimitJumpToQuery(this,
+				getTotalCountSelectClause(), buildJumpToClause(pageable));
+	}
+
+	@Override
+	public String generateFirstPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, false,
+				buildLimitClause(pageSize));
+	}
+
+	@Override
+	public String generateRemainingPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, true,
+				buildLimitClause(pageSize));
+	}
+
+	private String buildLimitClause(int pageSize) {
+		return new StringBuilder().append("FETCH FIRST ").append(pageSize)
+				.append(" ROWS ONLY").toString();
+	}
+
+	private String buildJumpToClause(Pageable pageable) {
+		return new StringBuilder().append("OFFSET ").append(pageable.getOffset())
+				.append(" ROWS FETCH NEXT ").append(pageable.getPageSize())
+				.append(" ROWS ONLY").toString();
 	}
 
 }
@@ -35,4 +35,20 @@ public class HsqlPagingQueryProvider extends AbstractSqlPagingQueryProvider {
 		return SqlPagingQueryUtils.generateTopJumpToQuery(this, topClause);
 	}
 
+	@Override
+	public String generateFirstPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateTopSqlQuery(this, false,
+				buildTopClause(pageSize));
+	}
+
+	@Override
+	public String generateRemainingPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateTopSqlQuery(this, true,
+				buildTopClause(pageSize));
+	}
+
+	private String buildTopClause(int pageSize) {
+		return new StringBuilder().append("LIMIT 0 ").append(pageSize).toString();
+	}
+
 }
@@ -28,10 +28,43 @@ public class MySqlPagingQueryProvider extends AbstractSqlPagingQueryProvider {
 
 	@Override
 	public String getPageQuery(Pageable pageable) {
-		String topClause = new StringBuilder().append("LIMIT ")
-				.append(pageable.getOffset()).append(", ").append(pageable.getPageSize())
-				.toString();
-		return SqlPagingQueryUtils.generateLimitJumpToQuery(this, topClause);
+		return SqlPagingQueryUtils.generateLimitJumpToQuery(this,
+				buildJumpToClause(pageable));
+	}
+
+	/**
+	 * Returns true, note that window functions require MySQL 8.0 or MariaDB 10.2.
+	 */
+	@Override
+	public boolean isTotalCountSupported() {
+		return true;
+	}
+
+	@Override
+	public String getPageQueryWithTotalCount(Pageable pageable) {
+		return SqlPagingQueryUtils.generateLimitJumpToQuery(this,
+				getTotalCountSelectClause(), buildJumpToClause(pageable));
+	}
+
+	@Override
+	public String generateFirstPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, false,
+				buildLimitClause(pageSize));
+	}
+
+	@Override
+	public String generateRemainingPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, true,
+				buildLimitClause(pageSize));
+	}
+
+	private String buildLimitClause(int pageSize) {
+		return new StringBuilder().append("LIMIT ").append(pageSize).toString();
+	}
+
+	private String buildJumpToClause(Pageable pageable) {
+		return new StringBuilder().append("LIMIT ").append(pageable.getOffset())
+				.append(", ").append(pageable.getPageSize()).toString();
 	}
 
 }
@@ -29,10 +29,40 @@ public class PostgresPagingQueryProvider extends AbstractSqlPagingQueryProvider
 
 	@Override
 	public String getPageQuery(Pageable pageable) {
-		String limitClause = new StringBuilder().append("LIMIT ")
-				.append(pageable.getPageSize()).append(" OFFSET ")
-				.append(pageable.getOffset()).toString();
-		return SqlPagingQueryUtils.generateLimitJumpToQuery(this, limitClause);
+		return SqlPagingQueryUtils.generateLimitJumpToQuery(this,
+				buildJumpToClause(pageable));
+	}
+
+	@Override
+	public boolean isTotalCountSupported() {
+		return true;
+	}
+
+	@Override
+	public String getPageQueryWithTotalCount(Pageable pageable) {
+		return SqlPagingQueryUtils.generateLimitJumpToQuery(this,
+				getTotalCountSelectClause(), buildJumpToClause(pageable));
+	}
+
+	@Override
+	public String generateFirstPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, false,
+				buildLimitClause(pageSize));
+	}
+
+	@Override
+	public String generateRemainingPageQuery(int pageSize) {
+		return SqlPagingQueryUtils.generateLimitSqlQuery(this, true,
+				buildLimitClause(pageSize));
+	}
+
+	private String buildLimitClause(int pageSize) {
+		return new StringBuilder().append("LIMIT ").append(pageSize).toString();
+	}
+
+	private String buildJumpToClause(Pageable pageable) {
+		return new StringBuilder().append("LIMIT ").append(pageable.getPageSize())
+				.append(" OFFSET ").append(pageable.getOffset()).toString();
 	}
 
 }
@@ -16,7 +16,7 @@
 
 package org.springframework.cloud.task.repository.database.support;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 
 import javax.sql.DataSource;
@@ -29,21 +29,11 @@ import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
-import static org.springframework.cloud.task.repository.support.DatabaseType.DB2;
-import static org.springframework.cloud.task.repository.support.DatabaseType.DB2AS400;
-import static org.springframework.cloud.task.repository.support.DatabaseType.DB2VSE;
-import static org.springframework.cloud.task.repository.support.DatabaseType.DB2ZOS;
-import static org.springframework.cloud.task.repository.support.DatabaseType.H2;
-import static org.springframework.cloud.task.repository.support.DatabaseType.HSQL;
-import static org.springframework.cloud.task.repository.support.DatabaseType.MYSQL;
-import static org.springframework.cloud.task.repository.support.DatabaseType.ORACLE;
-import static org.springframework.cloud.task.repository.support.DatabaseType.POSTGRES;
-import static org.springframework.cloud.task.repository.support.DatabaseType.SQLSERVER;
-
 /**
  * Factory bean for {@link PagingQueryProvider} interface. The database type will be
  * determined from the data source if not provided explicitly. Valid types are given by
- * the {@link DatabaseType} enum.
+ * the {@link DatabaseType} enum. Only the provider for the resolved database type is
+ * instantiated.
  *
  * @author Glenn Renfro
  */
@@ -62,19 +52,40 @@ public class SqlPagingQueryProviderFactoryBean
 
 	private Map<String, Order> sortKeys;
 
-	private Map<DatabaseType, AbstractSqlPagingQueryProvider> providers = new HashMap<>();
-
-	{
-		this.providers.put(HSQL, new HsqlPagingQueryProvider());
-		this.providers.put(H2, new H2PagingQueryProvider());
-		this.providers.put(MYSQL, new MySqlPagingQueryProvider());
-		this.providers.put(POSTGRES, new PostgresPagingQueryProvider());
-		this.providers.put(ORACLE, new OraclePagingQueryProvider());
-		this.providers.put(SQLSERVER, new SqlServerPagingQueryProvider());
-		this.providers.put(DB2, new Db2PagingQueryProvider());
-		this.providers.put(DB2VSE, new Db2PagingQueryProvider());
-		this.providers.put(DB2ZOS, new Db2PagingQueryProvider());
-		this.providers.put(DB2AS400, new Db2PagingQueryProvider());
+	private Map<DatabaseType, AbstractSqlPagingQueryProvider> providers = new EnumMap<>(
+			DatabaseType.class);
+
+	/**
+	 * Creates a new, unconfigured {@link AbstractSqlPagingQueryProvider} for the given
+	 * database type. The caller is responsible for setting the clauses and sort keys.
+	 * @param databaseType the type of the database the queries will be executed against.
+	 * @return the paging query provider for the database type.
+	 */
+	public static AbstractSqlPagingQueryProvider createPagingQueryProvider(
+			DatabaseType databaseType) {
+		Assert.notNull(databaseType, "databaseType must not be null");
+		switch (databaseType) {
+		case HSQL:
+			return new HsqlPagingQueryProvider();
+		case H2:
+			return new H2PagingQueryProvider();
+		case MYSQL:
+			return new MySqlPagingQueryProvider();
+		case POSTGRES:
+			return new PostgresPagingQueryProvider();
+		case ORACLE:
+			return new OraclePagingQueryProvider();
+		case SQLSERVER:
+			return new SqlServerPagingQueryProvider();
+		case DB2:
+		case DB2VSE:
+		case DB2ZOS:
+		case DB2AS400:
+			return new Db2PagingQueryProvider();
+		default:
+			throw new IllegalArgumentException(
+					"No PagingQueryProvider available for DatabaseType=" + databaseType);
+		}
 	}
 
 	/**
@@ -144,10 +155,8 @@ public class SqlPagingQueryProviderFactoryBean
 					e);
 		}
 
-		AbstractSqlPagingQueryProvider provider = this.providers.get(type);
-		Assert.state(provider != null,
-				"Should not happen: missing PagingQueryProvider for DatabaseType="
-						+ type);
+		AbstractSqlPagingQueryProvider provider = this.providers.computeIfAbsent(type,
+				SqlPagingQueryProviderFactoryBean::createPagingQueryProvider);
 
 		provider.setFromClause(this.fromClause);
 		provider.setWhereClause(this.whereClause);
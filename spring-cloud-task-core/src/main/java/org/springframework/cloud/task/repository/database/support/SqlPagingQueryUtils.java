@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.task.repository.database.support;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.batch.item.database.Order;
@@ -39,8 +41,22 @@ public final class SqlPagingQueryUtils {
 	 */
 	public static String generateLimitJumpToQuery(AbstractSqlPagingQueryProvider provider,
 			String limitClause) {
+		return generateLimitJumpToQuery(provider, provider.getSelectClause(),
+				limitClause);
+	}
+
+	/**
+	 * Generate SQL query string using a LIMIT clause and the given select clause.
+	 * @param provider {@link AbstractSqlPagingQueryProvider} providing the implementation
+	 * specifics
+	 * @param selectClause the select clause to use instead of the one of the provider
+	 * @param limitClause the implementation specific limit clause to be used
+	 * @return the generated query
+	 */
+	public static String generateLimitJumpToQuery(AbstractSqlPagingQueryProvider provider,
+			String selectClause, String limitClause) {
 		StringBuilder sql = new StringBuilder();
-		sql.append("SELECT ").append(provider.getSelectClause());
+		sql.append("SELECT ").append(selectClause);
 		sql.append(" FROM ").append(provider.getFromClause());
 		sql.append(provider.getWhereClause() == null ? ""
 				: " WHERE " + provider.getWhereClause());
@@ -70,6 +86,96 @@ public final class SqlPagingQueryUtils {
 		return sql.toString();
 	}
 
+	/**
+	 * Generate SQL query string using a LIMIT clause that starts after the sort key
+	 * values of the previous page when {@code remainingPageQuery} is true.
+	 * @param provider {@link AbstractSqlPagingQueryProvider} providing the implementation
+	 * specifics
+	 * @param remainingPageQuery is this query for the remaining pages (true) as opposed
+	 * to the first page (false)
+	 * @param limitClause the implementation specific limit clause to be used
+	 * @return the generated query
+	 */
+	public static String generateLimitSqlQuery(AbstractSqlPagingQueryProvider provider,
+			boolean remainingPageQuery, String limitClause) {
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT ").append(provider.getSelectClause());
+		sql.append(" FROM ").append(provider.getFromClause());
+		buildWhereClause(provider, remainingPageQuery, sql);
+		if (remainingPageQuery) {
+			buildSortConditions(provider, sql);
+		}
+		sql.append(" ORDER BY ").append(buildSortClause(provider));
+		sql.append(" ").append(limitClause);
+
+		return sql.toString();
+	}
+
+	/**
+	 * Generate SQL query string using a TOP clause that starts after the sort key values
+	 * of the previous page when {@code remainingPageQuery} is true.
+	 * @param provider {@link AbstractSqlPagingQueryProvider} providing the implementation
+	 * specifics
+	 * @param remainingPageQuery is this query for the remaining pages (true) as opposed
+	 * to the first page (false)
+	 * @param topClause the implementation specific top clause to be used
+	 * @return the generated query
+	 */
+	public static String generateTopSqlQuery(AbstractSqlPagingQueryProvider provider,
+			boolean remainingPageQuery, String topClause) {
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT ").append(topClause).append(" ")
+				.append(provider.getSelectClause());
+		sql.append(" FROM ").append(provider.getFromClause());
+		buildWhereClause(provider, remainingPageQuery, sql);
+		if (remainingPageQuery) {
+			buildSortConditions(provider, sql);
+		}
+		sql.append(" ORDER BY ").append(buildSortClause(provider));
+
+		return sql.toString();
+	}
+
+	/**
+	 * Appends the conditions that restrict the rows to the ones sorting after the sort
+	 * key values of the previous page. For the sort keys {@code A DESC, B DESC} this
+	 * generates {@code ((A < :_A) OR (A = :_A AND B < :_B))}.
+	 * @param provider the paging query provider that will provide the sort keys
+	 * @param sql the sql statement to be appended.
+	 */
+	public static void buildSortConditions(AbstractSqlPagingQueryProvider provider,
+			StringBuilder sql) {
+		List<Map.Entry<String, Order>> keys = new ArrayList<>(
+				provider.getSortKeys().entrySet());
+		sql.append("(");
+		for (int i = 0; i < keys.size(); i++) {
+			if (i > 0) {
+				sql.append(" OR ");
+			}
+			sql.append("(");
+			for (int j = 0; j < i; j++) {
+				String key = keys.get(j).getKey();
+				sql.append(key).append(" = ").append(getSortKeyPlaceholder(key))
+						.append(" AND ");
+			}
+			String key = keys.get(i).getKey();
+			sql.append(key)
+					.append(keys.get(i).getValue() == Order.DESCENDING ? " < " : " > ")
+					.append(getSortKeyPlaceholder(key));
+			sql.append(")");
+		}
+		sql.append(")");
+	}
+
+	/**
+	 * Returns the named parameter a sort key value is bound to in a remaining page query.
+	 * @param sortKey the sort key column
+	 * @return the named parameter placeholder for the sort key
+	 */
+	public static String getSortKeyPlaceholder(String sortKey) {
+		return ":_" + sortKey;
+	}
+
 	/**
 	 * Generates WHERE clause for queries that require sub selects.
 	 * @param provider the paging query provider that will provide the base where clause
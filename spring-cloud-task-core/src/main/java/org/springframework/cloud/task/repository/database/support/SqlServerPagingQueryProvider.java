@@ -29,20 +29,57 @@ public class SqlServerPagingQueryProvider extends AbstractSqlPagingQueryProvider
 
 	@Override
 	public String getPageQuery(Pageable pageable) {
+		return generateRowNumSqlQueryWithNesting(getSelectClause(), getSelectClause(),
+				false, buildRowNumClause(pageable));
+	}
+
+	@Override
+	public boolean isTotalCountSupported() {
+		return true;
+	}
+
+	@Override
+	public String getPageQueryWithTotalCount(Pageable pageable) {
+		return generateRowNumSqlQueryWithNesting(
+				getSelectClause() + ", " + TOTAL_COUNT_COLUMN, getTotalCountSelectClause(),
+				false, buildRowNumClause(pageable));
+	}
+
+	@Override
+	public String generateFirstPageQuery(int pageSize) {
+		return generateRowNumSqlQueryWithNesting(getSelectClause(), getSelectClause(),
+				false, "TMP_ROW_NUM <= " + pageSize);
+	}
+
+	@Override
+	public String generateRemainingPageQuery(int pageSize) {
+		return generateRowNumSqlQueryWithNesting(getSelectClause(), getSelectClause(),
+				true, "TMP_ROW_NUM <= " + pageSize);
+	}
+
+	private String buildRowNumClause(Pageable pageable) {
 		long offset = pageable.getOffset() + 1;
-		return generateRowNumSqlQueryWithNesting(getSelectClause(), false,
-				"TMP_ROW_NUM >= " + offset + " AND TMP_ROW_NUM < "
-						+ (offset + pageable.getPageSize()));
+		return "TMP_ROW_NUM >= " + offset + " AND TMP_ROW_NUM < "
+				+ (offset + pageable.getPageSize());
 	}
 
+	/**
+	 * Generates the page query, numbering the sorted rows in a nested query.
+	 * @param selectClause the columns returned by the outer queries
+	 * @param innerSelectClause the columns selected from the table, which may add
+	 * computed columns to the ones of the select clause
+	 */
 	private String generateRowNumSqlQueryWithNesting(String selectClause,
-			boolean remainingPageQuery, String rowNumClause) {
+			String innerSelectClause, boolean remainingPageQuery, String rowNumClause) {
 		StringBuilder sql = new StringBuilder();
 		sql.append("SELECT ").append(selectClause).append(" FROM (SELECT ")
-				.append(selectClause).append(", ").append("ROW_NUMBER() OVER (ORDER BY ")
+				.append(innerSelectClause).append(", ").append("ROW_NUMBER() OVER (ORDER BY ")
 				.append(SqlPagingQueryUtils.buildSortClause(this))
 				.append(") AS TMP_ROW_NUM ").append(" FROM ").append(getFromClause());
 		SqlPagingQueryUtils.buildWhereClause(this, remainingPageQuery, sql);
+		if (remainingPageQuery) {
+			SqlPagingQueryUtils.buildSortConditions(this, sql);
+		}
 		sql.append(") TASK_EXECUTION_PAGE ");
 		sql.append(" WHERE ").append(rowNumClause);
 		sql.append(" ORDER BY ").append(SqlPagingQueryUtils.buildSortClause(this));
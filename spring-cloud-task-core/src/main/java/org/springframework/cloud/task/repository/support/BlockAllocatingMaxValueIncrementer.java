@@ -0,0 +1,122 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DataFieldMaxValueIncrementer} that reserves blocks of ids from a sequence based
+ * incrementer so that only one database round trip is required per block. Each value
+ * {@code v} returned by the delegate reserves the ids {@code v} through
+ * {@code v + blockSize - 1}, which requires the underlying sequence to be incremented by
+ * (at least) the block size. Incrementers that share the sequence but do not allocate
+ * blocks remain safe to use, they only observe gaps in the ids.
+ *
+ * <p>
+ * The first reservation fetches two values from the delegate and fails if they are
+ * less than the block size apart, so that a sequence still incremented by 1 is detected
+ * before any id is handed out rather than when two processes hand out the same ids. The
+ * second value is kept as the start of the next block.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class BlockAllocatingMaxValueIncrementer implements DataFieldMaxValueIncrementer {
+
+	private final DataFieldMaxValueIncrementer delegate;
+
+	private final int blockSize;
+
+	private boolean blockReserved;
+
+	private Long nextBlockStart;
+
+	private long nextValue;
+
+	private long blockEnd;
+
+	/**
+	 * Creates a block allocating incrementer.
+	 * @param delegate the sequence based incrementer used to reserve a block.
+	 * @param blockSize the number of ids reserved per call to the delegate. Must match
+	 * the increment of the underlying sequence.
+	 */
+	public BlockAllocatingMaxValueIncrementer(DataFieldMaxValueIncrementer delegate,
+			int blockSize) {
+		Assert.notNull(delegate, "delegate must not be null");
+		Assert.isTrue(blockSize > 0, "blockSize must be greater than zero");
+		this.delegate = delegate;
+		this.blockSize = blockSize;
+	}
+
+	@Override
+	public int nextIntValue() throws DataAccessException {
+		return (int) nextLongValue();
+	}
+
+	@Override
+	public synchronized long nextLongValue() throws DataAccessException {
+		if (!this.blockReserved) {
+			long blockStart = this.delegate.nextLongValue();
+			long nextBlockStart = this.delegate.nextLongValue();
+			assertNoOverlap(nextBlockStart, blockStart + this.blockSize);
+			reserve(blockStart);
+			this.nextBlockStart = nextBlockStart;
+		}
+		else if (this.nextValue >= this.blockEnd) {
+			long blockStart;
+			if (this.nextBlockStart != null) {
+				blockStart = this.nextBlockStart;
+				this.nextBlockStart = null;
+			}
+			else {
+				blockStart = this.delegate.nextLongValue();
+				assertNoOverlap(blockStart, this.blockEnd);
+			}
+			reserve(blockStart);
+		}
+		return this.nextValue++;
+	}
+
+	private void reserve(long blockStart) {
+		this.nextValue = blockStart;
+		this.blockEnd = blockStart + this.blockSize;
+		this.blockReserved = true;
+	}
+
+	private void assertNoOverlap(long blockStart, long previousBlockEnd) {
+		if (blockStart < previousBlockEnd) {
+			throw new IllegalStateException(String.format(
+					"The incrementer returned %s which overlaps the previously reserved "
+							+ "block ending at %s. The underlying sequence must be "
+							+ "incremented by at least the block size of %s.",
+					blockStart, previousBlockEnd - 1, this.blockSize));
+		}
+	}
+
+	@Override
+	public String nextStringValue() throws DataAccessException {
+		return String.valueOf(nextLongValue());
+	}
+
+	public int getBlockSize() {
+		return this.blockSize;
+	}
+
+}
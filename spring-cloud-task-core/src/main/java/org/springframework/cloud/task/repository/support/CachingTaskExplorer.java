@@ -0,0 +1,336 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCursor;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionUpdates;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link TaskExplorer} that caches the results of its delegate that do not change
+ * anymore, so that task executions fetched repeatedly do not go back to the task
+ * repository every time. Task executions are cached once their end time is set, running
+ * task executions are always read from the delegate. The task names and the links
+ * between task and job executions are cached as well, the latter once the task execution
+ * has ended. All other queries are passed through to the delegate.
+ *
+ * <p>
+ * Each cache holds at most {@code maxSize} entries, evicting the least recently used
+ * entry when full, and an entry expires {@code timeToLive} after it was cached. As the
+ * task names only change when a new task is launched they are at most {@code timeToLive}
+ * stale. Likewise, task executions purged or archived by the
+ * {@link org.springframework.cloud.task.repository.TaskRepository} (and their job
+ * execution links) are still returned from the cache until their entry expires, up to
+ * {@code timeToLive} after they were removed. Cache lookups are counted by the
+ * {@value #CACHE_GETS_METER} counter, tagged with the cache name and whether the lookup
+ * was a {@code hit} or a {@code miss}.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class CachingTaskExplorer implements TaskExplorer {
+
+	/**
+	 * Name of the counter recording the lookups of the caches.
+	 */
+	public static final String CACHE_GETS_METER = "spring.cloud.task.explorer.cache.gets";
+
+	/**
+	 * Default maximum number of entries per cache.
+	 */
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	/**
+	 * Default time an entry stays in the cache.
+	 */
+	public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+	private static final String TASK_NAMES_KEY = "taskNames";
+
+	private final TaskExplorer taskExplorer;
+
+	private final ExpiringCache<Long, TaskExecution> taskExecutions;
+
+	private final ExpiringCache<String, List<String>> taskNames;
+
+	private final ExpiringCache<Long, Long> taskExecutionIdsByJobExecutionId;
+
+	private final ExpiringCache<Long, Set<Long>> jobExecutionIdsByTaskExecutionId;
+
+	/**
+	 * Initializes the CachingTaskExplorer with {@link #DEFAULT_MAX_SIZE} entries per
+	 * cache, expiring after {@link #DEFAULT_TIME_TO_LIVE}.
+	 * @param taskExplorer the explorer whose results are cached.
+	 */
+	public CachingTaskExplorer(TaskExplorer taskExplorer) {
+		this(taskExplorer, DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+	}
+
+	/**
+	 * Initializes the CachingTaskExplorer.
+	 * @param taskExplorer the explorer whose results are cached.
+	 * @param maxSize the maximum number of entries per cache.
+	 * @param timeToLive the time an entry stays in the cache.
+	 */
+	public CachingTaskExplorer(TaskExplorer taskExplorer, int maxSize,
+			Duration timeToLive) {
+		Assert.notNull(taskExplorer, "taskExplorer must not be null");
+		Assert.isTrue(maxSize > 0, "maxSize must be greater than zero");
+		Assert.notNull(timeToLive, "timeToLive must not be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(),
+				"timeToLive must be greater than zero");
+		this.taskExplorer = taskExplorer;
+		this.taskExecutions = new ExpiringCache<>("taskExecutions", maxSize,
+				timeToLive);
+		this.taskNames = new ExpiringCache<>("taskNames", 1, timeToLive);
+		this.taskExecutionIdsByJobExecutionId = new ExpiringCache<>(
+				"taskExecutionIdsByJobExecutionId", maxSize, timeToLive);
+		this.jobExecutionIdsByTaskExecutionId = new ExpiringCache<>(
+				"jobExecutionIdsByTaskExecutionId", maxSize, timeToLive);
+	}
+
+	/**
+	 * Removes all entries from the caches.
+	 */
+	public void clear() {
+		this.taskExecutions.clear();
+		this.taskNames.clear();
+		this.taskExecutionIdsByJobExecutionId.clear();
+		this.jobExecutionIdsByTaskExecutionId.clear();
+	}
+
+	/**
+	 * Returns the explorer of the delegate, reads that have to see prior writes are not
+	 * served from the caches.
+	 * @return the explorer of the delegate for reads that have to see prior writes.
+	 */
+	@Override
+	public TaskExplorer readYourWrites() {
+		return this.taskExplorer.readYourWrites();
+	}
+
+	@Override
+	public TaskExecution getTaskExecution(long executionId) {
+		TaskExecution taskExecution = this.taskExecutions.get(executionId,
+				this.taskExplorer::getTaskExecution,
+				(result) -> result != null && result.getEndTime() != null);
+		return (taskExecution != null) ? copy(taskExecution) : null;
+	}
+
+	@Override
+	public List<String> getTaskNames() {
+		return this.taskNames.get(TASK_NAMES_KEY,
+				(key) -> Collections
+						.unmodifiableList(this.taskExplorer.getTaskNames()),
+				(result) -> true);
+	}
+
+	@Override
+	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
+		return this.taskExecutionIdsByJobExecutionId.get(jobExecutionId,
+				this.taskExplorer::getTaskExecutionIdByJobExecutionId,
+				(result) -> result != null);
+	}
+
+	@Override
+	public Set<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId) {
+		// job executions may still be added to a running task execution
+		return this.jobExecutionIdsByTaskExecutionId.get(taskExecutionId,
+				(key) -> Collections.unmodifiableSet(new LinkedHashSet<>(
+						this.taskExplorer.getJobExecutionIdsByTaskExecutionId(key))),
+				(result) -> isEnded(taskExecutionId));
+	}
+
+	@Override
+	public Page<TaskExecution> findRunningTaskExecutions(String taskName,
+			Pageable pageable) {
+		return this.taskExplorer.findRunningTaskExecutions(taskName, pageable);
+	}
+
+	@Override
+	public long getTaskExecutionCountByTaskName(String taskName) {
+		return this.taskExplorer.getTaskExecutionCountByTaskName(taskName);
+	}
+
+	@Override
+	public long getTaskExecutionCount() {
+		return this.taskExplorer.getTaskExecutionCount();
+	}
+
+	@Override
+	public long getRunningTaskExecutionCount() {
+		return this.taskExplorer.getRunningTaskExecutionCount();
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsByName(String taskName,
+			Pageable pageable) {
+		return this.taskExplorer.findTaskExecutionsByName(taskName, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findAll(Pageable pageable) {
+		return this.taskExplorer.findAll(pageable);
+	}
+
+	@Override
+	public List<TaskExecution> findAll(TaskExecutionCursor cursor, int size) {
+		return this.taskExplorer.findAll(cursor, size);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionFilter filter,
+			Pageable pageable) {
+		return this.taskExplorer.findTaskExecutions(filter, pageable);
+	}
+
+	@Override
+	public Stream<TaskExecution> streamTaskExecutions(TaskExecutionFilter filter) {
+		return this.taskExplorer.streamTaskExecutions(filter);
+	}
+
+	@Override
+	public TaskExecutionUpdates findTaskExecutionsUpdatedAfter(
+			TaskExecutionWatermark watermark, int limit) {
+		return this.taskExplorer.findTaskExecutionsUpdatedAfter(watermark, limit);
+	}
+
+	@Override
+	public List<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames) {
+		return this.taskExplorer.getLatestTaskExecutionsByTaskNames(taskNames);
+	}
+
+	@Override
+	public TaskExecution getLatestTaskExecutionForTaskName(String taskName) {
+		return this.taskExplorer.getLatestTaskExecutionForTaskName(taskName);
+	}
+
+	private boolean isEnded(long taskExecutionId) {
+		TaskExecution taskExecution = getTaskExecution(taskExecutionId);
+		return taskExecution != null && taskExecution.getEndTime() != null;
+	}
+
+	private static TaskExecution copy(TaskExecution taskExecution) {
+		return new TaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getTaskName(),
+				taskExecution.getStartTime(), taskExecution.getEndTime(),
+				taskExecution.getExitMessage(), taskExecution.getArguments(),
+				taskExecution.getErrorMessage(), taskExecution.getExternalExecutionId(),
+				taskExecution.getParentExecutionId());
+	}
+
+	/**
+	 * Least recently used cache whose entries expire after a fixed time.
+	 */
+	private static final class ExpiringCache<K, V> {
+
+		private final Map<K, Entry<V>> entries;
+
+		private final long timeToLiveNanos;
+
+		private final Counter hits;
+
+		private final Counter misses;
+
+		ExpiringCache(String name, int maxSize, Duration timeToLive) {
+			this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+					return size() > maxSize;
+				}
+			};
+			this.timeToLiveNanos = timeToLive.toNanos();
+			this.hits = Counter.builder(CACHE_GETS_METER).tag("cache", name)
+					.tag("result", "hit")
+					.description("Lookups served by the task explorer cache")
+					.register(Metrics.globalRegistry);
+			this.misses = Counter.builder(CACHE_GETS_METER).tag("cache", name)
+					.tag("result", "miss")
+					.description("Lookups passed on to the task repository")
+					.register(Metrics.globalRegistry);
+		}
+
+		/**
+		 * Returns the cached value for the key or loads it, caching the loaded value if
+		 * it is cacheable. The loader is invoked outside of the lock so that a slow
+		 * query does not block the lookups of other keys.
+		 */
+		V get(K key, Function<K, V> loader, Predicate<V> cacheable) {
+			long now = System.nanoTime();
+			synchronized (this.entries) {
+				Entry<V> entry = this.entries.get(key);
+				if (entry != null) {
+					if (now - entry.expiresAt < 0) {
+						this.hits.increment();
+						return entry.value;
+					}
+					this.entries.remove(key);
+				}
+			}
+			this.misses.increment();
+			V value = loader.apply(key);
+			if (cacheable.test(value)) {
+				synchronized (this.entries) {
+					this.entries.put(key,
+							new Entry<>(value, System.nanoTime() + this.timeToLiveNanos));
+				}
+			}
+			return value;
+		}
+
+		void clear() {
+			synchronized (this.entries) {
+				this.entries.clear();
+			}
+		}
+
+	}
+
+	private static final class Entry<V> {
+
+		private final V value;
+
+		private final long expiresAt;
+
+		Entry(V value, long expiresAt) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCursor;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionUpdates;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link TaskExplorer} that reads from a read-only replica of the task repository, so
+ * that queries do not compete with the writes of the {@link SimpleTaskRepository} on the
+ * primary database. As the replica may lag behind the primary, callers that have to see
+ * their own writes use the explorer returned by {@link #readYourWrites()}, which reads
+ * from the primary.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class ReadReplicaTaskExplorer implements TaskExplorer {
+
+	private final TaskExplorer replicaTaskExplorer;
+
+	private final TaskExplorer primaryTaskExplorer;
+
+	/**
+	 * Initializes the ReadReplicaTaskExplorer.
+	 * @param replicaTaskExplorer the explorer reading from the read-only replica.
+	 * @param primaryTaskExplorer the explorer reading from the primary database the task
+	 * repository writes to.
+	 */
+	public ReadReplicaTaskExplorer(TaskExplorer replicaTaskExplorer,
+			TaskExplorer primaryTaskExplorer) {
+		Assert.notNull(replicaTaskExplorer, "replicaTaskExplorer must not be null");
+		Assert.notNull(primaryTaskExplorer, "primaryTaskExplorer must not be null");
+		this.replicaTaskExplorer = replicaTaskExplorer;
+		this.primaryTaskExplorer = primaryTaskExplorer;
+	}
+
+	/**
+	 * Returns the explorer reading from the primary database.
+	 * @return the explorer reading from the primary database.
+	 */
+	@Override
+	public TaskExplorer readYourWrites() {
+		return this.primaryTaskExplorer.readYourWrites();
+	}
+
+	@Override
+	public TaskExecution getTaskExecution(long executionId) {
+		return this.replicaTaskExplorer.getTaskExecution(executionId);
+	}
+
+	@Override
+	public Page<TaskExecution> findRunningTaskExecutions(String taskName,
+			Pageable pageable) {
+		return this.replicaTaskExplorer.findRunningTaskExecutions(taskName, pageable);
+	}
+
+	@Override
+	public List<String> getTaskNames() {
+		return this.replicaTaskExplorer.getTaskNames();
+	}
+
+	@Override
+	public long getTaskExecutionCountByTaskName(String taskName) {
+		return this.replicaTaskExplorer.getTaskExecutionCountByTaskName(taskName);
+	}
+
+	@Override
+	public long getTaskExecutionCount() {
+		return this.replicaTaskExplorer.getTaskExecutionCount();
+	}
+
+	@Override
+	public long getRunningTaskExecutionCount() {
+		return this.replicaTaskExplorer.getRunningTaskExecutionCount();
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutionsByName(String taskName,
+			Pageable pageable) {
+		return this.replicaTaskExplorer.findTaskExecutionsByName(taskName, pageable);
+	}
+
+	@Override
+	public Page<TaskExecution> findAll(Pageable pageable) {
+		return this.replicaTaskExplorer.findAll(pageable);
+	}
+
+	@Override
+	public List<TaskExecution> findAll(TaskExecutionCursor cursor, int size) {
+		return this.replicaTaskExplorer.findAll(cursor, size);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionFilter filter,
+			Pageable pageable) {
+		return this.replicaTaskExplorer.findTaskExecutions(filter, pageable);
+	}
+
+	@Override
+	public Stream<TaskExecution> streamTaskExecutions(TaskExecutionFilter filter) {
+		return this.replicaTaskExplorer.streamTaskExecutions(filter);
+	}
+
+	@Override
+	public TaskExecutionUpdates findTaskExecutionsUpdatedAfter(
+			TaskExecutionWatermark watermark, int limit) {
+		return this.replicaTaskExplorer.findTaskExecutionsUpdatedAfter(watermark, limit);
+	}
+
+	@Override
+	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
+		return this.replicaTaskExplorer.getTaskExecutionIdByJobExecutionId(jobExecutionId);
+	}
+
+	@Override
+	public Set<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId) {
+		return this.replicaTaskExplorer
+				.getJobExecutionIdsByTaskExecutionId(taskExecutionId);
+	}
+
+	@Override
+	public List<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames) {
+		return this.replicaTaskExplorer.getLatestTaskExecutionsByTaskNames(taskNames);
+	}
+
+	@Override
+	public TaskExecution getLatestTaskExecutionForTaskName(String taskName) {
+		return this.replicaTaskExplorer.getLatestTaskExecutionForTaskName(taskName);
+	}
+
+}
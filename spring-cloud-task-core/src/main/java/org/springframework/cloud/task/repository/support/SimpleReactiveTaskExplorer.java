@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.task.repository.ReactiveTaskExplorer;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.dao.ReactiveTaskExecutionDao;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ReactiveTaskExplorer} that gathers task information from a
+ * {@link ReactiveTaskExecutionDao}.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class SimpleReactiveTaskExplorer implements ReactiveTaskExplorer {
+
+	private final ReactiveTaskExecutionDao taskExecutionDao;
+
+	public SimpleReactiveTaskExplorer(ReactiveTaskExecutionDao taskExecutionDao) {
+		Assert.notNull(taskExecutionDao, "taskExecutionDao must not be null");
+		this.taskExecutionDao = taskExecutionDao;
+	}
+
+	@Override
+	public Mono<TaskExecution> getTaskExecution(long executionId) {
+		return this.taskExecutionDao.getTaskExecution(executionId);
+	}
+
+	@Override
+	public Mono<Page<TaskExecution>> findRunningTaskExecutions(String taskName,
+			Pageable pageable) {
+		return this.taskExecutionDao.findRunningTaskExecutions(taskName, pageable);
+	}
+
+	@Override
+	public Flux<String> getTaskNames() {
+		return this.taskExecutionDao.getTaskNames();
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionCountByTaskName(String taskName) {
+		return this.taskExecutionDao.getTaskExecutionCountByTaskName(taskName);
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionCount() {
+		return this.taskExecutionDao.getTaskExecutionCount();
+	}
+
+	@Override
+	public Mono<Long> getRunningTaskExecutionCount() {
+		return this.taskExecutionDao.getRunningTaskExecutionCount();
+	}
+
+	@Override
+	public Mono<Page<TaskExecution>> findTaskExecutionsByName(String taskName,
+			Pageable pageable) {
+		return this.taskExecutionDao.findTaskExecutionsByName(taskName, pageable);
+	}
+
+	@Override
+	public Mono<Page<TaskExecution>> findAll(Pageable pageable) {
+		return this.taskExecutionDao.findAll(pageable);
+	}
+
+	@Override
+	public Mono<Long> getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
+		return this.taskExecutionDao.getTaskExecutionIdByJobExecutionId(jobExecutionId);
+	}
+
+	@Override
+	public Flux<Long> getJobExecutionIdsByTaskExecutionId(long taskExecutionId) {
+		return this.taskExecutionDao.getJobExecutionIdsByTaskExecutionId(taskExecutionId);
+	}
+
+	@Override
+	public Flux<TaskExecution> getLatestTaskExecutionsByTaskNames(String... taskNames) {
+		return this.taskExecutionDao.getLatestTaskExecutionsByTaskNames(taskNames);
+	}
+
+	@Override
+	public Mono<TaskExecution> getLatestTaskExecutionForTaskName(String taskName) {
+		return this.taskExecutionDao.getLatestTaskExecutionForTaskName(taskName);
+	}
+
+}
@@ -18,8 +18,13 @@ package org.springframework.cloud.task.repository.support;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCursor;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionUpdates;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
 import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
 import org.springframework.data.domain.Page;
@@ -92,6 +97,28 @@ public class SimpleTaskExplorer implements TaskExplorer {
 		return this.taskExecutionDao.findAll(pageable);
 	}
 
+	@Override
+	public List<TaskExecution> findAll(TaskExecutionCursor cursor, int size) {
+		return this.taskExecutionDao.findAll(cursor, size);
+	}
+
+	@Override
+	public Page<TaskExecution> findTaskExecutions(TaskExecutionFilter filter,
+			Pageable pageable) {
+		return this.taskExecutionDao.findTaskExecutions(filter, pageable);
+	}
+
+	@Override
+	public Stream<TaskExecution> streamTaskExecutions(TaskExecutionFilter filter) {
+		return this.taskExecutionDao.streamTaskExecutions(filter);
+	}
+
+	@Override
+	public TaskExecutionUpdates findTaskExecutionsUpdatedAfter(
+			TaskExecutionWatermark watermark, int limit) {
+		return this.taskExecutionDao.findTaskExecutionsUpdatedAfter(watermark, limit);
+	}
+
 	@Override
 	public Long getTaskExecutionIdByJobExecutionId(long jobExecutionId) {
 		return this.taskExecutionDao.getTaskExecutionIdByJobExecutionId(jobExecutionId);
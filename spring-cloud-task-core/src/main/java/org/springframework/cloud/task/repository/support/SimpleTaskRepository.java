@@ -19,15 +19,19 @@ package org.springframework.cloud.task.repository.support;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
 import org.springframework.cloud.task.repository.TaskRepository;
 import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /**
  * Records the task execution information to the log and to TaskExecutionDao provided.
@@ -114,6 +118,36 @@ public class SimpleTaskRepository implements TaskRepository {
 		return this.taskExecutionDao.getTaskExecution(executionId);
 	}
 
+	@Override
+	public TaskExecution completeTaskExecution(TaskExecution taskExecution) {
+		initialize();
+
+		Assert.notNull(taskExecution, "taskExecution must not be null");
+		validateCompletedTaskExitInformation(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getEndTime());
+		String exitMessage = trimMessage(taskExecution.getExitMessage(),
+				this.maxExitMessageSize);
+		String errorMessage = trimMessage(taskExecution.getErrorMessage(),
+				this.maxErrorMessageSize);
+		this.taskExecutionDao.completeTaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getEndTime(), exitMessage,
+				errorMessage);
+		logger.debug("Updating: TaskExecution with executionId="
+				+ taskExecution.getExecutionId() + " with the following {" + "exitCode="
+				+ taskExecution.getExitCode() + ", endTime=" + taskExecution.getEndTime()
+				+ ", exitMessage='" + exitMessage + '\'' + ", errorMessage='"
+				+ errorMessage + '\'' + '}');
+
+		// The update succeeded, so the stored state matches the caller's state with
+		// the messages trimmed the same way they were persisted.
+		return new TaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getTaskName(),
+				taskExecution.getStartTime(), taskExecution.getEndTime(), exitMessage,
+				taskExecution.getArguments(), errorMessage,
+				taskExecution.getExternalExecutionId(),
+				taskExecution.getParentExecutionId());
+	}
+
 	@Override
 	public TaskExecution createTaskExecution(TaskExecution taskExecution) {
 		initialize();
@@ -165,6 +199,74 @@ public class SimpleTaskRepository implements TaskRepository {
 		return taskExecution;
 	}
 
+	@Override
+	public TaskExecutionPurgeResult purgeTaskExecutionsEndedBefore(Date endTime,
+			int chunkSize) {
+		initialize();
+		Assert.notNull(endTime, "endTime must not be null");
+		Assert.isTrue(chunkSize > 0, "chunkSize must be greater than zero");
+		TaskExecutionPurgeResult result = purgeChunks(
+				() -> this.taskExecutionDao.findTaskExecutionIdsEndedBefore(endTime,
+						chunkSize),
+				this.taskExecutionDao::deleteTaskExecutions);
+		logger.debug("Purged task executions ended before " + endTime + ": " + result);
+		return result;
+	}
+
+	@Override
+	public TaskExecutionPurgeResult purgeTaskExecutionsBeyondLatest(int retained,
+			int chunkSize) {
+		initialize();
+		Assert.isTrue(retained > 0, "retained must be greater than zero");
+		Assert.isTrue(chunkSize > 0, "chunkSize must be greater than zero");
+		TaskExecutionPurgeResult result = TaskExecutionPurgeResult.NONE;
+		for (String taskName : this.taskExecutionDao.getTaskNames()) {
+			if (StringUtils.hasText(taskName)) {
+				result = result.add(purgeChunks(
+						() -> this.taskExecutionDao.findTaskExecutionIdsBeyondLatest(
+								taskName, retained, chunkSize),
+						this.taskExecutionDao::deleteTaskExecutions));
+			}
+		}
+		logger.debug("Purged task executions beyond the latest " + retained
+				+ " of each task name: " + result);
+		return result;
+	}
+
+	@Override
+	public TaskExecutionPurgeResult archiveTaskExecutionsEndedBefore(Date endTime,
+			int chunkSize) {
+		initialize();
+		Assert.notNull(endTime, "endTime must not be null");
+		Assert.isTrue(chunkSize > 0, "chunkSize must be greater than zero");
+		TaskExecutionPurgeResult result = purgeChunks(
+				() -> this.taskExecutionDao.findTaskExecutionIdsEndedBefore(endTime,
+						chunkSize),
+				this.taskExecutionDao::archiveTaskExecutions);
+		logger.debug("Archived task executions ended before " + endTime + ": " + result);
+		return result;
+	}
+
+	/**
+	 * Removes chunks of task executions, each in its own transaction, until no ids are
+	 * left.
+	 */
+	private TaskExecutionPurgeResult purgeChunks(Supplier<List<Long>> nextChunk,
+			Function<List<Long>, TaskExecutionPurgeResult> removal) {
+		TaskExecutionPurgeResult result = TaskExecutionPurgeResult.NONE;
+		List<Long> taskExecutionIds = nextChunk.get();
+		while (!taskExecutionIds.isEmpty()) {
+			TaskExecutionPurgeResult chunkResult = removal.apply(taskExecutionIds);
+			result = result.add(chunkResult);
+			if (chunkResult.getTaskExecutions() == 0) {
+				// removed concurrently, do not ask for the same chunk again
+				break;
+			}
+			taskExecutionIds = nextChunk.get();
+		}
+		return result;
+	}
+
 	/**
 	 * Retrieves the taskExecutionDao associated with this repository.
 	 * @return the taskExecutionDao
@@ -16,24 +16,33 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 
 import javax.sql.DataSource;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
 import org.springframework.batch.item.database.support.DataFieldMaxValueIncrementerFactory;
 import org.springframework.batch.item.database.support.DefaultDataFieldMaxValueIncrementerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.cloud.task.configuration.TaskProperties;
 import org.springframework.cloud.task.listener.TaskException;
 import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
+import org.springframework.cloud.task.repository.dao.JournalTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
 import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.AbstractIdentityColumnMaxValueIncrementer;
 import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.MySQLMaxValueIncrementer;
 import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
 
 /**
  * A {@link FactoryBean} implementation that creates the appropriate
@@ -42,7 +51,10 @@ import org.springframework.util.StringUtils;
  * @author Michael Minella
  * @author Glenn Renfro
  */
-public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao> {
+public class TaskExecutionDaoFactoryBean
+		implements FactoryBean<TaskExecutionDao>, DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(TaskExecutionDaoFactoryBean.class);
 
 	private DataSource dataSource;
 
@@ -50,6 +62,20 @@ public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao
 
 	private String tablePrefix = TaskProperties.DEFAULT_TABLE_PREFIX;
 
+	private boolean lazyArgumentLoading;
+
+	private boolean estimatedCountEnabled;
+
+	private boolean summaryEnabled;
+
+	private int streamFetchSize = JdbcTaskExecutionDao.DEFAULT_STREAM_FETCH_SIZE;
+
+	private int idBlockSize = 1;
+
+	private Path journalDirectory;
+
+	private int journalSegmentSize = JournalTaskExecutionDao.DEFAULT_SEGMENT_SIZE;
+
 	/**
 	 * Default constructor will result in a Map based TaskExecutionDao. <b>This is only
 	 * intended for testing purposes.</b>
@@ -84,33 +110,117 @@ public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao
 			if (this.dataSource != null) {
 				buildTaskExecutionDao(this.dataSource);
 			}
+			else if (this.journalDirectory != null) {
+				this.dao = new JournalTaskExecutionDao(this.journalDirectory,
+						this.journalSegmentSize);
+			}
 			else {
 				this.dao = new MapTaskExecutionDao();
 			}
 		}
-		if (this.dataSource != null) {
-			String databaseType = null;
-			try {
-				databaseType = DatabaseType.fromMetaData(dataSource).name();
-			}
-			catch (MetaDataAccessException e) {
-				throw new IllegalStateException(e);
-			}
-			if (StringUtils.hasText(databaseType) && databaseType.equals("SQLSERVER")) {
-				String incrementerName = this.tablePrefix + "SEQ";
-				DataFieldMaxValueIncrementerFactory incrementerFactory = new DefaultDataFieldMaxValueIncrementerFactory(
-						dataSource);
-				DataFieldMaxValueIncrementer incrementer = incrementerFactory
-						.getIncrementer(databaseType, incrementerName);
-				if (!isSqlServerTableSequenceAvailable(incrementerName)) {
-					incrementer = new SqlServerSequenceMaxValueIncrementer(dataSource, this.tablePrefix + "SEQ");
-				}
-				((JdbcTaskExecutionDao) this.dao).setTaskIncrementer(incrementer);
-			}
-		}
 		return this.dao;
 	}
 
+	/**
+	 * Enables lazy loading of the task arguments for the task executions returned by
+	 * the list and page queries of a JDBC based {@link TaskExecutionDao}. Has no effect
+	 * on the Map based {@link TaskExecutionDao}. Defaults to {@code false}.
+	 * @param lazyArgumentLoading true to load the task arguments on first access.
+	 * @see JdbcTaskExecutionDao#setLazyArgumentLoading(boolean)
+	 */
+	public void setLazyArgumentLoading(boolean lazyArgumentLoading) {
+		this.lazyArgumentLoading = lazyArgumentLoading;
+	}
+
+	/**
+	 * Enables reading the total count of unfiltered pages from the database statistics
+	 * instead of counting the task executions. Has no effect on the Map based
+	 * {@link TaskExecutionDao}. Defaults to {@code false}.
+	 * @param estimatedCountEnabled true to use an estimated total count.
+	 * @see JdbcTaskExecutionDao#setEstimatedCountEnabled(boolean)
+	 */
+	public void setEstimatedCountEnabled(boolean estimatedCountEnabled) {
+		this.estimatedCountEnabled = estimatedCountEnabled;
+	}
+
+	/**
+	 * Enables maintaining and reading the per task name counts of the
+	 * {@code TASK_EXECUTION_SUMMARY} table instead of counting the task executions. Has
+	 * no effect on the Map based {@link TaskExecutionDao}. Defaults to {@code false}.
+	 * @param summaryEnabled true to use the task execution summary.
+	 * @see JdbcTaskExecutionDao#setSummaryEnabled(boolean)
+	 */
+	public void setSummaryEnabled(boolean summaryEnabled) {
+		this.summaryEnabled = summaryEnabled;
+	}
+
+	/**
+	 * Sets the number of rows fetched per round trip when streaming task executions from
+	 * a JDBC based {@link TaskExecutionDao}. Has no effect on the Map based
+	 * {@link TaskExecutionDao}.
+	 * @param streamFetchSize the fetch size.
+	 * @see JdbcTaskExecutionDao#setStreamFetchSize(int)
+	 */
+	public void setStreamFetchSize(int streamFetchSize) {
+		Assert.isTrue(streamFetchSize > 0, "streamFetchSize must be greater than zero");
+		this.streamFetchSize = streamFetchSize;
+	}
+
+	/**
+	 * Sets the number of task execution ids that are reserved with a single database
+	 * round trip. On MySQL the {@code TASK_SEQ} table is advanced by the block size with
+	 * one update. Sequence based incrementers (DB2, H2, MariaDB, Oracle, PostgreSQL and
+	 * the SQL Server sequence) are wrapped in a
+	 * {@link BlockAllocatingMaxValueIncrementer}, which requires the {@code TASK_SEQ}
+	 * sequence to be incremented by at least the block size and fails on the first id
+	 * otherwise. The scripts in {@code org/springframework/cloud/task/id-block} are
+	 * templates of that change, with {@code %PREFIX%} and {@code %BLOCK_SIZE%}
+	 * placeholders for the table prefix and the block size. The identity column
+	 * incrementers of HSQLDB and the SQL Server {@code TASK_SEQ} table need a round trip
+	 * per id, so the block size is ignored for them. Has no effect on the Map based
+	 * {@link TaskExecutionDao}. Defaults to 1.
+	 * @param idBlockSize the number of ids to reserve at a time.
+	 */
+	public void setIdBlockSize(int idBlockSize) {
+		Assert.isTrue(idBlockSize > 0, "idBlockSize must be greater than zero");
+		this.idBlockSize = idBlockSize;
+	}
+
+	/**
+	 * Sets the directory of the journal the task executions are recorded to when no
+	 * {@link DataSource} is provided, creating a {@link JournalTaskExecutionDao} instead
+	 * of the Map based {@link TaskExecutionDao}. Has no effect when a {@link DataSource}
+	 * is provided.
+	 * @param journalDirectory the directory holding the journal segments.
+	 * @since 3.0.0
+	 */
+	public void setJournalDirectory(Path journalDirectory) {
+		this.journalDirectory = journalDirectory;
+	}
+
+	/**
+	 * Sets the size in bytes of the journal segments when a journal directory is set.
+	 * Defaults to {@link JournalTaskExecutionDao#DEFAULT_SEGMENT_SIZE}.
+	 * @param journalSegmentSize the size of a journal segment.
+	 * @since 3.0.0
+	 */
+	public void setJournalSegmentSize(int journalSegmentSize) {
+		Assert.isTrue(journalSegmentSize > 0,
+				"journalSegmentSize must be greater than zero");
+		this.journalSegmentSize = journalSegmentSize;
+	}
+
+	/**
+	 * Closes the {@link TaskExecutionDao} if it holds resources, such as the journal of a
+	 * {@link JournalTaskExecutionDao}.
+	 */
+	@Override
+	public void destroy() throws Exception {
+		if (this.dao instanceof Closeable) {
+			((Closeable) this.dao).close();
+		}
+	}
+
 	@Override
 	public Class<?> getObjectType() {
 		return TaskExecutionDao.class;
@@ -122,12 +232,9 @@ public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao
 	}
 
 	private void buildTaskExecutionDao(DataSource dataSource) {
-		DataFieldMaxValueIncrementerFactory incrementerFactory = new DefaultDataFieldMaxValueIncrementerFactory(
-				dataSource);
-		this.dao = new JdbcTaskExecutionDao(dataSource, this.tablePrefix);
-		String databaseType;
+		DatabaseType databaseType;
 		try {
-			databaseType = DatabaseType.fromMetaData(dataSource).name();
+			databaseType = DatabaseType.fromMetaData(dataSource);
 		}
 		catch (MetaDataAccessException e) {
 			throw new IllegalStateException(e);
@@ -135,15 +242,52 @@ public class TaskExecutionDaoFactoryBean implements FactoryBean<TaskExecutionDao
 		catch (SQLException e) {
 			throw new IllegalStateException(e);
 		}
-		((JdbcTaskExecutionDao) this.dao).setTaskIncrementer(incrementerFactory
-			.getIncrementer(databaseType, this.tablePrefix + "SEQ"));
+		JdbcTaskExecutionDao jdbcTaskExecutionDao = new JdbcTaskExecutionDao(dataSource,
+				this.tablePrefix);
+		jdbcTaskExecutionDao.setDatabaseType(databaseType);
+		jdbcTaskExecutionDao.setLazyArgumentLoading(this.lazyArgumentLoading);
+		jdbcTaskExecutionDao.setEstimatedCountEnabled(this.estimatedCountEnabled);
+		jdbcTaskExecutionDao.setSummaryEnabled(this.summaryEnabled);
+		jdbcTaskExecutionDao.setStreamFetchSize(this.streamFetchSize);
+		jdbcTaskExecutionDao
+				.setTaskIncrementer(buildTaskIncrementer(dataSource, databaseType.name()));
+		this.dao = jdbcTaskExecutionDao;
+	}
+
+	private DataFieldMaxValueIncrementer buildTaskIncrementer(DataSource dataSource,
+			String databaseType) {
+		DataFieldMaxValueIncrementerFactory incrementerFactory = new DefaultDataFieldMaxValueIncrementerFactory(
+				dataSource);
+		String incrementerName = this.tablePrefix + "SEQ";
+		DataFieldMaxValueIncrementer incrementer = incrementerFactory
+				.getIncrementer(databaseType, incrementerName);
+		if (databaseType.equals(DatabaseType.SQLSERVER.name())
+				&& !isSqlServerTableSequenceAvailable(incrementerName)) {
+			incrementer = new SqlServerSequenceMaxValueIncrementer(dataSource,
+					incrementerName);
+		}
+		if (this.idBlockSize > 1) {
+			if (incrementer instanceof MySQLMaxValueIncrementer) {
+				((MySQLMaxValueIncrementer) incrementer).setCacheSize(this.idBlockSize);
+			}
+			else if (incrementer instanceof AbstractIdentityColumnMaxValueIncrementer) {
+				// an insert and identity select per cached id, a block would save nothing
+				logger.warn("idBlockSize is not supported on " + databaseType
+						+ " with the " + incrementerName
+						+ " table, task execution ids are reserved one at a time");
+			}
+			else {
+				incrementer = new BlockAllocatingMaxValueIncrementer(incrementer,
+						this.idBlockSize);
+			}
+		}
+		return incrementer;
 	}
 
 	private boolean isSqlServerTableSequenceAvailable(String incrementerName) {
 		boolean result = false;
-		DatabaseMetaData metaData = null;
-		try {
-			metaData = dataSource.getConnection().getMetaData();
+		try (Connection connection = this.dataSource.getConnection()) {
+			DatabaseMetaData metaData = connection.getMetaData();
 			String[] types = { "TABLE" };
 			ResultSet tables = metaData.getTables(null, null, "%", types);
 			while (tables.next()) {
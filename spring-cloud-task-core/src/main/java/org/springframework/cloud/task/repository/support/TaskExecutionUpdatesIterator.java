@@ -0,0 +1,103 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionUpdates;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.util.Assert;
+
+/**
+ * Iterates over the task executions updated after a {@link TaskExecutionWatermark},
+ * reading them from the {@link TaskExplorer} one page at a time, oldest update first.
+ * {@link #hasNext()} returns false once all the updates have been read; calling it again
+ * later polls for the task executions updated in the meantime. The watermark of the last
+ * task execution returned by {@link #next()} is available from {@link #getWatermark()},
+ * to be stored by clients that resume polling with a new iterator.
+ *
+ * <p>
+ * A task execution is returned again each time it is updated. The update times are set
+ * by the task repository when writing, so an update committed after a poll with an
+ * update time before the watermark is not returned.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class TaskExecutionUpdatesIterator implements Iterator<TaskExecution> {
+
+	private final TaskExplorer taskExplorer;
+
+	private final int pageSize;
+
+	private TaskExecutionWatermark watermark;
+
+	private TaskExecutionUpdates page;
+
+	private int index;
+
+	/**
+	 * Initializes the TaskExecutionUpdatesIterator.
+	 * @param taskExplorer the explorer to read the task executions from.
+	 * @param watermark the watermark to read the task executions updated after.
+	 * @param pageSize the maximum number of task executions read per query.
+	 */
+	public TaskExecutionUpdatesIterator(TaskExplorer taskExplorer,
+			TaskExecutionWatermark watermark, int pageSize) {
+		Assert.notNull(taskExplorer, "taskExplorer must not be null");
+		Assert.notNull(watermark, "watermark must not be null");
+		Assert.isTrue(pageSize > 0, "pageSize must be greater than zero");
+		this.taskExplorer = taskExplorer;
+		this.watermark = watermark;
+		this.pageSize = pageSize;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (this.page != null && this.index < this.page.getTaskExecutions().size()) {
+			return true;
+		}
+		this.page = this.taskExplorer.findTaskExecutionsUpdatedAfter(this.watermark,
+				this.pageSize);
+		this.index = 0;
+		return !this.page.getTaskExecutions().isEmpty();
+	}
+
+	@Override
+	public TaskExecution next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		TaskExecution taskExecution = this.page.getTaskExecutions().get(this.index);
+		this.watermark = this.page.getWatermark(this.index);
+		this.index++;
+		return taskExecution;
+	}
+
+	/**
+	 * Returns the watermark positioned after the last task execution returned by
+	 * {@link #next()}, or the initial watermark if none was returned yet.
+	 * @return the watermark to resume reading the updates from.
+	 */
+	public TaskExecutionWatermark getWatermark() {
+		return this.watermark;
+	}
+
+}
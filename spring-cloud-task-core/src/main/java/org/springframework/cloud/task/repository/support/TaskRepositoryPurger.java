@@ -0,0 +1,255 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.util.Assert;
+
+/**
+ * Periodically removes task executions from a {@link TaskRepository} that ended longer
+ * ago than the retention, or that are older than the configured number of latest task
+ * executions of their task name. The first purge runs when the purger is started, the
+ * next ones with a fixed delay in between. The number of removed rows is recorded by the
+ * {@value #ROWS_METER} counter, tagged with the table they were removed from. In archive
+ * mode the task executions past the retention are moved to the archive instead and
+ * counted by the {@value #ARCHIVE_ROWS_METER} counter.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class TaskRepositoryPurger implements SmartLifecycle {
+
+	/**
+	 * Name of the counter of rows removed from the task repository tables.
+	 */
+	public static final String ROWS_METER = "spring.cloud.task.repository.purge.rows";
+
+	/**
+	 * Name of the counter of rows moved from the task repository tables to the archive.
+	 */
+	public static final String ARCHIVE_ROWS_METER = "spring.cloud.task.repository.archive.rows";
+
+	/**
+	 * Default maximum number of task executions removed per transaction.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 500;
+
+	/**
+	 * Default time between the end of a purge and the start of the next one.
+	 */
+	public static final Duration DEFAULT_INTERVAL = Duration.ofHours(1);
+
+	private static final Log logger = LogFactory.getLog(TaskRepositoryPurger.class);
+
+	private final TaskRepository taskRepository;
+
+	private final Counter taskExecutionsCounter;
+
+	private final Counter taskExecutionParamsCounter;
+
+	private final Counter taskBatchAssociationsCounter;
+
+	private final Counter archivedTaskExecutionsCounter;
+
+	private final Counter archivedTaskExecutionParamsCounter;
+
+	private final Counter archivedTaskBatchAssociationsCounter;
+
+	private boolean archive;
+
+	private Duration retention;
+
+	private Integer maxExecutionsPerTaskName;
+
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	private Duration interval = DEFAULT_INTERVAL;
+
+	private ScheduledExecutorService executor;
+
+	public TaskRepositoryPurger(TaskRepository taskRepository) {
+		Assert.notNull(taskRepository, "taskRepository must not be null");
+		this.taskRepository = taskRepository;
+		this.taskExecutionsCounter = rowsCounter(ROWS_METER, "EXECUTION",
+				"Rows removed from the task repository by the purge");
+		this.taskExecutionParamsCounter = rowsCounter(ROWS_METER, "EXECUTION_PARAMS",
+				"Rows removed from the task repository by the purge");
+		this.taskBatchAssociationsCounter = rowsCounter(ROWS_METER, "TASK_BATCH",
+				"Rows removed from the task repository by the purge");
+		this.archivedTaskExecutionsCounter = rowsCounter(ARCHIVE_ROWS_METER,
+				"EXECUTION", "Rows moved from the task repository to the archive");
+		this.archivedTaskExecutionParamsCounter = rowsCounter(ARCHIVE_ROWS_METER,
+				"EXECUTION_PARAMS", "Rows moved from the task repository to the archive");
+		this.archivedTaskBatchAssociationsCounter = rowsCounter(ARCHIVE_ROWS_METER,
+				"TASK_BATCH", "Rows moved from the task repository to the archive");
+	}
+
+	private static Counter rowsCounter(String name, String table, String description) {
+		return Counter.builder(name).tag("table", table).description(description)
+				.register(Metrics.globalRegistry);
+	}
+
+	/**
+	 * Removes, or in archive mode archives, the task executions that are due and records
+	 * the affected rows.
+	 * @return the number of rows removed or archived from each table.
+	 */
+	public TaskExecutionPurgeResult purge() {
+		Assert.state(!this.archive || this.maxExecutionsPerTaskName == null,
+				"maxExecutionsPerTaskName is not supported in archive mode");
+		if (this.archive) {
+			return archive();
+		}
+		TaskExecutionPurgeResult result = TaskExecutionPurgeResult.NONE;
+		if (this.retention != null) {
+			Date endedBefore = new Date(
+					System.currentTimeMillis() - this.retention.toMillis());
+			result = result.add(this.taskRepository
+					.purgeTaskExecutionsEndedBefore(endedBefore, this.chunkSize));
+		}
+		if (this.maxExecutionsPerTaskName != null) {
+			result = result.add(this.taskRepository.purgeTaskExecutionsBeyondLatest(
+					this.maxExecutionsPerTaskName, this.chunkSize));
+		}
+		this.taskExecutionsCounter.increment(result.getTaskExecutions());
+		this.taskExecutionParamsCounter.increment(result.getTaskExecutionParams());
+		this.taskBatchAssociationsCounter.increment(result.getTaskBatchAssociations());
+		return result;
+	}
+
+	private TaskExecutionPurgeResult archive() {
+		if (this.retention == null) {
+			return TaskExecutionPurgeResult.NONE;
+		}
+		Date endedBefore = new Date(System.currentTimeMillis() - this.retention.toMillis());
+		TaskExecutionPurgeResult result = this.taskRepository
+				.archiveTaskExecutionsEndedBefore(endedBefore, this.chunkSize);
+		this.archivedTaskExecutionsCounter.increment(result.getTaskExecutions());
+		this.archivedTaskExecutionParamsCounter
+				.increment(result.getTaskExecutionParams());
+		this.archivedTaskBatchAssociationsCounter
+				.increment(result.getTaskBatchAssociations());
+		return result;
+	}
+
+	@Override
+	public synchronized void start() {
+		if (this.executor == null) {
+			this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "task-repository-purger");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.executor.scheduleWithFixedDelay(this::scheduledPurge, 0,
+					this.interval.toMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public synchronized void stop() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+			this.executor = null;
+		}
+	}
+
+	@Override
+	public synchronized boolean isRunning() {
+		return this.executor != null;
+	}
+
+	private void scheduledPurge() {
+		try {
+			TaskExecutionPurgeResult result = purge();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Purged the task repository: " + result);
+			}
+		}
+		catch (RuntimeException e) {
+			// an exception would cancel the scheduled purge
+			logger.warn("Failed to purge the task repository", e);
+		}
+	}
+
+	/**
+	 * Sets the time after their end that task executions are removed. Defaults to null,
+	 * keeping task executions regardless of their age.
+	 * @param retention the retention.
+	 */
+	public void setRetention(Duration retention) {
+		Assert.isTrue(retention == null || !retention.isNegative(),
+				"retention must not be negative");
+		this.retention = retention;
+	}
+
+	/**
+	 * Sets whether the task executions past the retention are moved to the archive
+	 * rather than removed. The number of latest task executions kept for each task name
+	 * can not be limited in archive mode. Defaults to false.
+	 * @param archive true to archive the task executions instead of removing them.
+	 */
+	public void setArchive(boolean archive) {
+		this.archive = archive;
+	}
+
+	/**
+	 * Sets the number of latest task executions kept for each task name. Defaults to
+	 * null, keeping all of them.
+	 * @param maxExecutionsPerTaskName the number of latest task executions to keep.
+	 */
+	public void setMaxExecutionsPerTaskName(Integer maxExecutionsPerTaskName) {
+		Assert.isTrue(maxExecutionsPerTaskName == null || maxExecutionsPerTaskName > 0,
+				"maxExecutionsPerTaskName must be greater than zero");
+		this.maxExecutionsPerTaskName = maxExecutionsPerTaskName;
+	}
+
+	/**
+	 * Sets the maximum number of task executions removed per transaction. Defaults to
+	 * {@value #DEFAULT_CHUNK_SIZE}.
+	 * @param chunkSize the chunk size.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "chunkSize must be greater than zero");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Sets the time between the end of a purge and the start of the next one. Defaults
+	 * to one hour.
+	 * @param interval the interval.
+	 */
+	public void setInterval(Duration interval) {
+		Assert.notNull(interval, "interval must not be null");
+		Assert.isTrue(!interval.isNegative() && !interval.isZero(),
+				"interval must be greater than zero");
+		this.interval = interval;
+	}
+
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.util.Assert;
+
+/**
+ * {@link TaskRepository} decorator that acknowledges {@code startTaskExecution} and
+ * {@code updateExternalExecutionId} immediately and persists them from a background
+ * writer. Pending writes are kept in a bounded queue; callers block when it is full.
+ * Creating a task execution is always synchronous since the generated id is required.
+ * Pending writes are flushed before a task execution is completed and when the
+ * repository is destroyed. A write that fails in the background is reported by the next
+ * flush. A completion is always persisted, even when a pending write failed, and the
+ * failure is reported once it is.
+ *
+ * @author Glenn Renfro
+ * @since 3.0.0
+ */
+public class WriteBehindTaskRepository implements TaskRepository, DisposableBean {
+
+	/**
+	 * Gauge reporting the number of writes waiting to be persisted.
+	 */
+	public static final String QUEUE_DEPTH_METER = "spring.cloud.task.repository.write.queue.depth";
+
+	/**
+	 * Gauge reporting, in milliseconds, how long the oldest write that has not yet been
+	 * persisted has been waiting.
+	 */
+	public static final String LAG_METER = "spring.cloud.task.repository.write.lag";
+
+	/**
+	 * Tag of the gauges identifying the write-behind repository they report on, so that
+	 * each instance registers and removes its own gauges.
+	 */
+	public static final String INSTANCE_TAG = "instance";
+
+	/**
+	 * Default capacity of the write queue.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 100;
+
+	private static final Log logger = LogFactory.getLog(WriteBehindTaskRepository.class);
+
+	private static final AtomicInteger instanceCount = new AtomicInteger();
+
+	private final TaskRepository delegate;
+
+	private final BlockingQueue<PendingWrite> queue;
+
+	private final Thread writerThread;
+
+	private final List<Gauge> gauges = new ArrayList<>();
+
+	private volatile PendingWrite inFlightWrite;
+
+	private volatile RuntimeException writeFailure;
+
+	private volatile boolean running = true;
+
+	/**
+	 * Creates a write-behind repository using the {@link #DEFAULT_QUEUE_CAPACITY}.
+	 * @param delegate the repository the writes are persisted to.
+	 */
+	public WriteBehindTaskRepository(TaskRepository delegate) {
+		this(delegate, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Creates a write-behind repository.
+	 * @param delegate the repository the writes are persisted to.
+	 * @param queueCapacity the maximum number of writes waiting to be persisted.
+	 */
+	public WriteBehindTaskRepository(TaskRepository delegate, int queueCapacity) {
+		Assert.notNull(delegate, "delegate must not be null");
+		Assert.isTrue(queueCapacity > 0, "queueCapacity must be greater than zero");
+		this.delegate = delegate;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.writerThread = new Thread(this::drain, "task-repository-writer");
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+		String instance = String.valueOf(instanceCount.incrementAndGet());
+		this.gauges.add(Gauge.builder(QUEUE_DEPTH_METER, this,
+				WriteBehindTaskRepository::getQueueDepth).tag(INSTANCE_TAG, instance)
+				.description("Task repository writes waiting to be persisted")
+				.register(Metrics.globalRegistry));
+		this.gauges.add(Gauge.builder(LAG_METER, this,
+				WriteBehindTaskRepository::getLagMillis).tag(INSTANCE_TAG, instance)
+				.description("Age in milliseconds of the oldest unpersisted write")
+				.baseUnit("milliseconds").register(Metrics.globalRegistry));
+	}
+
+	@Override
+	public TaskExecution completeTaskExecution(long executionId, Integer exitCode,
+			Date endTime, String exitMessage) {
+		return complete(() -> this.delegate.completeTaskExecution(executionId, exitCode,
+				endTime, exitMessage));
+	}
+
+	@Override
+	public TaskExecution completeTaskExecution(long executionId, Integer exitCode,
+			Date endTime, String exitMessage, String errorMessage) {
+		return complete(() -> this.delegate.completeTaskExecution(executionId, exitCode,
+				endTime, exitMessage, errorMessage));
+	}
+
+	@Override
+	public TaskExecution completeTaskExecution(TaskExecution taskExecution) {
+		return complete(() -> this.delegate.completeTaskExecution(taskExecution));
+	}
+
+	@Override
+	public TaskExecution createTaskExecution(TaskExecution taskExecution) {
+		return this.delegate.createTaskExecution(taskExecution);
+	}
+
+	@Override
+	public TaskExecution createTaskExecution(String name) {
+		return this.delegate.createTaskExecution(name);
+	}
+
+	@Override
+	public TaskExecution createTaskExecution() {
+		return this.delegate.createTaskExecution();
+	}
+
+	@Override
+	public TaskExecution startTaskExecution(long executionid, String taskName,
+			Date startTime, List<String> arguments, String externalExecutionId) {
+		return startTaskExecution(executionid, taskName, startTime, arguments,
+				externalExecutionId, null);
+	}
+
+	@Override
+	public TaskExecution startTaskExecution(long executionid, String taskName,
+			Date startTime, List<String> arguments, String externalExecutionId,
+			Long parentExecutionId) {
+		List<String> taskArguments = (arguments != null) ? new ArrayList<>(arguments)
+				: Collections.emptyList();
+		enqueue(() -> this.delegate.startTaskExecution(executionid, taskName, startTime,
+				taskArguments, externalExecutionId, parentExecutionId));
+		return new TaskExecution(executionid, null, taskName, startTime, null, null,
+				taskArguments, null, externalExecutionId, parentExecutionId);
+	}
+
+	@Override
+	public void updateExternalExecutionId(long executionid, String externalExecutionId) {
+		enqueue(() -> this.delegate.updateExternalExecutionId(executionid,
+				externalExecutionId));
+	}
+
+	@Override
+	public TaskExecutionPurgeResult purgeTaskExecutionsEndedBefore(Date endTime,
+			int chunkSize) {
+		flush();
+		return this.delegate.purgeTaskExecutionsEndedBefore(endTime, chunkSize);
+	}
+
+	@Override
+	public TaskExecutionPurgeResult purgeTaskExecutionsBeyondLatest(int retained,
+			int chunkSize) {
+		flush();
+		return this.delegate.purgeTaskExecutionsBeyondLatest(retained, chunkSize);
+	}
+
+	@Override
+	public TaskExecutionPurgeResult archiveTaskExecutionsEndedBefore(Date endTime,
+			int chunkSize) {
+		flush();
+		return this.delegate.archiveTaskExecutionsEndedBefore(endTime, chunkSize);
+	}
+
+	/**
+	 * Blocks until every write queued before this call has been persisted.
+	 * @throws IllegalStateException if a queued write failed or the flush was
+	 * interrupted.
+	 */
+	public void flush() {
+		RuntimeException failure = awaitPendingWrites();
+		if (failure != null) {
+			throw writeFailed(failure);
+		}
+	}
+
+	/**
+	 * @return the number of writes waiting to be persisted.
+	 */
+	public int getQueueDepth() {
+		return this.queue.size();
+	}
+
+	/**
+	 * @return the age in milliseconds of the oldest write that has not been persisted
+	 * yet, or 0 if there is none.
+	 */
+	public double getLagMillis() {
+		PendingWrite oldest = this.inFlightWrite;
+		if (oldest == null) {
+			oldest = this.queue.peek();
+		}
+		if (oldest == null) {
+			return 0;
+		}
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest.enqueuedNanos);
+	}
+
+	@Override
+	public void destroy() {
+		try {
+			flush();
+		}
+		finally {
+			this.running = false;
+			this.writerThread.interrupt();
+			for (Gauge gauge : this.gauges) {
+				Metrics.globalRegistry.remove(gauge);
+			}
+		}
+	}
+
+	/**
+	 * Persists a completion once the pending writes are flushed, whether or not one of
+	 * them failed, so that a failed start does not leave the task execution running.
+	 */
+	private TaskExecution complete(Supplier<TaskExecution> completion) {
+		RuntimeException failure = awaitPendingWrites();
+		TaskExecution taskExecution;
+		try {
+			taskExecution = completion.get();
+		}
+		catch (RuntimeException e) {
+			if (failure != null) {
+				e.addSuppressed(failure);
+			}
+			throw e;
+		}
+		if (failure != null) {
+			throw writeFailed(failure);
+		}
+		return taskExecution;
+	}
+
+	/**
+	 * Blocks until every write queued before this call has been persisted.
+	 * @return the failure of a write since the last flush, if any, which is cleared.
+	 */
+	private RuntimeException awaitPendingWrites() {
+		if (this.running) {
+			CountDownLatch latch = new CountDownLatch(1);
+			enqueue(latch::countDown);
+			try {
+				latch.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(
+						"Interrupted while flushing pending task repository writes", e);
+			}
+		}
+		RuntimeException failure = this.writeFailure;
+		this.writeFailure = null;
+		return failure;
+	}
+
+	private static IllegalStateException writeFailed(RuntimeException failure) {
+		return new IllegalStateException(
+				"Failed to persist a pending task repository write", failure);
+	}
+
+	private void enqueue(Runnable write) {
+		Assert.state(this.running, "The write-behind task repository has been destroyed");
+		try {
+			this.queue.put(new PendingWrite(write));
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(
+					"Interrupted while queueing a task repository write", e);
+		}
+	}
+
+	private void drain() {
+		while (this.running) {
+			try {
+				PendingWrite pendingWrite = this.queue.take();
+				this.inFlightWrite = pendingWrite;
+				try {
+					pendingWrite.write.run();
+				}
+				catch (RuntimeException e) {
+					logger.error("Failed to persist a pending task repository write", e);
+					if (this.writeFailure == null) {
+						this.writeFailure = e;
+					}
+				}
+				finally {
+					this.inFlightWrite = null;
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private static final class PendingWrite {
+
+		private final Runnable write;
+
+		private final long enqueuedNanos = System.nanoTime();
+
+		private PendingWrite(Runnable write) {
+			this.write = write;
+		}
+
+	}
+
+}
@@ -0,0 +1,5 @@
+/* Template of the increment the TASK_SEQ sequence needs when task execution ids are
+reserved in blocks (spring.cloud.task.id-block-size). Replace %PREFIX% with the table
+prefix (TASK_ by default) and %BLOCK_SIZE% with the configured block size before
+running it. This script is not run by the task repository initializer. */
+ALTER SEQUENCE %PREFIX%SEQ INCREMENT BY %BLOCK_SIZE%;
@@ -0,0 +1,43 @@
+CREATE INDEX TASK_EXEC_NAME_IX ON TASK_EXECUTION (TASK_NAME, START_TIME);
+CREATE INDEX TASK_EXEC_START_IX ON TASK_EXECUTION (START_TIME, TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_END_IX ON TASK_EXECUTION (END_TIME, TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_PARENT_IX ON TASK_EXECUTION (PARENT_EXECUTION_ID);
+CREATE INDEX TASK_BATCH_JOB_IX ON TASK_TASK_BATCH (JOB_EXECUTION_ID);
+
+CREATE TABLE TASK_EXECUTION_SUMMARY  (
+	TASK_NAME VARCHAR(100) NOT NULL PRIMARY KEY ,
+	EXECUTION_COUNT BIGINT NOT NULL ,
+	RUNNING_COUNT BIGINT NOT NULL ,
+	LAST_EXECUTION_ID BIGINT NOT NULL
+) ENGINE=InnoDB;
+
+CREATE TABLE TASK_EXECUTION_ARCHIVE  (
+	TASK_EXECUTION_ID BIGINT NOT NULL PRIMARY KEY ,
+	START_TIME DATETIME DEFAULT NULL ,
+	END_TIME DATETIME DEFAULT NULL ,
+	TASK_NAME  VARCHAR(100) ,
+	EXIT_CODE INTEGER ,
+	EXIT_MESSAGE VARCHAR(2500) ,
+	ERROR_MESSAGE VARCHAR(2500) ,
+	LAST_UPDATED TIMESTAMP,
+	EXTERNAL_EXECUTION_ID VARCHAR(255),
+	PARENT_EXECUTION_ID BIGINT
+) ENGINE=InnoDB;
+
+CREATE TABLE TASK_EXECUTION_PARAMS_ARCHIVE  (
+	TASK_EXECUTION_ID BIGINT NOT NULL ,
+	TASK_PARAM VARCHAR(2500) ,
+	constraint TASK_EXEC_PARAMS_ARCH_FK foreign key (TASK_EXECUTION_ID)
+	references TASK_EXECUTION_ARCHIVE(TASK_EXECUTION_ID)
+) ENGINE=InnoDB;
+
+CREATE TABLE TASK_TASK_BATCH_ARCHIVE (
+ TASK_EXECUTION_ID BIGINT NOT NULL ,
+ JOB_EXECUTION_ID BIGINT NOT NULL ,
+	constraint TASK_EXEC_BATCH_ARCH_FK foreign key (TASK_EXECUTION_ID)
+	references TASK_EXECUTION_ARCHIVE(TASK_EXECUTION_ID)
+)  ENGINE=InnoDB;
+
+CREATE INDEX TASK_EXEC_ARCH_NAME_IX ON TASK_EXECUTION_ARCHIVE (TASK_NAME, START_TIME);
+CREATE INDEX TASK_EXEC_ARCH_START_IX ON TASK_EXECUTION_ARCHIVE (START_TIME, TASK_EXECUTION_ID);
+CREATE INDEX TASK_EXEC_UPDATED_IX ON TASK_EXECUTION (LAST_UPDATED, TASK_EXECUTION_ID);
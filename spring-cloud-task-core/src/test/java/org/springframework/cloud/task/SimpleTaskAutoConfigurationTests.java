@@ -16,10 +16,16 @@
 
 package org.springframework.cloud.task;
 
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
 import javax.sql.DataSource;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
 
 import org.springframework.aop.framework.AopProxyUtils;
 import org.springframework.aop.scope.ScopedProxyUtils;
@@ -41,14 +47,22 @@ import org.springframework.cloud.task.configuration.SingleTaskConfiguration;
 import org.springframework.cloud.task.configuration.TaskConfigurer;
 import org.springframework.cloud.task.repository.TaskExplorer;
 import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
+import org.springframework.cloud.task.repository.dao.JournalTaskExecutionDao;
+import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
+import org.springframework.cloud.task.repository.support.CachingTaskExplorer;
+import org.springframework.cloud.task.repository.support.SimpleTaskExplorer;
 import org.springframework.cloud.task.repository.support.SimpleTaskRepository;
+import org.springframework.cloud.task.repository.support.TaskExecutionDaoFactoryBean;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -75,6 +89,188 @@ public class SimpleTaskAutoConfigurationTests {
 		});
 	}
 
+	@Test
+	public void testExplorerCacheEnabled() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(
+						AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+								SimpleTaskAutoConfiguration.class,
+								SingleTaskConfiguration.class))
+				.withPropertyValues("spring.cloud.task.explorer-cache-enabled=true");
+		applicationContextRunner.run((context) -> assertThat(
+				AopProxyUtils.ultimateTargetClass(context.getBean(TaskExplorer.class)))
+						.isEqualTo(CachingTaskExplorer.class));
+	}
+
+	@Test
+	public void testMapRepositoryBounded() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(
+						AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+								SimpleTaskAutoConfiguration.class,
+								SingleTaskConfiguration.class))
+				.withPropertyValues("spring.cloud.task.map-repository-max-entries=1");
+		applicationContextRunner.run((context) -> {
+			SimpleTaskRepository taskRepository = (SimpleTaskRepository) context
+					.getBean(TaskConfigurer.class).getTaskRepository();
+			long executionId = taskRepository.createTaskExecution("foo")
+					.getExecutionId();
+			taskRepository.completeTaskExecution(executionId, 0, new Date(), null);
+			taskRepository.createTaskExecution("foo");
+
+			assertThat(taskRepository.getTaskExecutionDao().getTaskExecutionCount())
+					.isEqualTo(1);
+			assertThat(taskRepository.getTaskExecutionDao().getTaskExecution(executionId))
+					.isNull();
+		});
+	}
+
+	@Test
+	public void testLazyArgumentLoadingEnabled() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(
+						AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+								SimpleTaskAutoConfiguration.class,
+								SingleTaskConfiguration.class,
+								EmbeddedDataSourceConfiguration.class))
+				.withPropertyValues(
+						"spring.cloud.task.lazy-argument-loading-enabled=true");
+		applicationContextRunner.run((context) -> {
+			SimpleTaskRepository taskRepository = (SimpleTaskRepository) context
+					.getBean(TaskConfigurer.class).getTaskRepository();
+
+			assertThat(taskRepository.getTaskExecutionDao())
+					.isInstanceOf(JdbcTaskExecutionDao.class)
+					.hasFieldOrPropertyWithValue("lazyArgumentLoading", true);
+		});
+	}
+
+	@Test
+	public void testEstimatedCountEnabled() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(
+						AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+								SimpleTaskAutoConfiguration.class,
+								SingleTaskConfiguration.class,
+								EmbeddedDataSourceConfiguration.class))
+				.withPropertyValues("spring.cloud.task.estimated-count-enabled=true");
+		applicationContextRunner.run((context) -> {
+			SimpleTaskRepository taskRepository = (SimpleTaskRepository) context
+					.getBean(TaskConfigurer.class).getTaskRepository();
+
+			assertThat(taskRepository.getTaskExecutionDao())
+					.isInstanceOf(JdbcTaskExecutionDao.class)
+					.hasFieldOrPropertyWithValue("estimatedCountEnabled", true);
+		});
+	}
+
+	@Test
+	public void testStreamFetchSize() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(
+						AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+								SimpleTaskAutoConfiguration.class,
+								SingleTaskConfiguration.class,
+								EmbeddedDataSourceConfiguration.class))
+				.withPropertyValues("spring.cloud.task.stream-fetch-size=100");
+		applicationContextRunner.run((context) -> {
+			SimpleTaskRepository taskRepository = (SimpleTaskRepository) context
+					.getBean(TaskConfigurer.class).getTaskRepository();
+
+			assertThat(ReflectionTestUtils.getField(taskRepository.getTaskExecutionDao(),
+					"streamingJdbcTemplate")).extracting("jdbcTemplate.fetchSize")
+							.isEqualTo(100);
+		});
+	}
+
+	@Test
+	public void testSummaryEnabled() {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(
+						AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+								SimpleTaskAutoConfiguration.class,
+								SingleTaskConfiguration.class,
+								EmbeddedDataSourceConfiguration.class))
+				.withPropertyValues("spring.cloud.task.summary-enabled=true");
+		applicationContextRunner.run((context) -> {
+			SimpleTaskRepository taskRepository = (SimpleTaskRepository) context
+					.getBean(TaskConfigurer.class).getTaskRepository();
+
+			assertThat(taskRepository.getTaskExecutionDao())
+					.isInstanceOf(JdbcTaskExecutionDao.class)
+					.hasFieldOrPropertyWithValue("summaryEnabled", true);
+		});
+	}
+
+	@Test
+	public void testJournalClosedWithContext(@TempDir Path directory) {
+		TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean();
+		factoryBean.setJournalDirectory(directory);
+		TaskConfigurer taskConfigurer = new DefaultTaskConfigurer((DataSource) null) {
+
+			private final TaskRepository taskRepository = new SimpleTaskRepository(
+					factoryBean);
+
+			private final TaskExplorer taskExplorer = new SimpleTaskExplorer(
+					factoryBean);
+
+			@Override
+			public TaskRepository getTaskRepository() {
+				return this.taskRepository;
+			}
+
+			@Override
+			public TaskExplorer getTaskExplorer() {
+				return this.taskExplorer;
+			}
+
+		};
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(
+						AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+								SimpleTaskAutoConfiguration.class,
+								SingleTaskConfiguration.class))
+				.withBean(TaskConfigurer.class, () -> taskConfigurer);
+		AtomicReference<TaskExecutionDao> taskExecutionDao = new AtomicReference<>();
+		applicationContextRunner.run((context) -> {
+			SimpleTaskRepository taskRepository = (SimpleTaskRepository) context
+					.getBean(TaskConfigurer.class).getTaskRepository();
+			taskExecutionDao.set(taskRepository.getTaskExecutionDao());
+			taskRepository.createTaskExecution("foo");
+		});
+
+		assertThatIllegalStateException().isThrownBy(() -> taskExecutionDao.get()
+				.createTaskExecution("foo", new Date(), Collections.emptyList(), null));
+	}
+
+	@Test
+	public void testJournalDirectory(@TempDir Path directory) throws Exception {
+		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+				.withConfiguration(
+						AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+								SimpleTaskAutoConfiguration.class,
+								SingleTaskConfiguration.class))
+				.withPropertyValues("spring.cloud.task.journal-directory=" + directory,
+						"spring.cloud.task.journal-segment-size=4096");
+		AtomicReference<TaskExecutionDao> taskExecutionDao = new AtomicReference<>();
+		applicationContextRunner.run((context) -> {
+			SimpleTaskRepository taskRepository = (SimpleTaskRepository) context
+					.getBean(TaskConfigurer.class).getTaskRepository();
+			taskExecutionDao.set(taskRepository.getTaskExecutionDao());
+			taskRepository.createTaskExecution("foo");
+
+			assertThat(taskExecutionDao.get())
+					.isInstanceOf(JournalTaskExecutionDao.class)
+					.hasFieldOrPropertyWithValue("segmentSize", 4096);
+		});
+
+		assertThatIllegalStateException().isThrownBy(() -> taskExecutionDao.get()
+				.createTaskExecution("foo", new Date(), Collections.emptyList(), null));
+		try (JournalTaskExecutionDao journal = new JournalTaskExecutionDao(directory)) {
+			assertThat(journal.getTaskExecutionCount()).isEqualTo(1);
+		}
+	}
+
 	@Test
 	public void testAutoConfigurationDisabled() {
 		ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
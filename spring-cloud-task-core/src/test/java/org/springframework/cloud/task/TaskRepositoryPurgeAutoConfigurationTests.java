@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.task.configuration.SimpleTaskAutoConfiguration;
+import org.springframework.cloud.task.configuration.SingleTaskConfiguration;
+import org.springframework.cloud.task.configuration.TaskRepositoryPurgeAutoConfiguration;
+import org.springframework.cloud.task.repository.support.TaskRepositoryPurger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies the beans created by the TaskRepositoryPurgeAutoConfiguration.
+ *
+ * @author Glenn Renfro
+ */
+public class TaskRepositoryPurgeAutoConfigurationTests {
+
+	private final ApplicationContextRunner applicationContextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(
+					PropertyPlaceholderAutoConfiguration.class,
+					SimpleTaskAutoConfiguration.class, SingleTaskConfiguration.class,
+					TaskRepositoryPurgeAutoConfiguration.class));
+
+	@Test
+	public void testPurgerDisabledByDefault() {
+		this.applicationContextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(TaskRepositoryPurger.class));
+	}
+
+	@Test
+	public void testPurgerStarted() {
+		this.applicationContextRunner
+				.withPropertyValues("spring.cloud.task.purge-enabled=true",
+						"spring.cloud.task.purge-retention=7d",
+						"spring.cloud.task.purge-max-executions-per-task-name=10",
+						"spring.cloud.task.purge-interval=30m")
+				.run((context) -> {
+					assertThat(context).hasSingleBean(TaskRepositoryPurger.class);
+					TaskRepositoryPurger purger = context
+							.getBean(TaskRepositoryPurger.class);
+					assertThat(purger.isRunning()).isTrue();
+					assertThat(purger).hasFieldOrPropertyWithValue("chunkSize", 500);
+					assertThat(purger).hasFieldOrPropertyWithValue(
+							"maxExecutionsPerTaskName", 10);
+				});
+	}
+
+	@Test
+	public void testPurgerArchiveEnabled() {
+		this.applicationContextRunner
+				.withPropertyValues("spring.cloud.task.purge-enabled=true",
+						"spring.cloud.task.purge-retention=7d",
+						"spring.cloud.task.purge-archive-enabled=true")
+				.run((context) -> assertThat(context.getBean(TaskRepositoryPurger.class))
+						.hasFieldOrPropertyWithValue("archive", true));
+	}
+
+	@Test
+	public void testPurgerArchiveRejectsMaxExecutionsPerTaskName() {
+		this.applicationContextRunner
+				.withPropertyValues("spring.cloud.task.purge-enabled=true",
+						"spring.cloud.task.purge-retention=7d",
+						"spring.cloud.task.purge-max-executions-per-task-name=10",
+						"spring.cloud.task.purge-archive-enabled=true")
+				.run((context) -> assertThat(context).hasFailed().getFailure()
+						.hasRootCauseInstanceOf(IllegalStateException.class));
+	}
+
+	@Test
+	public void testPurgerRequiresPolicy() {
+		this.applicationContextRunner
+				.withPropertyValues("spring.cloud.task.purge-enabled=true")
+				.run((context) -> assertThat(context).hasFailed().getFailure()
+						.hasRootCauseInstanceOf(IllegalStateException.class));
+	}
+
+}
@@ -24,14 +24,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.support.ReadReplicaTaskExplorer;
+import org.springframework.cloud.task.repository.support.SimpleTaskExplorer;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -98,6 +103,31 @@ public class DefaultTaskConfigurerTests {
 		assertThat(defaultTaskConfigurer.getTaskExplorer()).isNotNull();
 	}
 
+	@Test
+	public void taskExplorerDataSourceTest() {
+		DataSource replicaDataSource = new DelegatingDataSource(this.dataSource);
+		DefaultTaskConfigurer defaultTaskConfigurer = new DefaultTaskConfigurer(
+				this.dataSource, replicaDataSource, TaskProperties.DEFAULT_TABLE_PREFIX,
+				null);
+		assertThat(defaultTaskConfigurer.getTaskDataSource()).isSameAs(this.dataSource);
+		assertThat(defaultTaskConfigurer.getTaskExplorer())
+				.isInstanceOf(ReadReplicaTaskExplorer.class);
+		assertThat(defaultTaskConfigurer.getTaskExplorer().readYourWrites())
+				.isInstanceOf(SimpleTaskExplorer.class);
+
+		TaskExecution taskExecution = defaultTaskConfigurer.getTaskRepository()
+				.createTaskExecution("replicaTest");
+		assertThat(defaultTaskConfigurer.getTaskExplorer().readYourWrites()
+				.getTaskExecution(taskExecution.getExecutionId())).isNotNull();
+
+		defaultTaskConfigurer = new DefaultTaskConfigurer(this.dataSource, null,
+				TaskProperties.DEFAULT_TABLE_PREFIX, null);
+		assertThat(defaultTaskConfigurer.getTaskExplorer())
+				.isInstanceOf(SimpleTaskExplorer.class);
+		assertThatIllegalArgumentException().isThrownBy(() -> new DefaultTaskConfigurer(
+				null, replicaDataSource, TaskProperties.DEFAULT_TABLE_PREFIX, null));
+	}
+
 	@Test
 	public void taskRepositoryTest() {
 		DefaultTaskConfigurer defaultTaskConfigurer = new DefaultTaskConfigurer(
@@ -16,17 +16,33 @@
 
 package org.springframework.cloud.task.repository.dao;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCursor;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.cloud.task.repository.TaskExecutionUpdates;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.fail;
 
 /**
@@ -269,6 +285,323 @@ public abstract class BaseTaskExecutionDaoTestCases {
 				.isEqualTo(this.dao.getTaskExecutionCount() - 1);
 	}
 
+	@Test
+	@DirtiesContext
+	public void findAllWithCursorMatchesOffsetPagination() {
+		initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		List<TaskExecution> expected = this.dao.findAll(PageRequest.of(0, 20))
+				.getContent();
+
+		List<TaskExecution> actual = new ArrayList<>();
+		List<TaskExecution> page = this.dao.findAll(null, 3);
+		while (!page.isEmpty()) {
+			assertThat(page.size()).isLessThanOrEqualTo(3);
+			actual.addAll(page);
+			page = this.dao.findAll(
+					TaskExecutionCursor.after(page.get(page.size() - 1)), 3);
+		}
+
+		assertThat(actual).extracting(TaskExecution::getExecutionId)
+				.containsExactlyElementsOf(expected.stream()
+						.map(TaskExecution::getExecutionId).collect(Collectors.toList()));
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllWithCursorResumesWithinIdenticalStartTimes() {
+		long executionIdOffset = initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+
+		// FOO1 (offset) and the three FOO5 executions share the same start time
+		TaskExecution foo5_1 = this.dao.getTaskExecution(8 + executionIdOffset);
+		List<TaskExecution> page = this.dao
+				.findAll(TaskExecutionCursor.after(foo5_1), 2);
+
+		assertThat(page).extracting(TaskExecution::getExecutionId)
+				.containsExactly(7 + executionIdOffset, executionIdOffset);
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllWithCursorDefaultMatchesSeekingImplementation() {
+		initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		TaskExecutionDao pagingOnlyDao = (TaskExecutionDao) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { TaskExecutionDao.class },
+				(proxy, method, args) -> method.isDefault()
+						? InvocationHandler.invokeDefault(proxy, method, args)
+						: method.invoke(this.dao, args));
+
+		TaskExecutionCursor cursor = null;
+		List<TaskExecution> page;
+		do {
+			page = pagingOnlyDao.findAll(cursor, 3);
+			assertThat(page).extracting(TaskExecution::getExecutionId)
+					.containsExactlyElementsOf(this.dao.findAll(cursor, 3).stream()
+							.map(TaskExecution::getExecutionId)
+							.collect(Collectors.toList()));
+			if (!page.isEmpty()) {
+				cursor = TaskExecutionCursor.after(page.get(page.size() - 1));
+			}
+		}
+		while (!page.isEmpty());
+	}
+
+	@Test
+	public void findAllWithCursorInvalidSize() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.dao.findAll(null, 0));
+	}
+
+	@Test
+	@DirtiesContext
+	public void streamTaskExecutionsWithFilter() {
+		long executionIdOffset = initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		this.dao.completeTaskExecution(executionIdOffset + 1, 0, new Date(), null);
+
+		TaskExecutionFilter all = new TaskExecutionFilter();
+		try (Stream<TaskExecution> stream = this.dao.streamTaskExecutions(all)) {
+			assertThat(stream.map(TaskExecution::getExecutionId))
+					.containsExactly(LongStream.range(0, 10)
+							.mapToObj(i -> executionIdOffset + i).toArray(Long[]::new));
+		}
+
+		TaskExecutionFilter runningFoo1 = new TaskExecutionFilter();
+		runningFoo1.setTaskName("FOO1");
+		runningFoo1.setRunning(true);
+		try (Stream<TaskExecution> stream = this.dao.streamTaskExecutions(runningFoo1)) {
+			assertThat(stream.map(TaskExecution::getExecutionId)).containsExactly(
+					executionIdOffset, executionIdOffset + 2, executionIdOffset + 3);
+		}
+
+		TaskExecutionFilter completed = new TaskExecutionFilter();
+		completed.setRunning(false);
+		try (Stream<TaskExecution> stream = this.dao.streamTaskExecutions(completed)) {
+			assertThat(stream.map(TaskExecution::getExecutionId))
+					.containsExactly(executionIdOffset + 1);
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionsWithFilter() {
+		long executionIdOffset = initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		this.dao.completeTaskExecution(executionIdOffset, 0, getDate(2015, 2, 23, 0, 10),
+				null, null);
+		this.dao.completeTaskExecution(executionIdOffset + 1, 1,
+				getDate(2015, 2, 20, 15, 0), null, "boom");
+		this.dao.completeTaskExecution(executionIdOffset + 4, 2,
+				getDate(2015, 4, 21, 0, 0), null, "");
+		long childExecutionId = this.dao.createTaskExecution("FOO6",
+				getDate(2017, 1, 1, 0, 0), Collections.emptyList(), "externalD",
+				executionIdOffset).getExecutionId();
+
+		TaskExecutionFilter failed = new TaskExecutionFilter();
+		failed.setFailed(true);
+		assertThat(findExecutionIds(failed)).containsExactly(executionIdOffset + 4,
+				executionIdOffset + 1);
+		Page<TaskExecution> secondPage = this.dao.findTaskExecutions(failed,
+				PageRequest.of(1, 1));
+		assertThat(secondPage.getTotalElements()).isEqualTo(2);
+		assertThat(secondPage.getContent()).extracting(TaskExecution::getExecutionId)
+				.containsExactly(executionIdOffset + 1);
+
+		TaskExecutionFilter succeeded = new TaskExecutionFilter();
+		succeeded.setExitCode(0);
+		assertThat(findExecutionIds(succeeded)).containsExactly(executionIdOffset);
+
+		TaskExecutionFilter startedWithin = new TaskExecutionFilter();
+		startedWithin.setStartTimeFrom(getDate(2015, 2, 20, 14, 45));
+		startedWithin.setStartTimeTo(getDate(2015, 2, 22, 23, 59));
+		assertThat(findExecutionIds(startedWithin))
+				.containsExactly(executionIdOffset + 6, executionIdOffset + 1);
+
+		TaskExecutionFilter endedWithin = new TaskExecutionFilter();
+		endedWithin.setEndTimeFrom(getDate(2015, 2, 20, 15, 0));
+		endedWithin.setEndTimeTo(getDate(2015, 2, 23, 0, 0));
+		assertThat(findExecutionIds(endedWithin)).containsExactly(executionIdOffset + 1);
+
+		TaskExecutionFilter external = new TaskExecutionFilter();
+		external.setExternalExecutionId("externalB");
+		assertThat(findExecutionIds(external)).containsExactly(executionIdOffset + 5,
+				executionIdOffset + 6);
+
+		TaskExecutionFilter children = new TaskExecutionFilter();
+		children.setParentExecutionId(executionIdOffset);
+		assertThat(findExecutionIds(children)).containsExactly(childExecutionId);
+
+		TaskExecutionFilter withError = new TaskExecutionFilter();
+		withError.setErrorMessagePresent(true);
+		assertThat(findExecutionIds(withError)).containsExactly(executionIdOffset + 1);
+
+		TaskExecutionFilter completedWithoutError = new TaskExecutionFilter();
+		completedWithoutError.setRunning(false);
+		completedWithoutError.setErrorMessagePresent(false);
+		assertThat(findExecutionIds(completedWithoutError))
+				.containsExactly(executionIdOffset + 4, executionIdOffset);
+
+		assertThat(this.dao.findTaskExecutions(new TaskExecutionFilter(),
+				PageRequest.of(0, 20)).getTotalElements()).isEqualTo(11);
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionIdsEndedBefore() {
+		long executionIdOffset = initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		this.dao.completeTaskExecution(executionIdOffset + 2, 0,
+				getDate(2015, 3, 1, 0, 0), null);
+		this.dao.completeTaskExecution(executionIdOffset + 1, 0,
+				getDate(2015, 2, 20, 15, 0), null);
+		this.dao.completeTaskExecution(executionIdOffset, 0, getDate(2015, 2, 23, 0, 10),
+				null);
+
+		assertThat(this.dao.findTaskExecutionIdsEndedBefore(getDate(2015, 2, 25, 0, 0),
+				10)).containsExactly(executionIdOffset, executionIdOffset + 1);
+		assertThat(this.dao.findTaskExecutionIdsEndedBefore(getDate(2015, 2, 25, 0, 0),
+				1)).containsExactly(executionIdOffset);
+		assertThat(this.dao.findTaskExecutionIdsEndedBefore(getDate(2015, 2, 20, 15, 0),
+				10)).isEmpty();
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionIdsBeyondLatest() {
+		long executionIdOffset = initializeRepositoryNotInOrderWithMultipleTaskExecutions();
+		// FOO1 by start time, latest first: offset, offset + 1, offset + 3, offset + 2
+		this.dao.completeTaskExecution(executionIdOffset, 0, new Date(), null);
+		this.dao.completeTaskExecution(executionIdOffset + 1, 0, new Date(), null);
+		this.dao.completeTaskExecution(executionIdOffset + 2, 0, new Date(), null);
+		for (long i = 7; i <= 9; i++) {
+			this.dao.completeTaskExecution(executionIdOffset + i, 0, new Date(), null);
+		}
+
+		assertThat(this.dao.findTaskExecutionIdsBeyondLatest("FOO1", 1, 10))
+				.containsExactly(executionIdOffset + 1, executionIdOffset + 2);
+		assertThat(this.dao.findTaskExecutionIdsBeyondLatest("FOO1", 1, 1))
+				.containsExactly(executionIdOffset + 1);
+		assertThat(this.dao.findTaskExecutionIdsBeyondLatest("FOO1", 3, 10))
+				.containsExactly(executionIdOffset + 2);
+		assertThat(this.dao.findTaskExecutionIdsBeyondLatest("FOO1", 4, 10)).isEmpty();
+		// identical start times are ordered by the task execution id
+		assertThat(this.dao.findTaskExecutionIdsBeyondLatest("FOO5", 1, 10))
+				.containsExactly(executionIdOffset + 7, executionIdOffset + 8);
+		assertThat(this.dao.findTaskExecutionIdsBeyondLatest("NONE", 1, 10)).isEmpty();
+	}
+
+	@Test
+	@DirtiesContext
+	public void deleteTaskExecutions() {
+		TaskExecution deleted = this.dao.createTaskExecution("FOO", new Date(),
+				Arrays.asList("foo=1", "bar=2"), null);
+		TaskExecution kept = this.dao.createTaskExecution("FOO", new Date(),
+				Arrays.asList("foo=1", "bar=2"), null);
+
+		assertThat(this.dao.deleteTaskExecutions(
+				Collections.singletonList(deleted.getExecutionId())))
+						.isEqualTo(new TaskExecutionPurgeResult(1, 2, 0));
+		assertThat(this.dao.getTaskExecution(deleted.getExecutionId())).isNull();
+		assertThat(this.dao.getTaskExecution(kept.getExecutionId()).getArguments())
+				.containsExactly("foo=1", "bar=2");
+		assertThat(this.dao.getTaskExecutionCount()).isEqualTo(1);
+		assertThat(this.dao.deleteTaskExecutions(
+				Collections.singletonList(deleted.getExecutionId())))
+						.isEqualTo(TaskExecutionPurgeResult.NONE);
+	}
+
+	@Test
+	@DirtiesContext
+	public void archiveTaskExecutions() {
+		TaskExecution archived = this.dao.createTaskExecution("FOO",
+				getDate(2015, 2, 20, 14, 45), Arrays.asList("foo=1", "bar=2"), null);
+		this.dao.completeTaskExecution(archived.getExecutionId(), 0,
+				getDate(2015, 2, 20, 15, 0), null);
+		TaskExecution kept = this.dao.createTaskExecution("FOO",
+				getDate(2015, 2, 22, 23, 59), Collections.singletonList("baz=3"), null);
+
+		assertThat(this.dao.archiveTaskExecutions(
+				Collections.singletonList(archived.getExecutionId())))
+						.isEqualTo(new TaskExecutionPurgeResult(1, 2, 0));
+		assertThat(this.dao.getTaskExecution(archived.getExecutionId())).isNull();
+		assertThat(this.dao.getTaskExecutionCount()).isEqualTo(1);
+		assertThat(findExecutionIds(new TaskExecutionFilter()))
+				.containsExactly(kept.getExecutionId());
+
+		TaskExecutionFilter includingArchived = new TaskExecutionFilter();
+		includingArchived.setIncludeArchived(true);
+		Page<TaskExecution> page = this.dao.findTaskExecutions(includingArchived,
+				PageRequest.of(0, 20));
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(page.getContent()).extracting(TaskExecution::getExecutionId)
+				.containsExactly(kept.getExecutionId(), archived.getExecutionId());
+		assertThat(page.getContent().get(1).getArguments())
+				.containsExactlyInAnyOrder("foo=1", "bar=2");
+		assertThat(page.getContent().get(0).getArguments()).containsExactly("baz=3");
+
+		includingArchived.setRunning(false);
+		assertThat(findExecutionIds(includingArchived))
+				.containsExactly(archived.getExecutionId());
+		includingArchived.setRunning(null);
+		try (Stream<TaskExecution> stream = this.dao
+				.streamTaskExecutions(includingArchived)) {
+			assertThat(stream.map(TaskExecution::getExecutionId))
+					.containsExactly(archived.getExecutionId(), kept.getExecutionId());
+		}
+
+		assertThat(this.dao.archiveTaskExecutions(
+				Collections.singletonList(archived.getExecutionId())))
+						.isEqualTo(TaskExecutionPurgeResult.NONE);
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionsUpdatedAfter() throws InterruptedException {
+		Date before = new Date(System.currentTimeMillis() - 1000);
+		List<Long> created = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			created.add(this.dao.createTaskExecution("FOO", new Date(),
+					Collections.singletonList("foo=" + i), null).getExecutionId());
+		}
+
+		TaskExecutionUpdates first = this.dao
+				.findTaskExecutionsUpdatedAfter(TaskExecutionWatermark.since(before), 2);
+		assertThat(first.getTaskExecutions()).extracting(TaskExecution::getExecutionId)
+				.containsExactlyElementsOf(created.subList(0, 2));
+		assertThat(first.getTaskExecutions().get(1).getArguments())
+				.containsExactly("foo=1");
+		TaskExecutionUpdates second = this.dao
+				.findTaskExecutionsUpdatedAfter(first.getWatermark(), 2);
+		assertThat(second.getTaskExecutions()).extracting(TaskExecution::getExecutionId)
+				.containsExactly(created.get(2));
+		assertThat(this.dao.findTaskExecutionsUpdatedAfter(first.getWatermark(0), 5)
+				.getTaskExecutions()).extracting(TaskExecution::getExecutionId)
+						.containsExactlyElementsOf(created.subList(1, 3));
+
+		// let the update time move past the watermark
+		Thread.sleep(10);
+		this.dao.completeTaskExecution(created.get(0), 0, new Date(), null);
+		TaskExecutionUpdates third = this.dao
+				.findTaskExecutionsUpdatedAfter(second.getWatermark(), 2);
+		assertThat(third.getTaskExecutions()).extracting(TaskExecution::getExecutionId)
+				.containsExactly(created.get(0));
+		assertThat(third.getTaskExecutions().get(0).getEndTime()).isNotNull();
+
+		TaskExecutionUpdates none = this.dao
+				.findTaskExecutionsUpdatedAfter(third.getWatermark(), 2);
+		assertThat(none.getTaskExecutions()).isEmpty();
+		assertThat(none.getWatermark()).isEqualTo(third.getWatermark());
+	}
+
+	@Test
+	public void findTaskExecutionsUpdatedAfterInvalidArguments() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.dao.findTaskExecutionsUpdatedAfter(null, 1));
+		assertThatIllegalArgumentException().isThrownBy(() -> this.dao
+				.findTaskExecutionsUpdatedAfter(TaskExecutionWatermark.since(new Date()), 0));
+	}
+
+	private List<Long> findExecutionIds(TaskExecutionFilter filter) {
+		return this.dao.findTaskExecutions(filter, PageRequest.of(0, 20)).getContent()
+				.stream().map(TaskExecution::getExecutionId).collect(Collectors.toList());
+	}
+
 	protected long initializeRepositoryNotInOrderWithMultipleTaskExecutions() {
 
 		final TaskExecution foo1_0 = getTaskExecution("FOO1", "externalC");
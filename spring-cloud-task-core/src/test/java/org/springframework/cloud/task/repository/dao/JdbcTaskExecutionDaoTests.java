@@ -17,13 +17,18 @@
 package org.springframework.cloud.task.repository.dao;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
+import org.apache.tomcat.jdbc.pool.PoolProperties;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,20 +38,30 @@ import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoCon
 import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
 import org.springframework.cloud.task.configuration.TestConfiguration;
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionCursor;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
 import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.repository.support.DatabaseType;
+import org.springframework.cloud.task.util.StatementCountingDataSource;
 import org.springframework.cloud.task.util.TestDBUtils;
 import org.springframework.cloud.task.util.TestVerifierUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.InstanceOfAssertFactories.MAP;
 
 /**
  * Executes unit tests on JdbcTaskExecutionDao.
@@ -121,6 +136,484 @@ public class JdbcTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
 						expectedTaskExecution.getExecutionId()));
 	}
 
+	@Test
+	@DirtiesContext
+	public void createTaskExecutionWithArgumentsUsesSingleConnectionAndBatch() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(countingDataSource));
+		List<String> arguments = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			arguments.add("arg" + i + "=" + UUID.randomUUID());
+		}
+		countingDataSource.reset();
+
+		TaskExecution expectedTaskExecution = dao.createTaskExecution("FOO", new Date(),
+				arguments, null);
+
+		// Previously 1 sequence lookup, 1 insert and 20 argument inserts, each on its
+		// own connection: 22 connections and 22 round trips.
+		assertThat(countingDataSource.getConnectionCount()).isEqualTo(1);
+		assertThat(countingDataSource.getExecutionCount()).isEqualTo(3);
+		TestVerifierUtils.verifyTaskExecution(expectedTaskExecution,
+				TestDBUtils.getTaskExecutionFromDB(this.dataSource,
+						expectedTaskExecution.getExecutionId()));
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllLoadsArgumentsForPageInSingleQuery() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(countingDataSource));
+		for (int i = 0; i < 5; i++) {
+			dao.createTaskExecution("FOO" + i, new Date(),
+					Collections.singletonList("arg=" + i), null);
+		}
+		countingDataSource.reset();
+
+		Page<TaskExecution> page = dao.findAll(PageRequest.of(0, 10));
+
+		// count query, page query and one bulk argument query
+		assertThat(countingDataSource.getExecutionCount()).isEqualTo(3);
+		assertThat(page.getContent()).hasSize(5);
+		for (TaskExecution taskExecution : page) {
+			assertThat(taskExecution.getArguments()).containsExactly(
+					"arg=" + taskExecution.getTaskName().substring(3));
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllWithLazyArgumentLoadingDefersArgumentQuery() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(countingDataSource));
+		dao.setLazyArgumentLoading(true);
+		for (int i = 0; i < 5; i++) {
+			dao.createTaskExecution("FOO" + i, new Date(),
+					Collections.singletonList("arg=" + i), null);
+		}
+		countingDataSource.reset();
+
+		Page<TaskExecution> page = dao.findAll(PageRequest.of(0, 10));
+
+		// page query (including the total count) only
+		assertThat(countingDataSource.getExecutionCount()).isEqualTo(1);
+		assertThat(page.getContent()).hasSize(5);
+		for (TaskExecution taskExecution : page) {
+			assertThat(taskExecution.getArguments()).containsExactly(
+					"arg=" + taskExecution.getTaskName().substring(3));
+		}
+		// a single argument query for the whole page
+		assertThat(countingDataSource.getExecutionCount()).isEqualTo(2);
+	}
+
+	@Test
+	@DirtiesContext
+	public void lazyArgumentLoadingKeepsExplicitlySetArguments() {
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(this.dataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		dao.setLazyArgumentLoading(true);
+		dao.createTaskExecution("FOO", new Date(), Collections.singletonList("arg=1"),
+				null);
+
+		TaskExecution taskExecution = dao.findAll(PageRequest.of(0, 10)).getContent()
+				.get(0);
+		taskExecution.setArguments(Collections.singletonList("replaced"));
+
+		assertThat(taskExecution.getArguments()).containsExactly("replaced");
+	}
+
+	@Test
+	@DirtiesContext
+	public void pagedQueriesReadTotalCountWithPage() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(countingDataSource));
+		for (int i = 0; i < 5; i++) {
+			dao.createTaskExecution("FOO", new Date(),
+					Collections.singletonList("arg=" + i), null);
+		}
+		dao.createTaskExecution("BAR", new Date(), Collections.emptyList(), null);
+		countingDataSource.reset();
+
+		Page<TaskExecution> page = dao.findAll(PageRequest.of(1, 2));
+		Page<TaskExecution> byName = dao.findTaskExecutionsByName("FOO",
+				PageRequest.of(0, 2));
+		Page<TaskExecution> running = dao.findRunningTaskExecutions("BAR",
+				PageRequest.of(0, 2));
+
+		// page and argument query for each page, no count queries
+		assertThat(countingDataSource.getExecutionCount()).isEqualTo(6);
+		assertThat(page.getTotalElements()).isEqualTo(6);
+		assertThat(page.getContent()).hasSize(2);
+		assertThat(byName.getTotalElements()).isEqualTo(5);
+		assertThat(byName.getContent().get(0).getArguments()).hasSize(1);
+		assertThat(running.getTotalElements()).isEqualTo(1);
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionsReadsTotalCountWithPage() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(countingDataSource));
+		for (int i = 0; i < 5; i++) {
+			TaskExecution taskExecution = dao.createTaskExecution("FOO", new Date(),
+					Collections.singletonList("arg=" + i), null);
+			dao.completeTaskExecution(taskExecution.getExecutionId(), i % 2, new Date(),
+					null);
+		}
+		countingDataSource.reset();
+
+		TaskExecutionFilter filter = new TaskExecutionFilter();
+		filter.setTaskName("FOO");
+		filter.setFailed(true);
+		Page<TaskExecution> page = dao.findTaskExecutions(filter, PageRequest.of(0, 1));
+
+		// page and argument query, no count query
+		assertThat(countingDataSource.getExecutionCount()).isEqualTo(2);
+		assertThat(page.getTotalElements()).isEqualTo(2);
+		assertThat(page.getContent()).extracting(TaskExecution::getExitCode)
+				.containsExactly(1);
+	}
+
+	@Test
+	@DirtiesContext
+	public void pageBeyondLastPageCountsTaskExecutions() {
+		for (int i = 0; i < 3; i++) {
+			this.dao.createTaskExecution("FOO", new Date(), Collections.emptyList(),
+					null);
+		}
+
+		Page<TaskExecution> page = this.dao.findAll(PageRequest.of(5, 2));
+
+		assertThat(page.getContent()).isEmpty();
+		assertThat(page.getTotalElements()).isEqualTo(3);
+		assertThat(this.dao.findTaskExecutionsByName("BAR", PageRequest.of(0, 2))
+				.getTotalElements()).isEqualTo(0);
+	}
+
+	@Test
+	@DirtiesContext
+	public void estimatedCountFallsBackToExactCountWithoutStatistics() {
+		JdbcTaskExecutionDao dao = (JdbcTaskExecutionDao) this.dao;
+		dao.setEstimatedCountEnabled(true);
+		for (int i = 0; i < 3; i++) {
+			dao.createTaskExecution("FOO", new Date(), Collections.emptyList(), null);
+		}
+
+		Page<TaskExecution> page = dao.findAll(PageRequest.of(0, 2));
+
+		assertThat(page.getContent()).hasSize(2);
+		assertThat(page.getTotalElements()).isEqualTo(3);
+	}
+
+	@Test
+	@DirtiesContext
+	public void pagedQueriesReadDatabaseTypeOnce() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(countingDataSource));
+		dao.createTaskExecution("FOO", new Date(), Collections.emptyList(), null);
+
+		countingDataSource.reset();
+		dao.findAll(PageRequest.of(0, 10));
+		int firstConnectionCount = countingDataSource.getConnectionCount();
+		countingDataSource.reset();
+		dao.findAll(PageRequest.of(0, 10, Sort.by("TASK_NAME")));
+		dao.findTaskExecutionsByName("FOO", PageRequest.of(0, 10));
+
+		// only the first call borrows a connection to read the database metadata
+		assertThat(countingDataSource.getConnectionCount())
+				.isEqualTo(2 * (firstConnectionCount - 1));
+	}
+
+	@Test
+	@DirtiesContext
+	public void pagingQueryProvidersAreCachedAndBounded() {
+		JdbcTaskExecutionDao dao = (JdbcTaskExecutionDao) this.dao;
+		dao.findAll(PageRequest.of(0, 10));
+		dao.findAll(PageRequest.of(1, 5));
+		assertThat(dao).extracting("pagingQueryProviders").asInstanceOf(MAP).hasSize(1);
+
+		String[] columns = { "TASK_EXECUTION_ID", "START_TIME", "END_TIME", "TASK_NAME",
+				"EXIT_CODE", "EXIT_MESSAGE", "ERROR_MESSAGE", "LAST_UPDATED",
+				"EXTERNAL_EXECUTION_ID", "PARENT_EXECUTION_ID" };
+		for (String first : columns) {
+			for (String second : columns) {
+				if (!first.equals(second)) {
+					dao.findAll(PageRequest.of(0, 10, Sort.by(first, second)));
+				}
+			}
+		}
+
+		assertThat(dao).extracting("pagingQueryProviders").asInstanceOf(MAP)
+				.hasSize(JdbcTaskExecutionDao.PAGING_QUERY_PROVIDER_CACHE_SIZE);
+	}
+
+	@Test
+	@DirtiesContext
+	public void streamTaskExecutionsReadsArgumentsWithTheExecutions() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(countingDataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(countingDataSource));
+		dao.setStreamFetchSize(50);
+		int executionCount = 110;
+		for (int i = 0; i < executionCount; i++) {
+			dao.createTaskExecution("FOO", new Date(),
+					(i % 10 == 0) ? new ArrayList<>(0) : Arrays.asList("arg=" + i, "x=" + i),
+					null);
+		}
+		countingDataSource.reset();
+
+		List<TaskExecution> taskExecutions;
+		try (Stream<TaskExecution> stream = dao
+				.streamTaskExecutions(new TaskExecutionFilter())) {
+			taskExecutions = stream.collect(Collectors.toList());
+		}
+
+		assertThat(taskExecutions).hasSize(executionCount);
+		assertThat(taskExecutions.get(0).getArguments()).isEmpty();
+		assertThat(taskExecutions.get(executionCount - 1).getArguments())
+				.containsExactlyInAnyOrder("arg=" + (executionCount - 1),
+						"x=" + (executionCount - 1));
+		// a single streaming query on a single connection
+		assertThat(countingDataSource.getExecutionCount()).isEqualTo(1);
+		assertThat(countingDataSource.getConnectionCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DirtiesContext
+	public void streamTaskExecutionsWithSingleConnectionPool() {
+		initializeRepository();
+		PoolProperties poolProperties = new PoolProperties();
+		poolProperties.setDataSource(this.dataSource);
+		poolProperties.setInitialSize(1);
+		poolProperties.setMaxActive(1);
+		poolProperties.setMaxIdle(1);
+		poolProperties.setMinIdle(1);
+		poolProperties.setMaxWait(1000);
+		org.apache.tomcat.jdbc.pool.DataSource singleConnectionDataSource = new org.apache.tomcat.jdbc.pool.DataSource(
+				poolProperties);
+		try {
+			JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(singleConnectionDataSource);
+			try (Stream<TaskExecution> stream = dao
+					.streamTaskExecutions(new TaskExecutionFilter())) {
+				assertThat(stream.map(TaskExecution::getExecutionId)
+						.collect(Collectors.toList())).isNotEmpty().isSorted();
+			}
+		}
+		finally {
+			singleConnectionDataSource.close();
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void latestTaskExecutionsWithRowNumberMatchFallbackQuery() {
+		Date startTime = new Date();
+		this.dao.createTaskExecution("FOO", new Date(startTime.getTime() - 1000),
+				new ArrayList<>(0), null);
+		this.dao.createTaskExecution("FOO", startTime, new ArrayList<>(0), null);
+		TaskExecution latestFoo = this.dao.createTaskExecution("FOO", startTime,
+				Collections.singletonList("arg=1"), null);
+		TaskExecution latestBar = this.dao.createTaskExecution("BAR",
+				new Date(startTime.getTime() - 2000), new ArrayList<>(0), null);
+		this.dao.createTaskExecution("BAZ", null, new ArrayList<>(0), null);
+		JdbcTaskExecutionDao fallbackDao = new JdbcTaskExecutionDao(this.dataSource);
+		fallbackDao.setDatabaseType(DatabaseType.HSQL);
+
+		List<TaskExecution> latest = this.dao.getLatestTaskExecutionsByTaskNames("FOO",
+				"BAR", "BAZ");
+
+		assertThat(latest).extracting(TaskExecution::getExecutionId).containsExactly(
+				latestFoo.getExecutionId(), latestBar.getExecutionId());
+		assertThat(latest.get(0).getArguments()).containsExactly("arg=1");
+		assertThat(fallbackDao.getLatestTaskExecutionsByTaskNames("FOO", "BAR", "BAZ"))
+				.extracting(TaskExecution::getExecutionId).containsExactly(
+						latestFoo.getExecutionId(), latestBar.getExecutionId());
+	}
+
+	@Test
+	public void latestTaskExecutionsQuerySelectedByDatabaseType() {
+		assertThat(JdbcTaskExecutionDao.getLastTaskExecutionsByTaskNamesQuery(
+				DatabaseType.POSTGRES)).isEqualTo(
+						JdbcTaskExecutionDao.LAST_TASK_EXECUTIONS_BY_TASK_NAMES_ROW_NUMBER);
+		assertThat(JdbcTaskExecutionDao.getLastTaskExecutionsByTaskNamesQuery(
+				DatabaseType.H2)).isEqualTo(
+						JdbcTaskExecutionDao.LAST_TASK_EXECUTIONS_BY_TASK_NAMES_ROW_NUMBER);
+		assertThat(JdbcTaskExecutionDao
+				.getLastTaskExecutionsByTaskNamesQuery(DatabaseType.HSQL))
+						.isEqualTo(JdbcTaskExecutionDao.LAST_TASK_EXECUTIONS_BY_TASK_NAMES);
+	}
+
+	@Test
+	@DirtiesContext
+	public void summaryCountsMatchTaskExecutions() {
+		JdbcTaskExecutionDao summaryDao = new JdbcTaskExecutionDao(this.dataSource);
+		summaryDao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		summaryDao.setSummaryEnabled(true);
+
+		TaskExecution foo = summaryDao.createTaskExecution("FOO", new Date(),
+				new ArrayList<>(0), null);
+		summaryDao.createTaskExecution("FOO", new Date(), new ArrayList<>(0), null);
+		summaryDao.createTaskExecution("BAR", new Date(), new ArrayList<>(0), null);
+		summaryDao.completeTaskExecution(foo.getExecutionId(), 0, new Date(), null);
+		summaryDao.completeTaskExecution(foo.getExecutionId(), 0, new Date(), null);
+		TaskExecution external = summaryDao.createTaskExecution(null, null,
+				new ArrayList<>(0), null);
+		summaryDao.startTaskExecution(external.getExecutionId(), "BAZ", new Date(),
+				new ArrayList<>(0), null);
+
+		assertThat(summaryDao.getTaskExecutionCount()).isEqualTo(4);
+		assertThat(summaryDao.getTaskExecutionCountByTaskName("FOO")).isEqualTo(2);
+		assertThat(summaryDao.getTaskExecutionCountByTaskName("NONE")).isEqualTo(0);
+		assertThat(summaryDao.getRunningTaskExecutionCount()).isEqualTo(3);
+		assertThat(summaryDao.getRunningTaskExecutionCountByTaskName("FOO"))
+				.isEqualTo(1);
+		assertThat(summaryDao.getTaskNames()).containsExactly("BAR", "BAZ", "FOO");
+		assertSummaryMatchesTaskExecutions(summaryDao);
+		assertThat(new JdbcTemplate(this.dataSource).queryForObject(
+				"SELECT LAST_EXECUTION_ID FROM TASK_EXECUTION_SUMMARY WHERE TASK_NAME = 'BAZ'",
+				Long.class)).isEqualTo(external.getExecutionId());
+	}
+
+	@Test
+	@DirtiesContext
+	public void rebuildTaskExecutionSummaryFromExistingExecutions() {
+		for (int i = 0; i < 5; i++) {
+			TaskExecution taskExecution = this.dao.createTaskExecution("FOO" + (i % 2),
+					new Date(), new ArrayList<>(0), null);
+			if (i % 3 == 0) {
+				this.dao.completeTaskExecution(taskExecution.getExecutionId(), 0,
+						new Date(), null);
+			}
+		}
+		JdbcTaskExecutionDao summaryDao = new JdbcTaskExecutionDao(this.dataSource);
+		summaryDao.setSummaryEnabled(true);
+		assertThat(summaryDao.getTaskExecutionCount()).isEqualTo(0);
+
+		summaryDao.rebuildTaskExecutionSummary();
+
+		assertSummaryMatchesTaskExecutions(summaryDao);
+		summaryDao.rebuildTaskExecutionSummary();
+		assertSummaryMatchesTaskExecutions(summaryDao);
+	}
+
+	@Test
+	@DirtiesContext
+	public void deleteTaskExecutionsRemovesBatchAssociationsAndUpdatesSummary() {
+		JdbcTaskExecutionDao summaryDao = new JdbcTaskExecutionDao(this.dataSource);
+		summaryDao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		summaryDao.setSummaryEnabled(true);
+		TaskExecution completed = summaryDao.createTaskExecution("FOO", new Date(),
+				Collections.singletonList("foo=1"), null);
+		summaryDao.completeTaskExecution(completed.getExecutionId(), 0, new Date(), null);
+		TaskExecution running = summaryDao.createTaskExecution("FOO", new Date(),
+				new ArrayList<>(0), null);
+		summaryDao.createTaskExecution("BAR", new Date(), new ArrayList<>(0), null);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		jdbcTemplate.update(
+				"INSERT INTO TASK_TASK_BATCH (TASK_EXECUTION_ID, JOB_EXECUTION_ID) VALUES (?, ?)",
+				completed.getExecutionId(), 42L);
+
+		assertThat(summaryDao.deleteTaskExecutions(
+				Arrays.asList(completed.getExecutionId(), running.getExecutionId())))
+						.isEqualTo(new TaskExecutionPurgeResult(2, 1, 1));
+		assertThat(summaryDao.getTaskExecutionIdByJobExecutionId(42L)).isNull();
+		assertThat(summaryDao.getTaskExecutionCountByTaskName("FOO")).isEqualTo(0);
+		assertThat(summaryDao.getTaskNames()).containsExactly("BAR");
+		assertSummaryMatchesTaskExecutions(summaryDao);
+	}
+
+	@Test
+	@DirtiesContext
+	public void archiveTaskExecutionsMovesBatchAssociationsAndUpdatesSummary() {
+		JdbcTaskExecutionDao summaryDao = new JdbcTaskExecutionDao(this.dataSource);
+		summaryDao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		summaryDao.setSummaryEnabled(true);
+		TaskExecution archived = summaryDao.createTaskExecution("FOO", new Date(),
+				Collections.singletonList("foo=1"), null);
+		summaryDao.completeTaskExecution(archived.getExecutionId(), 0, new Date(), null);
+		summaryDao.createTaskExecution("FOO", new Date(), new ArrayList<>(0), null);
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		jdbcTemplate.update(
+				"INSERT INTO TASK_TASK_BATCH (TASK_EXECUTION_ID, JOB_EXECUTION_ID) VALUES (?, ?)",
+				archived.getExecutionId(), 42L);
+
+		assertThat(summaryDao.archiveTaskExecutions(
+				Collections.singletonList(archived.getExecutionId())))
+						.isEqualTo(new TaskExecutionPurgeResult(1, 1, 1));
+		assertThat(summaryDao.getTaskExecutionIdByJobExecutionId(42L)).isNull();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT TASK_EXECUTION_ID FROM TASK_TASK_BATCH_ARCHIVE WHERE JOB_EXECUTION_ID = 42",
+				Long.class)).isEqualTo(archived.getExecutionId());
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT EXIT_CODE FROM TASK_EXECUTION_ARCHIVE WHERE TASK_EXECUTION_ID = ?",
+				Integer.class, archived.getExecutionId())).isEqualTo(0);
+		assertThat(summaryDao.getTaskExecutionCountByTaskName("FOO")).isEqualTo(1);
+		assertSummaryMatchesTaskExecutions(summaryDao);
+	}
+
+	@Test
+	@DirtiesContext
+	public void findTaskExecutionsIncludingArchivedWithLazyArguments() {
+		JdbcTaskExecutionDao dao = new JdbcTaskExecutionDao(this.dataSource);
+		dao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		dao.setLazyArgumentLoading(true);
+		TaskExecution archived = dao.createTaskExecution("FOO", new Date(),
+				Collections.singletonList("foo=1"), null);
+		dao.completeTaskExecution(archived.getExecutionId(), 0, new Date(), null);
+		dao.archiveTaskExecutions(Collections.singletonList(archived.getExecutionId()));
+
+		TaskExecutionFilter filter = new TaskExecutionFilter();
+		filter.setTaskName("FOO");
+		filter.setIncludeArchived(true);
+		List<TaskExecution> taskExecutions = dao
+				.findTaskExecutions(filter, PageRequest.of(0, 10)).getContent();
+		assertThat(taskExecutions).hasSize(1);
+		assertThat(taskExecutions.get(0).getArguments()).containsExactly("foo=1");
+	}
+
+	private void assertSummaryMatchesTaskExecutions(JdbcTaskExecutionDao summaryDao) {
+		assertThat(summaryDao.getTaskExecutionCount())
+				.isEqualTo(this.dao.getTaskExecutionCount());
+		assertThat(summaryDao.getRunningTaskExecutionCount())
+				.isEqualTo(this.dao.getRunningTaskExecutionCount());
+		assertThat(summaryDao.getTaskNames()).isEqualTo(this.dao.getTaskNames());
+		for (String taskName : this.dao.getTaskNames()) {
+			assertThat(summaryDao.getTaskExecutionCountByTaskName(taskName))
+					.isEqualTo(this.dao.getTaskExecutionCountByTaskName(taskName));
+			assertThat(summaryDao.getRunningTaskExecutionCountByTaskName(taskName))
+					.isEqualTo(this.dao.getRunningTaskExecutionCountByTaskName(taskName));
+		}
+	}
+
+	@Test
+	@DirtiesContext
+	public void findAllWithCursorSkipsUnstartedExecutions() {
+		TaskExecution started = this.dao.createTaskExecution("FOO", new Date(),
+				Collections.singletonList("arg=1"), null);
+		this.dao.createTaskExecution(null, null, new ArrayList<>(0), null);
+
+		List<TaskExecution> firstPage = this.dao.findAll(null, 10);
+
+		assertThat(firstPage).extracting(TaskExecution::getExecutionId)
+				.containsExactly(started.getExecutionId());
+		assertThat(firstPage.get(0).getArguments()).containsExactly("arg=1");
+		assertThat(this.dao.findAll(TaskExecutionCursor.after(firstPage.get(0)), 10))
+				.isEmpty();
+	}
+
 	@Test
 	@DirtiesContext
 	public void completeTaskExecution() {
@@ -184,6 +677,45 @@ public class JdbcTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
 		assertThat(taskExecution.getTaskName()).isEqualTo("FOO3");
 	}
 
+	@Test
+	@DirtiesContext
+	public void statementsAreResolvedWithTheTablePrefixOfTheDao() {
+		JdbcTaskExecutionDao missingTablesDao = new JdbcTaskExecutionDao(this.dataSource,
+				"MISSING_");
+		this.dao.createTaskExecution("foo", new Date(), new ArrayList<>(0), null);
+
+		assertThatExceptionOfType(BadSqlGrammarException.class)
+				.isThrownBy(missingTablesDao::getTaskExecutionCount)
+				.withMessageContaining("MISSING_EXECUTION");
+		assertThatExceptionOfType(BadSqlGrammarException.class)
+				.isThrownBy(() -> missingTablesDao.findAll(PageRequest.of(1, 2)))
+				.withMessageContaining("MISSING_EXECUTION");
+		assertThat(this.dao.getTaskExecutionCount()).isPositive();
+
+		String query = ReflectionTestUtils.invokeMethod(missingTablesDao, "getQuery",
+				JdbcTaskExecutionDao.TASK_EXECUTION_COUNT);
+		assertThat(query).contains("MISSING_EXECUTION").doesNotContain("%PREFIX%");
+		assertThat((String) ReflectionTestUtils.invokeMethod(missingTablesDao,
+				"getQuery", JdbcTaskExecutionDao.TASK_EXECUTION_COUNT)).isSameAs(query);
+		assertThatIllegalStateException().isThrownBy(() -> ReflectionTestUtils
+				.invokeMethod(missingTablesDao, "getQuery", "SELECT * FROM %PREFIX%FOO"));
+	}
+
+	@Test
+	@DirtiesContext
+	public void windowFunctionsAreKeptAfterGrammarErrorOnConclusiveProbe() {
+		JdbcTaskExecutionDao missingTablesDao = new JdbcTaskExecutionDao(this.dataSource,
+				"MISSING_");
+
+		assertThatExceptionOfType(BadSqlGrammarException.class)
+				.isThrownBy(() -> missingTablesDao.findAll(PageRequest.of(0, 2)));
+		assertThatExceptionOfType(BadSqlGrammarException.class)
+				.isThrownBy(
+						() -> missingTablesDao.getLatestTaskExecutionsByTaskNames("foo"));
+		assertThat(ReflectionTestUtils.getField(missingTablesDao,
+				"windowFunctionsSupported")).isEqualTo(true);
+	}
+
 	@Test
 	@DirtiesContext
 	public void testStartExecutionWithNullExternalExecutionIdExisting() {
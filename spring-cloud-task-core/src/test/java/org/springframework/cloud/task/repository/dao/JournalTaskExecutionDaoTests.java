@@ -0,0 +1,228 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.dao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.util.TestVerifierUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Executes unit tests on JournalTaskExecutionDao.
+ *
+ * @author Glenn Renfro
+ */
+public class JournalTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
+
+	private static final int SEGMENT_SIZE = 64 * 1024;
+
+	@TempDir
+	Path directory;
+
+	private JournalTaskExecutionDao journalTaskExecutionDao;
+
+	@BeforeEach
+	public void setUp() {
+		this.journalTaskExecutionDao = new JournalTaskExecutionDao(this.directory,
+				SEGMENT_SIZE);
+		super.dao = this.journalTaskExecutionDao;
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.journalTaskExecutionDao.close();
+	}
+
+	@Test
+	public void reopenRestoresTaskExecutions() {
+		TaskExecution created = this.dao.createTaskExecution("foo", new Date(),
+				Arrays.asList("--a=1", "--b=2"), null, 42L);
+		TaskExecution started = this.dao.createTaskExecution(null, null,
+				Collections.emptyList(), null);
+		this.dao.startTaskExecution(started.getExecutionId(), "bar", new Date(),
+				Collections.singletonList("--c=3"), "ext");
+		this.dao.completeTaskExecution(created.getExecutionId(), 1, new Date(),
+				"exit message", "error message");
+		this.dao.updateExternalExecutionId(created.getExecutionId(), "external");
+		TaskExecution expectedCreated = copy(
+				this.dao.getTaskExecution(created.getExecutionId()));
+		TaskExecution expectedStarted = copy(
+				this.dao.getTaskExecution(started.getExecutionId()));
+		Date lastUpdated = this.journalTaskExecutionDao
+				.getLastUpdated(created.getExecutionId());
+
+		reopen();
+
+		TestVerifierUtils.verifyTaskExecution(expectedCreated,
+				this.dao.getTaskExecution(created.getExecutionId()));
+		TestVerifierUtils.verifyTaskExecution(expectedStarted,
+				this.dao.getTaskExecution(started.getExecutionId()));
+		assertThat(this.journalTaskExecutionDao.getLastUpdated(created.getExecutionId()))
+				.isEqualTo(lastUpdated);
+		assertThat(this.dao.getTaskNames()).containsExactly("bar", "foo");
+		assertThat(this.dao.getRunningTaskExecutionCount()).isEqualTo(1);
+		assertThat(this.dao.createTaskExecution("baz", new Date(),
+				Collections.emptyList(), null).getExecutionId())
+						.isEqualTo(started.getExecutionId() + 1);
+	}
+
+	@Test
+	public void reopenDoesNotRestoreDeletedTaskExecutions() {
+		long kept = this.dao.createTaskExecution("foo", new Date(),
+				Collections.emptyList(), null).getExecutionId();
+		long deleted = this.dao.createTaskExecution("foo", new Date(),
+				Collections.emptyList(), null).getExecutionId();
+		this.dao.deleteTaskExecutions(Collections.singletonList(deleted));
+
+		reopen();
+
+		assertThat(this.journalTaskExecutionDao.getTaskExecutions())
+				.containsOnlyKeys(kept);
+		// the id of the deleted task execution is not reused
+		assertThat(this.dao.createTaskExecution("foo", new Date(),
+				Collections.emptyList(), null).getExecutionId()).isEqualTo(deleted + 1);
+	}
+
+	@Test
+	public void reopenRestoresArchivedTaskExecutions() {
+		long archived = this.dao.createTaskExecution("foo", new Date(),
+				Collections.emptyList(), null).getExecutionId();
+		this.dao.completeTaskExecution(archived, 0, new Date(), null);
+		this.dao.archiveTaskExecutions(Collections.singletonList(archived));
+
+		reopen();
+		reopen();
+
+		assertThat(this.journalTaskExecutionDao.getTaskExecutions()).isEmpty();
+		assertThat(this.journalTaskExecutionDao.getArchivedTaskExecutions())
+				.containsOnlyKeys(archived);
+	}
+
+	@Test
+	public void reopenCompactsSegments() throws IOException {
+		this.journalTaskExecutionDao.close();
+		this.journalTaskExecutionDao = new JournalTaskExecutionDao(this.directory, 256);
+		super.dao = this.journalTaskExecutionDao;
+		for (int i = 0; i < 20; i++) {
+			long executionId = this.dao.createTaskExecution("foo", new Date(),
+					Collections.emptyList(), null).getExecutionId();
+			this.dao.completeTaskExecution(executionId, 0, new Date(), null);
+		}
+		assertThat(segments().size()).isGreaterThan(1);
+		this.dao.deleteTaskExecutions(Arrays.asList(0L, 1L, 2L));
+		List<Path> replayed = segments();
+
+		reopen();
+
+		assertThat(this.dao.getTaskExecutionCount()).isEqualTo(17);
+		assertThat(this.dao.getRunningTaskExecutionCount()).isEqualTo(0);
+		assertThat(segments()).doesNotContainAnyElementsOf(replayed);
+	}
+
+	@Test
+	public void replayStopsAtCorruptRecord() throws IOException {
+		long kept = this.dao.createTaskExecution("foo", new Date(),
+				Collections.emptyList(), null).getExecutionId();
+		reopen();
+		long corrupted = this.dao.createTaskExecution("bar", new Date(),
+				Collections.emptyList(), null).getExecutionId();
+		this.journalTaskExecutionDao.close();
+		corruptLastRecord(segments().get(0));
+
+		reopen();
+
+		assertThat(this.journalTaskExecutionDao.getTaskExecutions())
+				.containsOnlyKeys(kept);
+		assertThat(this.dao.getTaskExecution(corrupted)).isNull();
+	}
+
+	@Test
+	public void closedJournalRejectsWrites() {
+		this.journalTaskExecutionDao.close();
+
+		assertThatIllegalStateException().isThrownBy(() -> this.dao
+				.createTaskExecution("foo", new Date(), Collections.emptyList(), null));
+	}
+
+	@Test
+	public void invalidSettings() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new JournalTaskExecutionDao(null));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new JournalTaskExecutionDao(this.directory, 8));
+	}
+
+	private void reopen() {
+		this.journalTaskExecutionDao.close();
+		this.journalTaskExecutionDao = new JournalTaskExecutionDao(this.directory,
+				SEGMENT_SIZE);
+		super.dao = this.journalTaskExecutionDao;
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(this.directory)) {
+			return files.sorted().collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Flips a byte of the payload of the last record written to the segment.
+	 */
+	private static void corruptLastRecord(Path segment) throws IOException {
+		byte[] bytes = Files.readAllBytes(segment);
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		int lastRecordEnd = 0;
+		while (buffer.remaining() >= 8) {
+			int length = buffer.getInt();
+			if (length == 0) {
+				break;
+			}
+			buffer.position(buffer.position() + 4 + length);
+			lastRecordEnd = buffer.position();
+		}
+		bytes[lastRecordEnd - 1] ^= 0xFF;
+		Files.write(segment, bytes);
+	}
+
+	private static TaskExecution copy(TaskExecution taskExecution) {
+		return new TaskExecution(taskExecution.getExecutionId(),
+				taskExecution.getExitCode(), taskExecution.getTaskName(),
+				taskExecution.getStartTime(), taskExecution.getEndTime(),
+				taskExecution.getExitMessage(), taskExecution.getArguments(),
+				taskExecution.getErrorMessage(), taskExecution.getExternalExecutionId(),
+				taskExecution.getParentExecutionId());
+	}
+
+}
@@ -16,7 +16,9 @@
 
 package org.springframework.cloud.task.repository.dao;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -24,15 +26,26 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
 import org.springframework.cloud.task.util.TestVerifierUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 /**
  * Executes unit tests on MapTaskExecutionDaoTests.
@@ -44,10 +57,19 @@ public class MapTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
 
 	private MapTaskExecutionDao mapTaskExecutionDao;
 
+	private SimpleMeterRegistry simpleMeterRegistry;
+
 	@BeforeEach
 	public void setUp() {
 		this.mapTaskExecutionDao = new MapTaskExecutionDao();
 		super.dao = this.mapTaskExecutionDao;
+		this.simpleMeterRegistry = new SimpleMeterRegistry();
+		Metrics.addRegistry(this.simpleMeterRegistry);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Metrics.removeRegistry(this.simpleMeterRegistry);
 	}
 
 	@Test
@@ -189,4 +211,279 @@ public class MapTaskExecutionDaoTests extends BaseTaskExecutionDaoTestCases {
 				expectedTaskExecution.getArguments(), "FOO1");
 	}
 
+	@Test
+	public void deleteTaskExecutionsRemovesBatchAssociations() {
+		TaskExecution taskExecution = this.dao.createTaskExecution("foo", new Date(),
+				new ArrayList<>(0), null);
+		Set<Long> jobIds = new HashSet<>(2);
+		jobIds.add(123L);
+		jobIds.add(456L);
+		this.mapTaskExecutionDao.getBatchJobAssociations()
+				.put(taskExecution.getExecutionId(), jobIds);
+
+		assertThat(this.dao.deleteTaskExecutions(
+				Collections.singletonList(taskExecution.getExecutionId())))
+						.isEqualTo(new TaskExecutionPurgeResult(1, 0, 2));
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(123L)).isNull();
+	}
+
+	@Test
+	public void archiveTaskExecutionsMovesBatchAssociations() {
+		TaskExecution taskExecution = this.dao.createTaskExecution("foo", new Date(),
+				new ArrayList<>(0), null);
+		Set<Long> jobIds = new HashSet<>(2);
+		jobIds.add(123L);
+		jobIds.add(456L);
+		this.mapTaskExecutionDao.getBatchJobAssociations()
+				.put(taskExecution.getExecutionId(), jobIds);
+
+		assertThat(this.dao.archiveTaskExecutions(
+				Collections.singletonList(taskExecution.getExecutionId())))
+						.isEqualTo(new TaskExecutionPurgeResult(1, 0, 2));
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(123L)).isNull();
+		assertThat(this.mapTaskExecutionDao.getArchivedBatchJobAssociations())
+				.containsEntry(taskExecution.getExecutionId(), jobIds);
+		assertThat(this.mapTaskExecutionDao.getArchivedTaskExecutions())
+				.containsKey(taskExecution.getExecutionId());
+	}
+
+	@Test
+	public void indexesFollowStartedTaskExecution() {
+		TaskExecution taskExecution = this.dao.createTaskExecution(null, null,
+				new ArrayList<>(0), null);
+		// the returned task execution is modified before being started
+		taskExecution.setTaskName("bar");
+		taskExecution.setStartTime(new Date());
+
+		this.dao.startTaskExecution(taskExecution.getExecutionId(), "bar",
+				taskExecution.getStartTime(), new ArrayList<>(0), null);
+
+		assertThat(this.dao.getTaskNames()).containsExactly("bar");
+		assertThat(this.dao.getTaskExecutionCountByTaskName("bar")).isEqualTo(1);
+		assertThat(this.dao.getRunningTaskExecutionCountByTaskName("bar")).isEqualTo(1);
+		assertThat(this.dao.findAll(PageRequest.of(0, 10)))
+				.extracting(TaskExecution::getExecutionId)
+				.containsExactly(taskExecution.getExecutionId());
+
+		this.dao.startTaskExecution(taskExecution.getExecutionId(), "baz",
+				taskExecution.getStartTime(), new ArrayList<>(0), null);
+
+		assertThat(this.dao.getTaskNames()).containsExactly("baz");
+		assertThat(this.dao.getTaskExecutionCountByTaskName("bar")).isEqualTo(0);
+		assertThat(this.dao.findTaskExecutionsByName("bar", PageRequest.of(0, 10)))
+				.isEmpty();
+		assertThat(this.dao.findTaskExecutionsByName("baz", PageRequest.of(0, 10)))
+				.extracting(TaskExecution::getExecutionId)
+				.containsExactly(taskExecution.getExecutionId());
+	}
+
+	@Test
+	public void indexedCountsFollowCompletionAndRemoval() {
+		long first = this.dao.createTaskExecution("foo", new Date(), new ArrayList<>(0),
+				null).getExecutionId();
+		long second = this.dao.createTaskExecution("foo", new Date(),
+				new ArrayList<>(0), null).getExecutionId();
+		this.dao.createTaskExecution("bar", new Date(), new ArrayList<>(0), null);
+
+		this.dao.completeTaskExecution(first, 0, new Date(), null);
+		this.dao.completeTaskExecution(first, 1, new Date(), null);
+
+		assertThat(this.dao.getRunningTaskExecutionCount()).isEqualTo(2);
+		assertThat(this.dao.getTaskExecutionCountByTaskName("foo")).isEqualTo(2);
+		assertThat(this.dao.getRunningTaskExecutionCountByTaskName("foo")).isEqualTo(1);
+		assertThat(this.dao.findRunningTaskExecutions("foo", PageRequest.of(0, 10)))
+				.extracting(TaskExecution::getExecutionId).containsExactly(second);
+
+		this.dao.deleteTaskExecutions(Arrays.asList(first, second));
+
+		assertThat(this.dao.getRunningTaskExecutionCount()).isEqualTo(1);
+		assertThat(this.dao.getTaskExecutionCountByTaskName("foo")).isEqualTo(0);
+		assertThat(this.dao.getRunningTaskExecutionCountByTaskName("foo")).isEqualTo(0);
+		assertThat(this.dao.getTaskNames()).containsExactly("bar");
+		assertThat(this.dao.getLatestTaskExecutionForTaskName("foo")).isNull();
+	}
+
+	@Test
+	public void findChildTaskExecutions() {
+		long parent = this.dao.createTaskExecution("parent", new Date(),
+				new ArrayList<>(0), null).getExecutionId();
+		long firstChild = this.dao.createTaskExecution("child", new Date(),
+				new ArrayList<>(0), null, parent).getExecutionId();
+		long secondChild = this.dao.createTaskExecution("child", new Date(),
+				new ArrayList<>(0), null, parent).getExecutionId();
+		this.dao.createTaskExecution("child", new Date(), new ArrayList<>(0), null,
+				secondChild);
+
+		TaskExecutionFilter children = new TaskExecutionFilter();
+		children.setParentExecutionId(parent);
+		assertThat(this.dao.findTaskExecutions(children, PageRequest.of(0, 10)))
+				.extracting(TaskExecution::getExecutionId)
+				.containsExactlyInAnyOrder(secondChild, firstChild);
+
+		this.dao.deleteTaskExecutions(Collections.singletonList(firstChild));
+
+		assertThat(this.dao.findTaskExecutions(children, PageRequest.of(0, 10)))
+				.extracting(TaskExecution::getExecutionId).containsExactly(secondChild);
+	}
+
+	@Test
+	public void pageBeyondLastTaskExecutionIsEmpty() {
+		this.dao.createTaskExecution("foo", new Date(), new ArrayList<>(0), null);
+
+		Page<TaskExecution> page = this.dao.findTaskExecutionsByName("foo",
+				PageRequest.of(1, 10));
+
+		assertThat(page.getContent()).isEmpty();
+		assertThat(page.getTotalElements()).isEqualTo(1);
+	}
+
+	@Test
+	public void maxEntriesEvictsOldestCompletedTaskExecutions() {
+		this.mapTaskExecutionDao.setMaxEntries(2);
+		long first = createCompletedTaskExecution(new Date(2000));
+		long second = createCompletedTaskExecution(new Date(1000));
+		this.mapTaskExecutionDao.getBatchJobAssociations().put(second,
+				new HashSet<>(Collections.singletonList(123L)));
+
+		long running = this.dao.createTaskExecution("foo", new Date(),
+				new ArrayList<>(0), null).getExecutionId();
+
+		assertThat(this.mapTaskExecutionDao.getTaskExecutions()).containsOnlyKeys(first,
+				running);
+		assertThat(this.dao.getTaskExecutionIdByJobExecutionId(123L)).isNull();
+		assertThat(this.dao.getTaskExecutionCountByTaskName("foo")).isEqualTo(2);
+		assertThat(evictions("max-entries")).isEqualTo(1);
+		assertThat(this.simpleMeterRegistry.get(MapTaskExecutionDao.SIZE_METER).gauge()
+				.value()).isEqualTo(2);
+	}
+
+	@Test
+	public void maxEntriesKeepsRunningTaskExecutions() {
+		this.mapTaskExecutionDao.setMaxEntries(1);
+		for (int i = 0; i < 3; i++) {
+			this.dao.createTaskExecution("foo", new Date(), new ArrayList<>(0), null);
+		}
+
+		assertThat(this.dao.getTaskExecutionCount()).isEqualTo(3);
+
+		this.dao.completeTaskExecution(0, 0, new Date(), null);
+
+		assertThat(this.mapTaskExecutionDao.getTaskExecutions()).containsOnlyKeys(1L,
+				2L);
+		assertThat(this.dao.getRunningTaskExecutionCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void maxAgeEvictsExpiredTaskExecutions() {
+		long expired = createCompletedTaskExecution(
+				new Date(System.currentTimeMillis() - 120000));
+		long recent = createCompletedTaskExecution(new Date());
+		long running = this.dao.createTaskExecution("foo", new Date(0),
+				new ArrayList<>(0), null).getExecutionId();
+
+		this.mapTaskExecutionDao.setMaxAge(Duration.ofMinutes(1));
+
+		assertThat(this.mapTaskExecutionDao.getTaskExecutions()).containsOnlyKeys(recent,
+				running);
+		assertThat(this.dao.findTaskExecutionIdsEndedBefore(
+				new Date(System.currentTimeMillis() + 60000), 10)).containsExactly(recent);
+		assertThat(this.dao.getTaskExecution(expired)).isNull();
+		assertThat(evictions("max-age")).isEqualTo(1);
+	}
+
+	@Test
+	public void unboundedByDefault() {
+		for (int i = 0; i < 5; i++) {
+			createCompletedTaskExecution(new Date(0));
+		}
+
+		assertThat(this.dao.getTaskExecutionCount()).isEqualTo(5);
+	}
+
+	@Test
+	public void invalidBounds() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.mapTaskExecutionDao.setMaxEntries(-1));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.mapTaskExecutionDao.setMaxAge(Duration.ZERO));
+	}
+
+	@Test
+	public void returnedTaskExecutionIsNotStored() {
+		TaskExecution taskExecution = this.dao.createTaskExecution("foo", new Date(),
+				new ArrayList<>(0), null);
+		taskExecution.setEndTime(new Date());
+		taskExecution.setExitCode(0);
+
+		TaskExecution stored = this.dao.getTaskExecution(taskExecution.getExecutionId());
+		assertThat(stored).isNotSameAs(taskExecution);
+		assertThat(stored.getEndTime()).isNull();
+		assertThat(stored.getExitCode()).isNull();
+		assertThat(this.dao.getRunningTaskExecutionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void readTaskExecutionIsNotChangedByCompletion() {
+		long executionId = this.dao.createTaskExecution("foo", new Date(),
+				new ArrayList<>(0), null).getExecutionId();
+		TaskExecution running = this.dao.getTaskExecution(executionId);
+
+		this.dao.completeTaskExecution(executionId, 0, new Date(), "done");
+
+		assertThat(running.getEndTime()).isNull();
+		assertThat(running.getExitMessage()).isNull();
+		TaskExecution completed = this.dao.getTaskExecution(executionId);
+		assertThat(completed).isNotSameAs(running);
+		assertThat(completed.getExitMessage()).isEqualTo("done");
+		assertThat(this.dao.findAll(PageRequest.of(0, 1)).getContent())
+				.containsExactly(completed);
+	}
+
+	@Test
+	public void concurrentReadsSeeConsistentTaskExecutions() throws Exception {
+		long executionId = this.dao.createTaskExecution("foo", new Date(),
+				new ArrayList<>(0), null).getExecutionId();
+		AtomicBoolean writing = new AtomicBoolean(true);
+		CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+			try {
+				for (int i = 0; i < 10000; i++) {
+					this.dao.completeTaskExecution(executionId, i, new Date(i),
+							"message-" + i);
+				}
+			}
+			finally {
+				writing.set(false);
+			}
+		});
+		CompletableFuture<Long> reader = CompletableFuture.supplyAsync(() -> {
+			long tornReads = 0;
+			while (writing.get()) {
+				TaskExecution taskExecution = this.dao.getTaskExecution(executionId);
+				Integer exitCode = taskExecution.getExitCode();
+				if (exitCode != null && (taskExecution.getEndTime().getTime() != exitCode
+						|| !taskExecution.getExitMessage().equals("message-" + exitCode))) {
+					tornReads++;
+				}
+			}
+			return tornReads;
+		});
+
+		writer.get(30, TimeUnit.SECONDS);
+		assertThat(reader.get(30, TimeUnit.SECONDS)).isZero();
+		assertThat(this.dao.getTaskExecution(executionId).getExitCode()).isEqualTo(9999);
+		assertThat(this.dao.getRunningTaskExecutionCount()).isZero();
+	}
+
+	private long createCompletedTaskExecution(Date endTime) {
+		long executionId = this.dao.createTaskExecution("foo", new Date(0),
+				new ArrayList<>(0), null).getExecutionId();
+		this.dao.completeTaskExecution(executionId, 0, endTime, null);
+		return executionId;
+	}
+
+	private double evictions(String reason) {
+		return this.simpleMeterRegistry.get(MapTaskExecutionDao.EVICTIONS_METER)
+				.tag("reason", reason).counter().count();
+	}
+
 }
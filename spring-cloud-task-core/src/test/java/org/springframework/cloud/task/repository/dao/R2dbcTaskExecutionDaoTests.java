@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.dao;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.support.DatabaseType;
+import org.springframework.cloud.task.util.TestDBUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Executes unit tests on R2dbcTaskExecutionDao against H2's R2DBC driver. The task
+ * executions are written with the {@link JdbcTaskExecutionDao} to the same in-memory
+ * database.
+ *
+ * @author Glenn Renfro
+ */
+public class R2dbcTaskExecutionDaoTests {
+
+	private EmbeddedDatabase dataSource;
+
+	private JdbcTaskExecutionDao jdbcDao;
+
+	private R2dbcTaskExecutionDao dao;
+
+	@BeforeEach
+	public void setup() {
+		String databaseName = UUID.randomUUID().toString();
+		this.dataSource = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+				.setName(databaseName)
+				.addScript("classpath:org/springframework/cloud/task/schema-h2.sql")
+				.build();
+		this.jdbcDao = new JdbcTaskExecutionDao(this.dataSource);
+		this.jdbcDao.setTaskIncrementer(TestDBUtils.getIncrementer(this.dataSource));
+		this.dao = new R2dbcTaskExecutionDao(H2ConnectionFactory.inMemory(databaseName));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		this.dataSource.shutdown();
+	}
+
+	@Test
+	public void testDatabaseTypeFromConnectionFactory() {
+		assertThat(this.dao).extracting("databaseType").isEqualTo(DatabaseType.H2);
+	}
+
+	@Test
+	public void testGetTaskExecution() {
+		TaskExecution expected = this.jdbcDao.createTaskExecution("foo", new Date(),
+				Arrays.asList("arg1", "arg2"), "bar");
+
+		StepVerifier.create(this.dao.getTaskExecution(expected.getExecutionId()))
+				.assertNext(actual -> {
+					assertThat(actual.getExecutionId())
+							.isEqualTo(expected.getExecutionId());
+					assertThat(actual.getTaskName()).isEqualTo("foo");
+					assertThat(actual.getExternalExecutionId()).isEqualTo("bar");
+					assertThat(actual.getStartTime()).isNotNull();
+					assertThat(actual.getArguments()).containsExactly("arg1", "arg2");
+				}).verifyComplete();
+	}
+
+	@Test
+	public void testGetTaskExecutionNotFound() {
+		StepVerifier.create(this.dao.getTaskExecution(12345)).verifyComplete();
+	}
+
+	@Test
+	public void testFindAllUsesPagingDialect() {
+		for (int i = 0; i < 5; i++) {
+			this.jdbcDao.createTaskExecution("foo" + i, new Date(),
+					Collections.singletonList("arg=" + i), null);
+		}
+
+		StepVerifier
+				.create(this.dao.findAll(
+						PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "TASK_NAME"))))
+				.assertNext(page -> {
+					assertThat(page.getTotalElements()).isEqualTo(5);
+					assertThat(page.getContent()).extracting(TaskExecution::getTaskName)
+							.containsExactly("foo2", "foo3");
+					assertThat(page.getContent().get(0).getArguments())
+							.containsExactly("arg=2");
+				}).verifyComplete();
+	}
+
+	@Test
+	public void testFindRunningAndCounts() {
+		TaskExecution completed = this.jdbcDao.createTaskExecution("foo", new Date(),
+				Collections.emptyList(), null);
+		this.jdbcDao.completeTaskExecution(completed.getExecutionId(), 0, new Date(),
+				null);
+		this.jdbcDao.createTaskExecution("foo", new Date(), Collections.emptyList(),
+				null);
+		this.jdbcDao.createTaskExecution("bar", new Date(), Collections.emptyList(),
+				null);
+
+		StepVerifier.create(this.dao.findRunningTaskExecutions("foo", PageRequest.of(0, 10)))
+				.assertNext(page -> assertThat(page.getTotalElements()).isEqualTo(1))
+				.verifyComplete();
+		StepVerifier.create(this.dao.getTaskExecutionCount()).expectNext(3L)
+				.verifyComplete();
+		StepVerifier.create(this.dao.getTaskExecutionCountByTaskName("foo"))
+				.expectNext(2L).verifyComplete();
+		StepVerifier.create(this.dao.getRunningTaskExecutionCount()).expectNext(2L)
+				.verifyComplete();
+		StepVerifier.create(this.dao.getTaskNames()).expectNext("bar", "foo")
+				.verifyComplete();
+	}
+
+	@Test
+	public void testGetLatestTaskExecutionForTaskName() {
+		this.jdbcDao.createTaskExecution("foo", new Date(0), Collections.emptyList(),
+				null);
+		TaskExecution latest = this.jdbcDao.createTaskExecution("foo", new Date(),
+				Collections.singletonList("latest"), null);
+
+		StepVerifier.create(this.dao.getLatestTaskExecutionForTaskName("foo"))
+				.assertNext(actual -> {
+					assertThat(actual.getExecutionId()).isEqualTo(latest.getExecutionId());
+					assertThat(actual.getArguments()).containsExactly("latest");
+				}).verifyComplete();
+		StepVerifier.create(this.dao.getLatestTaskExecutionForTaskName("none"))
+				.verifyComplete();
+	}
+
+}
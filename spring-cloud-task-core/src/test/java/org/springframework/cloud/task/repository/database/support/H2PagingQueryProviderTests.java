@@ -30,6 +30,8 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.batch.item.database.Order;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.SimpleDriverDataSource;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -78,4 +80,64 @@ class H2PagingQueryProviderTests {
 		});
 	}
 
+	@ParameterizedTest
+	@EnumSource(ModeEnum.class)
+	void testH2KeysetPagingQueries(ModeEnum mode) {
+		String connectionUrl = String.format("jdbc:h2:mem:%s;MODE=%s", UUID.randomUUID(), mode);
+		DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(), connectionUrl, "sa", "");
+		NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+		jdbcTemplate.getJdbcTemplate().execute("CREATE TABLE TEST_TABLE (ID BIGINT NOT NULL, STRING VARCHAR(10) NOT NULL)");
+		jdbcTemplate.getJdbcTemplate().execute("INSERT INTO TEST_TABLE (ID, STRING) VALUES (1, 'Spring')");
+		jdbcTemplate.getJdbcTemplate().execute("INSERT INTO TEST_TABLE (ID, STRING) VALUES (2, 'Cloud')");
+		jdbcTemplate.getJdbcTemplate().execute("INSERT INTO TEST_TABLE (ID, STRING) VALUES (3, 'Task')");
+
+		H2PagingQueryProvider queryProvider = new H2PagingQueryProvider();
+		queryProvider.setSelectClause("STRING");
+		queryProvider.setFromClause("TEST_TABLE");
+		Map<String, Order> sortKeys = new HashMap<>();
+		sortKeys.put("ID", Order.ASCENDING);
+		queryProvider.setSortKeys(sortKeys);
+
+		List<String> firstPage = jdbcTemplate.queryForList(
+			queryProvider.generateFirstPageQuery(2),
+			new MapSqlParameterSource(),
+			String.class
+		);
+		assertThat(firstPage).containsExactly("Spring", "Cloud");
+
+		List<String> secondPage = jdbcTemplate.queryForList(
+			queryProvider.generateRemainingPageQuery(2),
+			new MapSqlParameterSource("_ID", 2),
+			String.class
+		);
+		assertThat(secondPage).containsExactly("Task");
+	}
+
+	@ParameterizedTest
+	@EnumSource(ModeEnum.class)
+	void testH2PageQueryWithTotalCount(ModeEnum mode) {
+		String connectionUrl = String.format("jdbc:h2:mem:%s;MODE=%s", UUID.randomUUID(), mode);
+		DataSource dataSource = new SimpleDriverDataSource(new org.h2.Driver(), connectionUrl, "sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE TEST_TABLE (ID BIGINT NOT NULL, STRING VARCHAR(10) NOT NULL)");
+		jdbcTemplate.execute("INSERT INTO TEST_TABLE (ID, STRING) VALUES (1, 'Spring')");
+		jdbcTemplate.execute("INSERT INTO TEST_TABLE (ID, STRING) VALUES (2, 'Cloud')");
+		jdbcTemplate.execute("INSERT INTO TEST_TABLE (ID, STRING) VALUES (3, 'Task')");
+
+		H2PagingQueryProvider queryProvider = new H2PagingQueryProvider();
+		queryProvider.setSelectClause("STRING");
+		queryProvider.setFromClause("TEST_TABLE");
+		Map<String, Order> sortKeys = new HashMap<>();
+		sortKeys.put("ID", Order.ASCENDING);
+		queryProvider.setSortKeys(sortKeys);
+
+		List<Map<String, Object>> secondPage = jdbcTemplate.queryForList(
+			queryProvider.getPageQueryWithTotalCount(PageRequest.of(1, 2))
+		);
+		assertThat(secondPage).hasSize(1);
+		assertThat(secondPage.get(0).get("STRING")).isEqualTo("Task");
+		assertThat(((Number) secondPage.get(0)
+			.get(AbstractSqlPagingQueryProvider.TOTAL_COUNT_COLUMN)).longValue()).isEqualTo(3);
+	}
+
 }
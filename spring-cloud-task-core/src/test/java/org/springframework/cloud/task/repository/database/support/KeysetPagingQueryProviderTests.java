@@ -0,0 +1,88 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.database.support;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
+import org.springframework.cloud.task.repository.database.PagingQueryProvider;
+import org.springframework.cloud.task.util.TestDBUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Glenn Renfro
+ */
+public class KeysetPagingQueryProviderTests {
+
+	private static final String COLUMNS = "TASK_EXECUTION_ID, START_TIME, END_TIME, "
+			+ "TASK_NAME, EXIT_CODE, EXIT_MESSAGE, ERROR_MESSAGE, LAST_UPDATED, "
+			+ "EXTERNAL_EXECUTION_ID, PARENT_EXECUTION_ID";
+
+	private static final String WHERE = " WHERE (START_TIME IS NOT NULL) AND "
+			+ "((START_TIME < :_START_TIME) OR (START_TIME = :_START_TIME AND "
+			+ "TASK_EXECUTION_ID < :_TASK_EXECUTION_ID))";
+
+	private static final String ORDER_BY = " ORDER BY START_TIME DESC, TASK_EXECUTION_ID DESC";
+
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] {
+				{ "Oracle", "SELECT " + COLUMNS + " FROM (SELECT " + COLUMNS
+						+ ", ROWNUM as TMP_ROW_NUM FROM (SELECT " + COLUMNS
+						+ " FROM %PREFIX%EXECUTION" + WHERE + ORDER_BY
+						+ ")) WHERE TMP_ROW_NUM <= 10" },
+				{ "HSQL Database Engine", "SELECT LIMIT 0 10 " + COLUMNS
+						+ " FROM %PREFIX%EXECUTION" + WHERE + ORDER_BY },
+				{ "H2", "SELECT " + COLUMNS + " FROM %PREFIX%EXECUTION" + WHERE
+						+ ORDER_BY + " FETCH FIRST 10 ROWS ONLY" },
+				{ "PostgreSQL", "SELECT " + COLUMNS + " FROM %PREFIX%EXECUTION" + WHERE
+						+ ORDER_BY + " LIMIT 10" },
+				{ "MySQL", "SELECT " + COLUMNS + " FROM %PREFIX%EXECUTION" + WHERE
+						+ ORDER_BY + " LIMIT 10" },
+				{ "Microsoft SQL Server", "SELECT " + COLUMNS + " FROM (SELECT " + COLUMNS
+						+ ", ROW_NUMBER() OVER (" + ORDER_BY.trim()
+						+ ") AS TMP_ROW_NUM  FROM %PREFIX%EXECUTION" + WHERE
+						+ ") TASK_EXECUTION_PAGE  WHERE TMP_ROW_NUM <= 10" + ORDER_BY } });
+	}
+
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testGeneratedRemainingPageQuery(String databaseProductName,
+			String expectedQuery) throws Exception {
+		PagingQueryProvider pagingQueryProvider = TestDBUtils.getPagingQueryProvider(
+				databaseProductName, JdbcTaskExecutionDao.STARTED_TASK_WHERE_CLAUSE);
+		assertThat(pagingQueryProvider.generateRemainingPageQuery(10)).as(
+				String.format("the generated query for %s, was not the expected query",
+						databaseProductName))
+				.isEqualTo(expectedQuery);
+	}
+
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testGeneratedFirstPageQueryHasNoSortConditions(
+			String databaseProductName, String expectedQuery) throws Exception {
+		PagingQueryProvider pagingQueryProvider = TestDBUtils.getPagingQueryProvider(
+				databaseProductName, JdbcTaskExecutionDao.STARTED_TASK_WHERE_CLAUSE);
+		assertThat(pagingQueryProvider.generateFirstPageQuery(10)).isEqualTo(
+				expectedQuery.replace(WHERE, " WHERE START_TIME IS NOT NULL"));
+	}
+
+}
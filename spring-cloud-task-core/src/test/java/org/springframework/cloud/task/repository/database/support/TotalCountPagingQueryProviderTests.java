@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.database.support;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import org.springframework.cloud.task.repository.database.PagingQueryProvider;
+import org.springframework.cloud.task.util.TestDBUtils;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * @author Glenn Renfro
+ */
+public class TotalCountPagingQueryProviderTests {
+
+	private static final String COLUMNS = "TASK_EXECUTION_ID, START_TIME, END_TIME, "
+			+ "TASK_NAME, EXIT_CODE, EXIT_MESSAGE, ERROR_MESSAGE, LAST_UPDATED, "
+			+ "EXTERNAL_EXECUTION_ID, PARENT_EXECUTION_ID";
+
+	private static final String ORDER_BY = " ORDER BY START_TIME DESC, TASK_EXECUTION_ID DESC";
+
+	private Pageable pageable = PageRequest.of(1, 10);
+
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] {
+				{ "Oracle", "SELECT " + COLUMNS + ", TOTAL_COUNT FROM (SELECT " + COLUMNS
+						+ ", TOTAL_COUNT, ROWNUM as TMP_ROW_NUM FROM (SELECT " + COLUMNS
+						+ ", COUNT(*) OVER() AS TOTAL_COUNT FROM %PREFIX%EXECUTION"
+						+ ORDER_BY + ")) WHERE TMP_ROW_NUM >= 11 AND TMP_ROW_NUM < 21" },
+				{ "H2", "SELECT " + COLUMNS + ", COUNT(*) OVER() AS TOTAL_COUNT "
+						+ "FROM %PREFIX%EXECUTION" + ORDER_BY
+						+ " OFFSET 10 ROWS FETCH NEXT 10 ROWS ONLY" },
+				{ "PostgreSQL", "SELECT " + COLUMNS + ", COUNT(*) OVER() AS TOTAL_COUNT "
+						+ "FROM %PREFIX%EXECUTION" + ORDER_BY + " LIMIT 10 OFFSET 10" },
+				{ "MySQL", "SELECT " + COLUMNS + ", COUNT(*) OVER() AS TOTAL_COUNT "
+						+ "FROM %PREFIX%EXECUTION" + ORDER_BY + " LIMIT 10, 10" },
+				{ "Microsoft SQL Server", "SELECT " + COLUMNS + ", TOTAL_COUNT FROM (SELECT "
+						+ COLUMNS + ", COUNT(*) OVER() AS TOTAL_COUNT, ROW_NUMBER() OVER ("
+						+ ORDER_BY.trim() + ") AS TMP_ROW_NUM  FROM %PREFIX%EXECUTION) "
+						+ "TASK_EXECUTION_PAGE  WHERE TMP_ROW_NUM >= 11 AND TMP_ROW_NUM < 21"
+						+ ORDER_BY } });
+	}
+
+	@ParameterizedTest
+	@MethodSource("data")
+	public void testGeneratedQuery(String databaseProductName, String expectedQuery)
+			throws Exception {
+		PagingQueryProvider pagingQueryProvider = TestDBUtils
+				.getPagingQueryProvider(databaseProductName);
+		assertThat(pagingQueryProvider.isTotalCountSupported()).isTrue();
+		assertThat(pagingQueryProvider.getPageQueryWithTotalCount(this.pageable)).as(
+				String.format("the generated query for %s, was not the expected query",
+						databaseProductName))
+				.isEqualTo(expectedQuery);
+	}
+
+	@Test
+	public void testHsqlDoesNotSupportTotalCount() throws Exception {
+		PagingQueryProvider pagingQueryProvider = TestDBUtils
+				.getPagingQueryProvider("HSQL Database Engine");
+		assertThat(pagingQueryProvider.isTotalCountSupported()).isFalse();
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(
+				() -> pagingQueryProvider.getPageQueryWithTotalCount(this.pageable));
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Glenn Renfro
+ */
+public class BlockAllocatingMaxValueIncrementerTests {
+
+	@Test
+	public void testValuesAreServedFromReservedBlock() {
+		DataFieldMaxValueIncrementer delegate = mock(DataFieldMaxValueIncrementer.class);
+		when(delegate.nextLongValue()).thenReturn(0L, 3L, 6L);
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(
+				delegate, 3);
+
+		assertThat(incrementer.nextLongValue()).isEqualTo(0L);
+		assertThat(incrementer.nextIntValue()).isEqualTo(1);
+		assertThat(incrementer.nextStringValue()).isEqualTo("2");
+		assertThat(incrementer.nextLongValue()).isEqualTo(3L);
+		assertThat(incrementer.nextLongValue()).isEqualTo(4L);
+		assertThat(incrementer.nextLongValue()).isEqualTo(5L);
+		verify(delegate, times(2)).nextLongValue();
+		assertThat(incrementer.nextLongValue()).isEqualTo(6L);
+		verify(delegate, times(3)).nextLongValue();
+	}
+
+	@Test
+	public void testGapsFromOtherIncrementersAreAllowed() {
+		DataFieldMaxValueIncrementer delegate = mock(DataFieldMaxValueIncrementer.class);
+		when(delegate.nextLongValue()).thenReturn(1L, 101L, 300L);
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(
+				delegate, 2);
+
+		assertThat(incrementer.nextLongValue()).isEqualTo(1L);
+		assertThat(incrementer.nextLongValue()).isEqualTo(2L);
+		assertThat(incrementer.nextLongValue()).isEqualTo(101L);
+		assertThat(incrementer.nextLongValue()).isEqualTo(102L);
+		assertThat(incrementer.nextLongValue()).isEqualTo(300L);
+	}
+
+	@Test
+	public void testSequenceIncrementedByLessThanBlockSizeIsRejectedOnFirstValue() {
+		DataFieldMaxValueIncrementer delegate = mock(DataFieldMaxValueIncrementer.class);
+		when(delegate.nextLongValue()).thenReturn(1L, 2L);
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(
+				delegate, 50);
+
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(incrementer::nextLongValue)
+				.withMessageContaining("must be incremented by at least the block size");
+	}
+
+	@Test
+	public void testOverlappingBlockIsRejected() {
+		DataFieldMaxValueIncrementer delegate = mock(DataFieldMaxValueIncrementer.class);
+		when(delegate.nextLongValue()).thenReturn(1L, 51L, 60L);
+		BlockAllocatingMaxValueIncrementer incrementer = new BlockAllocatingMaxValueIncrementer(
+				delegate, 50);
+		for (int i = 0; i < 100; i++) {
+			incrementer.nextLongValue();
+		}
+
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(incrementer::nextLongValue)
+				.withMessageContaining("must be incremented by at least the block size");
+	}
+
+	@Test
+	public void testInvalidBlockSize() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> new BlockAllocatingMaxValueIncrementer(
+						mock(DataFieldMaxValueIncrementer.class), 0));
+	}
+
+}
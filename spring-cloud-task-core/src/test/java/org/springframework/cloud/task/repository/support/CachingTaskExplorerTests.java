@@ -0,0 +1,251 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExplorer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Glenn Renfro
+ */
+public class CachingTaskExplorerTests {
+
+	private SimpleMeterRegistry simpleMeterRegistry;
+
+	private TaskExplorer delegate;
+
+	private CachingTaskExplorer taskExplorer;
+
+	@BeforeEach
+	public void setup() {
+		this.simpleMeterRegistry = new SimpleMeterRegistry();
+		Metrics.addRegistry(this.simpleMeterRegistry);
+		this.delegate = mock(TaskExplorer.class);
+		this.taskExplorer = new CachingTaskExplorer(this.delegate);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		Metrics.removeRegistry(this.simpleMeterRegistry);
+	}
+
+	@Test
+	public void testEndedTaskExecutionCached() {
+		when(this.delegate.getTaskExecution(1)).thenReturn(taskExecution(1, new Date()));
+
+		assertThat(this.taskExplorer.getTaskExecution(1).getTaskName())
+				.isEqualTo("foo");
+		assertThat(this.taskExplorer.getTaskExecution(1).getTaskName())
+				.isEqualTo("foo");
+
+		verify(this.delegate).getTaskExecution(1);
+		assertThat(cacheGets("taskExecutions", "hit")).isEqualTo(1);
+		assertThat(cacheGets("taskExecutions", "miss")).isEqualTo(1);
+	}
+
+	@Test
+	public void testRunningTaskExecutionBypassesCache() {
+		when(this.delegate.getTaskExecution(1)).thenReturn(taskExecution(1, null));
+
+		this.taskExplorer.getTaskExecution(1);
+		this.taskExplorer.getTaskExecution(1);
+
+		verify(this.delegate, times(2)).getTaskExecution(1);
+		assertThat(cacheGets("taskExecutions", "hit")).isEqualTo(0);
+	}
+
+	@Test
+	public void testMissingTaskExecutionNotCached() {
+		assertThat(this.taskExplorer.getTaskExecution(1)).isNull();
+		assertThat(this.taskExplorer.getTaskExecution(1)).isNull();
+
+		verify(this.delegate, times(2)).getTaskExecution(1);
+	}
+
+	@Test
+	public void testCachedTaskExecutionCopied() {
+		when(this.delegate.getTaskExecution(1)).thenReturn(taskExecution(1, new Date()));
+
+		this.taskExplorer.getTaskExecution(1).setTaskName("bar");
+
+		assertThat(this.taskExplorer.getTaskExecution(1).getTaskName())
+				.isEqualTo("foo");
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() {
+		this.taskExplorer = new CachingTaskExplorer(this.delegate, 2,
+				Duration.ofMinutes(1));
+		for (long id = 1; id <= 3; id++) {
+			when(this.delegate.getTaskExecution(id))
+					.thenReturn(taskExecution(id, new Date()));
+		}
+
+		this.taskExplorer.getTaskExecution(1);
+		this.taskExplorer.getTaskExecution(2);
+		this.taskExplorer.getTaskExecution(1);
+		this.taskExplorer.getTaskExecution(3);
+		this.taskExplorer.getTaskExecution(1);
+		this.taskExplorer.getTaskExecution(2);
+
+		verify(this.delegate).getTaskExecution(1);
+		verify(this.delegate, times(2)).getTaskExecution(2);
+		verify(this.delegate).getTaskExecution(3);
+	}
+
+	@Test
+	public void testEntriesExpire() throws InterruptedException {
+		this.taskExplorer = new CachingTaskExplorer(this.delegate, 10,
+				Duration.ofMillis(1));
+		when(this.delegate.getTaskNames()).thenReturn(Arrays.asList("foo", "bar"));
+
+		assertThat(this.taskExplorer.getTaskNames()).containsExactly("foo", "bar");
+		Thread.sleep(10);
+		assertThat(this.taskExplorer.getTaskNames()).containsExactly("foo", "bar");
+
+		verify(this.delegate, times(2)).getTaskNames();
+	}
+
+	@Test
+	public void testTaskNamesCached() {
+		when(this.delegate.getTaskNames()).thenReturn(Arrays.asList("foo", "bar"));
+
+		this.taskExplorer.getTaskNames();
+		assertThat(this.taskExplorer.getTaskNames()).containsExactly("foo", "bar");
+
+		verify(this.delegate).getTaskNames();
+		assertThat(cacheGets("taskNames", "hit")).isEqualTo(1);
+	}
+
+	@Test
+	public void testClear() {
+		when(this.delegate.getTaskNames()).thenReturn(Collections.singletonList("foo"));
+
+		this.taskExplorer.getTaskNames();
+		this.taskExplorer.clear();
+		this.taskExplorer.getTaskNames();
+
+		verify(this.delegate, times(2)).getTaskNames();
+	}
+
+	@Test
+	public void testTaskExecutionIdByJobExecutionIdCached() {
+		when(this.delegate.getTaskExecutionIdByJobExecutionId(5)).thenReturn(1L);
+
+		assertThat(this.taskExplorer.getTaskExecutionIdByJobExecutionId(5))
+				.isEqualTo(1L);
+		assertThat(this.taskExplorer.getTaskExecutionIdByJobExecutionId(5))
+				.isEqualTo(1L);
+		assertThat(this.taskExplorer.getTaskExecutionIdByJobExecutionId(6)).isNull();
+		assertThat(this.taskExplorer.getTaskExecutionIdByJobExecutionId(6)).isNull();
+
+		verify(this.delegate).getTaskExecutionIdByJobExecutionId(5);
+		verify(this.delegate, times(2)).getTaskExecutionIdByJobExecutionId(6);
+	}
+
+	@Test
+	public void testJobExecutionIdsCachedOnceTaskExecutionEnded() {
+		when(this.delegate.getJobExecutionIdsByTaskExecutionId(1))
+				.thenReturn(new HashSet<>(Arrays.asList(5L, 6L)));
+		when(this.delegate.getJobExecutionIdsByTaskExecutionId(2))
+				.thenReturn(Collections.singleton(7L));
+		when(this.delegate.getTaskExecution(1)).thenReturn(taskExecution(1, new Date()));
+		when(this.delegate.getTaskExecution(2)).thenReturn(taskExecution(2, null));
+
+		for (int i = 0; i < 2; i++) {
+			assertThat(this.taskExplorer.getJobExecutionIdsByTaskExecutionId(1))
+					.containsExactlyInAnyOrder(5L, 6L);
+			assertThat(this.taskExplorer.getJobExecutionIdsByTaskExecutionId(2))
+					.containsExactly(7L);
+		}
+
+		verify(this.delegate).getJobExecutionIdsByTaskExecutionId(1);
+		verify(this.delegate, times(2)).getJobExecutionIdsByTaskExecutionId(2);
+	}
+
+	@Test
+	public void testUncachedQueriesDelegated() {
+		when(this.delegate.getTaskExecutionCount()).thenReturn(3L);
+		when(this.delegate.readYourWrites()).thenReturn(this.delegate);
+
+		assertThat(this.taskExplorer.getTaskExecutionCount()).isEqualTo(3L);
+		assertThat(this.taskExplorer.getTaskExecutionCount()).isEqualTo(3L);
+		assertThat(this.taskExplorer.readYourWrites()).isSameAs(this.delegate);
+
+		verify(this.delegate, times(2)).getTaskExecutionCount();
+	}
+
+	@Test
+	public void testWithTaskRepository() {
+		TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean();
+		SimpleTaskRepository taskRepository = new SimpleTaskRepository(factoryBean);
+		this.taskExplorer = new CachingTaskExplorer(new SimpleTaskExplorer(factoryBean));
+		TaskExecution taskExecution = taskRepository.createTaskExecution("foo");
+		long executionId = taskExecution.getExecutionId();
+
+		assertThat(this.taskExplorer.getTaskExecution(executionId).getEndTime())
+				.isNull();
+		taskRepository.completeTaskExecution(executionId, 0, new Date(), null);
+		assertThat(this.taskExplorer.getTaskExecution(executionId).getEndTime())
+				.isNotNull();
+		assertThat(this.taskExplorer.getTaskExecution(executionId).getExitCode())
+				.isEqualTo(0);
+		assertThat(cacheGets("taskExecutions", "hit")).isEqualTo(1);
+	}
+
+	@Test
+	public void testInvalidSettings() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new CachingTaskExplorer(null));
+		assertThatIllegalArgumentException().isThrownBy(
+				() -> new CachingTaskExplorer(this.delegate, 0, Duration.ofMinutes(1)));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new CachingTaskExplorer(this.delegate, 1, null));
+		assertThatIllegalArgumentException().isThrownBy(
+				() -> new CachingTaskExplorer(this.delegate, 1, Duration.ZERO));
+	}
+
+	private double cacheGets(String cache, String result) {
+		return this.simpleMeterRegistry.get(CachingTaskExplorer.CACHE_GETS_METER)
+				.tag("cache", cache).tag("result", result).counter().count();
+	}
+
+	private static TaskExecution taskExecution(long executionId, Date endTime) {
+		return new TaskExecution(executionId, null, "foo", new Date(), endTime, null,
+				Collections.emptyList(), null, null);
+	}
+
+}
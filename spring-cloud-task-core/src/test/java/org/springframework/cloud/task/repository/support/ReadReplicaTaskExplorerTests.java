@@ -0,0 +1,89 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.cloud.task.repository.TaskRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Glenn Renfro
+ */
+public class ReadReplicaTaskExplorerTests {
+
+	private TaskRepository primaryTaskRepository;
+
+	private TaskRepository replicaTaskRepository;
+
+	private TaskExplorer primaryTaskExplorer;
+
+	private TaskExplorer taskExplorer;
+
+	@BeforeEach
+	public void setup() {
+		TaskExecutionDaoFactoryBean primary = new TaskExecutionDaoFactoryBean();
+		TaskExecutionDaoFactoryBean replica = new TaskExecutionDaoFactoryBean();
+		this.primaryTaskRepository = new SimpleTaskRepository(primary);
+		this.replicaTaskRepository = new SimpleTaskRepository(replica);
+		this.primaryTaskExplorer = new SimpleTaskExplorer(primary);
+		this.taskExplorer = new ReadReplicaTaskExplorer(new SimpleTaskExplorer(replica),
+				this.primaryTaskExplorer);
+	}
+
+	@Test
+	public void testReadsFromReplica() {
+		TaskExecution replicated = this.replicaTaskRepository
+				.createTaskExecution(new TaskExecution(0, null, "foo", new Date(), null,
+						null, Collections.emptyList(), null, null));
+		this.primaryTaskRepository.createTaskExecution("bar");
+
+		assertThat(this.taskExplorer.getTaskExecutionCount()).isEqualTo(1);
+		assertThat(this.taskExplorer.getTaskExecution(replicated.getExecutionId())
+				.getTaskName()).isEqualTo("foo");
+		assertThat(this.taskExplorer.getTaskNames()).containsExactly("foo");
+	}
+
+	@Test
+	public void testReadYourWritesReadsFromPrimary() {
+		TaskExecution written = this.primaryTaskRepository.createTaskExecution("bar");
+
+		assertThat(this.taskExplorer.getTaskExecution(written.getExecutionId()))
+				.isNull();
+		assertThat(this.taskExplorer.readYourWrites()).isSameAs(this.primaryTaskExplorer);
+		assertThat(this.taskExplorer.readYourWrites()
+				.getTaskExecution(written.getExecutionId()).getTaskName())
+						.isEqualTo("bar");
+	}
+
+	@Test
+	public void testExplorersRequired() {
+		assertThatIllegalArgumentException().isThrownBy(
+				() -> new ReadReplicaTaskExplorer(null, this.primaryTaskExplorer));
+		assertThatIllegalArgumentException().isThrownBy(
+				() -> new ReadReplicaTaskExplorer(this.primaryTaskExplorer, null));
+	}
+
+}
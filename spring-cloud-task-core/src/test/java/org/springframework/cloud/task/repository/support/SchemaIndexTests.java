@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that the queries of the task explorer use the indexes created by the schema
+ * scripts.
+ *
+ * @author Glenn Renfro
+ */
+public class SchemaIndexTests {
+
+	private static final int TASK_EXECUTION_COUNT = 200;
+
+	private EmbeddedDatabase dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private EmbeddedDatabaseType databaseType;
+
+	@AfterEach
+	public void tearDown() {
+		if (this.dataSource != null) {
+			this.dataSource.shutdown();
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = { "H2", "HSQL" })
+	public void taskNameQueriesUseNameIndex(EmbeddedDatabaseType databaseType) {
+		createDatabase(databaseType);
+		assertThat(explain("SELECT TASK_EXECUTION_ID FROM TASK_EXECUTION "
+				+ "WHERE TASK_NAME = 'task1' ORDER BY START_TIME DESC"))
+						.contains("TASK_EXEC_NAME_IX");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = { "H2", "HSQL" })
+	public void startTimeRangeUsesStartIndex(EmbeddedDatabaseType databaseType) {
+		createDatabase(databaseType);
+		assertThat(explain("SELECT TASK_EXECUTION_ID FROM TASK_EXECUTION "
+				+ "WHERE START_TIME >= TIMESTAMP '2022-01-01 00:00:00'"))
+						.contains("TASK_EXEC_START_IX");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = { "H2", "HSQL" })
+	public void endTimeRangeUsesEndIndex(EmbeddedDatabaseType databaseType) {
+		createDatabase(databaseType);
+		assertThat(explain("SELECT TASK_EXECUTION_ID FROM TASK_EXECUTION "
+				+ "WHERE END_TIME >= TIMESTAMP '2022-01-01 00:00:00'"))
+						.contains("TASK_EXEC_END_IX");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = { "H2", "HSQL" })
+	public void lastUpdatedRangeUsesUpdatedIndex(EmbeddedDatabaseType databaseType) {
+		createDatabase(databaseType);
+		assertThat(explain("SELECT TASK_EXECUTION_ID FROM TASK_EXECUTION "
+				+ "WHERE LAST_UPDATED >= TIMESTAMP '2022-01-01 00:00:00'"))
+						.contains("TASK_EXEC_UPDATED_IX");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = { "H2", "HSQL" })
+	public void parentExecutionIdUsesParentIndex(EmbeddedDatabaseType databaseType) {
+		createDatabase(databaseType);
+		assertThat(explain("SELECT TASK_EXECUTION_ID FROM TASK_EXECUTION "
+				+ "WHERE PARENT_EXECUTION_ID = 10")).contains("TASK_EXEC_PARENT_IX");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = { "H2", "HSQL" })
+	public void jobExecutionIdUsesBatchIndex(EmbeddedDatabaseType databaseType) {
+		createDatabase(databaseType);
+		assertThat(explain("SELECT TASK_EXECUTION_ID FROM TASK_TASK_BATCH "
+				+ "WHERE JOB_EXECUTION_ID = 10")).contains("TASK_BATCH_JOB_IX");
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = EmbeddedDatabaseType.class, names = { "H2", "HSQL" })
+	public void argumentLookupUsesForeignKeyIndex(EmbeddedDatabaseType databaseType) {
+		createDatabase(databaseType);
+		// H2 and HSQLDB index foreign key columns, so the scripts add no index
+		assertThat(explain("SELECT TASK_EXECUTION_ID, TASK_PARAM FROM "
+				+ "TASK_EXECUTION_PARAMS WHERE TASK_EXECUTION_ID = 10"))
+						.contains("TASK_EXEC_PARAMS_FK");
+	}
+
+	private void createDatabase(EmbeddedDatabaseType databaseType) {
+		this.databaseType = databaseType;
+		this.dataSource = new EmbeddedDatabaseBuilder().setType(databaseType)
+				.setName(UUID.randomUUID().toString())
+				.addScript("classpath:org/springframework/cloud/task/schema-"
+						+ (databaseType == EmbeddedDatabaseType.H2 ? "h2" : "hsqldb")
+						+ ".sql")
+				.build();
+		this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+		List<Object[]> executions = new ArrayList<>();
+		List<Object[]> arguments = new ArrayList<>();
+		List<Object[]> associations = new ArrayList<>();
+		for (long id = 0; id < TASK_EXECUTION_COUNT; id++) {
+			Timestamp startTime = new Timestamp(id * 60_000L);
+			Timestamp endTime = new Timestamp(startTime.getTime() + 30_000L);
+			executions.add(new Object[] { id, startTime, endTime, "task" + (id % 20),
+					id % 10 == 0 ? null : id - id % 10, endTime });
+			arguments.add(new Object[] { id });
+			associations.add(new Object[] { id, id });
+		}
+		this.jdbcTemplate.batchUpdate("INSERT INTO TASK_EXECUTION (TASK_EXECUTION_ID, "
+				+ "START_TIME, END_TIME, TASK_NAME, PARENT_EXECUTION_ID, LAST_UPDATED) "
+				+ "VALUES (?, ?, ?, ?, ?, ?)", executions);
+		this.jdbcTemplate.batchUpdate("INSERT INTO TASK_EXECUTION_PARAMS "
+				+ "(TASK_EXECUTION_ID, TASK_PARAM) VALUES (?, 'arg')", arguments);
+		this.jdbcTemplate.batchUpdate("INSERT INTO TASK_TASK_BATCH (TASK_EXECUTION_ID, "
+				+ "JOB_EXECUTION_ID) VALUES (?, ?)", associations);
+		if (databaseType == EmbeddedDatabaseType.H2) {
+			this.jdbcTemplate.execute("ANALYZE");
+		}
+	}
+
+	private String explain(String query) {
+		String prefix = this.databaseType == EmbeddedDatabaseType.H2 ? "EXPLAIN "
+				: "EXPLAIN PLAN FOR ";
+		return String.join("\n",
+				this.jdbcTemplate.queryForList(prefix + query, String.class));
+	}
+
+}
@@ -30,10 +30,15 @@ import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoCon
 import org.springframework.boot.autoconfigure.jdbc.EmbeddedDataSourceConfiguration;
 import org.springframework.cloud.task.configuration.SimpleTaskAutoConfiguration;
 import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionFilter;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
 import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
+import org.springframework.cloud.task.util.StatementCountingDataSource;
 import org.springframework.cloud.task.util.TaskExecutionCreator;
 import org.springframework.cloud.task.util.TestDBUtils;
 import org.springframework.cloud.task.util.TestVerifierUtils;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -199,6 +204,51 @@ public class SimpleTaskRepositoryJdbcTests {
 		TestVerifierUtils.verifyTaskExecution(expectedTaskExecution, actualTaskExecution);
 	}
 
+	@Test
+	@DirtiesContext
+	public void testCompleteTaskExecutionFromInMemoryState() {
+		TaskExecution expectedTaskExecution = TaskExecutionCreator
+				.createAndStoreTaskExecutionWithParams(this.taskRepository);
+		expectedTaskExecution.setEndTime(new Date());
+		expectedTaskExecution.setExitCode(77);
+		expectedTaskExecution.setExitMessage(UUID.randomUUID().toString());
+		expectedTaskExecution.setErrorMessage(UUID.randomUUID().toString());
+
+		TaskExecution actualTaskExecution = this.taskRepository
+				.completeTaskExecution(expectedTaskExecution);
+
+		TestVerifierUtils.verifyTaskExecution(expectedTaskExecution, actualTaskExecution);
+		TestVerifierUtils.verifyTaskExecution(expectedTaskExecution,
+				TestDBUtils.getTaskExecutionFromDB(this.dataSource,
+						expectedTaskExecution.getExecutionId()));
+	}
+
+	@Test
+	public void testCompleteTaskExecutionFromInMemoryStateIssuesOnlyUpdate() {
+		StatementCountingDataSource countingDataSource = new StatementCountingDataSource(
+				this.dataSource);
+		SimpleTaskRepository simpleTaskRepository = new SimpleTaskRepository(
+				new TaskExecutionDaoFactoryBean(countingDataSource));
+		TaskExecution taskExecution = TaskExecutionCreator
+				.createAndStoreTaskExecutionWithParams(simpleTaskRepository);
+		taskExecution.setEndTime(new Date());
+		taskExecution.setExitCode(0);
+		countingDataSource.reset();
+
+		simpleTaskRepository.completeTaskExecution(taskExecution);
+
+		assertThat(countingDataSource.getExecutionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void testCompleteTaskExecutionFromInMemoryStateWithInvalidId() {
+		TaskExecution taskExecution = new TaskExecution(-1, 0, "invalidTask",
+				new Date(), new Date(), null, Collections.emptyList(), null, null);
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> this.taskRepository.completeTaskExecution(taskExecution))
+				.withMessage("Invalid TaskExecution, ID -1 not found.");
+	}
+
 	@Test
 	@DirtiesContext
 	public void testCreateTaskExecutionNoParamMaxExitDefaultMessageSize() {
@@ -351,6 +401,83 @@ public class SimpleTaskRepositoryJdbcTests {
 		});
 	}
 
+	@Test
+	@DirtiesContext
+	public void testPurgeTaskExecutionsEndedBeforeInChunks() {
+		SimpleTaskRepository simpleTaskRepository = new SimpleTaskRepository(
+				new TaskExecutionDaoFactoryBean(this.dataSource));
+		TaskExecutionDao taskExecutionDao = simpleTaskRepository.getTaskExecutionDao();
+		Date endTime = new Date(System.currentTimeMillis() - 60000);
+		for (int i = 0; i < 5; i++) {
+			long executionId = taskExecutionDao.createTaskExecution("foo", endTime,
+					Collections.singletonList("arg=" + i), null).getExecutionId();
+			taskExecutionDao.completeTaskExecution(executionId, 0, endTime, null);
+		}
+		TaskExecution running = taskExecutionDao.createTaskExecution("foo", endTime,
+				Collections.emptyList(), null);
+
+		TaskExecutionPurgeResult result = simpleTaskRepository
+				.purgeTaskExecutionsEndedBefore(new Date(), 2);
+
+		assertThat(result).isEqualTo(new TaskExecutionPurgeResult(5, 5, 0));
+		assertThat(taskExecutionDao.getTaskExecutionCount()).isEqualTo(1);
+		assertThat(taskExecutionDao.getTaskExecution(running.getExecutionId()))
+				.isNotNull();
+	}
+
+	@Test
+	@DirtiesContext
+	public void testArchiveTaskExecutionsEndedBeforeInChunks() {
+		SimpleTaskRepository simpleTaskRepository = new SimpleTaskRepository(
+				new TaskExecutionDaoFactoryBean(this.dataSource));
+		TaskExecutionDao taskExecutionDao = simpleTaskRepository.getTaskExecutionDao();
+		Date endTime = new Date(System.currentTimeMillis() - 60000);
+		for (int i = 0; i < 5; i++) {
+			long executionId = taskExecutionDao.createTaskExecution("foo", endTime,
+					Collections.singletonList("arg=" + i), null).getExecutionId();
+			taskExecutionDao.completeTaskExecution(executionId, 0, endTime, null);
+		}
+		taskExecutionDao.createTaskExecution("foo", endTime, Collections.emptyList(),
+				null);
+
+		TaskExecutionPurgeResult result = simpleTaskRepository
+				.archiveTaskExecutionsEndedBefore(new Date(), 2);
+
+		assertThat(result).isEqualTo(new TaskExecutionPurgeResult(5, 5, 0));
+		assertThat(taskExecutionDao.getTaskExecutionCount()).isEqualTo(1);
+		TaskExecutionFilter filter = new TaskExecutionFilter();
+		filter.setIncludeArchived(true);
+		assertThat(taskExecutionDao.findTaskExecutions(filter, PageRequest.of(0, 10))
+				.getTotalElements()).isEqualTo(6);
+	}
+
+	@Test
+	@DirtiesContext
+	public void testPurgeTaskExecutionsBeyondLatest() {
+		SimpleTaskRepository simpleTaskRepository = new SimpleTaskRepository(
+				new TaskExecutionDaoFactoryBean(this.dataSource));
+		TaskExecutionDao taskExecutionDao = simpleTaskRepository.getTaskExecutionDao();
+		long latestFoo = 0;
+		for (int i = 0; i < 6; i++) {
+			String taskName = (i < 4) ? "foo" : "bar";
+			long executionId = taskExecutionDao.createTaskExecution(taskName,
+					new Date(i * 1000L), Collections.emptyList(), null).getExecutionId();
+			taskExecutionDao.completeTaskExecution(executionId, 0, new Date(), null);
+			if (i == 3) {
+				latestFoo = executionId;
+			}
+		}
+
+		TaskExecutionPurgeResult result = simpleTaskRepository
+				.purgeTaskExecutionsBeyondLatest(1, 1);
+
+		assertThat(result.getTaskExecutions()).isEqualTo(4);
+		assertThat(taskExecutionDao.getTaskExecutionCountByTaskName("foo")).isEqualTo(1);
+		assertThat(taskExecutionDao.getTaskExecutionCountByTaskName("bar")).isEqualTo(1);
+		assertThat(taskExecutionDao.getLatestTaskExecutionForTaskName("foo")
+				.getExecutionId()).isEqualTo(latestFoo);
+	}
+
 	private TaskExecution completeTaskExecution(TaskExecution expectedTaskExecution,
 			TaskRepository taskRepository) {
 		return taskRepository.completeTaskExecution(
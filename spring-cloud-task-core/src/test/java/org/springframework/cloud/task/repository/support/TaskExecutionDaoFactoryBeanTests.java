@@ -16,24 +16,40 @@
 
 package org.springframework.cloud.task.repository.support;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Date;
+
 import javax.sql.DataSource;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import org.springframework.cloud.task.repository.TaskExecution;
 import org.springframework.cloud.task.repository.dao.JdbcTaskExecutionDao;
+import org.springframework.cloud.task.repository.dao.JournalTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.MapTaskExecutionDao;
 import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.incrementer.HsqlMaxValueIncrementer;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.StreamUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 
 /**
  * @author Michael Minella
@@ -79,6 +95,20 @@ public class TaskExecutionDaoFactoryBeanTests {
 		assertThat(taskExecutionDao == taskExecutionDao2).isTrue();
 	}
 
+	@Test
+	public void testJournalTaskExecutionDao(@TempDir Path directory) throws Exception {
+		TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean();
+		factoryBean.setJournalDirectory(directory);
+		TaskExecutionDao taskExecutionDao = factoryBean.getObject();
+
+		assertThat(taskExecutionDao).isInstanceOf(JournalTaskExecutionDao.class);
+		assertThat(factoryBean.getObject()).isSameAs(taskExecutionDao);
+
+		factoryBean.destroy();
+		assertThatIllegalStateException().isThrownBy(() -> taskExecutionDao
+				.createTaskExecution("foo", new Date(), Collections.emptyList(), null));
+	}
+
 	@Test
 	public void testDefaultDataSourceConfiguration() throws Exception {
 		this.context = new AnnotationConfigApplicationContext(
@@ -112,6 +142,78 @@ public class TaskExecutionDaoFactoryBeanTests {
 				.isEqualTo("foo_");
 	}
 
+	@Test
+	public void testIdBlockSizeWithSequence() throws Exception {
+		EmbeddedDatabase dataSource = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2).generateUniqueName(true)
+				.addScript("classpath:org/springframework/cloud/task/schema-h2.sql")
+				.build();
+		try {
+			ClassPathResource template = new ClassPathResource(
+					"org/springframework/cloud/task/id-block/increment-task-seq-h2.sql");
+			String script = StreamUtils
+					.copyToString(template.getInputStream(), StandardCharsets.UTF_8)
+					.replace("%PREFIX%", "TASK_").replace("%BLOCK_SIZE%", "50");
+			new ResourceDatabasePopulator(
+					new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)))
+							.execute(dataSource);
+			TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean(
+					dataSource);
+			factoryBean.setIdBlockSize(50);
+			JdbcTaskExecutionDao taskExecutionDao = (JdbcTaskExecutionDao) factoryBean
+					.getObject();
+
+			assertThat(ReflectionTestUtils.getField(taskExecutionDao, "taskIncrementer"))
+					.isInstanceOf(BlockAllocatingMaxValueIncrementer.class);
+			TaskExecution first = taskExecutionDao.createTaskExecution("foo", new Date(),
+					Collections.emptyList(), null);
+			TaskExecution second = taskExecutionDao.createTaskExecution("foo",
+					new Date(), Collections.emptyList(), null);
+			assertThat(second.getExecutionId()).isEqualTo(first.getExecutionId() + 1);
+
+			Long nextSequenceValue = new JdbcTemplate(dataSource)
+					.queryForObject("select next value for TASK_SEQ", Long.class);
+			// the first reservation also fetches the start of the next block
+			assertThat(nextSequenceValue).isEqualTo(first.getExecutionId() + 100);
+		}
+		finally {
+			dataSource.shutdown();
+		}
+	}
+
+	@Test
+	public void testIdBlockSizeIgnoredWithIdentityColumnTable() throws Exception {
+		EmbeddedDatabase dataSource = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.HSQL).generateUniqueName(true)
+				.addScript("classpath:org/springframework/cloud/task/schema-hsqldb.sql")
+				.build();
+		try {
+			TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean(
+					dataSource);
+			factoryBean.setIdBlockSize(50);
+			JdbcTaskExecutionDao taskExecutionDao = (JdbcTaskExecutionDao) factoryBean
+					.getObject();
+
+			assertThat(ReflectionTestUtils.getField(taskExecutionDao, "taskIncrementer"))
+					.isInstanceOf(HsqlMaxValueIncrementer.class)
+					.hasFieldOrPropertyWithValue("cacheSize", 1);
+			TaskExecution first = taskExecutionDao.createTaskExecution("foo", new Date(),
+					Collections.emptyList(), null);
+			TaskExecution second = taskExecutionDao.createTaskExecution("foo",
+					new Date(), Collections.emptyList(), null);
+			assertThat(second.getExecutionId()).isEqualTo(first.getExecutionId() + 1);
+		}
+		finally {
+			dataSource.shutdown();
+		}
+	}
+
+	@Test
+	public void testInvalidIdBlockSize() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> new TaskExecutionDaoFactoryBean().setIdBlockSize(0));
+	}
+
 	@Configuration
 	public static class DefaultDataSourceConfiguration {
 
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionWatermark;
+import org.springframework.cloud.task.repository.TaskExplorer;
+import org.springframework.cloud.task.repository.TaskRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Glenn Renfro
+ */
+public class TaskExecutionUpdatesIteratorTests {
+
+	private TaskRepository taskRepository;
+
+	private TaskExplorer taskExplorer;
+
+	private TaskExecutionWatermark start;
+
+	@BeforeEach
+	public void setup() {
+		TaskExecutionDaoFactoryBean factoryBean = new TaskExecutionDaoFactoryBean();
+		this.taskRepository = new SimpleTaskRepository(factoryBean);
+		this.taskExplorer = new SimpleTaskExplorer(factoryBean);
+		this.start = TaskExecutionWatermark
+				.since(new Date(System.currentTimeMillis() - 1000));
+	}
+
+	@Test
+	public void testIteratesAcrossPages() {
+		List<Long> created = createTaskExecutions(5);
+		TaskExecutionUpdatesIterator iterator = new TaskExecutionUpdatesIterator(
+				this.taskExplorer, this.start, 2);
+
+		assertThat(readAll(iterator)).containsExactlyElementsOf(created);
+		assertThat(iterator.getWatermark().getExecutionId()).isEqualTo(created.get(4));
+		assertThatExceptionOfType(NoSuchElementException.class)
+				.isThrownBy(iterator::next);
+	}
+
+	@Test
+	public void testPollsForNewUpdates() throws InterruptedException {
+		List<Long> created = createTaskExecutions(2);
+		TaskExecutionUpdatesIterator iterator = new TaskExecutionUpdatesIterator(
+				this.taskExplorer, this.start, 10);
+		assertThat(readAll(iterator)).containsExactlyElementsOf(created);
+
+		// let the update time move past the watermark
+		Thread.sleep(10);
+		this.taskRepository.completeTaskExecution(created.get(0), 0, new Date(), null);
+
+		assertThat(iterator.hasNext()).isTrue();
+		TaskExecution completed = iterator.next();
+		assertThat(completed.getExecutionId()).isEqualTo(created.get(0));
+		assertThat(completed.getEndTime()).isNotNull();
+		assertThat(iterator.hasNext()).isFalse();
+	}
+
+	@Test
+	public void testResumesFromWatermark() {
+		List<Long> created = createTaskExecutions(3);
+		TaskExecutionUpdatesIterator iterator = new TaskExecutionUpdatesIterator(
+				this.taskExplorer, this.start, 10);
+		iterator.next();
+
+		TaskExecutionUpdatesIterator resumed = new TaskExecutionUpdatesIterator(
+				this.taskExplorer, iterator.getWatermark(), 10);
+
+		assertThat(readAll(resumed)).containsExactlyElementsOf(created.subList(1, 3));
+	}
+
+	@Test
+	public void testFindTaskExecutionsUpdatedSince() {
+		List<Long> created = createTaskExecutions(3);
+
+		assertThat(this.taskExplorer.findTaskExecutionsUpdatedSince(
+				this.start.getLastUpdated(), 2)).extracting(TaskExecution::getExecutionId)
+						.containsExactlyElementsOf(created.subList(0, 2));
+		assertThat(this.taskExplorer.findTaskExecutionsUpdatedSince(
+				new Date(System.currentTimeMillis() + 60000), 2)).isEmpty();
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		assertThatIllegalArgumentException().isThrownBy(
+				() -> new TaskExecutionUpdatesIterator(null, this.start, 1));
+		assertThatIllegalArgumentException().isThrownBy(
+				() -> new TaskExecutionUpdatesIterator(this.taskExplorer, null, 1));
+		assertThatIllegalArgumentException().isThrownBy(
+				() -> new TaskExecutionUpdatesIterator(this.taskExplorer, this.start, 0));
+	}
+
+	private List<Long> createTaskExecutions(int count) {
+		List<Long> created = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			created.add(this.taskRepository.createTaskExecution("foo").getExecutionId());
+		}
+		return created;
+	}
+
+	private static List<Long> readAll(TaskExecutionUpdatesIterator iterator) {
+		List<Long> executionIds = new ArrayList<>();
+		while (iterator.hasNext()) {
+			executionIds.add(iterator.next().getExecutionId());
+		}
+		return executionIds;
+	}
+
+}
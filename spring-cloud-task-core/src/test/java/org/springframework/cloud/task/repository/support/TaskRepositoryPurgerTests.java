@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.cloud.task.repository.TaskRepository;
+import org.springframework.cloud.task.repository.dao.TaskExecutionDao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author Glenn Renfro
+ */
+public class TaskRepositoryPurgerTests {
+
+	private SimpleMeterRegistry simpleMeterRegistry;
+
+	private SimpleTaskRepository taskRepository;
+
+	private TaskRepositoryPurger purger;
+
+	@BeforeEach
+	public void setup() {
+		this.simpleMeterRegistry = new SimpleMeterRegistry();
+		Metrics.addRegistry(this.simpleMeterRegistry);
+		this.taskRepository = new SimpleTaskRepository(new TaskExecutionDaoFactoryBean());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (this.purger != null) {
+			this.purger.stop();
+		}
+		Metrics.removeRegistry(this.simpleMeterRegistry);
+	}
+
+	@Test
+	public void testPurgeRecordsRemovedRows() {
+		TaskExecutionDao taskExecutionDao = this.taskRepository.getTaskExecutionDao();
+		Date endTime = new Date(System.currentTimeMillis() - 60000);
+		for (int i = 0; i < 3; i++) {
+			long executionId = taskExecutionDao.createTaskExecution("foo", endTime,
+					Arrays.asList("foo=" + i, "bar=" + i), null).getExecutionId();
+			taskExecutionDao.completeTaskExecution(executionId, 0, endTime, null);
+		}
+		taskExecutionDao.createTaskExecution("foo", endTime, Collections.emptyList(),
+				null);
+		this.purger = new TaskRepositoryPurger(this.taskRepository);
+		this.purger.setRetention(Duration.ofSeconds(1));
+		double executionsBefore = rowsCount("EXECUTION");
+		double paramsBefore = rowsCount("EXECUTION_PARAMS");
+
+		TaskExecutionPurgeResult result = this.purger.purge();
+
+		assertThat(result).isEqualTo(new TaskExecutionPurgeResult(3, 6, 0));
+		assertThat(taskExecutionDao.getTaskExecutionCount()).isEqualTo(1);
+		assertThat(rowsCount("EXECUTION") - executionsBefore).isEqualTo(3);
+		assertThat(rowsCount("EXECUTION_PARAMS") - paramsBefore).isEqualTo(6);
+	}
+
+	@Test
+	public void testPurgeAppliesBothPolicies() {
+		TaskRepository taskRepository = mock(TaskRepository.class);
+		when(taskRepository.purgeTaskExecutionsEndedBefore(any(Date.class), eq(10)))
+				.thenReturn(new TaskExecutionPurgeResult(1, 2, 3));
+		when(taskRepository.purgeTaskExecutionsBeyondLatest(5, 10))
+				.thenReturn(new TaskExecutionPurgeResult(4, 5, 6));
+		this.purger = new TaskRepositoryPurger(taskRepository);
+		this.purger.setRetention(Duration.ofDays(1));
+		this.purger.setMaxExecutionsPerTaskName(5);
+		this.purger.setChunkSize(10);
+
+		assertThat(this.purger.purge())
+				.isEqualTo(new TaskExecutionPurgeResult(5, 7, 9));
+		verify(taskRepository).purgeTaskExecutionsBeyondLatest(5, 10);
+	}
+
+	@Test
+	public void testArchiveRecordsMovedRows() {
+		TaskExecutionDao taskExecutionDao = this.taskRepository.getTaskExecutionDao();
+		Date endTime = new Date(System.currentTimeMillis() - 60000);
+		for (int i = 0; i < 2; i++) {
+			long executionId = taskExecutionDao.createTaskExecution("foo", endTime,
+					Collections.singletonList("foo=" + i), null).getExecutionId();
+			taskExecutionDao.completeTaskExecution(executionId, 0, endTime, null);
+		}
+		this.purger = new TaskRepositoryPurger(this.taskRepository);
+		this.purger.setRetention(Duration.ofSeconds(1));
+		this.purger.setArchive(true);
+		double archivedBefore = archivedRowsCount("EXECUTION");
+		double purgedBefore = rowsCount("EXECUTION");
+
+		TaskExecutionPurgeResult result = this.purger.purge();
+
+		assertThat(result).isEqualTo(new TaskExecutionPurgeResult(2, 2, 0));
+		assertThat(taskExecutionDao.getTaskExecutionCount()).isEqualTo(0);
+		assertThat(archivedRowsCount("EXECUTION") - archivedBefore).isEqualTo(2);
+		assertThat(rowsCount("EXECUTION") - purgedBefore).isEqualTo(0);
+	}
+
+	@Test
+	public void testArchiveWithMaxExecutionsPerTaskNameFails() {
+		TaskRepository taskRepository = mock(TaskRepository.class);
+		this.purger = new TaskRepositoryPurger(taskRepository);
+		this.purger.setArchive(true);
+		this.purger.setMaxExecutionsPerTaskName(5);
+
+		assertThatIllegalStateException().isThrownBy(this.purger::purge);
+		verifyNoInteractions(taskRepository);
+	}
+
+	@Test
+	public void testPurgeWithoutPolicyRemovesNothing() {
+		TaskRepository taskRepository = mock(TaskRepository.class);
+		this.purger = new TaskRepositoryPurger(taskRepository);
+
+		assertThat(this.purger.purge()).isEqualTo(TaskExecutionPurgeResult.NONE);
+		verifyNoInteractions(taskRepository);
+	}
+
+	@Test
+	public void testScheduledPurge() throws InterruptedException {
+		TaskExecutionDao taskExecutionDao = this.taskRepository.getTaskExecutionDao();
+		long executionId = taskExecutionDao.createTaskExecution("foo", new Date(0),
+				Collections.emptyList(), null).getExecutionId();
+		taskExecutionDao.completeTaskExecution(executionId, 0, new Date(0), null);
+		this.purger = new TaskRepositoryPurger(this.taskRepository);
+		this.purger.setRetention(Duration.ofDays(1));
+		this.purger.setInterval(Duration.ofMillis(10));
+
+		this.purger.start();
+		assertThat(this.purger.isRunning()).isTrue();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (taskExecutionDao.getTaskExecutionCount() > 0
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		this.purger.stop();
+
+		assertThat(taskExecutionDao.getTaskExecutionCount()).isEqualTo(0);
+		assertThat(this.purger.isRunning()).isFalse();
+	}
+
+	@Test
+	public void testInvalidSettings() {
+		this.purger = new TaskRepositoryPurger(this.taskRepository);
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.purger.setMaxExecutionsPerTaskName(0));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.purger.setChunkSize(0));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.purger.setInterval(Duration.ZERO));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.purger.setRetention(Duration.ofSeconds(-1)));
+	}
+
+	private double rowsCount(String table) {
+		return this.simpleMeterRegistry.get(TaskRepositoryPurger.ROWS_METER)
+				.tag("table", table).counter().count();
+	}
+
+	private double archivedRowsCount(String table) {
+		return this.simpleMeterRegistry.get(TaskRepositoryPurger.ARCHIVE_ROWS_METER)
+				.tag("table", table).counter().count();
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.repository.support;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.task.repository.TaskExecution;
+import org.springframework.cloud.task.repository.TaskExecutionPurgeResult;
+import org.springframework.cloud.task.repository.TaskRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+/**
+ * @author Glenn Renfro
+ */
+public class WriteBehindTaskRepositoryTests {
+
+	private SimpleTaskRepository delegate;
+
+	private WriteBehindTaskRepository taskRepository;
+
+	private SimpleMeterRegistry simpleMeterRegistry;
+
+	@BeforeEach
+	public void setup() {
+		this.simpleMeterRegistry = new SimpleMeterRegistry();
+		Metrics.addRegistry(this.simpleMeterRegistry);
+		this.delegate = new SimpleTaskRepository(new TaskExecutionDaoFactoryBean());
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (this.taskRepository != null) {
+			this.taskRepository.destroy();
+		}
+		Metrics.removeRegistry(this.simpleMeterRegistry);
+	}
+
+	@Test
+	public void testStartIsPersistedOnFlush() {
+		this.taskRepository = new WriteBehindTaskRepository(this.delegate);
+		TaskExecution created = this.taskRepository.createTaskExecution();
+
+		TaskExecution started = this.taskRepository.startTaskExecution(
+				created.getExecutionId(), "foo", new Date(),
+				Collections.singletonList("bar"), "baz");
+		this.taskRepository.flush();
+
+		TaskExecution stored = this.delegate.getTaskExecutionDao()
+				.getTaskExecution(created.getExecutionId());
+		assertThat(started.getTaskName()).isEqualTo("foo");
+		assertThat(stored.getTaskName()).isEqualTo("foo");
+		assertThat(stored.getArguments()).containsExactly("bar");
+		assertThat(stored.getExternalExecutionId()).isEqualTo("baz");
+	}
+
+	@Test
+	public void testCompleteFlushesPendingWrites() {
+		this.taskRepository = new WriteBehindTaskRepository(this.delegate);
+		TaskExecution created = this.taskRepository.createTaskExecution();
+		TaskExecution started = this.taskRepository.startTaskExecution(
+				created.getExecutionId(), "foo", new Date(), Collections.emptyList(),
+				null);
+		this.taskRepository.updateExternalExecutionId(created.getExecutionId(), "baz");
+		started.setEndTime(new Date());
+		started.setExitCode(0);
+
+		this.taskRepository.completeTaskExecution(started);
+
+		TaskExecution stored = this.delegate.getTaskExecutionDao()
+				.getTaskExecution(created.getExecutionId());
+		assertThat(stored.getTaskName()).isEqualTo("foo");
+		assertThat(stored.getExternalExecutionId()).isEqualTo("baz");
+		assertThat(stored.getExitCode()).isEqualTo(0);
+	}
+
+	@Test
+	public void testPurgeFlushesPendingWrites() {
+		this.taskRepository = new WriteBehindTaskRepository(this.delegate);
+		TaskExecution created = this.taskRepository.createTaskExecution();
+		this.taskRepository.startTaskExecution(created.getExecutionId(), "foo",
+				new Date(), Collections.emptyList(), null);
+
+		TaskExecutionPurgeResult result = this.taskRepository
+				.purgeTaskExecutionsBeyondLatest(1, 10);
+
+		assertThat(result).isEqualTo(TaskExecutionPurgeResult.NONE);
+		assertThat(this.delegate.getTaskExecutionDao()
+				.getTaskExecution(created.getExecutionId()).getTaskName())
+						.isEqualTo("foo");
+	}
+
+	@Test
+	public void testFailedWriteIsReportedOnFlush() {
+		TaskRepository failingRepository = mock(TaskRepository.class);
+		doThrow(new IllegalStateException("expected")).when(failingRepository)
+				.updateExternalExecutionId(anyLong(), anyString());
+		this.taskRepository = new WriteBehindTaskRepository(failingRepository);
+
+		this.taskRepository.updateExternalExecutionId(1, "foo");
+
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(this.taskRepository::flush)
+				.withRootCauseInstanceOf(IllegalStateException.class)
+				.withMessage("Failed to persist a pending task repository write");
+	}
+
+	@Test
+	public void testCompletionIsPersistedAfterFailedStart() {
+		SimpleTaskRepository failingRepository = spy(this.delegate);
+		doThrow(new IllegalStateException("expected")).when(failingRepository)
+				.startTaskExecution(anyLong(), any(), any(), anyList(), any(), any());
+		this.taskRepository = new WriteBehindTaskRepository(failingRepository);
+		TaskExecution created = this.taskRepository.createTaskExecution();
+		this.taskRepository.startTaskExecution(created.getExecutionId(), "foo",
+				new Date(), Collections.emptyList(), null);
+		Date endTime = new Date();
+
+		assertThatExceptionOfType(IllegalStateException.class)
+				.isThrownBy(() -> this.taskRepository.completeTaskExecution(
+						created.getExecutionId(), 0, endTime, "done"))
+				.withMessage("Failed to persist a pending task repository write");
+
+		TaskExecution stored = this.delegate.getTaskExecutionDao()
+				.getTaskExecution(created.getExecutionId());
+		assertThat(stored.getEndTime()).isEqualTo(endTime);
+		assertThat(stored.getExitCode()).isEqualTo(0);
+		assertThat(this.delegate.getTaskExecutionDao().getRunningTaskExecutionCount())
+				.isZero();
+	}
+
+	@Test
+	public void testQueueDepthAndLagMetrics() throws Exception {
+		TaskRepository blockingRepository = mock(TaskRepository.class);
+		CountDownLatch writeStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			writeStarted.countDown();
+			release.await();
+			return null;
+		}).when(blockingRepository).updateExternalExecutionId(anyLong(), anyString());
+		this.taskRepository = new WriteBehindTaskRepository(blockingRepository, 10);
+
+		this.taskRepository.updateExternalExecutionId(1, "foo");
+		assertThat(writeStarted.await(10, TimeUnit.SECONDS)).isTrue();
+		this.taskRepository.updateExternalExecutionId(2, "bar");
+		Thread.sleep(20);
+
+		assertThat(this.simpleMeterRegistry
+				.get(WriteBehindTaskRepository.QUEUE_DEPTH_METER).gauge().value())
+						.isEqualTo(1);
+		assertThat(this.simpleMeterRegistry.get(WriteBehindTaskRepository.LAG_METER)
+				.gauge().value()).isGreaterThanOrEqualTo(20);
+
+		release.countDown();
+		this.taskRepository.flush();
+		assertThat(this.taskRepository.getQueueDepth()).isEqualTo(0);
+		assertThat(this.taskRepository.getLagMillis()).isEqualTo(0);
+	}
+
+	@Test
+	public void testMetricsOfSeveralInstances() {
+		int gauges = this.simpleMeterRegistry
+				.find(WriteBehindTaskRepository.QUEUE_DEPTH_METER).gauges().size();
+		WriteBehindTaskRepository otherRepository = new WriteBehindTaskRepository(
+				this.delegate);
+		this.taskRepository = new WriteBehindTaskRepository(this.delegate);
+
+		assertThat(this.simpleMeterRegistry
+				.find(WriteBehindTaskRepository.QUEUE_DEPTH_METER).gauges())
+						.hasSize(gauges + 2);
+		assertThat(this.simpleMeterRegistry.find(WriteBehindTaskRepository.LAG_METER)
+				.gauges()).hasSize(gauges + 2);
+
+		otherRepository.destroy();
+
+		assertThat(this.simpleMeterRegistry
+				.find(WriteBehindTaskRepository.QUEUE_DEPTH_METER).gauges())
+						.hasSize(gauges + 1);
+		assertThat(this.simpleMeterRegistry.find(WriteBehindTaskRepository.LAG_METER)
+				.gauges()).hasSize(gauges + 1);
+	}
+
+	@Test
+	public void testInvalidQueueCapacity() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> new WriteBehindTaskRepository(this.delegate, 0));
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.task.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} decorator that counts the connections borrowed and the statements
+ * executed against the database, so tests can assert on the number of round trips an
+ * operation requires.
+ *
+ * @author Glenn Renfro
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+	private final AtomicInteger connectionCount = new AtomicInteger();
+
+	private final AtomicInteger executionCount = new AtomicInteger();
+
+	public StatementCountingDataSource(DataSource targetDataSource) {
+		super(targetDataSource);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		this.connectionCount.incrementAndGet();
+		return countingProxy(super.getConnection(), Connection.class);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password)
+			throws SQLException {
+		this.connectionCount.incrementAndGet();
+		return countingProxy(super.getConnection(username, password), Connection.class);
+	}
+
+	/**
+	 * @return the number of connections borrowed since the last reset.
+	 */
+	public int getConnectionCount() {
+		return this.connectionCount.get();
+	}
+
+	/**
+	 * @return the number of statement executions (including batch executions) since the
+	 * last reset.
+	 */
+	public int getExecutionCount() {
+		return this.executionCount.get();
+	}
+
+	/**
+	 * Resets the connection and execution counters.
+	 */
+	public void reset() {
+		this.connectionCount.set(0);
+		this.executionCount.set(0);
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T countingProxy(T target, Class<T> type) {
+		return (T) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { type }, (proxy, method, args) -> {
+					if (method.getName().startsWith("execute")) {
+						this.executionCount.incrementAndGet();
+					}
+					Object result = invoke(target, method, args);
+					if (result instanceof Statement && method.getReturnType()
+							.isInterface() && Statement.class
+									.isAssignableFrom(method.getReturnType())) {
+						return countingProxy(result,
+								(Class<Object>) method.getReturnType());
+					}
+					return result;
+				});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args)
+			throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getTargetException();
+		}
+	}
+
+}
@@ -109,6 +109,10 @@ public class TaskInitializerTests {
 		template.execute("DROP TABLE IF EXISTS TASK_SEQ");
 		template.execute("DROP TABLE IF EXISTS TASK_EXECUTION_PARAMS");
 		template.execute("DROP TABLE IF EXISTS TASK_EXECUTION");
+		template.execute("DROP TABLE IF EXISTS TASK_EXECUTION_SUMMARY");
+		template.execute("DROP TABLE IF EXISTS TASK_TASK_BATCH_ARCHIVE");
+		template.execute("DROP TABLE IF EXISTS TASK_EXECUTION_PARAMS_ARCHIVE");
+		template.execute("DROP TABLE IF EXISTS TASK_EXECUTION_ARCHIVE");
 		template.execute("DROP TABLE IF EXISTS TASK_LOCK");
 		template.execute("DROP TABLE IF EXISTS BATCH_STEP_EXECUTION_SEQ");
 		template.execute("DROP TABLE IF EXISTS BATCH_STEP_EXECUTION_CONTEXT");